@@ -5,8 +5,6 @@ import org.apache.velocity.app.VelocityEngine;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import org.springframework.mail.javamail.JavaMailSenderImpl;
-
 import java.util.Properties;
 
 
@@ -18,13 +16,6 @@ import java.util.Properties;
 @Configuration
 public class MailConfig {
 
-    @Bean(name = "javaMailSender")
-    public JavaMailSenderImpl javaMailSender() {
-
-        return new JavaMailSenderImpl();
-    }
-
-
     @Bean(name = "velocityEngine")
     public VelocityEngine velocityEngine() {
 
@@ -33,7 +24,8 @@ public class MailConfig {
         velocityProperties.put("resource.loader", "class");
         velocityProperties.put("class.resource.loader.class",
             "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-        velocityProperties.put("file.resource.loader.cache", true);
+        velocityProperties.put("class.resource.loader.cache", "true");
+        velocityProperties.put("class.resource.loader.modificationCheckInterval", "-1");
         velocityProperties.put("file.resource.loader.unicode", true);
         velocityProperties.put("input.encoding", "UTF-8");
         velocityProperties.put("output.encoding", "UTF-8");
@@ -0,0 +1,31 @@
+package org.synyx.urlaubsverwaltung.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+
+/**
+ * Configuration to run the scheduled jobs.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /**
+     * Scheduler running the scheduled jobs. Without it, all jobs share a single thread, so long running jobs like the
+     * nightly consistency checks would delay the jobs that run every few seconds, e.g. sending the mails of the outbox.
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${uv.scheduling.threads}") int threads) {
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("scheduling-");
+
+        return scheduler;
+    }
+}
@@ -0,0 +1,32 @@
+package org.synyx.urlaubsverwaltung.config;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+
+/**
+ * Configuration to compute statistics.
+ */
+@Configuration
+public class StatisticsConfig {
+
+    /**
+     * Executor to compute the statistics of multiple persons in parallel. Each thread needs its own database
+     * connection, so the number of threads should not exceed the size of the connection pool.
+     */
+    @Bean(name = "statisticsExecutor")
+    public ThreadPoolTaskExecutor statisticsExecutor(@Value("${uv.statistics.threads}") int threads) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("statistics-");
+
+        return executor;
+    }
+}
@@ -2,11 +2,16 @@
 package org.synyx.urlaubsverwaltung.core.account.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
 
 /**
  * Repository for {@link org.synyx.urlaubsverwaltung.core.account.domain.Account} entities.
@@ -17,4 +22,20 @@ public interface AccountDAO extends JpaRepository<Account, Integer> {
 
     @Query("select x from Account x where YEAR(x.validFrom) = ?1 and x.person = ?2")
     Account getHolidaysAccountByYearAndPerson(int year, Person person);
+
+
+    @Query("select x from Account x where YEAR(x.validFrom) = ?1 and x.person in ?2")
+    List<Account> getHolidaysAccountsByYearAndPersons(int year, List<Person> persons);
+
+
+    List<Account> findByPerson(Person person);
+
+
+    /**
+     * Locks the account with the given id until the end of the current transaction, to serialize changes of data
+     * derived from the account, e.g. its used vacation days.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select x from Account x where x.id = ?1")
+    Account findForUpdateById(Integer id);
 }
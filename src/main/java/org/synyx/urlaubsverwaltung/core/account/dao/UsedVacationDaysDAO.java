@@ -0,0 +1,28 @@
+package org.synyx.urlaubsverwaltung.core.account.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import org.synyx.urlaubsverwaltung.core.account.domain.Account;
+import org.synyx.urlaubsverwaltung.core.account.domain.UsedVacationDays;
+
+import javax.persistence.LockModeType;
+
+
+/**
+ * Repository for {@link org.synyx.urlaubsverwaltung.core.account.domain.UsedVacationDays} entities.
+ */
+public interface UsedVacationDaysDAO extends JpaRepository<UsedVacationDays, Integer> {
+
+    UsedVacationDays findByAccount(Account account);
+
+
+    /**
+     * Unlike {@link #findByAccount(Account)}, reads the latest committed used vacation days, even if the current
+     * transaction started before they were stored.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select x from UsedVacationDays x where x.account = ?1")
+    UsedVacationDays findForUpdateByAccount(Account account);
+}
@@ -0,0 +1,94 @@
+package org.synyx.urlaubsverwaltung.core.account.domain;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Entity;
+import javax.persistence.OneToOne;
+
+
+/**
+ * Number of vacation days of a holidays {@link Account} that are used by waiting or allowed applications for leave,
+ * split into the days before and after April. The numbers are kept up to date whenever an application for leave
+ * changes, so that the left vacation days of an account can be calculated without loading its applications for leave.
+ */
+@Entity
+public class UsedVacationDays extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 4286537462894563287L;
+
+    @OneToOne
+    private Account account;
+
+    private BigDecimal daysBeforeApril;
+
+    private BigDecimal daysAfterApril;
+
+    public UsedVacationDays() {
+
+        /* OK */
+    }
+
+    public UsedVacationDays(Account account, BigDecimal daysBeforeApril, BigDecimal daysAfterApril) {
+
+        this.account = account;
+        this.daysBeforeApril = daysBeforeApril;
+        this.daysAfterApril = daysAfterApril;
+    }
+
+    public Account getAccount() {
+
+        return account;
+    }
+
+
+    public BigDecimal getDaysBeforeApril() {
+
+        return daysBeforeApril;
+    }
+
+
+    public void setDaysBeforeApril(BigDecimal daysBeforeApril) {
+
+        this.daysBeforeApril = daysBeforeApril;
+    }
+
+
+    public BigDecimal getDaysAfterApril() {
+
+        return daysAfterApril;
+    }
+
+
+    public void setDaysAfterApril(BigDecimal daysAfterApril) {
+
+        this.daysAfterApril = daysAfterApril;
+    }
+
+
+    /**
+     * @param  other  used vacation days to compare with
+     *
+     * @return  {@code true} if the given used vacation days have the same number of days before and after April,
+     *          else {@code false}
+     */
+    public boolean hasSameDaysAs(UsedVacationDays other) {
+
+        return daysBeforeApril.compareTo(other.getDaysBeforeApril()) == 0
+            && daysAfterApril.compareTo(other.getDaysAfterApril()) == 0;
+    }
+
+
+    @Override
+    public String toString() {
+
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("account", getAccount())
+            .append("daysBeforeApril", getDaysBeforeApril())
+            .append("daysAfterApril", getDaysAfterApril())
+            .toString();
+    }
+}
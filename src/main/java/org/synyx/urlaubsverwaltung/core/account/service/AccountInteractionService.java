@@ -85,4 +85,34 @@ public interface AccountInteractionService {
      *            to update the remaining vacation days for
      */
     void updateRemainingVacationDays(int year, Person person);
+
+    /**
+     * Updates the stored used vacation days of the {@link Account}s of the given person for all years of the given
+     * period. Has to be called whenever an application for leave within the given period has been created or its status
+     * has changed.
+     *
+     * @param person
+     *            to update the used vacation days for
+     * @param startDate
+     *            of the changed period
+     * @param endDate
+     *            of the changed period
+     */
+    void updateUsedVacationDays(Person person, DateMidnight startDate, DateMidnight endDate);
+
+    /**
+     * Updates the stored used vacation days of all {@link Account}s of the given person, e.g. after the working time of
+     * the person has been changed.
+     *
+     * @param person
+     *            to update the used vacation days for
+     */
+    void updateUsedVacationDays(Person person);
+
+    /**
+     * Recalculates the used vacation days of all {@link Account}s and replaces missing or outdated stored ones.
+     *
+     * @return the number of accounts whose stored used vacation days were missing or outdated
+     */
+    int rebuildUsedVacationDays();
 }
@@ -4,12 +4,16 @@ import org.apache.log4j.Logger;
 import org.joda.time.DateMidnight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -23,14 +27,19 @@ class AccountInteractionServiceImpl implements AccountInteractionService {
 
     private static final Logger LOG = Logger.getLogger(AccountInteractionServiceImpl.class);
 
+    private static final int REBUILD_BATCH_SIZE = 100;
+
     private final AccountService accountService;
     private final VacationDaysService vacationDaysService;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    AccountInteractionServiceImpl(AccountService accountService, VacationDaysService vacationDaysService) {
+    AccountInteractionServiceImpl(AccountService accountService, VacationDaysService vacationDaysService,
+        PlatformTransactionManager transactionManager) {
 
         this.accountService = accountService;
         this.vacationDaysService = vacationDaysService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -44,6 +53,7 @@ class AccountInteractionServiceImpl implements AccountInteractionService {
         account.setVacationDays(actualVacationDays);
 
         accountService.save(account);
+        vacationDaysService.updateUsedVacationDays(account);
 
         LOG.info("Created holidays account: " + account);
 
@@ -64,6 +74,7 @@ class AccountInteractionServiceImpl implements AccountInteractionService {
         account.setComment(comment);
 
         accountService.save(account);
+        vacationDaysService.updateUsedVacationDays(account);
 
         LOG.info("Updated holidays account: " + account);
 
@@ -96,6 +107,54 @@ class AccountInteractionServiceImpl implements AccountInteractionService {
         }
     }
 
+    @Override
+    public void updateUsedVacationDays(Person person, DateMidnight startDate, DateMidnight endDate) {
+
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            accountService.getHolidaysAccount(year, person).ifPresent(vacationDaysService::updateUsedVacationDays);
+        }
+    }
+
+    @Override
+    public void updateUsedVacationDays(Person person) {
+
+        accountService.getHolidaysAccounts(person).forEach(vacationDaysService::updateUsedVacationDays);
+    }
+
+    /**
+     * Rebuilds the accounts in batches of {@value #REBUILD_BATCH_SIZE}, each in its own transaction, so that
+     * rebuilding all accounts neither holds one long transaction nor keeps all changes in memory until the end.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildUsedVacationDays() {
+
+        List<Account> accounts = accountService.getAllHolidaysAccounts();
+
+        int rebuiltAccounts = 0;
+
+        for (int from = 0; from < accounts.size(); from += REBUILD_BATCH_SIZE) {
+            List<Account> batch = accounts.subList(from, Math.min(from + REBUILD_BATCH_SIZE, accounts.size()));
+
+            rebuiltAccounts += transactionTemplate.execute(status -> rebuildUsedVacationDays(batch));
+        }
+
+        return rebuiltAccounts;
+    }
+
+    private int rebuildUsedVacationDays(List<Account> accounts) {
+
+        int rebuiltAccounts = 0;
+
+        for (Account account : accounts) {
+            if (vacationDaysService.rebuildUsedVacationDays(account)) {
+                rebuiltAccounts++;
+            }
+        }
+
+        return rebuiltAccounts;
+    }
+
     /**
      * Updates the remaining vacation days of the given new account by using data of the given last account.
      *
@@ -3,6 +3,7 @@ package org.synyx.urlaubsverwaltung.core.account.service;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -25,6 +26,36 @@ public interface AccountService {
     Optional<Account> getHolidaysAccount(int year, Person person);
 
 
+    /**
+     * Gets the {@link org.synyx.urlaubsverwaltung.core.account.domain.Account}s of the given persons for the given year
+     * with a single query.
+     *
+     * @param  year  to get the holidays accounts for
+     * @param  persons  to get the holidays accounts for
+     *
+     * @return  the holidays accounts of the given persons that exist for the given year
+     */
+    List<Account> getHolidaysAccounts(int year, List<Person> persons);
+
+
+    /**
+     * Gets all {@link org.synyx.urlaubsverwaltung.core.account.domain.Account}s of the given person.
+     *
+     * @param  person  to get the holidays accounts for
+     *
+     * @return  the holidays accounts of the given person
+     */
+    List<Account> getHolidaysAccounts(Person person);
+
+
+    /**
+     * Gets the {@link org.synyx.urlaubsverwaltung.core.account.domain.Account}s of all persons.
+     *
+     * @return  all holidays accounts
+     */
+    List<Account> getAllHolidaysAccounts();
+
+
     /**
      * Saves the given {@link Account}.
      *
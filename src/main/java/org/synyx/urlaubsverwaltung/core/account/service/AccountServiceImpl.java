@@ -8,6 +8,7 @@ import org.synyx.urlaubsverwaltung.core.account.dao.AccountDAO;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -34,6 +35,27 @@ public class AccountServiceImpl implements AccountService {
     }
 
 
+    @Override
+    public List<Account> getHolidaysAccounts(int year, List<Person> persons) {
+
+        return accountDAO.getHolidaysAccountsByYearAndPersons(year, persons);
+    }
+
+
+    @Override
+    public List<Account> getHolidaysAccounts(Person person) {
+
+        return accountDAO.findByPerson(person);
+    }
+
+
+    @Override
+    public List<Account> getAllHolidaysAccounts() {
+
+        return accountDAO.findAll();
+    }
+
+
     @Override
     public void save(Account account) {
 
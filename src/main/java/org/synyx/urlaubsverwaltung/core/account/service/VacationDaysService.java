@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.core.account.service;
 
+import org.apache.log4j.Logger;
+
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTimeConstants;
 
@@ -7,7 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
+import org.synyx.urlaubsverwaltung.core.account.dao.AccountDAO;
+import org.synyx.urlaubsverwaltung.core.account.dao.UsedVacationDaysDAO;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
+import org.synyx.urlaubsverwaltung.core.account.domain.UsedVacationDays;
 import org.synyx.urlaubsverwaltung.core.account.domain.VacationDaysLeft;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
@@ -33,17 +38,23 @@ import java.util.stream.Collectors;
 @Service
 public class VacationDaysService {
 
+    private static final Logger LOG = Logger.getLogger(VacationDaysService.class);
+
     private final WorkDaysService calendarService;
     private final NowService nowService;
     private final ApplicationService applicationService;
+    private final UsedVacationDaysDAO usedVacationDaysDAO;
+    private final AccountDAO accountDAO;
 
     @Autowired
     public VacationDaysService(WorkDaysService calendarService, NowService nowService,
-        ApplicationService applicationService) {
+        ApplicationService applicationService, UsedVacationDaysDAO usedVacationDaysDAO, AccountDAO accountDAO) {
 
         this.calendarService = calendarService;
         this.nowService = nowService;
         this.applicationService = applicationService;
+        this.usedVacationDaysDAO = usedVacationDaysDAO;
+        this.accountDAO = accountDAO;
     }
 
     /**
@@ -101,16 +112,15 @@ public class VacationDaysService {
         BigDecimal remainingVacationDays = account.getRemainingVacationDays();
         BigDecimal remainingVacationDaysNotExpiring = account.getRemainingVacationDaysNotExpiring();
 
-        BigDecimal daysBeforeApril = getUsedDaysBeforeApril(account);
-        BigDecimal daysAfterApril = getUsedDaysAfterApril(account);
+        UsedVacationDays usedVacationDays = getUsedVacationDays(account);
         BigDecimal daysUsedNextYear = getRemainingVacationDaysAlreadyUsed(nextYear);
 
         return VacationDaysLeft.builder()
                 .withAnnualVacation(vacationDays)
                 .withRemainingVacation(remainingVacationDays)
                 .notExpiring(remainingVacationDaysNotExpiring)
-                .forUsedDaysBeforeApril(daysBeforeApril)
-                .forUsedDaysAfterApril(daysAfterApril)
+                .forUsedDaysBeforeApril(usedVacationDays.getDaysBeforeApril())
+                .forUsedDaysAfterApril(usedVacationDays.getDaysAfterApril())
                 .withVacationDaysUsedNextYear(daysUsedNextYear)
                 .get();
     }
@@ -130,6 +140,111 @@ public class VacationDaysService {
     }
 
 
+    /**
+     * Calculates the used vacation days of the given account from its applications for leave and stores them, so that
+     * they can be read with a single query afterwards. Has to be called whenever the applications for leave, the working
+     * time or the account itself change.
+     *
+     * <p>NOTE: Has to be called within a transaction. The account is locked until the end of the transaction, so that
+     * concurrent updates of the same account neither overwrite each other nor store the used vacation days twice.</p>
+     *
+     * @param  account  to update the used vacation days for
+     *
+     * @return  the stored used vacation days
+     */
+    public UsedVacationDays updateUsedVacationDays(Account account) {
+
+        accountDAO.findForUpdateById(account.getId());
+
+        return store(usedVacationDaysDAO.findForUpdateByAccount(account), calculateUsedVacationDays(account));
+    }
+
+
+    /**
+     * Recalculates the used vacation days of the given account and compares them with the stored ones. Missing or
+     * differing used vacation days are replaced by the calculated ones.
+     *
+     * <p>NOTE: Has to be called within a transaction. Only accounts whose used vacation days have to be replaced are
+     * locked, as described for {@link #updateUsedVacationDays(Account)}.</p>
+     *
+     * @param  account  to check the used vacation days for
+     *
+     * @return  {@code true} if the stored used vacation days were missing or wrong, else {@code false}
+     */
+    public boolean rebuildUsedVacationDays(Account account) {
+
+        if (hasCorrectUsedVacationDays(account)) {
+            return false;
+        }
+
+        // check again with the account locked, the used vacation days might have been updated in the meantime
+        accountDAO.findForUpdateById(account.getId());
+
+        UsedVacationDays storedUsedVacationDays = usedVacationDaysDAO.findForUpdateByAccount(account);
+        UsedVacationDays calculatedUsedVacationDays = calculateUsedVacationDays(account);
+
+        if (storedUsedVacationDays != null && storedUsedVacationDays.hasSameDaysAs(calculatedUsedVacationDays)) {
+            return false;
+        }
+
+        if (storedUsedVacationDays != null) {
+            LOG.warn("Stored used vacation days differ from calculated ones: " + storedUsedVacationDays
+                + ", calculated: " + calculatedUsedVacationDays);
+        }
+
+        store(storedUsedVacationDays, calculatedUsedVacationDays);
+
+        return true;
+    }
+
+
+    private boolean hasCorrectUsedVacationDays(Account account) {
+
+        UsedVacationDays storedUsedVacationDays = usedVacationDaysDAO.findByAccount(account);
+
+        return storedUsedVacationDays != null
+            && storedUsedVacationDays.hasSameDaysAs(calculateUsedVacationDays(account));
+    }
+
+
+    /**
+     * Reads the stored used vacation days of the given account. If they have not been stored yet, e.g. for accounts
+     * created before the used vacation days were stored, they are calculated without being stored, as this may be
+     * called within a read only transaction.
+     */
+    private UsedVacationDays getUsedVacationDays(Account account) {
+
+        UsedVacationDays usedVacationDays = account.getId() == null ? null
+                                                                   : usedVacationDaysDAO.findByAccount(account);
+
+        if (usedVacationDays == null) {
+            return calculateUsedVacationDays(account);
+        }
+
+        return usedVacationDays;
+    }
+
+
+    private UsedVacationDays store(UsedVacationDays storedUsedVacationDays,
+        UsedVacationDays calculatedUsedVacationDays) {
+
+        if (storedUsedVacationDays == null) {
+            return usedVacationDaysDAO.save(calculatedUsedVacationDays);
+        }
+
+        storedUsedVacationDays.setDaysBeforeApril(calculatedUsedVacationDays.getDaysBeforeApril());
+        storedUsedVacationDays.setDaysAfterApril(calculatedUsedVacationDays.getDaysAfterApril());
+
+        return usedVacationDaysDAO.save(storedUsedVacationDays);
+    }
+
+
+    private UsedVacationDays calculateUsedVacationDays(Account account) {
+
+        return new UsedVacationDays(account, getUsedDaysBeforeApril(account), getUsedDaysAfterApril(account));
+    }
+
+
     BigDecimal getUsedDaysBeforeApril(Account account) {
 
         DateMidnight firstOfJanuary = DateUtil.getFirstDayOfMonth(account.getYear(), DateTimeConstants.JANUARY);
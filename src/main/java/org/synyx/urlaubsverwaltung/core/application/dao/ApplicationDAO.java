@@ -1,17 +1,24 @@
 package org.synyx.urlaubsverwaltung.core.application.dao;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.Role;
 
 import java.math.BigDecimal;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 
 /**
@@ -25,6 +32,15 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
     List<Application> getApplicationsForACertainState(ApplicationStatus status);
 
 
+    @Query(
+        "select x from Application x "
+        + "where ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
+        + "order by x.startDate"
+    )
+    List<Application> getApplicationsForACertainTime(Date startDate, Date endDate);
+
+
     @Query(
         "select x from Application x "
         + "where x.status = ?3 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
@@ -43,6 +59,15 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
     List<Application> getApplicationsForACertainTimeAndPerson(Date startDate, Date endDate, Person person);
 
 
+    @Query(
+        "select x from Application x "
+        + "where x.person in ?3 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
+        + "or (x.startDate < ?1 and x.endDate > ?2)) "
+        + "order by x.startDate"
+    )
+    List<Application> getApplicationsForACertainTimeAndPersons(Date startDate, Date endDate, List<Person> persons);
+
+
     @Query(
         "select x from Application x "
         + "where x.person = ?3 and x.status = ?4 and ((x.startDate between ?1 and ?2) or (x.endDate between ?1 and ?2) "
@@ -53,10 +78,101 @@ public interface ApplicationDAO extends JpaRepository<Application, Integer> {
         ApplicationStatus status);
 
 
+    /**
+     * Finds a page of the applications for leave with the given state within the given period, of the given person if
+     * not {@code null}. The applications are ordered by start date and ID, the page starts after the application with
+     * the given start date and ID, if any.
+     */
+    @Query(
+        "select x from Application x "
+        + "where x.status = :status and (:person is null or x.person = :person) "
+        + "and ((x.startDate between :startDate and :endDate) or (x.endDate between :startDate and :endDate) "
+        + "or (x.startDate < :startDate and x.endDate > :endDate)) "
+        + "and (:afterStartDate is null or x.startDate > :afterStartDate "
+        + "or (x.startDate = :afterStartDate and x.id > :afterId)) "
+        + "order by x.startDate, x.id"
+    )
+    List<Application> getApplicationsForACertainTimeAndState(@Param("startDate") Date startDate,
+        @Param("endDate") Date endDate, @Param("status") ApplicationStatus status, @Param("person") Person person,
+        @Param("afterStartDate") Date afterStartDate, @Param("afterId") Integer afterId, Pageable pageable);
+
+
+    /**
+     * Streams the applications for leave with the given state within the given period, of the given person if not
+     * {@code null}, ordered by start date and ID. The rows are scrolled in chunks instead of being read at once, the
+     * stream must be consumed within a transaction and closed afterwards.
+     */
+    @QueryHints(
+        { @QueryHint(name = "org.hibernate.fetchSize", value = "100"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") }
+    )
+    @Query(
+        "select x from Application x "
+        + "where x.status = :status and (:person is null or x.person = :person) "
+        + "and ((x.startDate between :startDate and :endDate) or (x.endDate between :startDate and :endDate) "
+        + "or (x.startDate < :startDate and x.endDate > :endDate)) "
+        + "order by x.startDate, x.id"
+    )
+    Stream<Application> streamApplicationsForACertainTimeAndState(@Param("startDate") Date startDate,
+        @Param("endDate") Date endDate, @Param("status") ApplicationStatus status, @Param("person") Person person);
+
+
     @Query(
         "SELECT SUM(application.hours) FROM Application application WHERE application.person = :person "
         + "AND application.vacationType.category = 'OVERTIME' "
         + "AND (application.status = 'WAITING' OR application.status = 'ALLOWED')"
     )
     BigDecimal calculateTotalOvertimeOfPerson(@Param("person") Person person);
+
+
+    /**
+     * @return  rows containing the ID of a person and the sum of the person's overtime reduction hours
+     */
+    @Query(
+        "SELECT application.person.id, SUM(application.hours) FROM Application application "
+        + "WHERE application.person IN :persons "
+        + "AND application.vacationType.category = 'OVERTIME' "
+        + "AND (application.status = 'WAITING' OR application.status = 'ALLOWED') "
+        + "GROUP BY application.person.id"
+    )
+    List<Object[]> calculateTotalOvertimeOfPersons(@Param("persons") List<Person> persons);
+
+
+    /**
+     * Finds the applications for leave the given department head has to decide on: applications with one of the given
+     * states of the members of the departments managed by the department head, except the own ones and the ones of
+     * persons with the given role. The applications are ordered by start date and ID, the page starts after the
+     * application with the given start date and ID, if any.
+     */
+    @Query(
+        "SELECT DISTINCT x FROM Application x JOIN FETCH x.person p JOIN FETCH x.vacationType, "
+        + "Department d JOIN d.departmentHeads approver JOIN d.members departmentMember "
+        + "WHERE approver = :approver AND p = departmentMember AND p <> :approver AND x.status IN :states "
+        + "AND :excludedRole NOT MEMBER OF p.permissions "
+        + "AND (:afterStartDate IS NULL OR x.startDate > :afterStartDate "
+        + "OR (x.startDate = :afterStartDate AND x.id > :afterId)) "
+        + "ORDER BY x.startDate, x.id"
+    )
+    List<Application> getApplicationsForDepartmentHead(@Param("approver") Person departmentHead,
+        @Param("states") Collection<ApplicationStatus> states, @Param("excludedRole") Role excludedRole,
+        @Param("afterStartDate") Date afterStartDate, @Param("afterId") Integer afterId, Pageable pageable);
+
+
+    /**
+     * Finds the applications for leave the given second stage authority has to decide on: applications with one of the
+     * given states of the members of the departments the second stage authority is responsible for, except the own
+     * ones. The applications are ordered by start date and ID, the page starts after the application with the given
+     * start date and ID, if any.
+     */
+    @Query(
+        "SELECT DISTINCT x FROM Application x JOIN FETCH x.person p JOIN FETCH x.vacationType, "
+        + "Department d JOIN d.secondStageAuthorities approver JOIN d.members departmentMember "
+        + "WHERE approver = :approver AND p = departmentMember AND p <> :approver AND x.status IN :states "
+        + "AND (:afterStartDate IS NULL OR x.startDate > :afterStartDate "
+        + "OR (x.startDate = :afterStartDate AND x.id > :afterId)) "
+        + "ORDER BY x.startDate, x.id"
+    )
+    List<Application> getApplicationsForSecondStageAuthority(@Param("approver") Person secondStageAuthority,
+        @Param("states") Collection<ApplicationStatus> states, @Param("afterStartDate") Date afterStartDate,
+        @Param("afterId") Integer afterId, Pageable pageable);
 }
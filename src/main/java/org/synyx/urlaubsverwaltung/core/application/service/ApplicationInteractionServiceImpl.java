@@ -22,13 +22,7 @@ import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.Role;
-import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
-import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
-import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceTimeConfiguration;
+import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncQueue;
 import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
 import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
 
@@ -51,9 +45,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
     private final AccountInteractionService accountInteractionService;
     private final ApplicationCommentService commentService;
     private final MailService mailService;
-    private final CalendarSyncService calendarSyncService;
-    private final AbsenceMappingService absenceMappingService;
-    private final SettingsService settingsService;
+    private final CalendarSyncQueue calendarSyncQueue;
     private final DepartmentService departmentService;
 
     @Autowired
@@ -61,18 +53,14 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
                                              ApplicationCommentService commentService,
                                              AccountInteractionService accountInteractionService,
                                              MailService mailService,
-                                             CalendarSyncService calendarSyncService,
-                                             AbsenceMappingService absenceMappingService,
-                                             SettingsService settingsService,
+                                             CalendarSyncQueue calendarSyncQueue,
                                              DepartmentService departmentService) {
 
         this.applicationService = applicationService;
         this.commentService = commentService;
         this.accountInteractionService = accountInteractionService;
         this.mailService = mailService;
-        this.calendarSyncService = calendarSyncService;
-        this.absenceMappingService = absenceMappingService;
-        this.settingsService = settingsService;
+        this.calendarSyncQueue = calendarSyncQueue;
         this.departmentService = departmentService;
     }
 
@@ -92,6 +80,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         application.setApplicationDate(DateMidnight.now());
 
         applicationService.save(application);
+        updateUsedVacationDays(application);
 
         LOG.info("Created application for leave: " + application.toString());
 
@@ -116,15 +105,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         // update remaining vacation days (if there is already a holidays account for next year)
         accountInteractionService.updateRemainingVacationDays(application.getStartDate().getYear(), person);
 
-        CalendarSettings calendarSettings = settingsService.getSettings().getCalendarSettings();
-        AbsenceTimeConfiguration timeConfiguration = new AbsenceTimeConfiguration(calendarSettings);
-
-        Optional<String> eventId = calendarSyncService.addAbsence(new Absence(application.getPerson(),
-                    application.getPeriod(), EventType.WAITING_APPLICATION, timeConfiguration));
-
-        if (eventId.isPresent()) {
-            absenceMappingService.create(application.getId(), AbsenceType.VACATION, eventId.get());
-        }
+        calendarSyncQueue.add(application.getId(), AbsenceType.VACATION, EventType.WAITING_APPLICATION);
 
         return application;
     }
@@ -187,6 +168,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         applicationForLeave.setEditedDate(DateMidnight.now());
 
         applicationService.save(applicationForLeave);
+        updateUsedVacationDays(applicationForLeave);
 
         LOG.info("Temporary allowed application for leave: " + applicationForLeave.toString());
 
@@ -215,6 +197,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         applicationForLeave.setEditedDate(DateMidnight.now());
 
         applicationService.save(applicationForLeave);
+        updateUsedVacationDays(applicationForLeave);
 
         LOG.info("Allowed application for leave: " + applicationForLeave.toString());
 
@@ -227,15 +210,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
             mailService.notifyHolidayReplacement(applicationForLeave);
         }
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(
-                applicationForLeave.getId(), AbsenceType.VACATION);
-
-        if (absenceMapping.isPresent()) {
-            CalendarSettings calendarSettings = settingsService.getSettings().getCalendarSettings();
-            AbsenceTimeConfiguration timeConfiguration = new AbsenceTimeConfiguration(calendarSettings);
-            calendarSyncService.update(new Absence(applicationForLeave.getPerson(), applicationForLeave.getPeriod(),
-                    EventType.ALLOWED_APPLICATION, timeConfiguration), absenceMapping.get().getEventId());
-        }
+        calendarSyncQueue.update(applicationForLeave.getId(), AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
 
         return applicationForLeave;
     }
@@ -249,6 +224,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         application.setEditedDate(DateMidnight.now());
 
         applicationService.save(application);
+        updateUsedVacationDays(application);
 
         LOG.info("Rejected application for leave: " + application.toString());
 
@@ -257,13 +233,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
 
         mailService.sendRejectedNotification(application, createdComment);
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(application.getId(),
-                AbsenceType.VACATION);
-
-        if (absenceMapping.isPresent()) {
-            calendarSyncService.deleteAbsence(absenceMapping.get().getEventId());
-            absenceMappingService.delete(absenceMapping.get());
-        }
+        calendarSyncQueue.delete(application.getId(), AbsenceType.VACATION);
 
         return application;
     }
@@ -284,15 +254,10 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
             revokeApplication(application, canceller, comment);
         }
 
+        updateUsedVacationDays(application);
         accountInteractionService.updateRemainingVacationDays(application.getStartDate().getYear(), person);
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(application.getId(),
-                AbsenceType.VACATION);
-
-        if (absenceMapping.isPresent()) {
-            calendarSyncService.deleteAbsence(absenceMapping.get().getEventId());
-            absenceMappingService.delete(absenceMapping.get());
-        }
+        calendarSyncQueue.delete(application.getId(), AbsenceType.VACATION);
 
         return application;
     }
@@ -366,6 +331,7 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
         application.setStatus(ApplicationStatus.ALLOWED);
 
         applicationService.save(application);
+        updateUsedVacationDays(application);
 
         commentService.create(application, ApplicationAction.CONVERTED, Optional.<String>empty(), creator);
         mailService.sendSickNoteConvertedToVacationNotification(application);
@@ -409,4 +375,11 @@ public class ApplicationInteractionServiceImpl implements ApplicationInteraction
 
         return application;
     }
+
+
+    private void updateUsedVacationDays(Application application) {
+
+        accountInteractionService.updateUsedVacationDays(application.getPerson(), application.getStartDate(),
+            application.getEndDate());
+    }
 }
@@ -9,7 +9,9 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 import java.math.BigDecimal;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 /**
@@ -49,6 +51,45 @@ public interface ApplicationService {
     List<Application> getApplicationsForACertainState(ApplicationStatus state);
 
 
+    /**
+     * Gets the waiting {@link Application}s the given department head has to decide on, i.e. the ones of the members of
+     * the departments managed by the department head except the own ones and the ones of second stage authorities.
+     *
+     * @param  departmentHead  to get the {@link Application}s for leave to be decided on for
+     * @param  after  the last {@link Application} of the previous page, if any
+     * @param  limit  the maximum number of {@link Application}s for leave to be fetched
+     *
+     * @return  the next page of {@link Application}s for leave to be decided on, ordered by start date and ID
+     */
+    List<Application> getApplicationsForDepartmentHead(Person departmentHead, Optional<Application> after, int limit);
+
+
+    /**
+     * Gets the waiting and temporary allowed {@link Application}s the given second stage authority has to decide on,
+     * i.e. the ones of the members of the departments the second stage authority is responsible for except the own
+     * ones.
+     *
+     * @param  secondStageAuthority  to get the {@link Application}s for leave to be decided on for
+     * @param  after  the last {@link Application} of the previous page, if any
+     * @param  limit  the maximum number of {@link Application}s for leave to be fetched
+     *
+     * @return  the next page of {@link Application}s for leave to be decided on, ordered by start date and ID
+     */
+    List<Application> getApplicationsForSecondStageAuthority(Person secondStageAuthority,
+        Optional<Application> after, int limit);
+
+
+    /**
+     * Gets all {@link Application}s with vacation time between startDate x and endDate y, regardless of their state.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     *
+     * @return  all {@link Application}s with vacation time between startDate x and endDate y, ordered by start date
+     */
+    List<Application> getApplicationsForACertainPeriod(DateMidnight startDate, DateMidnight endDate);
+
+
     /**
      * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given person.
      *
@@ -62,6 +103,20 @@ public interface ApplicationService {
         Person person);
 
 
+    /**
+     * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given persons.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     * @param  persons  list of {@link Person}s
+     *
+     * @return  all {@link Application}s of the given persons with vacation time between startDate x and endDate y,
+     *          ordered by start date
+     */
+    List<Application> getApplicationsForACertainPeriodAndPersons(DateMidnight startDate, DateMidnight endDate,
+        List<Person> persons);
+
+
     /**
      * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given state.
      *
@@ -75,6 +130,39 @@ public interface ApplicationService {
         ApplicationStatus status);
 
 
+    /**
+     * Gets a page of the {@link Application}s with vacation time between startDate x and endDate y for the given
+     * state.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     * @param  status {@link org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus}
+     * @param  person  to get the {@link Application}s for, if empty the {@link Application}s of all persons are fetched
+     * @param  after  the last {@link Application} of the previous page, if any
+     * @param  limit  the maximum number of {@link Application}s to be fetched
+     *
+     * @return  the next page of {@link Application}s with the given state and vacation time between startDate x and
+     *          endDate y, ordered by start date and ID
+     */
+    List<Application> getApplicationsForACertainPeriodAndState(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, Optional<Person> person, Optional<Application> after, int limit);
+
+
+    /**
+     * Passes the {@link Application}s with vacation time between startDate x and endDate y for the given state one by
+     * one to the given action, ordered by start date and ID. The {@link Application}s are read as the action consumes
+     * them, so they are never loaded at once.
+     *
+     * @param  startDate {@link DateMidnight}
+     * @param  endDate {@link DateMidnight}
+     * @param  status {@link org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus}
+     * @param  person  to get the {@link Application}s for, if empty the {@link Application}s of all persons are fetched
+     * @param  action  to be performed for each {@link Application}
+     */
+    void forEachApplicationForACertainPeriodAndState(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, Optional<Person> person, Consumer<Application> action);
+
+
     /**
      * Gets all {@link Application}s with vacation time between startDate x and endDate y for the given person and
      * state.
@@ -99,4 +187,14 @@ public interface ApplicationService {
      * @return  the total overtime reduction of a person, never {@code null}
      */
     BigDecimal getTotalOvertimeReductionOfPerson(Person person);
+
+
+    /**
+     * Get the total hours of overtime reduction for each of the given persons with a single query.
+     *
+     * @param  persons  to get the total hours of overtime reduction for
+     *
+     * @return  the total overtime reduction of each of the given persons, never {@code null}
+     */
+    Map<Person, BigDecimal> getTotalOvertimeReductionOfPersons(List<Person> persons);
 }
@@ -5,19 +5,35 @@ import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.data.domain.PageRequest;
+
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import org.springframework.util.Assert;
 
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.Role;
 
 import java.math.BigDecimal;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 
 /**
@@ -30,6 +46,9 @@ class ApplicationServiceImpl implements ApplicationService {
 
     private final ApplicationDAO applicationDAO;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
     @Autowired
     ApplicationServiceImpl(ApplicationDAO applicationDAO) {
 
@@ -57,6 +76,45 @@ class ApplicationServiceImpl implements ApplicationService {
     }
 
 
+    @Override
+    public List<Application> getApplicationsForDepartmentHead(Person departmentHead, Optional<Application> after,
+        int limit) {
+
+        return applicationDAO.getApplicationsForDepartmentHead(departmentHead,
+                Collections.singletonList(ApplicationStatus.WAITING), Role.SECOND_STAGE_AUTHORITY,
+                getStartDate(after), getId(after), new PageRequest(0, limit));
+    }
+
+
+    @Override
+    public List<Application> getApplicationsForSecondStageAuthority(Person secondStageAuthority,
+        Optional<Application> after, int limit) {
+
+        return applicationDAO.getApplicationsForSecondStageAuthority(secondStageAuthority,
+                Arrays.asList(ApplicationStatus.WAITING, ApplicationStatus.TEMPORARY_ALLOWED), getStartDate(after),
+                getId(after), new PageRequest(0, limit));
+    }
+
+
+    private static Date getStartDate(Optional<Application> application) {
+
+        return application.map(Application::getStartDate).map(DateMidnight::toDate).orElse(null);
+    }
+
+
+    private static Integer getId(Optional<Application> application) {
+
+        return application.map(Application::getId).orElse(null);
+    }
+
+
+    @Override
+    public List<Application> getApplicationsForACertainPeriod(DateMidnight startDate, DateMidnight endDate) {
+
+        return applicationDAO.getApplicationsForACertainTime(startDate.toDate(), endDate.toDate());
+    }
+
+
     @Override
     public List<Application> getApplicationsForACertainPeriodAndPerson(DateMidnight startDate, DateMidnight endDate,
         Person person) {
@@ -65,6 +123,14 @@ class ApplicationServiceImpl implements ApplicationService {
     }
 
 
+    @Override
+    public List<Application> getApplicationsForACertainPeriodAndPersons(DateMidnight startDate, DateMidnight endDate,
+        List<Person> persons) {
+
+        return applicationDAO.getApplicationsForACertainTimeAndPersons(startDate.toDate(), endDate.toDate(), persons);
+    }
+
+
     @Override
     public List<Application> getApplicationsForACertainPeriodAndState(DateMidnight startDate, DateMidnight endDate,
         ApplicationStatus status) {
@@ -73,6 +139,32 @@ class ApplicationServiceImpl implements ApplicationService {
     }
 
 
+    @Override
+    public List<Application> getApplicationsForACertainPeriodAndState(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, Optional<Person> person, Optional<Application> after, int limit) {
+
+        return applicationDAO.getApplicationsForACertainTimeAndState(startDate.toDate(), endDate.toDate(), status,
+                person.orElse(null), getStartDate(after), getId(after), new PageRequest(0, limit));
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachApplicationForACertainPeriodAndState(DateMidnight startDate, DateMidnight endDate,
+        ApplicationStatus status, Optional<Person> person, Consumer<Application> action) {
+
+        try (Stream<Application> applications = applicationDAO.streamApplicationsForACertainTimeAndState(
+                    startDate.toDate(), endDate.toDate(), status, person.orElse(null))) {
+            applications.forEach(application -> {
+                action.accept(application);
+
+                // the application has been consumed, so it is detached instead of piling up in the persistence context
+                entityManager.detach(application);
+            });
+        }
+    }
+
+
     @Override
     public List<Application> getApplicationsForACertainPeriodAndPersonAndState(DateMidnight startDate,
         DateMidnight endDate, Person person, ApplicationStatus status) {
@@ -96,4 +188,21 @@ class ApplicationServiceImpl implements ApplicationService {
 
         return BigDecimal.ZERO;
     }
+
+
+    @Override
+    public Map<Person, BigDecimal> getTotalOvertimeReductionOfPersons(List<Person> persons) {
+
+        Map<Integer, BigDecimal> overtimeReductionByPersonId = applicationDAO.calculateTotalOvertimeOfPersons(persons)
+                .stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> (BigDecimal) row[1]));
+
+        Map<Person, BigDecimal> overtimeReduction = new HashMap<>();
+
+        for (Person person : persons) {
+            overtimeReduction.put(person, overtimeReductionByPersonId.getOrDefault(person.getId(), BigDecimal.ZERO));
+        }
+
+        return overtimeReduction;
+    }
 }
@@ -15,6 +15,7 @@ import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.mail.MailService;
+import org.synyx.urlaubsverwaltung.core.settings.AbsenceSettings;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
@@ -66,15 +67,16 @@ public class CronMailService {
     @Scheduled(cron = "${uv.cron.daysBeforeWaitingApplicationsReminderNotification}")
     public void sendWaitingApplicationsReminderNotification() {
 
-        boolean isRemindForWaitingApplicationsActive =
-                settingsService.getSettings().getAbsenceSettings().getRemindForWaitingApplications();
+        AbsenceSettings absenceSettings = settingsService.getSettings().getAbsenceSettings();
+
+        boolean isRemindForWaitingApplicationsActive = absenceSettings.getRemindForWaitingApplications();
 
         if (isRemindForWaitingApplicationsActive) {
             List<Application> allWaitingApplications =
                     applicationService.getApplicationsForACertainState(ApplicationStatus.WAITING);
 
             List<Application> longWaitingApplications = allWaitingApplications.stream()
-                    .filter(isLongWaitingApplications())
+                    .filter(isLongWaitingApplications(absenceSettings.getDaysBeforeRemindForWaitingApplications()))
                     .collect(Collectors.toList());
 
             if (!longWaitingApplications.isEmpty()) {
@@ -96,14 +98,11 @@ public class CronMailService {
 
     }
 
-    private Predicate<Application> isLongWaitingApplications() {
+    private Predicate<Application> isLongWaitingApplications(Integer daysBeforeRemindForWaitingApplications) {
         return application -> {
 
             DateMidnight remindDate = application.getRemindDate();
             if (remindDate == null) {
-                Integer daysBeforeRemindForWaitingApplications =
-                        settingsService.getSettings().getAbsenceSettings().getDaysBeforeRemindForWaitingApplications();
-
                 // never reminded before
                 DateMidnight minDateForNotification = application.getApplicationDate()
                         .plusDays(daysBeforeRemindForWaitingApplications);
@@ -0,0 +1,164 @@
+package org.synyx.urlaubsverwaltung.core.cron;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.context.event.EventListener;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import org.springframework.stereotype.Service;
+
+import org.synyx.urlaubsverwaltung.core.account.service.AccountInteractionService;
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsChangedEvent;
+import org.synyx.urlaubsverwaltung.core.settings.WorkingTimeSettings;
+import org.synyx.urlaubsverwaltung.core.workingtime.WorkingTimeChangedEvent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Keeps the stored used vacation days of the holidays accounts consistent: they are updated when the working time of a
+ * person or the settings change and are checked against the applications for leave every night.
+ *
+ * <p>Only one rebuild runs at a time: the rebuilds triggered by changed settings are run one after another by a single
+ * background thread, further changes while a rebuild is waiting are covered by that rebuild. The nightly check is
+ * skipped while another rebuild is running.</p>
+ */
+@Service
+public class UsedVacationDaysUpdaterService {
+
+    private static final Logger LOG = Logger.getLogger(UsedVacationDaysUpdaterService.class);
+
+    private final AccountInteractionService accountInteractionService;
+    private final Executor rebuildExecutor;
+    private final Lock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    @Autowired
+    public UsedVacationDaysUpdaterService(AccountInteractionService accountInteractionService) {
+
+        this(accountInteractionService, Executors.newSingleThreadExecutor(createThreadFactory()));
+    }
+
+
+    UsedVacationDaysUpdaterService(AccountInteractionService accountInteractionService, Executor rebuildExecutor) {
+
+        this.accountInteractionService = accountInteractionService;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    private static CustomizableThreadFactory createThreadFactory() {
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("used-vacation-days-");
+        threadFactory.setDaemon(true);
+
+        return threadFactory;
+    }
+
+
+    /**
+     * Checks the used vacation days of all holidays accounts, unless they are being rebuilt at the moment anyway.
+     *
+     * @return  the number of updated holidays accounts
+     */
+    @Scheduled(cron = "${uv.cron.rebuildUsedVacationDays}")
+    public int rebuildUsedVacationDays() {
+
+        if (!rebuildLock.tryLock()) {
+            LOG.info("Skipping consistency check of the used vacation days, another rebuild is still running");
+
+            return 0;
+        }
+
+        try {
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+
+    private int rebuild() {
+
+        LOG.info("Starting consistency check of the used vacation days of all holidays accounts.");
+
+        int rebuiltAccounts = accountInteractionService.rebuildUsedVacationDays();
+
+        LOG.info("Finished consistency check of the used vacation days, updated holidays accounts: "
+            + rebuiltAccounts);
+
+        return rebuiltAccounts;
+    }
+
+
+    /**
+     * The used vacation days depend on the public holidays and on the working time on christmas eve and new year's
+     * eve, so all of them are rebuilt in the background when one of these settings changes.
+     *
+     * @param  event  about the changed settings
+     */
+    @EventListener
+    public void onSettingsChanged(SettingsChangedEvent event) {
+
+        if (changesUsedVacationDays(event.getPreviousSettings(), event.getSettings())
+                && rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuildAfterSettingsChanged);
+        }
+    }
+
+
+    /**
+     * Waits for a running nightly check instead of skipping the rebuild, as the check may have used the previous
+     * settings.
+     */
+    private void rebuildAfterSettingsChanged() {
+
+        // settings changed from now on need another rebuild
+        rebuildPending.set(false);
+
+        rebuildLock.lock();
+
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            LOG.error("Rebuilding the used vacation days failed", ex);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+
+    private static boolean changesUsedVacationDays(Settings previousSettings, Settings settings) {
+
+        if (previousSettings == null) {
+            return true;
+        }
+
+        WorkingTimeSettings previous = previousSettings.getWorkingTimeSettings();
+        WorkingTimeSettings current = settings.getWorkingTimeSettings();
+
+        return previous.getFederalState() != current.getFederalState()
+            || previous.getWorkingDurationForChristmasEve() != current.getWorkingDurationForChristmasEve()
+            || previous.getWorkingDurationForNewYearsEve() != current.getWorkingDurationForNewYearsEve();
+    }
+
+
+    /**
+     * Updates the used vacation days of the person whose working time has changed, within the same transaction.
+     *
+     * @param  event  about the changed working time
+     */
+    @EventListener
+    public void onWorkingTimeChanged(WorkingTimeChangedEvent event) {
+
+        accountInteractionService.updateUsedVacationDays(event.getPerson());
+    }
+}
@@ -0,0 +1,94 @@
+package org.synyx.urlaubsverwaltung.core.department;
+
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Immutable snapshot of the department memberships, indexed by the IDs of the members: for each member the department
+ * heads and the second stage authorities responsible for the member are known, so checking the responsibility for a
+ * person is a set lookup instead of loading the managed departments.
+ */
+final class DepartmentMembership {
+
+    private final long version;
+    private final Map<Integer, Set<Integer>> departmentHeadsByMember;
+    private final Map<Integer, Set<Integer>> secondStageAuthoritiesByMember;
+
+    /**
+     * @param  version  of the departments the snapshot has been taken of
+     * @param  departments  all departments
+     */
+    DepartmentMembership(long version, Collection<Department> departments) {
+
+        this.version = version;
+
+        Map<Integer, Set<Integer>> departmentHeads = new HashMap<>();
+        Map<Integer, Set<Integer>> secondStageAuthorities = new HashMap<>();
+
+        for (Department department : departments) {
+            for (Person member : department.getMembers()) {
+                addAll(departmentHeads, member, department.getDepartmentHeads());
+                addAll(secondStageAuthorities, member, department.getSecondStageAuthorities());
+            }
+        }
+
+        this.departmentHeadsByMember = Collections.unmodifiableMap(departmentHeads);
+        this.secondStageAuthoritiesByMember = Collections.unmodifiableMap(secondStageAuthorities);
+    }
+
+    private static void addAll(Map<Integer, Set<Integer>> responsiblesByMember, Person member,
+        Collection<Person> responsibles) {
+
+        if (responsibles.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> responsibleIds = responsiblesByMember.computeIfAbsent(member.getId(), id -> new HashSet<>());
+
+        for (Person responsible : responsibles) {
+            responsibleIds.add(responsible.getId());
+        }
+    }
+
+
+    long getVersion() {
+
+        return version;
+    }
+
+
+    /**
+     * @return  {@code true} if the given department head manages a department the given person is member of, else
+     *          {@code false}
+     */
+    boolean isDepartmentHeadOf(Person departmentHead, Person member) {
+
+        return contains(departmentHeadsByMember, member, departmentHead);
+    }
+
+
+    /**
+     * @return  {@code true} if the given second stage authority is responsible for a department the given person is
+     *          member of, else {@code false}
+     */
+    boolean isSecondStageAuthorityOf(Person secondStageAuthority, Person member) {
+
+        return contains(secondStageAuthoritiesByMember, member, secondStageAuthority);
+    }
+
+
+    private static boolean contains(Map<Integer, Set<Integer>> responsiblesByMember, Person member,
+        Person responsible) {
+
+        Set<Integer> responsibleIds = responsiblesByMember.get(member.getId());
+
+        return responsibleIds != null && responsibleIds.contains(responsible.getId());
+    }
+}
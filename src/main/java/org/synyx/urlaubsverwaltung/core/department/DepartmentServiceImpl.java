@@ -7,8 +7,13 @@ import org.joda.time.DateTime;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.scheduling.annotation.Scheduled;
+
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
@@ -20,12 +25,20 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 
 /**
  * Implementation for {@link DepartmentService}.
  *
+ * <p>To check the responsibility of department heads and second stage authorities without querying the departments
+ * again and again, the department memberships are kept in memory as {@link DepartmentMembership}. Every change of
+ * departments increments the version of the departments as soon as the changes are committed, memberships of an older
+ * version are rebuilt on next use. To pick up changes made by other instances of the application, the version is
+ * incremented periodically as well.</p>
+ *
  * @author  Daniel Hammann - <hammann@synyx.de>
  * @author  Aljona Murygina - <murygina@synyx.de>
  */
@@ -37,6 +50,9 @@ public class DepartmentServiceImpl implements DepartmentService {
     private final DepartmentDAO departmentDAO;
     private final ApplicationService applicationService;
 
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<DepartmentMembership> currentMembership = new AtomicReference<>();
+
     @Autowired
     public DepartmentServiceImpl(DepartmentDAO departmentDAO, ApplicationService applicationService) {
 
@@ -57,6 +73,8 @@ public class DepartmentServiceImpl implements DepartmentService {
         departmentDAO.save(department);
 
         LOG.info("Created department: " + department.toString());
+
+        invalidateMembershipAfterCommit();
     }
 
 
@@ -68,6 +86,8 @@ public class DepartmentServiceImpl implements DepartmentService {
         departmentDAO.save(department);
 
         LOG.info("Updated department: " + department.toString());
+
+        invalidateMembershipAfterCommit();
     }
 
 
@@ -78,6 +98,8 @@ public class DepartmentServiceImpl implements DepartmentService {
             LOG.info("No department found for ID = " + departmentId + ", deletion is not necessary.");
         } else {
             departmentDAO.delete(departmentId);
+
+            invalidateMembershipAfterCommit();
         }
     }
 
@@ -181,29 +203,62 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     public boolean isDepartmentHeadOfPerson(Person departmentHead, Person person) {
 
-        if (departmentHead.hasRole(Role.DEPARTMENT_HEAD)) {
-            List<Person> members = getManagedMembersOfDepartmentHead(departmentHead);
-
-            if (members.contains(person)) {
-                return true;
-            }
-        }
-
-        return false;
+        return departmentHead.hasRole(Role.DEPARTMENT_HEAD)
+            && getMembership().isDepartmentHeadOf(departmentHead, person);
     }
 
 
     @Override
     public boolean isSecondStageAuthorityOfPerson(Person secondStageAuthority, Person person) {
 
-        if (secondStageAuthority.hasRole(Role.SECOND_STAGE_AUTHORITY)) {
-            List<Person> members = getMembersForSecondStageAuthority(secondStageAuthority);
+        return secondStageAuthority.hasRole(Role.SECOND_STAGE_AUTHORITY)
+            && getMembership().isSecondStageAuthorityOf(secondStageAuthority, person);
+    }
+
+
+    /**
+     * Discards the department memberships kept in memory, to pick up changes made by other instances of the
+     * application.
+     */
+    @Scheduled(cron = "${uv.cron.reloadDepartments}")
+    public void reloadDepartments() {
 
-            if (members.contains(person)) {
-                return true;
-            }
+        version.incrementAndGet();
+    }
+
+
+    private DepartmentMembership getMembership() {
+
+        // memberships built while the departments are changed are tagged with the old version and rebuilt on next use
+        long currentVersion = version.get();
+        DepartmentMembership membership = currentMembership.get();
+
+        if (membership == null || membership.getVersion() != currentVersion) {
+            membership = new DepartmentMembership(currentVersion, departmentDAO.findAll());
+            currentMembership.set(membership);
         }
 
-        return false;
+        return membership;
+    }
+
+
+    /**
+     * Discards the department memberships as soon as the changes of the current transaction are committed, so that
+     * they are rebuilt including the changes on next use.
+     */
+    private void invalidateMembershipAfterCommit() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCommit() {
+
+                        version.incrementAndGet();
+                    }
+                });
+        } else {
+            version.incrementAndGet();
+        }
     }
 }
@@ -2,34 +2,51 @@ package org.synyx.urlaubsverwaltung.core.mail;
 
 import org.apache.commons.lang.CharEncoding;
 
+import org.apache.log4j.Logger;
+
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
 import org.springframework.stereotype.Service;
 
-import org.springframework.ui.velocity.VelocityEngineUtils;
+import java.io.IOException;
+import java.io.StringWriter;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 
 /**
  * Builds mail content by filling Velocity templates with data.
  *
+ * <p>All templates are parsed once on startup, so that an invalid template prevents the application from starting and
+ * mails are rendered from the already parsed templates.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
 class MailBuilder {
 
+    private static final Logger LOG = Logger.getLogger(MailBuilder.class);
+
     private static final String TEMPLATE_PATH = "/org/synyx/urlaubsverwaltung/core/mail/";
     private static final String TEMPLATE_TYPE = ".vm";
 
     private final VelocityEngine velocityEngine;
+    private final Map<String, Template> templates;
 
     @Autowired
     MailBuilder(VelocityEngine velocityEngine) {
 
         this.velocityEngine = velocityEngine;
+        this.templates = loadTemplates();
     }
 
     /**
@@ -42,8 +59,50 @@ class MailBuilder {
      */
     String buildMailBody(String templateName, Map<String, Object> model) {
 
-        return VelocityEngineUtils.mergeTemplateIntoString(velocityEngine, getFullyQualifiedTemplateName(templateName),
-                CharEncoding.UTF_8, model);
+        Template template = templates.get(templateName);
+
+        if (template == null) {
+            template = velocityEngine.getTemplate(getFullyQualifiedTemplateName(templateName), CharEncoding.UTF_8);
+        }
+
+        StringWriter writer = new StringWriter();
+        template.merge(new VelocityContext(model), writer);
+
+        return writer.toString();
+    }
+
+
+    /**
+     * Parses all templates found in {@value #TEMPLATE_PATH}.
+     *
+     * @return  the parsed templates by their name
+     *
+     * @throws  IllegalStateException  if the templates could not be found
+     */
+    private Map<String, Template> loadTemplates() {
+
+        Resource[] resources;
+
+        try {
+            resources = new PathMatchingResourcePatternResolver().getResources("classpath:" + TEMPLATE_PATH + "*"
+                    + TEMPLATE_TYPE);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not find mail templates in " + TEMPLATE_PATH, ex);
+        }
+
+        Map<String, Template> loadedTemplates = new HashMap<>();
+
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            String templateName = fileName.substring(0, fileName.length() - TEMPLATE_TYPE.length());
+
+            loadedTemplates.put(templateName,
+                velocityEngine.getTemplate(getFullyQualifiedTemplateName(templateName), CharEncoding.UTF_8));
+        }
+
+        LOG.info("Loaded " + loadedTemplates.size() + " mail templates");
+
+        return Collections.unmodifiableMap(loadedTemplates);
     }
 
 
@@ -0,0 +1,148 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.apache.log4j.Logger;
+
+import org.joda.time.DateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.synyx.urlaubsverwaltung.core.settings.MailSettings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Sends the mails of the outbox in the background. Mails that could not be sent are retried with an increasing delay,
+ * after {@value #MAX_ATTEMPTS} failed attempts they are kept in the outbox without being retried.
+ *
+ * <p>The mail server is not contacted within a transaction: the due mails are claimed in a short transaction first and
+ * the results are stored in another one afterwards, so that adding mails to the outbox does not have to wait for the
+ * mail server.</p>
+ */
+@Service
+class MailDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(MailDispatcher.class);
+
+    static final int MAX_ATTEMPTS = 10;
+    private static final int FIRST_RETRY_DELAY_SECONDS = 30;
+    private static final int CLAIM_DURATION_MINUTES = 10;
+
+    private final OutboxMailDAO outboxMailDAO;
+    private final MailSender mailSender;
+    private final SettingsService settingsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MailDispatcher(OutboxMailDAO outboxMailDAO, MailSender mailSender, SettingsService settingsService,
+        PlatformTransactionManager transactionManager) {
+
+        this.outboxMailDAO = outboxMailDAO;
+        this.mailSender = mailSender;
+        this.settingsService = settingsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sends the oldest mails of the outbox that are due over a single connection to the mail server.
+     *
+     * @return  the number of sent mails
+     */
+    @Scheduled(cron = "${uv.cron.sendMails}")
+    public int sendMails() {
+
+        List<OutboxMail> dueMails = transactionTemplate.execute(status -> claimDueMails());
+
+        if (dueMails.isEmpty()) {
+            return 0;
+        }
+
+        MailSettings mailSettings = settingsService.getSettings().getMailSettings();
+
+        List<OutboxMail> failedMails = mailSender.sendEmails(mailSettings, dueMails);
+
+        transactionTemplate.execute(status -> {
+            complete(dueMails, failedMails);
+
+            return null;
+        });
+
+        return dueMails.size() - failedMails.size();
+    }
+
+
+    /**
+     * Claims the oldest due mails by postponing their next attempt, so that they are not sent by another instance of
+     * the application while they are sent.
+     */
+    private List<OutboxMail> claimDueMails() {
+
+        List<OutboxMail> dueMails = outboxMailDAO.findTop50ByNextAttemptLessThanEqualOrderByIdAsc(
+                DateTime.now().toDate());
+
+        for (OutboxMail outboxMail : dueMails) {
+            outboxMail.claim(DateTime.now().plusMinutes(CLAIM_DURATION_MINUTES));
+        }
+
+        outboxMailDAO.save(dueMails);
+
+        return dueMails;
+    }
+
+
+    /**
+     * Removes the sent mails from the outbox and schedules the failed ones for retry. Mails that are not in the outbox
+     * anymore have been handled by another instance of the application after their claim expired.
+     */
+    private void complete(List<OutboxMail> dueMails, List<OutboxMail> failedMails) {
+
+        Map<Integer, OutboxMail> mailsById = outboxMailDAO.findByIdIn(dueMails.stream()
+                    .map(OutboxMail::getId)
+                    .collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(OutboxMail::getId, Function.identity()));
+
+        for (OutboxMail dueMail : dueMails) {
+            OutboxMail outboxMail = mailsById.get(dueMail.getId());
+
+            if (outboxMail == null) {
+                LOG.warn("Mail has been removed from the outbox while it was sent: " + dueMail);
+            } else if (failedMails.contains(dueMail)) {
+                outboxMail.failed(getNextAttempt(outboxMail.getFailedAttempts() + 1));
+                outboxMailDAO.save(outboxMail);
+
+                if (outboxMail.getNextAttempt() == null) {
+                    LOG.error("Sending mail failed " + MAX_ATTEMPTS + " times, giving up: " + outboxMail);
+                } else {
+                    LOG.warn("Sending mail failed, will retry at " + outboxMail.getNextAttempt() + ": " + outboxMail);
+                }
+            } else {
+                outboxMailDAO.delete(outboxMail);
+            }
+        }
+    }
+
+
+    /**
+     * Doubles the delay with every failed attempt: 30 seconds, 1 minute, 2 minutes and so on.
+     */
+    private static DateTime getNextAttempt(int failedAttempts) {
+
+        if (failedAttempts >= MAX_ATTEMPTS) {
+            return null;
+        }
+
+        return DateTime.now().plusSeconds(FIRST_RETRY_DELAY_SECONDS << (failedAttempts - 1));
+    }
+}
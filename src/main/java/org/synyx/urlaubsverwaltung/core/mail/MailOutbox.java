@@ -0,0 +1,51 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+
+/**
+ * Puts rendered mails into the outbox, from where they are sent in the background by {@link MailDispatcher}. As the
+ * mails are stored within the current transaction, they are only sent if the triggering changes are committed.
+ *
+ * <p>The mails are rendered before they are put into the outbox on purpose: their models consist of entities like the
+ * application for leave or the sick note, so rendering them later would describe the state at the time the mail is
+ * sent instead of the change that triggered it, and would need the lazy associations to be loaded outside of the
+ * request. Rendering from the templates parsed on startup is cheap compared to sending the mail.</p>
+ */
+@Service
+class MailOutbox {
+
+    private static final Logger LOG = Logger.getLogger(MailOutbox.class);
+
+    private final OutboxMailDAO outboxMailDAO;
+
+    @Autowired
+    MailOutbox(OutboxMailDAO outboxMailDAO) {
+
+        this.outboxMailDAO = outboxMailDAO;
+    }
+
+    /**
+     * Puts a mail with the given subject and text to the given recipients into the outbox.
+     *
+     * @param  recipients  mail addresses where the mail should be sent to
+     * @param  subject  mail subject
+     * @param  text  mail body
+     */
+    void add(List<String> recipients, String subject, String text) {
+
+        if (recipients != null && !recipients.isEmpty()) {
+            OutboxMail outboxMail = outboxMailDAO.save(new OutboxMail(recipients, subject, text));
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Added mail to outbox: " + outboxMail);
+            }
+        }
+    }
+}
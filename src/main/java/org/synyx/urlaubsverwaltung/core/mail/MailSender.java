@@ -2,10 +2,8 @@ package org.synyx.urlaubsverwaltung.core.mail;
 
 import org.apache.log4j.Logger;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -13,13 +11,24 @@ import org.springframework.stereotype.Service;
 
 import org.synyx.urlaubsverwaltung.core.settings.MailSettings;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Supplier;
 
 
 /**
  * Sends mails using {@link JavaMailSenderImpl}.
  *
+ * <p>For every mail settings snapshot a separately configured {@link JavaMailSenderImpl} is created and never changed
+ * afterwards, so that concurrent senders do not interfere with each other. Several mails can be sent over a single
+ * connection to the mail server, the connections are kept in a small pool by {@link PooledJavaMailSender} and closed
+ * when the settings change.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
@@ -27,12 +36,22 @@ class MailSender {
 
     private static final Logger LOG = Logger.getLogger(MailSender.class);
 
-    private final JavaMailSenderImpl mailSender;
+    private static final String CONNECTION_TIMEOUT_MILLIS = "10000";
+    private static final String TIMEOUT_MILLIS = "30000";
+
+    private final Supplier<JavaMailSenderImpl> mailSenderFactory;
+
+    private volatile ConfiguredMailSender configuredMailSender;
+
+    MailSender() {
 
-    @Autowired
-    MailSender(@Qualifier("javaMailSender") JavaMailSenderImpl mailSender) {
+        this(PooledJavaMailSender::new);
+    }
+
+
+    MailSender(Supplier<JavaMailSenderImpl> mailSenderFactory) {
 
-        this.mailSender = mailSender;
+        this.mailSenderFactory = mailSenderFactory;
     }
 
     /**
@@ -42,44 +61,107 @@ class MailSender {
      * @param  recipients  mail addresses where the mail should be sent to
      * @param  subject  mail subject
      * @param  text  mail body
+     *
+     * @throws  MailException  if the mail could not be sent
      */
     void sendEmail(MailSettings mailSettings, List<String> recipients, String subject, String text) {
 
         if (recipients != null && !recipients.isEmpty()) {
-            SimpleMailMessage mailMessage = new SimpleMailMessage();
+            SimpleMailMessage mailMessage = createMessage(mailSettings, recipients, subject, text);
+
+            try {
+                send(mailSettings, mailMessage);
+            } catch (MailException ex) {
+                logFailure(mailMessage, ex);
+
+                throw ex;
+            }
+        }
+    }
+
+
+    /**
+     * Sends the given mails over a single connection to the mail server.
+     *
+     * @param  mailSettings  contains settings that should be used to send mails
+     * @param  mails  to be sent
+     *
+     * @return  the mails that could not be sent
+     */
+    List<OutboxMail> sendEmails(MailSettings mailSettings, List<OutboxMail> mails) {
+
+        if (mails.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        SimpleMailMessage[] mailMessages = mails.stream()
+                .map(mail -> createMessage(mailSettings, mail.getRecipients(), mail.getSubject(), mail.getText()))
+                .toArray(SimpleMailMessage[]::new);
 
-            String[] addressTo = new String[recipients.size()];
+        try {
+            send(mailSettings, mailMessages);
+
+            return Collections.emptyList();
+        } catch (MailSendException ex) {
+            Map<Object, Exception> failedMessages = ex.getFailedMessages();
 
-            for (int i = 0; i < recipients.size(); i++) {
-                addressTo[i] = recipients.get(i);
+            if (failedMessages.isEmpty()) {
+                return failedMails(mails, mailMessages, ex);
             }
 
-            mailMessage.setFrom(mailSettings.getFrom());
-            mailMessage.setTo(addressTo);
-            mailMessage.setSubject(subject);
-            mailMessage.setText(text);
+            List<OutboxMail> failedMails = new ArrayList<>();
+
+            for (int i = 0; i < mailMessages.length; i++) {
+                Exception failure = failedMessages.get(mailMessages[i]);
 
-            send(mailMessage, mailSettings);
+                if (failure != null) {
+                    logFailure(mailMessages[i], failure);
+                    failedMails.add(mails.get(i));
+                }
+            }
+
+            return failedMails;
+        } catch (MailException ex) {
+            return failedMails(mails, mailMessages, ex);
         }
     }
 
 
-    private void send(SimpleMailMessage message, MailSettings mailSettings) {
+    private List<OutboxMail> failedMails(List<OutboxMail> mails, SimpleMailMessage[] mailMessages, Exception ex) {
 
-        try {
-            if (mailSettings.isActive()) {
-                this.mailSender.setHost(mailSettings.getHost());
-                this.mailSender.setPort(mailSettings.getPort());
-                this.mailSender.setUsername(mailSettings.getUsername());
-                this.mailSender.setPassword(mailSettings.getPassword());
+        for (SimpleMailMessage mailMessage : mailMessages) {
+            logFailure(mailMessage, ex);
+        }
+
+        return mails;
+    }
+
+
+    private static SimpleMailMessage createMessage(MailSettings mailSettings, List<String> recipients, String subject,
+        String text) {
+
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
 
-                this.mailSender.send(message);
+        mailMessage.setFrom(mailSettings.getFrom());
+        mailMessage.setTo(recipients.toArray(new String[recipients.size()]));
+        mailMessage.setSubject(subject);
+        mailMessage.setText(text);
 
-                for (String recipient : message.getTo()) {
+        return mailMessage;
+    }
+
+
+    private void send(MailSettings mailSettings, SimpleMailMessage... messages) {
+
+        if (mailSettings.isActive()) {
+            getMailSender(mailSettings).send(messages);
+        }
+
+        for (SimpleMailMessage message : messages) {
+            for (String recipient : message.getTo()) {
+                if (mailSettings.isActive()) {
                     LOG.info("Sent email to " + recipient);
-                }
-            } else {
-                for (String recipient : message.getTo()) {
+                } else {
                     LOG.info("No email configuration to send email to " + recipient);
                 }
             }
@@ -89,10 +171,72 @@ class MailSender {
                     + "Subject=" + message.getSubject() + "\n\n"
                     + "Text=" + message.getText());
             }
-        } catch (MailException ex) {
-            for (String recipient : message.getTo()) {
-                LOG.error("Sending email to " + recipient + " failed", ex);
+        }
+    }
+
+
+    private static void logFailure(SimpleMailMessage message, Exception ex) {
+
+        for (String recipient : message.getTo()) {
+            LOG.error("Sending email to " + recipient + " failed", ex);
+        }
+    }
+
+
+    private JavaMailSenderImpl getMailSender(MailSettings mailSettings) {
+
+        ConfiguredMailSender current = configuredMailSender;
+
+        if (current == null || !current.isConfiguredFor(mailSettings)) {
+            ConfiguredMailSender previous = current;
+
+            current = new ConfiguredMailSender(mailSettings, mailSenderFactory.get());
+            configuredMailSender = current;
+
+            if (previous != null && previous.mailSender instanceof PooledJavaMailSender) {
+                ((PooledJavaMailSender) previous.mailSender).close();
             }
         }
+
+        return current.mailSender;
+    }
+
+    /**
+     * A {@link JavaMailSenderImpl} together with the mail settings it has been configured with.
+     */
+    private static final class ConfiguredMailSender {
+
+        private final String host;
+        private final Integer port;
+        private final String username;
+        private final String password;
+        private final JavaMailSenderImpl mailSender;
+
+        ConfiguredMailSender(MailSettings mailSettings, JavaMailSenderImpl mailSender) {
+
+            this.host = mailSettings.getHost();
+            this.port = mailSettings.getPort();
+            this.username = mailSettings.getUsername();
+            this.password = mailSettings.getPassword();
+
+            Properties properties = new Properties();
+            properties.setProperty("mail.smtp.connectiontimeout", CONNECTION_TIMEOUT_MILLIS);
+            properties.setProperty("mail.smtp.timeout", TIMEOUT_MILLIS);
+
+            mailSender.setHost(host);
+            mailSender.setPort(port);
+            mailSender.setUsername(username);
+            mailSender.setPassword(password);
+            mailSender.setJavaMailProperties(properties);
+
+            this.mailSender = mailSender;
+        }
+
+        boolean isConfiguredFor(MailSettings mailSettings) {
+
+            return Objects.equals(host, mailSettings.getHost()) && Objects.equals(port, mailSettings.getPort())
+                && Objects.equals(username, mailSettings.getUsername())
+                && Objects.equals(password, mailSettings.getPassword());
+        }
     }
 }
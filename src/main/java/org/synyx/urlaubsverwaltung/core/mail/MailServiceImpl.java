@@ -45,18 +45,18 @@ class MailServiceImpl implements MailService {
 
     private final MessageSource messageSource;
     private final MailBuilder mailBuilder;
-    private final MailSender mailSender;
+    private final MailOutbox mailOutbox;
     private final RecipientService recipientService;
     private final DepartmentService departmentService;
     private final SettingsService settingsService;
 
     @Autowired
-    MailServiceImpl(MessageSource messageSource, MailBuilder mailBuilder, MailSender mailSender,
+    MailServiceImpl(MessageSource messageSource, MailBuilder mailBuilder, MailOutbox mailOutbox,
                     RecipientService recipientService, DepartmentService departmentService, SettingsService settingsService) {
 
         this.messageSource = messageSource;
         this.mailBuilder = mailBuilder;
-        this.mailSender = mailSender;
+        this.mailOutbox = mailOutbox;
         this.recipientService = recipientService;
         this.departmentService = departmentService;
         this.settingsService = settingsService;
@@ -89,13 +89,11 @@ class MailServiceImpl implements MailService {
     private void sendMailToEachRecipient(Map<String, Object> model, List<Person> recipients, String template,
         String subject) {
 
-        MailSettings mailSettings = getMailSettings();
-
         for (Person recipient : recipients) {
             model.put("recipient", recipient);
 
             String text = mailBuilder.buildMailBody(template, model);
-            mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(recipient), subject, text);
+            mailOutbox.add(RecipientUtil.getMailAddresses(recipient), subject, text);
         }
     }
 
@@ -146,7 +144,7 @@ class MailServiceImpl implements MailService {
 
         // Inform user that the application for leave has been allowed temporary
         String textUser = mailBuilder.buildMailBody("temporary_allowed_user", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.temporaryAllowed.user"), textUser);
 
         // Inform second stage authorities that there is an application for leave that must be allowed
@@ -165,14 +163,13 @@ class MailServiceImpl implements MailService {
 
         // Inform user that the application for leave has been allowed
         String textUser = mailBuilder.buildMailBody("allowed_user", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.allowed.user"), textUser);
 
         // Inform office that there is a new allowed application for leave
 
         String textOffice = mailBuilder.buildMailBody("allowed_office", model);
-        mailSender.sendEmail(mailSettings,
-            RecipientUtil.getMailAddresses(
+        mailOutbox.add(RecipientUtil.getMailAddresses(
                 recipientService.getRecipientsWithNotificationType(MailNotification.NOTIFICATION_OFFICE)),
             getTranslation("subject.application.allowed.office"), textOffice);
     }
@@ -185,7 +182,7 @@ class MailServiceImpl implements MailService {
         Map<String, Object> model = createModelForApplicationStatusChangeMail(mailSettings, application,
                 Optional.ofNullable(comment));
         String text = mailBuilder.buildMailBody("rejected", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.rejected"), text);
     }
 
@@ -202,7 +199,7 @@ class MailServiceImpl implements MailService {
         model.put("sender", sender);
 
         String text = mailBuilder.buildMailBody("refer", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(recipient),
+        mailOutbox.add(RecipientUtil.getMailAddresses(recipient),
             getTranslation("subject.application.refer"), text);
     }
 
@@ -214,7 +211,7 @@ class MailServiceImpl implements MailService {
         Map<String, Object> model = createModelForApplicationStatusChangeMail(mailSettings, application,
                 Optional.ofNullable(comment));
         String text = mailBuilder.buildMailBody("confirm", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.applied.user"), text);
     }
 
@@ -226,7 +223,7 @@ class MailServiceImpl implements MailService {
         Map<String, Object> model = createModelForApplicationStatusChangeMail(mailSettings, application,
                 Optional.ofNullable(comment));
         String text = mailBuilder.buildMailBody("new_application_by_office", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.appliedByOffice"), text);
     }
 
@@ -240,7 +237,7 @@ class MailServiceImpl implements MailService {
 
         String text = mailBuilder.buildMailBody("cancelled_by_office", model);
 
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.application.cancelled.user"), text);
     }
 
@@ -255,7 +252,7 @@ class MailServiceImpl implements MailService {
 
         MailSettings mailSettings = settingsService.getSettings().getMailSettings();
 
-        mailSender.sendEmail(mailSettings, Collections.singletonList(mailSettings.getAdministrator()), subject, text);
+        mailOutbox.add(Collections.singletonList(mailSettings.getAdministrator()), subject, text);
     }
 
 
@@ -313,8 +310,7 @@ class MailServiceImpl implements MailService {
         String text = mailBuilder.buildMailBody("updated_accounts", model);
 
         // send email to office for printing statistic
-        mailSender.sendEmail(getMailSettings(),
-            RecipientUtil.getMailAddresses(
+        mailOutbox.add(RecipientUtil.getMailAddresses(
                 recipientService.getRecipientsWithNotificationType(MailNotification.NOTIFICATION_OFFICE)),
             getTranslation("subject.account.updatedRemainingDays"), text);
 
@@ -344,7 +340,7 @@ class MailServiceImpl implements MailService {
         model.put("settings", mailSettings);
 
         String text = mailBuilder.buildMailBody("sicknote_converted", model);
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(application.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getPerson()),
             getTranslation("subject.sicknote.converted"), text);
     }
 
@@ -357,10 +353,9 @@ class MailServiceImpl implements MailService {
 
         String text = mailBuilder.buildMailBody("sicknote_end_of_sick_pay", model);
 
-        mailSender.sendEmail(getMailSettings(), RecipientUtil.getMailAddresses(sickNote.getPerson()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(sickNote.getPerson()),
             getTranslation("subject.sicknote.endOfSickPay"), text);
-        mailSender.sendEmail(getMailSettings(),
-            RecipientUtil.getMailAddresses(
+        mailOutbox.add(RecipientUtil.getMailAddresses(
                 recipientService.getRecipientsWithNotificationType(MailNotification.NOTIFICATION_OFFICE)),
             getTranslation("subject.sicknote.endOfSickPay"), text);
     }
@@ -375,7 +370,7 @@ class MailServiceImpl implements MailService {
 
         String text = mailBuilder.buildMailBody("notify_holiday_replacement", model);
 
-        mailSender.sendEmail(getMailSettings(), RecipientUtil.getMailAddresses(application.getHolidayReplacement()),
+        mailOutbox.add(RecipientUtil.getMailAddresses(application.getHolidayReplacement()),
             getTranslation("subject.application.holidayReplacement"), text);
     }
 
@@ -390,7 +385,7 @@ class MailServiceImpl implements MailService {
 
         String text = mailBuilder.buildMailBody("user_creation", model);
 
-        mailSender.sendEmail(getMailSettings(), RecipientUtil.getMailAddresses(person),
+        mailOutbox.add(RecipientUtil.getMailAddresses(person),
             getTranslation("subject.userCreation"), text);
     }
 
@@ -407,8 +402,7 @@ class MailServiceImpl implements MailService {
 
         String text = mailBuilder.buildMailBody("application_cancellation_request", model);
 
-        mailSender.sendEmail(mailSettings,
-            RecipientUtil.getMailAddresses(
+        mailOutbox.add(RecipientUtil.getMailAddresses(
                 recipientService.getRecipientsWithNotificationType(MailNotification.NOTIFICATION_OFFICE)),
             getTranslation("subject.application.cancellationRequest"), text);
     }
@@ -429,7 +423,7 @@ class MailServiceImpl implements MailService {
         List<Person> recipients = recipientService.getRecipientsWithNotificationType(
                 MailNotification.OVERTIME_NOTIFICATION_OFFICE);
 
-        mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(recipients),
+        mailOutbox.add(RecipientUtil.getMailAddresses(recipients),
             getTranslation("subject.overtime.created"), textOffice);
     }
 
@@ -472,7 +466,7 @@ class MailServiceImpl implements MailService {
 
             String msg = mailBuilder.buildMailBody("cron_remind", model);
 
-            mailSender.sendEmail(mailSettings, RecipientUtil.getMailAddresses(recipient),
+            mailOutbox.add(RecipientUtil.getMailAddresses(recipient),
                 getTranslation("subject.application.cronRemind"), msg);
         }
     }
@@ -0,0 +1,147 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import org.joda.time.DateTime;
+
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Temporal;
+
+
+/**
+ * A rendered mail that waits in the outbox to be sent. It is stored within the transaction that triggered the mail,
+ * so that the mail is neither lost nor sent for changes that have been rolled back.
+ */
+@Entity
+public class OutboxMail extends AbstractPersistable<Integer> {
+
+    private static final long serialVersionUID = 3698745623478563426L;
+
+    private static final String RECIPIENT_SEPARATOR = ",";
+
+    @Column(nullable = false)
+    private String recipients;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String text;
+
+    @Column(nullable = false)
+    @Temporal(javax.persistence.TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    /**
+     * When the next attempt to send the mail is due, {@code null} if sending failed too often.
+     */
+    @Temporal(javax.persistence.TemporalType.TIMESTAMP)
+    private Date nextAttempt;
+
+    private int failedAttempts;
+
+    OutboxMail() {
+
+        // OK
+    }
+
+
+    public OutboxMail(List<String> recipients, String subject, String text) {
+
+        Assert.notEmpty(recipients, "Recipients must be given.");
+        Assert.notNull(subject, "Subject must be given.");
+        Assert.notNull(text, "Text must be given.");
+
+        this.recipients = StringUtils.collectionToDelimitedString(recipients, RECIPIENT_SEPARATOR);
+        this.subject = subject;
+        this.text = text;
+
+        this.createdAt = DateTime.now().toDate();
+        this.nextAttempt = this.createdAt;
+    }
+
+    public List<String> getRecipients() {
+
+        return Arrays.asList(StringUtils.delimitedListToStringArray(recipients, RECIPIENT_SEPARATOR));
+    }
+
+
+    public String getSubject() {
+
+        return subject;
+    }
+
+
+    public String getText() {
+
+        return text;
+    }
+
+
+    public DateTime getCreatedAt() {
+
+        return new DateTime(createdAt);
+    }
+
+
+    public DateTime getNextAttempt() {
+
+        if (nextAttempt == null) {
+            return null;
+        }
+
+        return new DateTime(nextAttempt);
+    }
+
+
+    public int getFailedAttempts() {
+
+        return failedAttempts;
+    }
+
+
+    /**
+     * Postpones the next attempt while the mail is being sent, so that it is not sent twice.
+     *
+     * @param  until  when the mail may be sent again if the result of sending it is not recorded
+     */
+    public void claim(DateTime until) {
+
+        this.nextAttempt = until.toDate();
+    }
+
+
+    /**
+     * Records a failed attempt to send the mail.
+     *
+     * @param  nextAttempt  when to try again, {@code null} to give up sending the mail
+     */
+    public void failed(DateTime nextAttempt) {
+
+        this.failedAttempts++;
+        this.nextAttempt = nextAttempt == null ? null : nextAttempt.toDate();
+    }
+
+
+    @Override
+    public String toString() {
+
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("id", getId())
+            .append("recipients", recipients)
+            .append("subject", subject)
+            .append("failedAttempts", failedAttempts)
+            .append("nextAttempt", nextAttempt)
+            .toString();
+    }
+}
@@ -0,0 +1,32 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+
+/**
+ * Allows access to the mails in the outbox.
+ */
+public interface OutboxMailDAO extends JpaRepository<OutboxMail, Integer> {
+
+    /**
+     * Gets the oldest mails whose next attempt to be sent is due. The mails are locked until the end of the
+     * transaction, so that other instances of the application do not claim them at the same time.
+     *
+     * @param  date  to get the due mails for
+     *
+     * @return  the oldest due mails, at most 50
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxMail> findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Date date);
+
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxMail> findByIdIn(Collection<Integer> ids);
+}
@@ -0,0 +1,169 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+
+/**
+ * {@link JavaMailSenderImpl} that keeps a small pool of connected and authenticated transports to the mail server,
+ * instead of connecting anew for every send.
+ *
+ * <p>A transport is borrowed from the pool for a send and returned afterwards, so that it is never used by two senders
+ * at the same time. Transports that have been idle for longer than {@value #MAX_IDLE_MILLIS} milliseconds or are not
+ * connected anymore are closed instead of being reused.</p>
+ */
+class PooledJavaMailSender extends JavaMailSenderImpl {
+
+    private static final Logger LOG = Logger.getLogger(PooledJavaMailSender.class);
+
+    static final int POOL_SIZE = 2;
+    private static final long MAX_IDLE_MILLIS = 60000;
+
+    private final BlockingQueue<IdleTransport> idleTransports = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private volatile boolean closed;
+
+    @Override
+    protected Transport connectTransport() throws MessagingException {
+
+        IdleTransport idleTransport;
+
+        while ((idleTransport = idleTransports.poll()) != null) {
+            Transport transport = idleTransport.transport;
+
+            if (!idleTransport.isExpired() && transport.isConnected()) {
+                return new PooledTransport(getSession(), transport);
+            }
+
+            closeQuietly(transport);
+        }
+
+        return new PooledTransport(getSession(), super.connectTransport());
+    }
+
+
+    /**
+     * Closes the idle transports, transports that are in use are closed when they are returned.
+     */
+    void close() {
+
+        closed = true;
+
+        IdleTransport idleTransport;
+
+        while ((idleTransport = idleTransports.poll()) != null) {
+            closeQuietly(idleTransport.transport);
+        }
+    }
+
+
+    private void release(Transport transport) {
+
+        IdleTransport idleTransport = new IdleTransport(transport);
+
+        if (!closed && idleTransports.offer(idleTransport)) {
+            if (closed && idleTransports.remove(idleTransport)) {
+                // the sender has been closed concurrently, after the idle transports have been closed
+                closeQuietly(transport);
+            }
+
+            return;
+        }
+
+        closeQuietly(transport);
+    }
+
+
+    private static void closeQuietly(Transport transport) {
+
+        try {
+            transport.close();
+        } catch (MessagingException ex) {
+            LOG.debug("Closing connection to mail server failed", ex);
+        }
+    }
+
+    /**
+     * A transport waiting in the pool, together with the time it has been returned.
+     */
+    private static final class IdleTransport {
+
+        private final Transport transport;
+        private final long releasedAt;
+
+        IdleTransport(Transport transport) {
+
+            this.transport = transport;
+            this.releasedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired() {
+
+            return System.currentTimeMillis() - releasedAt > MAX_IDLE_MILLIS;
+        }
+
+
+        @Override
+        public boolean equals(Object other) {
+
+            return other instanceof IdleTransport && ((IdleTransport) other).transport == transport;
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return System.identityHashCode(transport);
+        }
+    }
+
+    /**
+     * Transport handed out to {@link JavaMailSenderImpl}, which returns the underlying transport to the pool when it is
+     * closed.
+     */
+    private final class PooledTransport extends Transport {
+
+        private final Transport transport;
+        private boolean released;
+
+        PooledTransport(Session session, Transport transport) {
+
+            super(session, null);
+
+            this.transport = transport;
+        }
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+
+            transport.sendMessage(message, addresses);
+        }
+
+
+        @Override
+        public synchronized boolean isConnected() {
+
+            return !released && transport.isConnected();
+        }
+
+
+        @Override
+        public synchronized void close() {
+
+            if (!released) {
+                released = true;
+                release(transport);
+            }
+        }
+    }
+}
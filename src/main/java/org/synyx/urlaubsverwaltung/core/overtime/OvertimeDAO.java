@@ -27,6 +27,16 @@ public interface OvertimeDAO extends JpaRepository<Overtime, Integer> {
     BigDecimal calculateTotalHoursForPerson(@Param("person") Person person);
 
 
+    /**
+     * @return  rows containing the ID of a person and the sum of the person's overtime hours
+     */
+    @Query(
+        "SELECT overtime.person.id, SUM(overtime.hours) FROM Overtime overtime WHERE overtime.person IN :persons "
+        + "GROUP BY overtime.person.id"
+    )
+    List<Object[]> calculateTotalHoursForPersons(@Param("persons") List<Person> persons);
+
+
     @Query(
         "SELECT overtime FROM Overtime overtime WHERE overtime.person = :person "
         + "AND ((overtime.startDate BETWEEN :start AND :end) "
@@ -5,6 +5,7 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 import java.math.BigDecimal;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -91,4 +92,15 @@ public interface OvertimeService {
      * @since  2.13.0
      */
     BigDecimal getLeftOvertimeForPerson(Person person);
+
+
+    /**
+     * Get the left overtime hours for each of the given persons, summing up the recorded overtime and the overtime
+     * reduction of all the persons with one query each.
+     *
+     * @param  persons  to get the left overtime for
+     *
+     * @return  the left overtime of each of the given persons, never {@code null}
+     */
+    Map<Person, BigDecimal> getLeftOvertimeForPersons(List<Person> persons);
 }
@@ -15,8 +15,11 @@ import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
@@ -138,6 +141,28 @@ public class OvertimeServiceImpl implements OvertimeService {
     }
 
 
+    @Override
+    public Map<Person, BigDecimal> getLeftOvertimeForPersons(List<Person> persons) {
+
+        Map<Integer, BigDecimal> totalOvertimeByPersonId = overtimeDAO.calculateTotalHoursForPersons(persons)
+                .stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> (BigDecimal) row[1]));
+
+        Map<Person, BigDecimal> overtimeReduction = applicationService.getTotalOvertimeReductionOfPersons(persons);
+
+        Map<Person, BigDecimal> leftOvertime = new HashMap<>();
+
+        for (Person person : persons) {
+            BigDecimal totalOvertime = totalOvertimeByPersonId.getOrDefault(person.getId(), BigDecimal.ZERO);
+
+            leftOvertime.put(person,
+                totalOvertime.subtract(overtimeReduction.getOrDefault(person, BigDecimal.ZERO)));
+        }
+
+        return leftOvertime;
+    }
+
+
     private BigDecimal getTotalOvertimeForPerson(Person person) {
 
         Optional<BigDecimal> totalOvertime = Optional.ofNullable(overtimeDAO.calculateTotalHoursForPerson(person));
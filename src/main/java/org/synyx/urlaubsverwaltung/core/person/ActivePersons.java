@@ -0,0 +1,68 @@
+package org.synyx.urlaubsverwaltung.core.person;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable snapshot of the active persons, sorted by name and indexed by role and by mail notification.
+ */
+final class ActivePersons {
+
+    private final long version;
+    private final List<Person> persons;
+    private final Map<Role, List<Person>> personsByRole = new EnumMap<>(Role.class);
+    private final Map<MailNotification, List<Person>> personsByNotification = new EnumMap<>(MailNotification.class);
+
+    /**
+     * @param  version  of the persons the snapshot has been taken of
+     * @param  persons  active persons, sorted by name
+     */
+    ActivePersons(long version, List<Person> persons) {
+
+        this.version = version;
+        this.persons = Collections.unmodifiableList(persons);
+
+        for (Role role : Role.values()) {
+            personsByRole.put(role, filter(persons, person -> person.hasRole(role)));
+        }
+
+        for (MailNotification notification : MailNotification.values()) {
+            personsByNotification.put(notification,
+                filter(persons, person -> person.hasNotificationType(notification)));
+        }
+    }
+
+    private static List<Person> filter(List<Person> persons, Predicate<Person> predicate) {
+
+        return Collections.unmodifiableList(persons.stream().filter(predicate).collect(Collectors.toList()));
+    }
+
+
+    long getVersion() {
+
+        return version;
+    }
+
+
+    List<Person> getPersons() {
+
+        return persons;
+    }
+
+
+    List<Person> getPersonsByRole(Role role) {
+
+        return personsByRole.get(role);
+    }
+
+
+    List<Person> getPersonsByNotification(MailNotification notification) {
+
+        return personsByNotification.get(notification);
+    }
+}
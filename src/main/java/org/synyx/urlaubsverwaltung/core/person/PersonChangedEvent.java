@@ -0,0 +1,28 @@
+package org.synyx.urlaubsverwaltung.core.person;
+
+import org.springframework.context.ApplicationEvent;
+
+
+/**
+ * Published by {@link PersonService} whenever a {@link Person} has been saved, so that copies of the person kept
+ * elsewhere can be discarded.
+ */
+public class PersonChangedEvent extends ApplicationEvent {
+
+    private final Person person;
+
+    public PersonChangedEvent(Object source, Person person) {
+
+        super(source);
+
+        this.person = person;
+    }
+
+    /**
+     * @return  the person that has been saved
+     */
+    public Person getPerson() {
+
+        return person;
+    }
+}
@@ -1,6 +1,10 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 
 /**
@@ -12,4 +16,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface PersonDAO extends JpaRepository<Person, Integer> {
 
     Person findByLoginName(String loginName);
+
+
+    List<Person> findByLoginNameIn(Collection<String> loginNames);
+
+
+    @Query("SELECT DISTINCT p FROM Person p LEFT JOIN FETCH p.permissions WHERE ?1 MEMBER OF p.permissions")
+    List<Person> findWithRole(Role role);
+
+
+    @Query("SELECT DISTINCT p FROM Person p LEFT JOIN FETCH p.permissions WHERE ?1 NOT MEMBER OF p.permissions")
+    List<Person> findWithoutRole(Role role);
 }
@@ -1,5 +1,6 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -67,7 +68,7 @@ public interface PersonService {
 
 
     /**
-     * saves a {@link Person}.
+     * saves a {@link Person} and publishes a {@link PersonChangedEvent}.
      *
      * @param  person  {@link Person}
      */
@@ -84,6 +85,16 @@ public interface PersonService {
     Optional<Person> getPersonByID(Integer id);
 
 
+    /**
+     * finds all {@link Person}s in the database with the given primary keys, IDs without a person are ignored.
+     *
+     * @param  ids  of the persons
+     *
+     * @return  {@link List} of {@link Person} ordered by first name
+     */
+    List<Person> getPersonsByIDs(List<Integer> ids);
+
+
     /**
      * finds a {@link Person} in the database by login name.
      *
@@ -94,6 +105,16 @@ public interface PersonService {
     Optional<Person> getPersonByLogin(String loginName);
 
 
+    /**
+     * finds all {@link Person}s in the database with the given login names, login names without a person are ignored.
+     *
+     * @param  loginNames  of the persons
+     *
+     * @return  {@link List} of {@link Person} in no particular order
+     */
+    List<Person> getPersonsByLogins(Collection<String> loginNames);
+
+
     /**
      * finds all {@link Person}s in the database that have the given {@link Role}.
      *
@@ -104,6 +125,18 @@ public interface PersonService {
     List<Person> getPersonsByRole(Role role);
 
 
+    /**
+     * checks in the database whether an active {@link Person} with the given {@link Role} exists. Unlike
+     * {@link #getPersonsByRole(Role)} this does not use the active persons kept in memory, so that a person given the
+     * role by another instance of the application is taken into account right away.
+     *
+     * @param  role  {@link Role}
+     *
+     * @return  {@code true} if an active person with the given role exists, else {@code false}
+     */
+    boolean existsActivePersonWithRole(Role role);
+
+
     /**
      * returns all {@link Person}s that have the given {@link MailNotification} type.
      *
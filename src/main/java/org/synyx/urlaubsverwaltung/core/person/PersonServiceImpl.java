@@ -1,18 +1,32 @@
 package org.synyx.urlaubsverwaltung.core.person;
 
+import com.google.common.collect.Lists;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 
 /**
  * Implementation for {@link PersonService}.
  *
+ * <p>The active persons are needed for nearly every mail and person list, so they are kept in memory as
+ * {@link ActivePersons}. Every saved person increments the version of the persons as soon as the changes are
+ * committed, a snapshot of an older version is replaced on next use. To pick up changes made by other instances of
+ * the application, the version is incremented periodically as well.</p>
+ *
  * @author Aljona Murygina
  * @author Johannes Reuter
  */
@@ -21,12 +35,19 @@ class PersonServiceImpl implements PersonService {
 
     private static final Logger LOG = Logger.getLogger(PersonServiceImpl.class);
 
+    private static final int LOGINS_PER_QUERY = 1000;
+
     private final PersonDAO personDAO;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<ActivePersons> activePersons = new AtomicReference<>();
 
     @Autowired
-    PersonServiceImpl(PersonDAO personDAO) {
+    PersonServiceImpl(PersonDAO personDAO, ApplicationEventPublisher applicationEventPublisher) {
 
         this.personDAO = personDAO;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
@@ -99,6 +120,31 @@ class PersonServiceImpl implements PersonService {
     public void save(Person person) {
 
         personDAO.save(person);
+
+        applicationEventPublisher.publishEvent(new PersonChangedEvent(this, person));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCommit() {
+
+                        version.incrementAndGet();
+                    }
+                });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Discards the active persons kept in memory, to pick up changes made by other instances of the application.
+     */
+    @Scheduled(cron = "${uv.cron.reloadPersons}")
+    public void reloadPersons() {
+
+        version.incrementAndGet();
     }
 
 
@@ -109,6 +155,13 @@ class PersonServiceImpl implements PersonService {
     }
 
 
+    @Override
+    public List<Person> getPersonsByIDs(List<Integer> ids) {
+
+        return personDAO.findAll(ids).stream().sorted(personComparator()).collect(Collectors.toList());
+    }
+
+
     @Override
     public Optional<Person> getPersonByLogin(String loginName) {
 
@@ -116,17 +169,46 @@ class PersonServiceImpl implements PersonService {
     }
 
 
+    /**
+     * The persons are loaded with one query per {@value #LOGINS_PER_QUERY} login names, to keep the queries within the
+     * limits of the database.
+     */
     @Override
-    public List<Person> getActivePersons() {
+    public List<Person> getPersonsByLogins(Collection<String> loginNames) {
 
-        return personDAO.findAll()
+        return Lists.partition(new ArrayList<>(loginNames), LOGINS_PER_QUERY)
                 .stream()
-                .filter(person -> !person.hasRole(Role.INACTIVE))
-                .sorted(personComparator())
+                .flatMap(logins -> personDAO.findByLoginNameIn(logins).stream())
                 .collect(Collectors.toList());
     }
 
 
+    @Override
+    public List<Person> getActivePersons() {
+
+        return new ArrayList<>(getActivePersonsSnapshot().getPersons());
+    }
+
+
+    private ActivePersons getActivePersonsSnapshot() {
+
+        long currentVersion = version.get();
+        ActivePersons snapshot = activePersons.get();
+
+        if (snapshot == null || snapshot.getVersion() != currentVersion) {
+            List<Person> persons = personDAO.findWithoutRole(Role.INACTIVE)
+                    .stream()
+                    .sorted(personComparator())
+                    .collect(Collectors.toList());
+
+            snapshot = new ActivePersons(currentVersion, persons);
+            activePersons.set(snapshot);
+        }
+
+        return snapshot;
+    }
+
+
     private Comparator<Person> personComparator() {
 
         return (p1, p2) -> p1.getNiceName().toLowerCase().compareTo(p2.getNiceName().toLowerCase());
@@ -136,9 +218,8 @@ class PersonServiceImpl implements PersonService {
     @Override
     public List<Person> getInactivePersons() {
 
-        return personDAO.findAll()
+        return personDAO.findWithRole(Role.INACTIVE)
                 .stream()
-                .filter(person -> person.hasRole(Role.INACTIVE))
                 .sorted(personComparator())
                 .collect(Collectors.toList());
     }
@@ -147,15 +228,20 @@ class PersonServiceImpl implements PersonService {
     @Override
     public List<Person> getPersonsByRole(final Role role) {
 
-        return getActivePersons().stream().filter(person -> person.hasRole(role)).collect(Collectors.toList());
+        return new ArrayList<>(getActivePersonsSnapshot().getPersonsByRole(role));
+    }
+
+
+    @Override
+    public boolean existsActivePersonWithRole(Role role) {
+
+        return personDAO.findWithRole(role).stream().anyMatch(person -> !person.hasRole(Role.INACTIVE));
     }
 
 
     @Override
     public List<Person> getPersonsWithNotificationType(final MailNotification notification) {
 
-        return getActivePersons().stream()
-                .filter(person -> person.hasNotificationType(notification))
-                .collect(Collectors.toList());
+        return new ArrayList<>(getActivePersonsSnapshot().getPersonsByNotification(notification));
     }
 }
@@ -1,8 +1,11 @@
 package org.synyx.urlaubsverwaltung.core.settings;
 
+import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
+import org.springframework.beans.BeanUtils;
+
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
 import javax.persistence.Entity;
@@ -95,6 +98,60 @@ public class Settings extends AbstractPersistable<Integer> {
     }
 
 
+    /**
+     * @return  a deep copy of these settings, changing the copy does not change these settings
+     */
+    Settings copy() {
+
+        Settings copy = new Settings();
+        copy.setId(getId());
+        copy.setAbsenceSettings(copyOf(getAbsenceSettings(), new AbsenceSettings()));
+        copy.setWorkingTimeSettings(copyOf(getWorkingTimeSettings(), new WorkingTimeSettings()));
+        copy.setMailSettings(copyOf(getMailSettings(), new MailSettings()));
+
+        CalendarSettings calendarSettingsCopy = new CalendarSettings();
+        BeanUtils.copyProperties(getCalendarSettings(), calendarSettingsCopy, "exchangeCalendarSettings",
+            "googleCalendarSettings");
+        calendarSettingsCopy.setExchangeCalendarSettings(copyOf(getCalendarSettings().getExchangeCalendarSettings(),
+                new ExchangeCalendarSettings()));
+        calendarSettingsCopy.setGoogleCalendarSettings(copyOf(getCalendarSettings().getGoogleCalendarSettings(),
+                new GoogleCalendarSettings()));
+        copy.setCalendarSettings(calendarSettingsCopy);
+
+        return copy;
+    }
+
+
+    private static <T> T copyOf(T source, T target) {
+
+        BeanUtils.copyProperties(source, target);
+
+        return target;
+    }
+
+
+    /**
+     * @param  other  settings to compare with
+     *
+     * @return  {@code true} if the given settings have the same values as these settings, else {@code false}
+     */
+    boolean hasSameValuesAs(Settings other) {
+
+        CalendarSettings calendarSettings = getCalendarSettings();
+        CalendarSettings otherCalendarSettings = other.getCalendarSettings();
+
+        return EqualsBuilder.reflectionEquals(getAbsenceSettings(), other.getAbsenceSettings())
+            && EqualsBuilder.reflectionEquals(getWorkingTimeSettings(), other.getWorkingTimeSettings())
+            && EqualsBuilder.reflectionEquals(getMailSettings(), other.getMailSettings())
+            && EqualsBuilder.reflectionEquals(calendarSettings, otherCalendarSettings, "exchangeCalendarSettings",
+                "googleCalendarSettings")
+            && EqualsBuilder.reflectionEquals(calendarSettings.getExchangeCalendarSettings(),
+                otherCalendarSettings.getExchangeCalendarSettings())
+            && EqualsBuilder.reflectionEquals(calendarSettings.getGoogleCalendarSettings(),
+                otherCalendarSettings.getGoogleCalendarSettings());
+    }
+
+
     @Override
     public String toString() {
 
@@ -0,0 +1,39 @@
+package org.synyx.urlaubsverwaltung.core.settings;
+
+import org.springframework.context.ApplicationEvent;
+
+
+/**
+ * Published by {@link SettingsService} after changed {@link Settings} have been persisted, or have been detected when
+ * reloading the settings, so that components caching data derived from the settings can rebuild it.
+ */
+public class SettingsChangedEvent extends ApplicationEvent {
+
+    private final Settings settings;
+    private final Settings previousSettings;
+
+    public SettingsChangedEvent(Object source, Settings settings, Settings previousSettings) {
+
+        super(source);
+
+        this.settings = settings;
+        this.previousSettings = previousSettings;
+    }
+
+    /**
+     * @return  the changed settings
+     */
+    public Settings getSettings() {
+
+        return settings;
+    }
+
+
+    /**
+     * @return  the settings before the change, {@code null} if they had not been loaded yet
+     */
+    public Settings getPreviousSettings() {
+
+        return previousSettings;
+    }
+}
@@ -8,7 +8,7 @@ package org.synyx.urlaubsverwaltung.core.settings;
 public interface SettingsService {
 
     /**
-     * Persists the given settings.
+     * Persists the given settings. After the changes are committed, a {@link SettingsChangedEvent} is published.
      *
      * @param  settings  to be persisted
      */
@@ -16,6 +16,9 @@ public interface SettingsService {
 
 
     /**
+     * Provides the settings without querying the database every time. Every call returns a new copy, so changes to the
+     * returned settings only take effect once they are {@link #save(Settings) saved}.
+     *
      * @return  settings for the application
      */
     Settings getSettings();
@@ -4,12 +4,27 @@ import org.apache.log4j.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.context.ApplicationEventPublisher;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+
 
 /**
  * Implementation for {@link org.synyx.urlaubsverwaltung.core.settings.SettingsService}.
  *
+ * <p>The settings are loaded once and a copy of them is kept in memory, so changes to settings that have not been
+ * saved yet are never visible to other threads. Saving settings replaces the kept settings as soon as the changes are
+ * committed and publishes a {@link SettingsChangedEvent}. To pick up changes made by other instances of the
+ * application, the settings are reloaded periodically and a {@link SettingsChangedEvent} is published if they have
+ * changed.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
@@ -18,25 +33,84 @@ public class SettingsServiceImpl implements SettingsService {
     private static final Logger LOG = Logger.getLogger(SettingsServiceImpl.class);
 
     private final SettingsDAO settingsDAO;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final AtomicReference<Settings> currentSettings = new AtomicReference<>();
 
     @Autowired
-    public SettingsServiceImpl(SettingsDAO settingsDAO) {
+    public SettingsServiceImpl(SettingsDAO settingsDAO, ApplicationEventPublisher applicationEventPublisher) {
 
         this.settingsDAO = settingsDAO;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
     public void save(Settings settings) {
 
-        settingsDAO.save(settings);
+        Settings savedSettings = settingsDAO.save(settings);
 
         LOG.info("Updated settings: " + settings.toString());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCommit() {
+
+                        publish(savedSettings.copy());
+                    }
+                });
+        } else {
+            publish(savedSettings.copy());
+        }
     }
 
 
     @Override
     public Settings getSettings() {
 
+        Settings settings = currentSettings.get();
+
+        if (settings == null) {
+            currentSettings.compareAndSet(null, loadSettings());
+            settings = currentSettings.get();
+        }
+
+        return settings.copy();
+    }
+
+
+    /**
+     * Reloads the settings from the database, to pick up changes made by other instances of the application.
+     */
+    @Scheduled(cron = "${uv.cron.reloadSettings}")
+    public void reloadSettings() {
+
+        Settings previousSettings = currentSettings.get();
+        Settings reloadedSettings = loadSettings();
+
+        if (previousSettings == null) {
+            currentSettings.compareAndSet(null, reloadedSettings);
+
+            return;
+        }
+
+        if (previousSettings.hasSameValuesAs(reloadedSettings)) {
+            return;
+        }
+
+        // a concurrent save already replaced the settings and published its own event
+        if (currentSettings.compareAndSet(previousSettings, reloadedSettings)) {
+            LOG.info("Reloaded changed settings: " + reloadedSettings.toString());
+
+            applicationEventPublisher.publishEvent(new SettingsChangedEvent(this, reloadedSettings.copy(),
+                    previousSettings.copy()));
+        }
+    }
+
+
+    private Settings loadSettings() {
+
         // TODO: Maybe fixed in future for different settings (based on date,...)
         Settings result = settingsDAO.findOne(1);
 
@@ -46,4 +120,13 @@ public class SettingsServiceImpl implements SettingsService {
 
         return result;
     }
+
+
+    private void publish(Settings settings) {
+
+        Settings previousSettings = currentSettings.getAndSet(settings);
+
+        applicationEventPublisher.publishEvent(new SettingsChangedEvent(this, settings.copy(),
+                previousSettings == null ? null : previousSettings.copy()));
+    }
 }
@@ -1,12 +1,18 @@
 package org.synyx.urlaubsverwaltung.core.sicknote;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 
 /**
@@ -25,6 +31,15 @@ public interface SickNoteDAO extends JpaRepository<SickNote, Integer> {
     List<SickNote> findByPersonAndPeriod(Person person, Date startDate, Date endDate);
 
 
+    @Query(
+        "SELECT x FROM SickNote x WHERE x.person IN ?1 AND "
+        + "((x.startDate BETWEEN ?2 AND ?3) OR (x.endDate BETWEEN ?2 AND ?3) "
+        + "OR (x.startDate < ?2 and x.endDate > ?3)) "
+        + "ORDER BY x.startDate"
+    )
+    List<SickNote> findByPersonsAndPeriod(List<Person> persons, Date startDate, Date endDate);
+
+
     @Query(
         "SELECT x FROM SickNote x WHERE ((x.startDate BETWEEN ?1 AND ?2) OR (x.endDate BETWEEN ?1 AND ?2) "
         + "OR (x.startDate < ?1 and x.endDate > ?2)) "
@@ -33,6 +48,43 @@ public interface SickNoteDAO extends JpaRepository<SickNote, Integer> {
     List<SickNote> findByPeriod(Date startDate, Date endDate);
 
 
+    /**
+     * Finds a page of the sick notes with the given status within the given period, of the given person if not
+     * {@code null}. The sick notes are ordered by start date and ID, the page starts after the sick note with the given
+     * start date and ID, if any.
+     */
+    @Query(
+        "SELECT x FROM SickNote x WHERE x.status = :status AND (:person IS NULL OR x.person = :person) "
+        + "AND ((x.startDate BETWEEN :startDate AND :endDate) OR (x.endDate BETWEEN :startDate AND :endDate) "
+        + "OR (x.startDate < :startDate and x.endDate > :endDate)) "
+        + "AND (:afterStartDate IS NULL OR x.startDate > :afterStartDate "
+        + "OR (x.startDate = :afterStartDate AND x.id > :afterId)) "
+        + "ORDER BY x.startDate, x.id"
+    )
+    List<SickNote> findByStatusAndPeriod(@Param("status") SickNoteStatus status, @Param("person") Person person,
+        @Param("startDate") Date startDate, @Param("endDate") Date endDate, @Param("afterStartDate") Date afterStartDate,
+        @Param("afterId") Integer afterId, Pageable pageable);
+
+
+    /**
+     * Streams the sick notes with the given status within the given period, of the given person if not {@code null},
+     * ordered by start date and ID. The rows are scrolled in chunks instead of being read at once, the stream must be
+     * consumed within a transaction and closed afterwards.
+     */
+    @QueryHints(
+        { @QueryHint(name = "org.hibernate.fetchSize", value = "100"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") }
+    )
+    @Query(
+        "SELECT x FROM SickNote x WHERE x.status = :status AND (:person IS NULL OR x.person = :person) "
+        + "AND ((x.startDate BETWEEN :startDate AND :endDate) OR (x.endDate BETWEEN :startDate AND :endDate) "
+        + "OR (x.startDate < :startDate and x.endDate > :endDate)) "
+        + "ORDER BY x.startDate, x.id"
+    )
+    Stream<SickNote> streamByStatusAndPeriod(@Param("status") SickNoteStatus status, @Param("person") Person person,
+        @Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+
     // NOTE: Following methods are to create statistic
 
     @Query("SELECT x FROM SickNote x WHERE (YEAR(x.startDate) = ?1 OR YEAR(x.endDate) = ?1) AND x.status = 'ACTIVE'")
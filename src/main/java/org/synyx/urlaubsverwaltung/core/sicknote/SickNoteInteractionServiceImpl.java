@@ -13,13 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationInteractionService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
-import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
-import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
-import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceTimeConfiguration;
+import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncQueue;
 import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
 import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
 
@@ -40,21 +34,16 @@ public class SickNoteInteractionServiceImpl implements SickNoteInteractionServic
     private final SickNoteService sickNoteService;
     private final SickNoteCommentService commentService;
     private final ApplicationInteractionService applicationInteractionService;
-    private final CalendarSyncService calendarSyncService;
-    private final AbsenceMappingService absenceMappingService;
-    private final SettingsService settingsService;
+    private final CalendarSyncQueue calendarSyncQueue;
 
     @Autowired
     public SickNoteInteractionServiceImpl(SickNoteService sickNoteService, SickNoteCommentService commentService,
-        ApplicationInteractionService applicationInteractionService, CalendarSyncService calendarSyncService,
-        AbsenceMappingService absenceMappingService, SettingsService settingsService) {
+        ApplicationInteractionService applicationInteractionService, CalendarSyncQueue calendarSyncQueue) {
 
         this.sickNoteService = sickNoteService;
         this.commentService = commentService;
         this.applicationInteractionService = applicationInteractionService;
-        this.calendarSyncService = calendarSyncService;
-        this.absenceMappingService = absenceMappingService;
-        this.settingsService = settingsService;
+        this.calendarSyncQueue = calendarSyncQueue;
     }
 
     @Override
@@ -68,15 +57,7 @@ public class SickNoteInteractionServiceImpl implements SickNoteInteractionServic
 
         LOG.info("Created sick note: " + sickNote.toString());
 
-        CalendarSettings calendarSettings = settingsService.getSettings().getCalendarSettings();
-        AbsenceTimeConfiguration timeConfiguration = new AbsenceTimeConfiguration(calendarSettings);
-
-        Optional<String> eventId = calendarSyncService.addAbsence(new Absence(sickNote.getPerson(),
-                    sickNote.getPeriod(), EventType.SICKNOTE, timeConfiguration));
-
-        if (eventId.isPresent()) {
-            absenceMappingService.create(sickNote.getId(), AbsenceType.SICKNOTE, eventId.get());
-        }
+        calendarSyncQueue.add(sickNote.getId(), AbsenceType.SICKNOTE, EventType.SICKNOTE);
 
         return sickNote;
     }
@@ -93,15 +74,7 @@ public class SickNoteInteractionServiceImpl implements SickNoteInteractionServic
 
         LOG.info("Updated sick note: " + sickNote.toString());
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(sickNote.getId(),
-                AbsenceType.SICKNOTE);
-
-        if (absenceMapping.isPresent()) {
-            CalendarSettings calendarSettings = settingsService.getSettings().getCalendarSettings();
-            AbsenceTimeConfiguration timeConfiguration = new AbsenceTimeConfiguration(calendarSettings);
-            calendarSyncService.update(new Absence(sickNote.getPerson(), sickNote.getPeriod(), EventType.SICKNOTE,
-                    timeConfiguration), absenceMapping.get().getEventId());
-        }
+        calendarSyncQueue.update(sickNote.getId(), AbsenceType.SICKNOTE, EventType.SICKNOTE);
 
         return sickNote;
     }
@@ -121,18 +94,7 @@ public class SickNoteInteractionServiceImpl implements SickNoteInteractionServic
 
         LOG.info("Converted sick note to vacation: " + sickNote.toString());
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(sickNote.getId(),
-                AbsenceType.SICKNOTE);
-
-        if (absenceMapping.isPresent()) {
-            String eventId = absenceMapping.get().getEventId();
-            CalendarSettings calendarSettings = settingsService.getSettings().getCalendarSettings();
-
-            calendarSyncService.update(new Absence(application.getPerson(), application.getPeriod(),
-                    EventType.ALLOWED_APPLICATION, new AbsenceTimeConfiguration(calendarSettings)), eventId);
-            absenceMappingService.delete(absenceMapping.get());
-            absenceMappingService.create(application.getId(), AbsenceType.VACATION, eventId);
-        }
+        calendarSyncQueue.convert(sickNote.getId(), application.getId());
 
         return sickNote;
     }
@@ -149,13 +111,7 @@ public class SickNoteInteractionServiceImpl implements SickNoteInteractionServic
 
         LOG.info("Cancelled sick note: " + sickNote.toString());
 
-        Optional<AbsenceMapping> absenceMapping = absenceMappingService.getAbsenceByIdAndType(sickNote.getId(),
-                AbsenceType.SICKNOTE);
-
-        if (absenceMapping.isPresent()) {
-            calendarSyncService.deleteAbsence(absenceMapping.get().getEventId());
-            absenceMappingService.delete(absenceMapping.get());
-        }
+        calendarSyncQueue.delete(sickNote.getId(), AbsenceType.SICKNOTE);
 
         return sickNote;
     }
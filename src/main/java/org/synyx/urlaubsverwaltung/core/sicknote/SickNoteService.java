@@ -6,6 +6,7 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 
 /**
@@ -45,6 +46,18 @@ public interface SickNoteService {
     List<SickNote> getByPersonAndPeriod(Person person, DateMidnight from, DateMidnight to);
 
 
+    /**
+     * Get all the sick notes of the given persons that are in the given period.
+     *
+     * @param  persons  defines the owners of the sick notes
+     * @param  from  defines the start of the period
+     * @param  to  defines the end of the period
+     *
+     * @return  all the sick notes matching the given parameters, ordered by start date
+     */
+    List<SickNote> getByPersonsAndPeriod(List<Person> persons, DateMidnight from, DateMidnight to);
+
+
     /**
      * Get all the sick notes that are in the given period.
      *
@@ -56,6 +69,33 @@ public interface SickNoteService {
     List<SickNote> getByPeriod(DateMidnight from, DateMidnight to);
 
 
+    /**
+     * Get a page of the active sick notes that are in the given period.
+     *
+     * @param  person  defines the owner of the sick notes, if empty the sick notes of all persons are fetched
+     * @param  from  defines the start of the period
+     * @param  to  defines the end of the period
+     * @param  after  the last sick note of the previous page, if any
+     * @param  limit  the maximum number of sick notes to be fetched
+     *
+     * @return  the next page of active sick notes matching the given parameters, ordered by start date and ID
+     */
+    List<SickNote> getActiveByPeriod(Optional<Person> person, DateMidnight from, DateMidnight to,
+        Optional<SickNote> after, int limit);
+
+
+    /**
+     * Pass the active sick notes that are in the given period one by one to the given action, ordered by start date and
+     * ID. The sick notes are read as the action consumes them, so they are never loaded at once.
+     *
+     * @param  person  defines the owner of the sick notes, if empty the sick notes of all persons are passed
+     * @param  from  defines the start of the period
+     * @param  to  defines the end of the period
+     * @param  action  to be performed for each sick note
+     */
+    void forEachActiveByPeriod(Optional<Person> person, DateMidnight from, DateMidnight to, Consumer<SickNote> action);
+
+
     /**
      * Get all the sick notes that are reaching the end of sick pay.
      *
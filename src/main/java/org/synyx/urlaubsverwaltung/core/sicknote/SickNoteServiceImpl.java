@@ -4,15 +4,25 @@ import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.data.domain.PageRequest;
+
 import org.springframework.stereotype.Service;
 
+import org.springframework.transaction.annotation.Transactional;
+
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.settings.AbsenceSettings;
 import org.synyx.urlaubsverwaltung.core.settings.Settings;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 
 /**
@@ -26,6 +36,9 @@ public class SickNoteServiceImpl implements SickNoteService {
     private final SickNoteDAO sickNoteDAO;
     private final SettingsService settingsService;
 
+    @PersistenceContext
+    EntityManager entityManager;
+
     @Autowired
     public SickNoteServiceImpl(SickNoteDAO sickNoteDAO, SettingsService settingsService) {
 
@@ -54,6 +67,13 @@ public class SickNoteServiceImpl implements SickNoteService {
     }
 
 
+    @Override
+    public List<SickNote> getByPersonsAndPeriod(List<Person> persons, DateMidnight from, DateMidnight to) {
+
+        return sickNoteDAO.findByPersonsAndPeriod(persons, from.toDate(), to.toDate());
+    }
+
+
     @Override
     public List<SickNote> getByPeriod(DateMidnight from, DateMidnight to) {
 
@@ -61,6 +81,35 @@ public class SickNoteServiceImpl implements SickNoteService {
     }
 
 
+    @Override
+    public List<SickNote> getActiveByPeriod(Optional<Person> person, DateMidnight from, DateMidnight to,
+        Optional<SickNote> after, int limit) {
+
+        Date afterStartDate = after.map(SickNote::getStartDate).map(DateMidnight::toDate).orElse(null);
+        Integer afterId = after.map(SickNote::getId).orElse(null);
+
+        return sickNoteDAO.findByStatusAndPeriod(SickNoteStatus.ACTIVE, person.orElse(null), from.toDate(),
+                to.toDate(), afterStartDate, afterId, new PageRequest(0, limit));
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachActiveByPeriod(Optional<Person> person, DateMidnight from, DateMidnight to,
+        Consumer<SickNote> action) {
+
+        try (Stream<SickNote> sickNotes = sickNoteDAO.streamByStatusAndPeriod(SickNoteStatus.ACTIVE,
+                    person.orElse(null), from.toDate(), to.toDate())) {
+            sickNotes.forEach(sickNote -> {
+                action.accept(sickNote);
+
+                // the sick note has been consumed, so it is detached instead of piling up in the persistence context
+                entityManager.detach(sickNote);
+            });
+        }
+    }
+
+
     @Override
     public List<SickNote> getSickNotesReachingEndOfSickPay() {
 
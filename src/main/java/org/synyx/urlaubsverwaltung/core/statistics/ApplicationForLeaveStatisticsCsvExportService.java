@@ -4,11 +4,17 @@ import liquibase.util.csv.CSVWriter;
 import org.synyx.urlaubsverwaltung.web.FilterPeriod;
 import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatistics;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.stream.Stream;
 
 public interface ApplicationForLeaveStatisticsCsvExportService {
 
-    void writeStatistics(FilterPeriod period, List<ApplicationForLeaveStatistics> statistics, CSVWriter csvWriter);
+    /**
+     * Writes the given statistics to the given writer. The writer is flushed after each person, so the statistics
+     * can be computed while they are written.
+     */
+    void writeStatistics(FilterPeriod period, Stream<ApplicationForLeaveStatistics> statistics, CSVWriter csvWriter)
+            throws IOException;
 
     String getFileName(FilterPeriod period);
 }
@@ -9,10 +9,13 @@ import org.synyx.urlaubsverwaltung.core.application.service.VacationTypeService;
 import org.synyx.urlaubsverwaltung.web.FilterPeriod;
 import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatistics;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.stream.Stream;
 
 @Service
 public class ApplicationForLeaveStatisticsCsvExportServiceImpl implements ApplicationForLeaveStatisticsCsvExportService {
@@ -36,7 +39,8 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImpl implements Applic
     VacationTypeService vacationTypeService;
 
     @Override
-    public void writeStatistics(FilterPeriod period, List<ApplicationForLeaveStatistics> statistics, CSVWriter csvWriter) {
+    public void writeStatistics(FilterPeriod period, Stream<ApplicationForLeaveStatistics> statistics, CSVWriter csvWriter)
+            throws IOException {
         final String[] csvHeader = { getTranslation("person.data.firstName", "Vorname"),
                 getTranslation("person.data.lastName", "Nachname"), "",
                 getTranslation("applications.statistics.allowed", "genehmigt"),
@@ -61,7 +65,13 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImpl implements Applic
 
         String translatedTextTotal = getTranslation("applications.statistics.total", "gesamt");
 
-        for (ApplicationForLeaveStatistics applicationForLeaveStatistics : statistics) {
+        List<VacationType> vacationTypes = vacationTypeService.getVacationTypes();
+
+        Iterator<ApplicationForLeaveStatistics> statisticsIterator = statistics.iterator();
+
+        while (statisticsIterator.hasNext()) {
+
+            ApplicationForLeaveStatistics applicationForLeaveStatistics = statisticsIterator.next();
 
             String[] csvRow = new String[csvHeader.length];
 
@@ -75,7 +85,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImpl implements Applic
 
             csvWriter.writeNext(csvRow);
 
-            for (VacationType type : vacationTypeService.getVacationTypes()) {
+            for (VacationType type : vacationTypes) {
 
                 String[] csvRowVacationTypes = new String[csvHeader.length];
 
@@ -87,6 +97,8 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImpl implements Applic
 
                 csvWriter.writeNext(csvRowVacationTypes);
             }
+
+            csvWriter.flush();
         }
 
     }
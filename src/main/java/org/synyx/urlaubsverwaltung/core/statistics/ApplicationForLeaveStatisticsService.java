@@ -4,7 +4,18 @@ import org.synyx.urlaubsverwaltung.web.FilterPeriod;
 import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatistics;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ApplicationForLeaveStatisticsService {
     List<ApplicationForLeaveStatistics> getStatistics(FilterPeriod period);
+
+    /**
+     * Provides the statistics of the relevant persons lazily: the statistics of a person are only computed when the
+     * stream reaches the person. The stream must be consumed one statistics after the other, e.g. to write them to an
+     * export, because the loaded entities are detached in the meantime to keep the memory footprint flat.
+     *
+     * @param period to compute the statistics for
+     * @return stream of the statistics of the relevant persons
+     */
+    Stream<ApplicationForLeaveStatistics> streamStatistics(FilterPeriod period);
 }
@@ -1,7 +1,11 @@
 package org.synyx.urlaubsverwaltung.core.statistics;
 
+import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -12,11 +16,18 @@ import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatistics;
 import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatisticsBuilder;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ApplicationForLeaveStatisticsServiceImpl implements ApplicationForLeaveStatisticsService {
 
+    private static final int PERSONS_PER_CHUNK = 100;
+    private static final int PERSONS_PER_TASK = 50;
+
     @Autowired
     SessionService sessionService;
     @Autowired
@@ -25,14 +36,72 @@ public class ApplicationForLeaveStatisticsServiceImpl implements ApplicationForL
     DepartmentService departmentService;
     @Autowired
     ApplicationForLeaveStatisticsBuilder applicationForLeaveStatisticsBuilder;
+    @Autowired
+    @Qualifier("statisticsExecutor")
+    Executor statisticsExecutor;
+    @Autowired
+    PlatformTransactionManager transactionManager;
 
+    /**
+     * Computes the statistics of the relevant persons in parallel: the persons are partitioned into tasks that are
+     * executed by the statistics executor, each of them in its own read only transaction.
+     */
     @Override
     public List<ApplicationForLeaveStatistics> getStatistics(FilterPeriod period) {
-        List<Person> persons = getRelevantPersons();
+        TransactionTemplate readOnlyTransaction = createReadOnlyTransaction();
 
-        return persons.stream()
-                .map(person -> applicationForLeaveStatisticsBuilder.build(person, period.getStartDate(), period.getEndDate()))
+        List<CompletableFuture<List<ApplicationForLeaveStatistics>>> tasks = Lists.partition(getRelevantPersons(), PERSONS_PER_TASK)
+                .stream()
+                .map(persons -> CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> buildStatistics(persons, period)), statisticsExecutor))
                 .collect(Collectors.toList());
+
+        // joining the tasks in the order they were created keeps the order of the persons
+        return tasks.stream()
+                .flatMap(task -> join(task).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Computes the statistics chunk by chunk while the stream is consumed. Each chunk is computed by the statistics
+     * executor in its own read only transaction, so that the entities loaded for it are detached afterwards instead of
+     * piling up in the persistence context of the request.
+     */
+    @Override
+    public Stream<ApplicationForLeaveStatistics> streamStatistics(FilterPeriod period) {
+        TransactionTemplate readOnlyTransaction = createReadOnlyTransaction();
+
+        return Lists.partition(getRelevantPersons(), PERSONS_PER_CHUNK)
+                .stream()
+                .flatMap(persons -> join(CompletableFuture.supplyAsync(
+                        () -> readOnlyTransaction.execute(status -> buildStatistics(persons, period)), statisticsExecutor))
+                        .stream());
+    }
+
+    private TransactionTemplate createReadOnlyTransaction() {
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        return readOnlyTransaction;
+    }
+
+    private List<ApplicationForLeaveStatistics> buildStatistics(List<Person> persons, FilterPeriod period) {
+
+        return applicationForLeaveStatisticsBuilder.buildAll(persons, period.getStartDate(), period.getEndDate());
+    }
+
+    private static <T> T join(CompletableFuture<T> task) {
+
+        try {
+            return task.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            throw ex;
+        }
     }
 
     private List<Person> getRelevantPersons() {
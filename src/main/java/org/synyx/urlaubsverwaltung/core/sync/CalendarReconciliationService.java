@@ -0,0 +1,314 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.apache.log4j.Logger;
+
+import org.joda.time.DateMidnight;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.core.sync.providers.noop.NoopCalendarSyncProvider;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Brings the calendar in line with the absences, e.g. after calendar changes have been lost during an outage. The
+ * events expected for the applications for leave and sick notes are compared with the {@link AbsenceMapping}s and the
+ * events the calendar provider actually knows, only the differences are scheduled by {@link CalendarSyncDispatcher}.
+ *
+ * <p>Events created by the application without any mapping, e.g. left over from a sync whose result could not be
+ * stored, are deleted. Other events of the calendar are never deleted, as only the events the calendar provider marked
+ * as created by the application are considered. Deleting them is skipped while absences are being synced, as the
+ * mappings of just added events do not know their ids yet.</p>
+ *
+ * <p>The absences are reconciled month by month, each month within its own transaction, so that the work and the
+ * requests to the calendar provider are spread over small windows. The calendar provider is called outside of the
+ * transactions.</p>
+ */
+@Service
+class CalendarReconciliationService {
+
+    private static final Logger LOG = Logger.getLogger(CalendarReconciliationService.class);
+
+    private final AbsenceMappingDAO absenceMappingDAO;
+    private final ApplicationService applicationService;
+    private final SickNoteService sickNoteService;
+    private final CalendarSyncService calendarSyncService;
+    private final CalendarService calendarService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    CalendarReconciliationService(AbsenceMappingDAO absenceMappingDAO, ApplicationService applicationService,
+        SickNoteService sickNoteService, CalendarSyncService calendarSyncService, CalendarService calendarService,
+        PlatformTransactionManager transactionManager) {
+
+        this.absenceMappingDAO = absenceMappingDAO;
+        this.applicationService = applicationService;
+        this.sickNoteService = sickNoteService;
+        this.calendarSyncService = calendarSyncService;
+        this.calendarService = calendarService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconciles the absences of the current and the next year with the calendar.
+     *
+     * @return  the number of scheduled changes
+     */
+    @Scheduled(cron = "${uv.cron.reconcileCalendar}")
+    public int reconcileCalendar() {
+
+        DateMidnight firstDayOfYear = DateMidnight.now().withDayOfYear(1);
+
+        return reconcile(firstDayOfYear, firstDayOfYear.plusYears(2).minusDays(1));
+    }
+
+
+    /**
+     * Reconciles the absences within the given period with the calendar, month by month.
+     *
+     * @param  from  first day of the period
+     * @param  to  last day of the period
+     *
+     * @return  the number of scheduled changes
+     */
+    int reconcile(DateMidnight from, DateMidnight to) {
+
+        if (calendarService.getCalendarProvider() instanceof NoopCalendarSyncProvider) {
+            return 0;
+        }
+
+        LOG.info("Starting calendar reconciliation from " + from + " to " + to);
+
+        int scheduledChanges = 0;
+
+        // the windows of the events overlap, so an unmapped event may be found more than once
+        Set<String> deletedEventIds = new HashSet<>();
+
+        for (DateMidnight windowStart = from; !windowStart.isAfter(to); windowStart = windowStart.plusMonths(1)) {
+            DateMidnight windowEnd = windowStart.plusMonths(1).minusDays(1);
+            DateMidnight start = windowStart;
+            DateMidnight end = windowEnd.isAfter(to) ? to : windowEnd;
+
+            // an event may exceed the absence a little because of the time zone, so the events are looked up generously
+            DateMidnight eventsFrom = start.minusDays(1);
+            DateMidnight eventsTo = end.plusDays(2);
+            Optional<Set<String>> eventIds = calendarSyncService.getEventIds(eventsFrom, eventsTo);
+            Optional<Set<String>> createdEventIds = calendarSyncService.getCreatedEventIds(eventsFrom, eventsTo);
+
+            Set<String> unmappedEventIds = new HashSet<>();
+
+            scheduledChanges += transactionTemplate.execute(status -> {
+                createdEventIds.ifPresent(ids -> unmappedEventIds.addAll(getUnmappedEventIds(ids)));
+
+                return reconcileWindow(start, end, eventIds);
+            });
+
+            unmappedEventIds.removeAll(deletedEventIds);
+            deletedEventIds.addAll(deleteUnmappedEvents(unmappedEventIds));
+        }
+
+        LOG.info("Finished calendar reconciliation, scheduled changes: " + scheduledChanges
+            + ", deleted unmapped events: " + deletedEventIds.size());
+
+        return scheduledChanges;
+    }
+
+
+    private Set<String> getUnmappedEventIds(Set<String> eventIds) {
+
+        if (eventIds.isEmpty()) {
+            return eventIds;
+        }
+
+        if (absenceMappingDAO.countByClaimedUntilGreaterThanEqual(new Date()) > 0) {
+            LOG.info("Absences are being synced, skipping deletion of unmapped events");
+
+            return new HashSet<>();
+        }
+
+        Set<String> unmappedEventIds = new HashSet<>(eventIds);
+
+        absenceMappingDAO.findByEventIdIn(eventIds)
+            .forEach(absenceMapping -> unmappedEventIds.remove(absenceMapping.getEventId()));
+
+        return unmappedEventIds;
+    }
+
+
+    /**
+     * @return  the ids of the deleted events
+     */
+    private Set<String> deleteUnmappedEvents(Set<String> unmappedEventIds) {
+
+        if (unmappedEventIds.isEmpty()) {
+            return unmappedEventIds;
+        }
+
+        LOG.info("Calendar reconciliation deletes unmapped events: " + unmappedEventIds);
+
+        Set<String> failedEventIds = calendarSyncService.deleteAbsences(unmappedEventIds);
+
+        if (!failedEventIds.isEmpty()) {
+            LOG.warn("Could not delete unmapped events: " + failedEventIds);
+        }
+
+        Set<String> deletedEventIds = new HashSet<>(unmappedEventIds);
+        deletedEventIds.removeAll(failedEventIds);
+
+        return deletedEventIds;
+    }
+
+
+    private int reconcileWindow(DateMidnight from, DateMidnight to, Optional<Set<String>> eventIds) {
+
+        Map<Integer, EventType> expectedVacations = applicationService.getApplicationsForACertainPeriod(from, to)
+            .stream()
+            .collect(HashMap::new, (map, application) -> map.put(application.getId(), getEventType(application)),
+                Map::putAll);
+
+        Map<Integer, EventType> expectedSickNotes = sickNoteService.getByPeriod(from, to)
+            .stream()
+            .collect(HashMap::new, (map, sickNote) -> map.put(sickNote.getId(), getEventType(sickNote)), Map::putAll);
+
+        return reconcile(AbsenceType.VACATION, expectedVacations, eventIds)
+            + reconcile(AbsenceType.SICKNOTE, expectedSickNotes, eventIds);
+    }
+
+
+    /**
+     * @param  absenceType  of the absences to be reconciled
+     * @param  expectedEventTypes  the type of the event expected for each absence, {@code null} if no event is
+     *                             expected
+     * @param  eventIds  the events known by the calendar provider, if any
+     *
+     * @return  the number of scheduled changes
+     */
+    private int reconcile(AbsenceType absenceType, Map<Integer, EventType> expectedEventTypes,
+        Optional<Set<String>> eventIds) {
+
+        if (expectedEventTypes.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, AbsenceMapping> mappings = absenceMappingDAO.findByAbsenceTypeAndAbsenceIdIn(absenceType,
+                    expectedEventTypes.keySet())
+            .stream()
+            .collect(Collectors.toMap(AbsenceMapping::getAbsenceId, Function.identity()));
+
+        int scheduledChanges = 0;
+
+        for (Map.Entry<Integer, EventType> expected : expectedEventTypes.entrySet()) {
+            AbsenceMapping absenceMapping = mappings.get(expected.getKey());
+
+            if (absenceMapping == null) {
+                if (expected.getValue() == null) {
+                    continue;
+                }
+
+                absenceMapping = new AbsenceMapping(expected.getKey(), absenceType, null);
+            }
+
+            if (reconcile(absenceMapping, expected.getValue(), eventIds)) {
+                scheduledChanges++;
+            }
+        }
+
+        return scheduledChanges;
+    }
+
+
+    /**
+     * Schedules the change needed to bring the event of the given mapping in line with the expected event. Changes
+     * that are still pending are left to {@link CalendarSyncDispatcher}, changes it gave up on are scheduled again.
+     *
+     * @return  {@code true} if a change has been scheduled, else {@code false}
+     */
+    private boolean reconcile(AbsenceMapping absenceMapping, EventType expectedEventType,
+        Optional<Set<String>> eventIds) {
+
+        if (absenceMapping.getSyncAction() != null && absenceMapping.getNextSyncAttempt() != null) {
+            return false;
+        }
+
+        String eventId = absenceMapping.getEventId();
+        boolean inCalendar = eventId != null && eventIds.map(ids -> ids.contains(eventId)).orElse(true);
+
+        if (expectedEventType == null) {
+            if (!inCalendar) {
+                // there is nothing to delete in calendar
+                absenceMappingDAO.delete(absenceMapping);
+
+                return false;
+            }
+
+            return schedule(absenceMapping, CalendarSyncAction.DELETE, null);
+        }
+
+        if (!inCalendar) {
+            return schedule(absenceMapping, CalendarSyncAction.ADD, expectedEventType);
+        }
+
+        if (absenceMapping.getSyncAction() != null || absenceMapping.getEventType() != expectedEventType) {
+            return schedule(absenceMapping, CalendarSyncAction.UPDATE, expectedEventType);
+        }
+
+        return false;
+    }
+
+
+    private boolean schedule(AbsenceMapping absenceMapping, CalendarSyncAction action, EventType eventType) {
+
+        absenceMapping.scheduleSync(action, eventType);
+        absenceMappingDAO.save(absenceMapping);
+
+        LOG.info("Calendar reconciliation scheduled sync: " + absenceMapping);
+
+        return true;
+    }
+
+
+    private static EventType getEventType(Application application) {
+
+        switch (application.getStatus()) {
+            case WAITING:
+            case TEMPORARY_ALLOWED:
+                return EventType.WAITING_APPLICATION;
+
+            case ALLOWED:
+                return EventType.ALLOWED_APPLICATION;
+
+            default:
+                return null;
+        }
+    }
+
+
+    private static EventType getEventType(SickNote sickNote) {
+
+        return sickNote.isActive() ? EventType.SICKNOTE : null;
+    }
+}
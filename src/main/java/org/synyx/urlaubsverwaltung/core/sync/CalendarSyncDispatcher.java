@@ -0,0 +1,437 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.apache.log4j.Logger;
+
+import org.joda.time.DateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.data.domain.PageRequest;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.mail.MailService;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceTimeConfiguration;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+
+/**
+ * Syncs the changes recorded by {@link CalendarSyncQueue} with the calendar in the background. The due changes are
+ * grouped by their action, so that calendar providers supporting batch requests can sync each group at once. Changes
+ * that could not be synced are retried with an increasing delay, after {@value #MAX_ATTEMPTS} failed attempts they
+ * are not retried anymore and the tool's manager is notified.
+ *
+ * <p>The calendar provider is not called within a transaction: the due changes are claimed in a short transaction
+ * first and the results are stored in another one afterwards, so that changing an absence does not have to wait for
+ * the calendar provider. If an absence has been changed while its previous change was synced, the result is merged
+ * into the newer change, which stays pending.</p>
+ */
+@Service
+class CalendarSyncDispatcher {
+
+    private static final Logger LOG = Logger.getLogger(CalendarSyncDispatcher.class);
+
+    static final int MAX_ATTEMPTS = 5;
+    private static final int FIRST_RETRY_DELAY_SECONDS = 60;
+
+    private static final int BATCH_SIZE = 50;
+    private static final int CLAIM_DURATION_MINUTES = 10;
+
+    private final AbsenceMappingDAO absenceMappingDAO;
+    private final CalendarSyncService calendarSyncService;
+    private final ApplicationService applicationService;
+    private final SickNoteService sickNoteService;
+    private final SettingsService settingsService;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    CalendarSyncDispatcher(AbsenceMappingDAO absenceMappingDAO, CalendarSyncService calendarSyncService,
+        ApplicationService applicationService, SickNoteService sickNoteService, SettingsService settingsService,
+        MailService mailService, PlatformTransactionManager transactionManager) {
+
+        this.absenceMappingDAO = absenceMappingDAO;
+        this.calendarSyncService = calendarSyncService;
+        this.applicationService = applicationService;
+        this.sickNoteService = sickNoteService;
+        this.settingsService = settingsService;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Syncs the oldest changes that are due with the calendar.
+     *
+     * @return  the number of synced changes
+     */
+    @Scheduled(cron = "${uv.cron.syncCalendar}")
+    public int syncCalendar() {
+
+        List<ClaimedChange> changes = transactionTemplate.execute(status -> claimDueChanges());
+
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        List<ClaimedChange> toAdd = new ArrayList<>();
+        List<ClaimedChange> toUpdate = new ArrayList<>();
+        List<ClaimedChange> toDelete = new ArrayList<>();
+
+        for (ClaimedChange change : changes) {
+            switch (change.action) {
+                case ADD:
+                    toAdd.add(change);
+                    break;
+
+                case UPDATE:
+                    toUpdate.add(change);
+                    break;
+
+                case DELETE:
+                    toDelete.add(change);
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown calendar sync action: " + change.action);
+            }
+        }
+
+        sync(toAdd, this::add);
+        sync(toUpdate, this::update);
+        sync(toDelete, this::delete);
+
+        transactionTemplate.execute(status -> {
+            complete(changes);
+
+            return null;
+        });
+
+        return (int) changes.stream().filter(change -> change.synced).count();
+    }
+
+
+    /**
+     * Claims the oldest due changes, so that they are neither synced by another instance of the application nor
+     * removed while they are synced. Changes that do not need the calendar provider are completed right away.
+     */
+    private List<ClaimedChange> claimDueChanges() {
+
+        List<AbsenceMapping> dueMappings = absenceMappingDAO.findDueMappings(DateTime.now().toDate(),
+                new PageRequest(0, BATCH_SIZE));
+
+        List<ClaimedChange> changes = new ArrayList<>();
+
+        for (AbsenceMapping absenceMapping : dueMappings) {
+            CalendarSyncAction action = absenceMapping.getSyncAction();
+            Optional<Absence> absence = action == CalendarSyncAction.DELETE ? Optional.empty()
+                                                                             : getAbsence(absenceMapping);
+
+            if (action != CalendarSyncAction.DELETE && !absence.isPresent()) {
+                // the absence does not exist anymore, so its event has to be deleted instead
+                action = CalendarSyncAction.DELETE;
+            }
+
+            if (action == CalendarSyncAction.DELETE && absenceMapping.getEventId() == null) {
+                // not added to the calendar, so there is nothing to delete
+                absenceMappingDAO.delete(absenceMapping);
+
+                continue;
+            }
+
+            absenceMapping.claim(DateTime.now().plusMinutes(CLAIM_DURATION_MINUTES));
+            absenceMappingDAO.saveAndFlush(absenceMapping);
+
+            changes.add(new ClaimedChange(absenceMapping, action, absence.orElse(null)));
+        }
+
+        return changes;
+    }
+
+
+    /**
+     * Syncs the given changes of the same action, if an exception occurs all of them are considered as failed.
+     */
+    private static void sync(List<ClaimedChange> changes, Consumer<List<ClaimedChange>> syncAction) {
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            syncAction.accept(changes);
+        } catch (RuntimeException ex) {
+            LOG.error("Calendar sync failed: " + changes, ex);
+
+            changes.forEach(change -> change.synced = false);
+        }
+    }
+
+
+    private void add(List<ClaimedChange> changes) {
+
+        List<Absence> absences = changes.stream().map(change -> change.absence).collect(Collectors.toList());
+
+        List<Optional<String>> eventIds = calendarSyncService.addAbsences(absences);
+
+        for (int index = 0; index < changes.size(); index++) {
+            Optional<String> eventId = eventIds.get(index);
+
+            if (eventId.isPresent()) {
+                changes.get(index).synced(eventId.get());
+            }
+        }
+    }
+
+
+    private void update(List<ClaimedChange> changes) {
+
+        Map<String, Absence> absencesByEventId = new LinkedHashMap<>();
+
+        for (ClaimedChange change : changes) {
+            absencesByEventId.put(change.eventId, change.absence);
+        }
+
+        Set<String> failedEventIds = calendarSyncService.updateAbsences(absencesByEventId);
+
+        for (ClaimedChange change : changes) {
+            if (!failedEventIds.contains(change.eventId)) {
+                change.synced(change.eventId);
+            }
+        }
+    }
+
+
+    private void delete(List<ClaimedChange> changes) {
+
+        List<String> eventIds = changes.stream().map(change -> change.eventId).collect(Collectors.toList());
+
+        Set<String> failedEventIds = calendarSyncService.deleteAbsences(eventIds);
+
+        for (ClaimedChange change : changes) {
+            if (!failedEventIds.contains(change.eventId)) {
+                change.synced(null);
+            }
+        }
+    }
+
+
+    /**
+     * Stores the results of the given changes. If a mapping has been changed in the meantime, the result is merged
+     * into the newer change.
+     */
+    private void complete(List<ClaimedChange> changes) {
+
+        Map<Integer, AbsenceMapping> mappingsById = new HashMap<>();
+
+        for (AbsenceMapping absenceMapping : absenceMappingDAO.findByIdIn(changes.stream()
+                    .map(change -> change.mappingId)
+                    .collect(Collectors.toList()))) {
+            mappingsById.put(absenceMapping.getId(), absenceMapping);
+        }
+
+        for (ClaimedChange change : changes) {
+            AbsenceMapping absenceMapping = mappingsById.get(change.mappingId);
+
+            if (absenceMapping == null) {
+                completeRemoved(change);
+            } else if (absenceMapping.getVersion() != change.version) {
+                completeChanged(change, absenceMapping);
+            } else if (change.synced) {
+                completeSynced(change, absenceMapping);
+            } else {
+                completeFailed(change, absenceMapping);
+            }
+        }
+    }
+
+
+    /**
+     * The mapping has been removed while its claim had already expired, an added event must not get lost though.
+     */
+    private void completeRemoved(ClaimedChange change) {
+
+        if (change.synced && change.syncedEventId != null) {
+            AbsenceMapping absenceMapping = new AbsenceMapping(change.absenceId, change.absenceType,
+                    change.syncedEventId);
+            absenceMapping.scheduleSync(CalendarSyncAction.DELETE, null);
+            absenceMappingDAO.save(absenceMapping);
+
+            LOG.warn("Absence mapping has been removed during calendar sync, scheduled deletion: " + absenceMapping);
+        }
+    }
+
+
+    private void completeChanged(ClaimedChange change, AbsenceMapping absenceMapping) {
+
+        if (!change.synced) {
+            // the newer change supersedes the failed one
+            absenceMapping.releaseClaim();
+            absenceMappingDAO.save(absenceMapping);
+
+            return;
+        }
+
+        absenceMapping.syncedBeforeChange(change.syncedEventId);
+
+        if (absenceMapping.getSyncAction() == CalendarSyncAction.DELETE && absenceMapping.getEventId() == null) {
+            absenceMappingDAO.delete(absenceMapping);
+        } else {
+            absenceMappingDAO.save(absenceMapping);
+        }
+
+        LOG.debug("Absence has been changed during calendar sync, keeping the newer change: " + absenceMapping);
+    }
+
+
+    private void completeSynced(ClaimedChange change, AbsenceMapping absenceMapping) {
+
+        if (change.action == CalendarSyncAction.DELETE) {
+            absenceMappingDAO.delete(absenceMapping);
+        } else {
+            absenceMapping.synced(change.syncedEventId);
+            absenceMappingDAO.save(absenceMapping);
+        }
+    }
+
+
+    private void completeFailed(ClaimedChange change, AbsenceMapping absenceMapping) {
+
+        absenceMapping.syncFailed(getNextAttempt(absenceMapping.getFailedSyncAttempts() + 1));
+        absenceMappingDAO.save(absenceMapping);
+
+        if (absenceMapping.getNextSyncAttempt() == null) {
+            LOG.error("Calendar sync failed " + MAX_ATTEMPTS + " times, giving up: " + absenceMapping);
+            notifyGivenUp(change);
+        } else {
+            LOG.warn("Calendar sync failed, will retry at " + absenceMapping.getNextSyncAttempt() + ": "
+                + absenceMapping);
+        }
+    }
+
+
+    /**
+     * Notifies the tool's manager once about a change that could not be synced, the errors of the single attempts are
+     * logged by the calendar providers.
+     */
+    private void notifyGivenUp(ClaimedChange change) {
+
+        String calendarName = calendarSyncService.getCalendarName();
+        String error = "Calendar sync failed " + MAX_ATTEMPTS
+            + " times, see the application log for the errors of the single attempts.";
+
+        switch (change.action) {
+            case ADD:
+                mailService.sendCalendarSyncErrorNotification(calendarName, change.absence, error);
+                break;
+
+            case UPDATE:
+                mailService.sendCalendarUpdateErrorNotification(calendarName, change.absence, change.eventId, error);
+                break;
+
+            default:
+                mailService.sendCalendarDeleteErrorNotification(calendarName, change.eventId, error);
+        }
+    }
+
+
+    /**
+     * Builds the absence from the current state of the application for leave or sick note.
+     */
+    private Optional<Absence> getAbsence(AbsenceMapping absenceMapping) {
+
+        AbsenceTimeConfiguration timeConfiguration = new AbsenceTimeConfiguration(settingsService.getSettings()
+                .getCalendarSettings());
+
+        if (absenceMapping.getAbsenceType() == AbsenceType.SICKNOTE) {
+            Optional<SickNote> sickNote = sickNoteService.getById(absenceMapping.getAbsenceId());
+
+            return sickNote.map(s ->
+                        new Absence(s.getPerson(), s.getPeriod(), absenceMapping.getEventType(), timeConfiguration));
+        }
+
+        Optional<Application> application = applicationService.getApplicationById(absenceMapping.getAbsenceId());
+
+        return application.map(a ->
+                    new Absence(a.getPerson(), a.getPeriod(), absenceMapping.getEventType(), timeConfiguration));
+    }
+
+
+    /**
+     * Doubles the delay with every failed attempt: 1 minute, 2 minutes, 4 minutes and so on.
+     */
+    private static DateTime getNextAttempt(int failedAttempts) {
+
+        if (failedAttempts >= MAX_ATTEMPTS) {
+            return null;
+        }
+
+        return DateTime.now().plusSeconds(FIRST_RETRY_DELAY_SECONDS << (failedAttempts - 1));
+    }
+
+    /**
+     * A change claimed for syncing, together with the state of the mapping it has been claimed with and the result of
+     * the sync.
+     */
+    private static final class ClaimedChange {
+
+        private final Integer mappingId;
+        private final int version;
+        private final Integer absenceId;
+        private final AbsenceType absenceType;
+        private final String eventId;
+        private final CalendarSyncAction action;
+        private final Absence absence;
+
+        private boolean synced;
+        private String syncedEventId;
+
+        ClaimedChange(AbsenceMapping absenceMapping, CalendarSyncAction action, Absence absence) {
+
+            this.mappingId = absenceMapping.getId();
+            this.version = absenceMapping.getVersion();
+            this.absenceId = absenceMapping.getAbsenceId();
+            this.absenceType = absenceMapping.getAbsenceType();
+            this.eventId = absenceMapping.getEventId();
+            this.action = action;
+            this.absence = absence;
+        }
+
+        void synced(String resultingEventId) {
+
+            this.synced = true;
+            this.syncedEventId = resultingEventId;
+        }
+
+
+        @Override
+        public String toString() {
+
+            return "ClaimedChange{mappingId=" + mappingId + ", action=" + action + ", eventId=" + eventId + "}";
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.apache.log4j.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.stereotype.Service;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.core.sync.providers.noop.NoopCalendarSyncProvider;
+
+
+/**
+ * Records changes of absences that have to be synced with the calendar. The changes are stored within the transaction
+ * that changed the absence and are synced in the background by {@link CalendarSyncDispatcher}, so that slow or
+ * unavailable calendar providers do not delay the user's request.
+ */
+@Service
+@Transactional
+public class CalendarSyncQueue {
+
+    private static final Logger LOG = Logger.getLogger(CalendarSyncQueue.class);
+
+    private final AbsenceMappingDAO absenceMappingDAO;
+    private final CalendarService calendarService;
+
+    @Autowired
+    public CalendarSyncQueue(AbsenceMappingDAO absenceMappingDAO, CalendarService calendarService) {
+
+        this.absenceMappingDAO = absenceMappingDAO;
+        this.calendarService = calendarService;
+    }
+
+    /**
+     * Adds the given absence to the calendar, if a calendar provider is configured.
+     *
+     * @param  absenceId  id of the application for leave or sick note
+     * @param  absenceType  type of the absence
+     * @param  eventType  type of the calendar event
+     */
+    public void add(Integer absenceId, AbsenceType absenceType, EventType eventType) {
+
+        if (calendarService.getCalendarProvider() instanceof NoopCalendarSyncProvider) {
+            return;
+        }
+
+        AbsenceMapping absenceMapping = absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(absenceId,
+                absenceType);
+
+        if (absenceMapping == null) {
+            absenceMapping = new AbsenceMapping(absenceId, absenceType, null);
+        }
+
+        schedule(absenceMapping, eventType);
+    }
+
+
+    /**
+     * Updates the calendar event of the given absence, if the absence has been added to the calendar.
+     *
+     * @param  absenceId  id of the application for leave or sick note
+     * @param  absenceType  type of the absence
+     * @param  eventType  type of the calendar event
+     */
+    public void update(Integer absenceId, AbsenceType absenceType, EventType eventType) {
+
+        AbsenceMapping absenceMapping = absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(absenceId,
+                absenceType);
+
+        if (absenceMapping != null) {
+            schedule(absenceMapping, eventType);
+        }
+    }
+
+
+    /**
+     * Moves the calendar event of the given sick note to the application for leave it has been converted to.
+     *
+     * @param  sickNoteId  id of the converted sick note
+     * @param  applicationId  id of the application for leave the sick note has been converted to
+     */
+    public void convert(Integer sickNoteId, Integer applicationId) {
+
+        AbsenceMapping absenceMapping = absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(sickNoteId,
+                AbsenceType.SICKNOTE);
+
+        if (absenceMapping != null) {
+            absenceMapping.setAbsenceId(applicationId);
+            absenceMapping.setAbsenceType(AbsenceType.VACATION);
+
+            schedule(absenceMapping, EventType.ALLOWED_APPLICATION);
+        }
+    }
+
+
+    /**
+     * Deletes the calendar event of the given absence, if the absence has been added to the calendar.
+     *
+     * @param  absenceId  id of the application for leave or sick note
+     * @param  absenceType  type of the absence
+     */
+    public void delete(Integer absenceId, AbsenceType absenceType) {
+
+        AbsenceMapping absenceMapping = absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(absenceId,
+                absenceType);
+
+        if (absenceMapping == null) {
+            return;
+        }
+
+        if (absenceMapping.getEventId() == null && !absenceMapping.isClaimed()) {
+            // not yet added to the calendar, so there is nothing to delete
+            absenceMappingDAO.delete(absenceMapping);
+        } else {
+            absenceMapping.scheduleSync(CalendarSyncAction.DELETE, null);
+            absenceMappingDAO.save(absenceMapping);
+        }
+
+        LOG.debug("Scheduled calendar sync: " + absenceMapping);
+    }
+
+
+    /**
+     * An absence that has not been added to the calendar yet is still to be added, otherwise its event is updated. If
+     * the absence is being added at the moment, {@link CalendarSyncDispatcher} turns the addition into an update.
+     */
+    private void schedule(AbsenceMapping absenceMapping, EventType eventType) {
+
+        CalendarSyncAction action = absenceMapping.getEventId() == null ? CalendarSyncAction.ADD
+                                                                         : CalendarSyncAction.UPDATE;
+
+        absenceMapping.scheduleSync(action, eventType);
+        absenceMappingDAO.save(absenceMapping);
+
+        LOG.debug("Scheduled calendar sync: " + absenceMapping);
+    }
+}
@@ -1,8 +1,14 @@
 package org.synyx.urlaubsverwaltung.core.sync;
 
+import org.joda.time.DateMidnight;
+
 import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -27,16 +33,82 @@ public interface CalendarSyncService {
      *
      * @param  absence  represents the updated absence
      * @param  eventId  id of event to be updated
+     *
+     * @return  {@code true} if the event has been updated, {@code false} if an error occurred during the calendar sync
      */
-    void update(Absence absence, String eventId);
+    boolean update(Absence absence, String eventId);
 
 
     /**
      * Deletes a person's absence in calendar.
      *
      * @param  eventId  id of absence event, which should be deleted.
+     *
+     * @return  {@code true} if the event has been deleted, {@code false} if an error occurred during the calendar sync
+     */
+    boolean deleteAbsence(String eventId);
+
+
+    /**
+     * Add several absences to calendar, with as few requests as the calendar provider allows.
+     *
+     * @param  absences  represent the absences of persons
+     *
+     * @return  ids of the added absence events in the order of the given absences, an id may be empty if an error
+     *          occurred during the calendar sync of the absence
+     */
+    List<Optional<String>> addAbsences(List<Absence> absences);
+
+
+    /**
+     * Updates several events with absence content, with as few requests as the calendar provider allows.
+     *
+     * @param  absencesByEventId  the updated absences by the id of the event to be updated
+     *
+     * @return  ids of the events that could not be updated due to an error during the calendar sync
+     */
+    Set<String> updateAbsences(Map<String, Absence> absencesByEventId);
+
+
+    /**
+     * Deletes several absences in calendar, with as few requests as the calendar provider allows.
+     *
+     * @param  eventIds  ids of absence events, which should be deleted
+     *
+     * @return  ids of the events that could not be deleted due to an error during the calendar sync
+     */
+    Set<String> deleteAbsences(Collection<String> eventIds);
+
+
+    /**
+     * Gets the ids of the events in calendar within the given period.
+     *
+     * @param  from  start of the period
+     * @param  to  end of the period
+     *
+     * @return  ids of the events overlapping the given period, may be empty if the calendar provider does not know them
+     */
+    Optional<Set<String>> getEventIds(DateMidnight from, DateMidnight to);
+
+
+    /**
+     * Gets the ids of the events within the given period that have been created by the application.
+     *
+     * @param  from  start of the period
+     * @param  to  end of the period
+     *
+     * @return  ids of the events created by the application overlapping the given period, may be empty if the
+     *          calendar provider does not know them
+     */
+    Optional<Set<String>> getCreatedEventIds(DateMidnight from, DateMidnight to);
+
+
+    /**
+     * Gets the name of the calendar absences are synced with.
+     *
+     * @return  name of the calendar
      */
-    void deleteAbsence(String eventId);
+    String getCalendarName();
 
 
     /**
@@ -1,6 +1,7 @@
 package org.synyx.urlaubsverwaltung.core.sync;
 
 import org.apache.log4j.Logger;
+import org.joda.time.DateMidnight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
@@ -8,7 +9,11 @@ import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
 import org.synyx.urlaubsverwaltung.core.sync.providers.CalendarProvider;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -43,18 +48,64 @@ public class CalendarSyncServiceImpl implements CalendarSyncService {
 
 
     @Override
-    public void update(Absence absence, String eventId) {
+    public boolean update(Absence absence, String eventId) {
         CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
 
-        calendarService.getCalendarProvider().update(absence, eventId, calendarSettings);
+        return calendarService.getCalendarProvider().update(absence, eventId, calendarSettings);
     }
 
 
     @Override
-    public void deleteAbsence(String eventId) {
+    public boolean deleteAbsence(String eventId) {
         CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
 
-        calendarService.getCalendarProvider().delete(eventId, calendarSettings);
+        return calendarService.getCalendarProvider().delete(eventId, calendarSettings);
+    }
+
+
+    @Override
+    public List<Optional<String>> addAbsences(List<Absence> absences) {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().addAll(absences, calendarSettings);
+    }
+
+
+    @Override
+    public Set<String> updateAbsences(Map<String, Absence> absencesByEventId) {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().updateAll(absencesByEventId, calendarSettings);
+    }
+
+
+    @Override
+    public Set<String> deleteAbsences(Collection<String> eventIds) {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().deleteAll(eventIds, calendarSettings);
+    }
+
+
+    @Override
+    public Optional<Set<String>> getEventIds(DateMidnight from, DateMidnight to) {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().getEventIds(from, to, calendarSettings);
+    }
+
+    @Override
+    public Optional<Set<String>> getCreatedEventIds(DateMidnight from, DateMidnight to) {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().getCreatedEventIds(from, to, calendarSettings);
+    }
+
+    @Override
+    public String getCalendarName() {
+        CalendarSettings calendarSettings = this.settingsService.getSettings().getCalendarSettings();
+
+        return calendarService.getCalendarProvider().getCalendarName(calendarSettings);
     }
 
     @Override
@@ -1,16 +1,32 @@
 package org.synyx.urlaubsverwaltung.core.sync.absence;
 
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import org.joda.time.DateTime;
+
 import org.springframework.data.jpa.domain.AbstractPersistable;
 
+import java.util.Date;
+
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Temporal;
+import javax.persistence.Version;
 
 
 /**
  * Mapping object between absence (application for leave or sick note) and sync calendar event.
  *
+ * <p>The mapping also serves as queue entry for the calendar sync: changes of the absence are recorded as pending
+ * {@link CalendarSyncAction}, which is carried out in the background. As there is only one mapping per absence, only
+ * the latest change of an absence is synced.</p>
+ *
+ * <p>While a change is synced, the mapping is claimed by the syncing instance, so that the change is not synced twice.
+ * The mapping is versioned, so that the sync can tell whether the absence has been changed in the meantime.</p>
+ *
  * <p>Daniel Hammann - <hammann@synyx.de>.</p>
  */
 @Entity
@@ -23,9 +39,37 @@ public class AbsenceMapping extends AbstractPersistable<Integer> {
     @Column(nullable = false)
     private AbsenceType absenceType;
 
-    @Column(nullable = false)
+    /**
+     * Id of the calendar event, {@code null} as long as the event has not been added to the calendar.
+     */
     private String eventId;
 
+    /**
+     * The change that still has to be synced with the calendar, {@code null} if the calendar is up to date.
+     */
+    @Enumerated(EnumType.STRING)
+    private CalendarSyncAction syncAction;
+
+    @Enumerated(EnumType.STRING)
+    private EventType eventType;
+
+    /**
+     * When the next attempt to sync is due, {@code null} if there is nothing to sync or syncing failed too often.
+     */
+    @Temporal(javax.persistence.TemporalType.TIMESTAMP)
+    private Date nextSyncAttempt;
+
+    private int failedSyncAttempts;
+
+    /**
+     * Until when the pending change is being synced, {@code null} if it is not being synced.
+     */
+    @Temporal(javax.persistence.TemporalType.TIMESTAMP)
+    private Date claimedUntil;
+
+    @Version
+    private int version;
+
     public AbsenceMapping() {
 
         /* OK */
@@ -73,4 +117,150 @@ public class AbsenceMapping extends AbstractPersistable<Integer> {
 
         this.eventId = eventId;
     }
+
+
+    public CalendarSyncAction getSyncAction() {
+
+        return syncAction;
+    }
+
+
+    public EventType getEventType() {
+
+        return eventType;
+    }
+
+
+    public DateTime getNextSyncAttempt() {
+
+        if (nextSyncAttempt == null) {
+            return null;
+        }
+
+        return new DateTime(nextSyncAttempt);
+    }
+
+
+    public int getFailedSyncAttempts() {
+
+        return failedSyncAttempts;
+    }
+
+
+    public int getVersion() {
+
+        return version;
+    }
+
+
+    /**
+     * @return  {@code true} if the pending change is being synced at the moment, else {@code false}
+     */
+    public boolean isClaimed() {
+
+        return claimedUntil != null && claimedUntil.after(DateTime.now().toDate());
+    }
+
+
+    /**
+     * Records that the pending change is being synced. If the sync does not complete until the given time, e.g.
+     * because the syncing instance has been stopped, the change may be synced again.
+     *
+     * @param  until  when the sync is expected to be completed
+     */
+    public void claim(DateTime until) {
+
+        this.claimedUntil = until.toDate();
+    }
+
+
+    /**
+     * Records a change that has to be synced with the calendar as soon as possible. A pending change is replaced.
+     *
+     * @param  action  to be carried out
+     * @param  type  of the calendar event, may be {@code null} to keep the current one
+     */
+    public void scheduleSync(CalendarSyncAction action, EventType type) {
+
+        this.syncAction = action;
+
+        if (type != null) {
+            this.eventType = type;
+        }
+
+        this.failedSyncAttempts = 0;
+        this.nextSyncAttempt = DateTime.now().toDate();
+    }
+
+
+    /**
+     * Records that the pending change has been synced with the calendar.
+     *
+     * @param  syncedEventId  id of the calendar event
+     */
+    public void synced(String syncedEventId) {
+
+        this.eventId = syncedEventId;
+        this.syncAction = null;
+        this.failedSyncAttempts = 0;
+        this.nextSyncAttempt = null;
+        this.claimedUntil = null;
+    }
+
+
+    /**
+     * Records that a change has been synced with the calendar, while the absence has been changed again. The newer
+     * change stays pending: if the event has just been added it is updated instead, if the event has just been
+     * deleted it is added again instead.
+     *
+     * @param  syncedEventId  id of the calendar event, {@code null} if the event has been deleted
+     */
+    public void syncedBeforeChange(String syncedEventId) {
+
+        this.eventId = syncedEventId;
+        this.claimedUntil = null;
+
+        if (syncedEventId != null && syncAction == CalendarSyncAction.ADD) {
+            this.syncAction = CalendarSyncAction.UPDATE;
+        } else if (syncedEventId == null && syncAction == CalendarSyncAction.UPDATE) {
+            this.syncAction = CalendarSyncAction.ADD;
+        }
+    }
+
+
+    /**
+     * Records that the sync of a change did not complete, so that a newer change can be synced.
+     */
+    public void releaseClaim() {
+
+        this.claimedUntil = null;
+    }
+
+
+    /**
+     * Records a failed attempt to sync the pending change.
+     *
+     * @param  nextAttempt  when to try again, {@code null} to give up syncing the change
+     */
+    public void syncFailed(DateTime nextAttempt) {
+
+        this.failedSyncAttempts++;
+        this.nextSyncAttempt = nextAttempt == null ? null : nextAttempt.toDate();
+        this.claimedUntil = null;
+    }
+
+
+    @Override
+    public String toString() {
+
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("id", getId())
+            .append("absenceId", absenceId)
+            .append("absenceType", absenceType)
+            .append("eventId", eventId)
+            .append("syncAction", syncAction)
+            .append("failedSyncAttempts", failedSyncAttempts)
+            .append("nextSyncAttempt", nextSyncAttempt)
+            .append("claimedUntil", claimedUntil)
+            .toString();
+    }
 }
@@ -1,6 +1,15 @@
 package org.synyx.urlaubsverwaltung.core.sync.absence;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.LockModeType;
 
 
 /**
@@ -9,4 +18,51 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface AbsenceMappingDAO extends JpaRepository<AbsenceMapping, Integer> {
 
     AbsenceMapping findAbsenceMappingByAbsenceIdAndAbsenceType(Integer id, AbsenceType absenceType);
+
+
+    /**
+     * Finds the mapping of the given absence and locks it, so that a change of the absence is not lost because the
+     * mapping is changed concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    AbsenceMapping findForUpdateByAbsenceIdAndAbsenceType(Integer id, AbsenceType absenceType);
+
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AbsenceMapping> findByAbsenceTypeAndAbsenceIdIn(AbsenceType absenceType, Collection<Integer> absenceIds);
+
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AbsenceMapping> findByIdIn(Collection<Integer> ids);
+
+
+    List<AbsenceMapping> findByEventIdIn(Collection<String> eventIds);
+
+
+    /**
+     * Counts the mappings that are being synced at the moment, their events may already exist in calendar without the
+     * mapping knowing their ids yet.
+     *
+     * @param  date  to get the claimed mappings for
+     *
+     * @return  the number of mappings claimed at the given date
+     */
+    long countByClaimedUntilGreaterThanEqual(Date date);
+
+
+    /**
+     * Finds the oldest mappings whose pending change is due to be synced and is not being synced at the moment. The
+     * mappings are locked, so that they are not claimed concurrently by another instance of the application.
+     *
+     * @param  date  to get the due mappings for
+     * @param  pageable  to limit the number of mappings
+     *
+     * @return  the mappings due at the given date, ordered by id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "SELECT m FROM AbsenceMapping m WHERE m.nextSyncAttempt <= ?1 "
+        + "AND (m.claimedUntil IS NULL OR m.claimedUntil < ?1) ORDER BY m.id"
+    )
+    List<AbsenceMapping> findDueMappings(Date date, Pageable pageable);
 }
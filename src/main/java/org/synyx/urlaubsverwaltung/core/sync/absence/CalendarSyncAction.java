@@ -0,0 +1,11 @@
+package org.synyx.urlaubsverwaltung.core.sync.absence;
+
+/**
+ * Describes which change of an {@link AbsenceMapping} still has to be synced with the calendar.
+ */
+public enum CalendarSyncAction {
+
+    ADD,
+    UPDATE,
+    DELETE
+}
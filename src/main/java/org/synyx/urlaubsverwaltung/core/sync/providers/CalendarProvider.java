@@ -1,9 +1,16 @@
 package org.synyx.urlaubsverwaltung.core.sync.providers;
 
+import org.joda.time.DateMidnight;
+
 import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
 import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 /**
@@ -30,8 +37,10 @@ public interface CalendarProvider {
      * @param  absence  represents the updated absence
      * @param  eventId  id of event to be updated
      * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  {@code true} if the event has been updated, {@code false} if an error occurred during the calendar sync
      */
-    void update(Absence absence, String eventId, CalendarSettings calendarSettings);
+    boolean update(Absence absence, String eventId, CalendarSettings calendarSettings);
 
 
     /**
@@ -39,8 +48,107 @@ public interface CalendarProvider {
      *
      * @param  eventId  id of absence event, which should be deleted
      * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  {@code true} if the event has been deleted, {@code false} if an error occurred during the calendar sync
+     */
+    boolean delete(String eventId, CalendarSettings calendarSettings);
+
+
+    /**
+     * Add several absences to calendar. Providers supporting batch requests may add them with fewer requests, by
+     * default they are added one after another.
+     *
+     * @param  absences  represent the absences of persons
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  ids of the added absence events in the order of the given absences, an id may be empty if an error
+     *          occurred during the calendar sync of the absence
+     */
+    default List<Optional<String>> addAll(List<Absence> absences, CalendarSettings calendarSettings) {
+
+        return absences.stream().map(absence -> add(absence, calendarSettings)).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Updates several events with absence content. Providers supporting batch requests may update them with fewer
+     * requests, by default they are updated one after another.
+     *
+     * @param  absencesByEventId  the updated absences by the id of the event to be updated
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  ids of the events that could not be updated due to an error during the calendar sync
+     */
+    default Set<String> updateAll(Map<String, Absence> absencesByEventId, CalendarSettings calendarSettings) {
+
+        return absencesByEventId.entrySet()
+            .stream()
+            .filter(entry -> !update(entry.getValue(), entry.getKey(), calendarSettings))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toSet());
+    }
+
+
+    /**
+     * Deletes several absences in calendar. Providers supporting batch requests may delete them with fewer requests,
+     * by default they are deleted one after another.
+     *
+     * @param  eventIds  ids of absence events, which should be deleted
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  ids of the events that could not be deleted due to an error during the calendar sync
+     */
+    default Set<String> deleteAll(Collection<String> eventIds, CalendarSettings calendarSettings) {
+
+        return eventIds.stream()
+            .filter(eventId -> !delete(eventId, calendarSettings))
+            .collect(Collectors.toSet());
+    }
+
+
+    /**
+     * Gets the ids of the events in calendar within the given period, to detect events that are missing in calendar.
+     * Providers that do not support listing their events return an empty optional.
+     *
+     * @param  from  start of the period
+     * @param  to  end of the period
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  ids of the events overlapping the given period, may be empty if the events are unknown
+     */
+    default Optional<Set<String>> getEventIds(DateMidnight from, DateMidnight to, CalendarSettings calendarSettings) {
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Gets the ids of the events within the given period that have been created by the application, to delete events
+     * that are no longer mapped to an absence without touching other events of the calendar. Providers that cannot
+     * tell their own events apart return an empty optional.
+     *
+     * @param  from  start of the period
+     * @param  to  end of the period
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  ids of the events created by the application overlapping the given period, may be empty if the events
+     *          are unknown
+     */
+    default Optional<Set<String>> getCreatedEventIds(DateMidnight from, DateMidnight to,
+        CalendarSettings calendarSettings) {
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Gets the name of the calendar, e.g. to notify about errors.
+     *
+     * @param  calendarSettings  contains configuration for calendar provider
+     *
+     * @return  name of the calendar that is used for syncing
      */
-    void delete(String eventId, CalendarSettings calendarSettings);
+    String getCalendarName(CalendarSettings calendarSettings);
 
 
     /**
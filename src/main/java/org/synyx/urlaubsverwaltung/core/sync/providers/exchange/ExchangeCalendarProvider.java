@@ -12,20 +12,16 @@ import microsoft.exchange.webservices.data.core.service.folder.CalendarFolder;
 import microsoft.exchange.webservices.data.core.service.folder.Folder;
 import microsoft.exchange.webservices.data.core.service.item.Appointment;
 import microsoft.exchange.webservices.data.credential.WebCredentials;
+import microsoft.exchange.webservices.data.property.complex.FolderId;
 import microsoft.exchange.webservices.data.property.complex.ItemId;
 import microsoft.exchange.webservices.data.search.FindFoldersResults;
 import microsoft.exchange.webservices.data.search.FolderView;
 
-import org.apache.commons.lang.exception.ExceptionUtils;
-
 import org.apache.log4j.Logger;
 
-import org.springframework.beans.factory.annotation.Autowired;
-
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
 import org.synyx.urlaubsverwaltung.core.settings.ExchangeCalendarSettings;
@@ -33,12 +29,18 @@ import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
 import org.synyx.urlaubsverwaltung.core.sync.CalendarNotCreatedException;
 import org.synyx.urlaubsverwaltung.core.sync.providers.CalendarProvider;
 
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 
 /**
  * Provides sync of absences with exchange server calendar.
  *
+ * <p>The connection to the exchange server is kept as session: the autodiscovered service URL and the id of the
+ * calendar folder are reused as long as the exchange calendar settings do not change. If a request to the exchange
+ * server fails, the session is discarded and the next request connects again.</p>
+ *
  * @author  Daniel Hammann - <hammann@synyx.de>
  * @author  Aljona Murygina - murygina@synyx.de
  */
@@ -47,30 +49,32 @@ public class ExchangeCalendarProvider implements CalendarProvider {
 
     private static final Logger LOG = Logger.getLogger(ExchangeCalendarProvider.class);
 
-    private final MailService mailService;
-    private final ExchangeService exchangeService;
+    private final Supplier<ExchangeService> exchangeServiceFactory;
+
+    private ExchangeSession session;
+
+    public ExchangeCalendarProvider() {
+
+        this(ExchangeService::new);
+    }
 
-    private String credentialsMailAddress;
-    private String credentialsPassword;
 
-    @Autowired
-    public ExchangeCalendarProvider(MailService mailService) {
+    ExchangeCalendarProvider(Supplier<ExchangeService> exchangeServiceFactory) {
 
-        this.mailService = mailService;
-        this.exchangeService = new ExchangeService();
+        this.exchangeServiceFactory = exchangeServiceFactory;
     }
 
     @Override
-    public Optional<String> add(Absence absence, CalendarSettings calendarSettings) {
+    public synchronized Optional<String> add(Absence absence, CalendarSettings calendarSettings) {
 
         ExchangeCalendarSettings exchangeCalendarSettings = calendarSettings.getExchangeCalendarSettings();
         String calendarName = exchangeCalendarSettings.getCalendar();
-        connectToExchange(exchangeCalendarSettings);
+        ExchangeSession exchangeSession = getSession(exchangeCalendarSettings);
 
         try {
-            CalendarFolder calendarFolder = findOrCreateCalendar(calendarName);
+            FolderId calendarFolderId = exchangeSession.getCalendarFolderId();
 
-            Appointment appointment = new Appointment(exchangeService);
+            Appointment appointment = new Appointment(exchangeSession.exchangeService);
 
             fillAppointment(absence, appointment);
 
@@ -80,22 +84,52 @@ public class ExchangeCalendarProvider implements CalendarProvider {
                 invitationsMode = SendInvitationsMode.SendToAllAndSaveCopy;
             }
 
-            appointment.save(calendarFolder.getId(), invitationsMode);
+            appointment.save(calendarFolderId, invitationsMode);
 
             LOG.info(String.format("Appointment %s for '%s' added to exchange calendar '%s'.", appointment.getId(),
-                    absence.getPerson().getNiceName(), calendarFolder.getDisplayName()));
+                    absence.getPerson().getNiceName(), calendarName));
 
             return Optional.ofNullable(appointment.getId().getUniqueId());
         } catch (Exception ex) { // NOSONAR - EWS Java API throws Exception, that's life
-            LOG.warn("An error occurred while trying to add appointment to Exchange calendar");
-            mailService.sendCalendarSyncErrorNotification(calendarName, absence, ExceptionUtils.getStackTrace(ex));
+            LOG.warn(String.format("An error occurred while trying to add appointment to exchange calendar '%s'",
+                    calendarName), ex);
+            discardSession();
         }
 
         return Optional.empty();
     }
 
 
-    private void connectToExchange(ExchangeCalendarSettings settings) {
+    /**
+     * Gets the session for the given settings, connects to the exchange server if there is no such session yet.
+     */
+    private ExchangeSession getSession(ExchangeCalendarSettings settings) {
+
+        if (session == null || !session.isFor(settings)) {
+            ExchangeService exchangeService = exchangeServiceFactory.get();
+            ExchangeSession newSession = new ExchangeSession(settings, exchangeService);
+
+            if (connectToExchange(exchangeService, settings)) {
+                session = newSession;
+            } else {
+                // do not keep the session, so that connecting is tried again on the next request
+                session = null;
+
+                return newSession;
+            }
+        }
+
+        return session;
+    }
+
+
+    private void discardSession() {
+
+        session = null;
+    }
+
+
+    private static boolean connectToExchange(ExchangeService exchangeService, ExchangeCalendarSettings settings) {
 
         String email = settings.getEmail();
         String password = settings.getPassword();
@@ -105,65 +139,66 @@ public class ExchangeCalendarProvider implements CalendarProvider {
             LOG.warn(String.format(
                     "No connection could be established to the Exchange calendar for email=%s, cause=%s", email,
                     "email-address is not valid (expected form: name@domain)"));
-            return;
+            return false;
         }
         String username = emailPart[0];
         String domain = emailPart[1];
 
-        if (!email.equals(credentialsMailAddress) || !password.equals(credentialsPassword)) {
+        try {
+            exchangeService.setCredentials(new WebCredentials(username, password));
+            exchangeService.setTraceEnabled(true);
+            exchangeService.setEnableScpLookup(true);
+            exchangeService.autodiscoverUrl(email, new RedirectionUrlCallback());
+        } catch (Exception usernameException) { // NOSONAR - EWS Java API throws Exception, that's life
+            LOG.info(String.format(
+                    "No connection could be established to the Exchange calendar for username=%s, cause=%s",
+                    username, usernameException.getMessage()));
             try {
-                exchangeService.setCredentials(new WebCredentials(username, password));
+                exchangeService.setCredentials(new WebCredentials(username, password, domain));
                 exchangeService.setTraceEnabled(true);
                 exchangeService.setEnableScpLookup(true);
                 exchangeService.autodiscoverUrl(email, new RedirectionUrlCallback());
-            } catch (Exception usernameException) { // NOSONAR - EWS Java API throws Exception, that's life
+            } catch (Exception usernameDomainException) { // NOSONAR - EWS Java API throws Exception, that's life
                 LOG.info(String.format(
-                        "No connection could be established to the Exchange calendar for username=%s, cause=%s",
-                        username, usernameException.getMessage()));
+                        "No connection could be established to the Exchange calendar for username=%s and domain=%s, cause=%s",
+                        username, domain, usernameDomainException.getMessage()));
+
                 try {
-                    exchangeService.setCredentials(new WebCredentials(username, password, domain));
+                    exchangeService.setCredentials(new WebCredentials(email, password));
                     exchangeService.setTraceEnabled(true);
                     exchangeService.setEnableScpLookup(true);
                     exchangeService.autodiscoverUrl(email, new RedirectionUrlCallback());
-                } catch (Exception usernameDomainException) { // NOSONAR - EWS Java API throws Exception, that's life
-                    LOG.info(String.format(
-                            "No connection could be established to the Exchange calendar for username=%s and domain=%s, cause=%s",
-                            username, domain, usernameDomainException.getMessage()));
-
-                    try {
-                        exchangeService.setCredentials(new WebCredentials(email, password));
-                        exchangeService.setTraceEnabled(true);
-                        exchangeService.setEnableScpLookup(true);
-                        exchangeService.autodiscoverUrl(email, new RedirectionUrlCallback());
-                    } catch (Exception emailException) { // NOSONAR - EWS Java API throws Exception, that's life
-                        LOG.warn(String.format(
-                                "No connection could be established to the Exchange calendar for email=%s, cause=%s", email,
-                                emailException.getMessage()));
-                    }
+                } catch (Exception emailException) { // NOSONAR - EWS Java API throws Exception, that's life
+                    LOG.warn(String.format(
+                            "No connection could be established to the Exchange calendar for email=%s, cause=%s", email,
+                            emailException.getMessage()));
+
+                    return false;
                 }
             }
-
-            credentialsMailAddress = email;
-            credentialsPassword = password;
         }
+
+        return true;
     }
 
 
-    private CalendarFolder findOrCreateCalendar(String calendarName) throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
+    private static CalendarFolder findOrCreateCalendar(ExchangeService exchangeService, String calendarName)
+        throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
 
-        Optional<CalendarFolder> calendarOptional = findCalendar(calendarName);
+        Optional<CalendarFolder> calendarOptional = findCalendar(exchangeService, calendarName);
 
         if (calendarOptional.isPresent()) {
             return calendarOptional.get();
         } else {
             LOG.info(String.format("No exchange calendar found with name '%s'", calendarName));
 
-            return createCalendar(calendarName);
+            return createCalendar(exchangeService, calendarName);
         }
     }
 
 
-    private Optional<CalendarFolder> findCalendar(String calendarName) throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
+    private static Optional<CalendarFolder> findCalendar(ExchangeService exchangeService, String calendarName)
+        throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
 
         FindFoldersResults calendarRoot = exchangeService.findFolders(WellKnownFolderName.Calendar,
                 new FolderView(Integer.MAX_VALUE));
@@ -178,7 +213,7 @@ public class ExchangeCalendarProvider implements CalendarProvider {
     }
 
 
-    private CalendarFolder createCalendar(String calendarName) {
+    private static CalendarFolder createCalendar(ExchangeService exchangeService, String calendarName) {
 
         try {
             LOG.info(String.format("Trying to create new calendar with name '%s'", calendarName));
@@ -211,14 +246,14 @@ public class ExchangeCalendarProvider implements CalendarProvider {
 
 
     @Override
-    public void update(Absence absence, String eventId, CalendarSettings calendarSettings) {
+    public synchronized boolean update(Absence absence, String eventId, CalendarSettings calendarSettings) {
 
         ExchangeCalendarSettings exchangeCalendarSettings = calendarSettings.getExchangeCalendarSettings();
         String calendarName = exchangeCalendarSettings.getCalendar();
-        connectToExchange(exchangeCalendarSettings);
+        ExchangeSession exchangeSession = getSession(exchangeCalendarSettings);
 
         try {
-            Appointment appointment = Appointment.bind(exchangeService, new ItemId(eventId));
+            Appointment appointment = Appointment.bind(exchangeSession.exchangeService, new ItemId(eventId));
 
             fillAppointment(absence, appointment);
 
@@ -232,54 +267,69 @@ public class ExchangeCalendarProvider implements CalendarProvider {
 
             LOG.info(String.format("Appointment %s has been updated in exchange calendar '%s'.", eventId,
                     calendarName));
+
+            return true;
         } catch (Exception ex) { // NOSONAR - EWS Java API throws Exception, that's life
-            LOG.warn(String.format("Could not update appointment %s in exchange calendar '%s'", eventId, calendarName));
-            mailService.sendCalendarUpdateErrorNotification(calendarName, absence, eventId,
-                ExceptionUtils.getStackTrace(ex));
+            LOG.warn(String.format("Could not update appointment %s in exchange calendar '%s'", eventId, calendarName),
+                ex);
+            discardSession();
         }
+
+        return false;
     }
 
 
     @Override
-    public void delete(String eventId, CalendarSettings calendarSettings) {
+    public synchronized boolean delete(String eventId, CalendarSettings calendarSettings) {
 
         ExchangeCalendarSettings exchangeCalendarSettings = calendarSettings.getExchangeCalendarSettings();
         String calendarName = exchangeCalendarSettings.getCalendar();
-        connectToExchange(exchangeCalendarSettings);
+        ExchangeSession exchangeSession = getSession(exchangeCalendarSettings);
 
         try {
-            Appointment appointment = Appointment.bind(exchangeService, new ItemId(eventId));
-
             SendCancellationsMode notificationMode = SendCancellationsMode.SendToNone;
 
             if (exchangeCalendarSettings.isSendInvitationActive()) {
                 notificationMode = SendCancellationsMode.SendToAllAndSaveCopy;
             }
 
-            appointment.delete(DeleteMode.HardDelete, notificationMode);
+            // the appointment does not need to be bound to be deleted, this saves a request to the exchange server
+            exchangeSession.exchangeService.deleteItem(new ItemId(eventId), DeleteMode.HardDelete, notificationMode,
+                null);
 
             LOG.info(String.format("Appointment %s has been deleted in exchange calendar '%s'.", eventId,
                     calendarName));
+
+            return true;
         } catch (Exception ex) { // NOSONAR - EWS Java API throws Exception, that's life
-            LOG.warn(String.format("Could not delete appointment %s in exchange calendar '%s'", eventId, calendarName));
-            mailService.sendCalendarDeleteErrorNotification(calendarName, eventId, ExceptionUtils.getStackTrace(ex));
+            LOG.warn(String.format("Could not delete appointment %s in exchange calendar '%s'", eventId, calendarName),
+                ex);
+            discardSession();
         }
+
+        return false;
     }
 
 
     @Override
-    public void checkCalendarSyncSettings(CalendarSettings calendarSettings) {
+    public String getCalendarName(CalendarSettings calendarSettings) {
+
+        return calendarSettings.getExchangeCalendarSettings().getCalendar();
+    }
+
+
+    @Override
+    public synchronized void checkCalendarSyncSettings(CalendarSettings calendarSettings) {
 
         ExchangeCalendarSettings exchangeCalendarSettings = calendarSettings.getExchangeCalendarSettings();
-        connectToExchange(exchangeCalendarSettings);
-        discover();
+        discover(getSession(exchangeCalendarSettings).exchangeService);
     }
 
 
-    private void discover() {
+    private static void discover(ExchangeService exchangeService) {
 
         try {
-            discoverFolders(WellKnownFolderName.Calendar);
+            discoverFolders(exchangeService, WellKnownFolderName.Calendar);
         } catch (Exception ex) { // NOSONAR - EWS Java API throws Exception, that's life
             LOG.info(String.format("An error occurred while trying to get calendar folders, cause: %s",
                     ex.getMessage()));
@@ -288,7 +338,7 @@ public class ExchangeCalendarProvider implements CalendarProvider {
 
             for (WellKnownFolderName folderName : WellKnownFolderName.values()) {
                 try {
-                    discoverFolders(folderName);
+                    discoverFolders(exchangeService, folderName);
                 } catch (Exception e) { // NOSONAR - EWS Java API throws Exception, that's life
                     LOG.info(String.format(
                             "An error occurred while trying to get folders for well known folder name: %s, cause: %s",
@@ -299,7 +349,8 @@ public class ExchangeCalendarProvider implements CalendarProvider {
     }
 
 
-    private void discoverFolders(WellKnownFolderName wellKnownFolderName) throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
+    private static void discoverFolders(ExchangeService exchangeService, WellKnownFolderName wellKnownFolderName)
+        throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
 
         FindFoldersResults folders = exchangeService.findFolders(wellKnownFolderName,
                 new FolderView(Integer.MAX_VALUE));
@@ -317,4 +368,44 @@ public class ExchangeCalendarProvider implements CalendarProvider {
             return redirectionUrl.toLowerCase().startsWith("https://");
         }
     }
+
+    /**
+     * A connected {@link ExchangeService} together with the exchange calendar settings it has been connected with.
+     */
+    private static final class ExchangeSession {
+
+        private final String email;
+        private final String password;
+        private final String calendarName;
+        private final ExchangeService exchangeService;
+
+        private FolderId calendarFolderId;
+
+        ExchangeSession(ExchangeCalendarSettings settings, ExchangeService exchangeService) {
+
+            this.email = settings.getEmail();
+            this.password = settings.getPassword();
+            this.calendarName = settings.getCalendar();
+            this.exchangeService = exchangeService;
+        }
+
+        boolean isFor(ExchangeCalendarSettings settings) {
+
+            return Objects.equals(email, settings.getEmail()) && Objects.equals(password, settings.getPassword())
+                && Objects.equals(calendarName, settings.getCalendar());
+        }
+
+
+        /**
+         * Gets the id of the calendar folder, the folder is looked up or created on first use.
+         */
+        FolderId getCalendarFolderId() throws Exception { // NOSONAR - EWS Java API throws Exception, that's life
+
+            if (calendarFolderId == null) {
+                calendarFolderId = findOrCreateCalendar(exchangeService, calendarName).getId();
+            }
+
+            return calendarFolderId;
+        }
+    }
 }
@@ -3,9 +3,13 @@ package org.synyx.urlaubsverwaltung.core.sync.providers.google;
 import com.google.api.client.auth.oauth2.BearerToken;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.http.BasicAuthentication;
 import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.http.HttpResponse;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.http.javanet.NetHttpTransport;
@@ -16,13 +20,12 @@ import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventAttendee;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
 import org.apache.log4j.Logger;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.joda.time.DateMidnight;
 import org.springframework.stereotype.Service;
-import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
 import org.synyx.urlaubsverwaltung.core.settings.GoogleCalendarSettings;
-import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
 import org.synyx.urlaubsverwaltung.core.sync.providers.CalendarProvider;
 
@@ -30,8 +33,16 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.apache.http.HttpStatus.SC_OK;
 
@@ -52,46 +63,72 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
     public static final String APPLICATION_NAME = "Urlaubsverwaltung";
     protected static final String GOOGLEAPIS_OAUTH2_V4_TOKEN = "https://www.googleapis.com/oauth2/v4/token";
 
-    private Calendar googleCalendarClient;
-    private int refreshTokenHashCode;
-    private final MailService mailService;
-    private final SettingsService settingsService;
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final int MAX_EVENTS_PER_PAGE = 2500;
+
+    /**
+     * Private extended property marking the events created by the application, other events of the calendar are never
+     * deleted unless they are mapped to an absence.
+     */
+    private static final String CREATED_BY_PROPERTY = "createdBy";
+    private static final String CREATED_BY_VALUE = "urlaubsverwaltung";
+
+    private final Function<GoogleCalendarSettings, Calendar> clientFactory;
+
+    /**
+     * The client for the recently used settings, it is kept as long as the settings do not change. The credential of
+     * the client refreshes the access token itself as soon as it expires.
+     */
+    private volatile GoogleCalendarClient googleCalendarClient;
+
+    public GoogleCalendarSyncProvider() {
+
+        this(GoogleCalendarSyncProvider::createGoogleCalendarClient);
+    }
 
-    @Autowired
-    public GoogleCalendarSyncProvider(MailService mailService, SettingsService settingsService) {
 
-        this.settingsService = settingsService;
-        this.mailService = mailService;
+    GoogleCalendarSyncProvider(Function<GoogleCalendarSettings, Calendar> clientFactory) {
+
+        this.clientFactory = clientFactory;
     }
 
     /**
-     * Build and return an authorized google calendar client.
+     * Return an authorized google calendar client for the given settings, a new client is only built if the settings
+     * changed since the last call.
      *
-     * @return an authorized calendar client service
+     * @return an authorized calendar client service, {@code null} if the client could not be built
      */
-    private com.google.api.services.calendar.Calendar getOrCreateGoogleCalendarClient() {
+    private Calendar getOrCreateGoogleCalendarClient(GoogleCalendarSettings googleCalendarSettings) {
 
-        String refreshToken =
-                settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getRefreshToken();
+        GoogleCalendarClient client = googleCalendarClient;
 
-        if (googleCalendarClient != null &&
-                refreshToken != null &&
-                refreshTokenHashCode == refreshToken.hashCode()) {
+        if (client != null && client.isConfiguredBy(googleCalendarSettings)) {
             LOG.debug("use cached googleCalendarClient");
-            return googleCalendarClient;
+
+            return client.calendar;
         }
-        try {
-            LOG.info("create new googleCalendarClient");
 
-            if (refreshToken != null) {
-                refreshTokenHashCode = refreshToken.hashCode();
-            }
+        LOG.info("create new googleCalendarClient");
+
+        Calendar calendar = clientFactory.apply(googleCalendarSettings);
+
+        if (calendar != null) {
+            googleCalendarClient = new GoogleCalendarClient(googleCalendarSettings, calendar);
+        }
+
+        return calendar;
+    }
+
 
+    private static Calendar createGoogleCalendarClient(GoogleCalendarSettings googleCalendarSettings) {
+
+        try {
             NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
             TokenResponse tokenResponse = new TokenResponse();
-            tokenResponse.setRefreshToken(refreshToken);
+            tokenResponse.setRefreshToken(googleCalendarSettings.getRefreshToken());
 
-            Credential credential = createCredentialWithRefreshToken(httpTransport, JSON_FACTORY, tokenResponse);
+            Credential credential = createCredentialWithRefreshToken(httpTransport, JSON_FACTORY, tokenResponse,
+                    googleCalendarSettings);
 
             return new com.google.api.services.calendar.Calendar.Builder(
                     httpTransport, JSON_FACTORY, credential).setApplicationName(APPLICATION_NAME).build();
@@ -107,18 +144,17 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
     @Override
     public Optional<String> add(Absence absence, CalendarSettings calendarSettings) {
 
-        googleCalendarClient = getOrCreateGoogleCalendarClient();
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
 
-        if (googleCalendarClient != null) {
-            GoogleCalendarSettings googleCalendarSettings =
-                    settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings();
+        if (client != null) {
             String calendarId = googleCalendarSettings.getCalendarId();
 
             try {
                 Event eventToCommit = new Event();
                 fillEvent(absence, eventToCommit);
 
-                Event eventInCalendar = googleCalendarClient.events().insert(calendarId, eventToCommit).execute();
+                Event eventInCalendar = client.events().insert(calendarId, eventToCommit).execute();
 
                 LOG.info(String.format("Event %s for '%s' added to calendar '%s'.", eventInCalendar.getId(),
                         absence.getPerson().getNiceName(), eventInCalendar.getSummary()));
@@ -126,7 +162,6 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
 
             } catch (IOException ex) {
                 LOG.warn(String.format("An error occurred while trying to add appointment to calendar %s", calendarId), ex);
-                mailService.sendCalendarSyncErrorNotification(calendarId, absence, ex.toString());
             }
         }
         return Optional.empty();
@@ -134,66 +169,304 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
 
 
     @Override
-    public void update(Absence absence, String eventId, CalendarSettings calendarSettings) {
+    public boolean update(Absence absence, String eventId, CalendarSettings calendarSettings) {
 
-        googleCalendarClient = getOrCreateGoogleCalendarClient();
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
 
-        if (googleCalendarClient != null) {
+        if (client != null) {
 
-            String calendarId =
-                    settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getCalendarId();
+            String calendarId = googleCalendarSettings.getCalendarId();
 
             try {
-                // gather exiting event
-                Event event = googleCalendarClient.events().get(calendarId, eventId).execute();
-
-                // update event with absence
+                // patch only the fields derived from the absence, there is no need to gather the existing event
+                Event event = new Event();
                 fillEvent(absence, event);
 
-                // sync event to calendar
-                googleCalendarClient.events().patch(calendarId, eventId, event).execute();
+                client.events().patch(calendarId, eventId, event).execute();
 
                 LOG.info(String.format("Event %s has been updated in calendar '%s'.", eventId, calendarId));
+
+                return true;
             } catch (IOException ex) {
                 LOG.warn(String.format("Could not update event %s in calendar '%s'.", eventId, calendarId), ex);
-                mailService.sendCalendarUpdateErrorNotification(calendarId, absence, eventId, ex.getMessage());
             }
         }
+
+        return false;
     }
 
 
     @Override
-    public void delete(String eventId, CalendarSettings calendarSettings) {
+    public boolean delete(String eventId, CalendarSettings calendarSettings) {
 
-        googleCalendarClient = getOrCreateGoogleCalendarClient();
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
 
-        if (googleCalendarClient != null) {
+        if (client != null) {
 
-            String calendarId =
-                    settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getCalendarId();
+            String calendarId = googleCalendarSettings.getCalendarId();
 
             try {
-                googleCalendarClient.events().delete(calendarId, eventId).execute();
+                client.events().delete(calendarId, eventId).execute();
 
                 LOG.info(String.format("Event %s has been deleted in calendar '%s'.", eventId, calendarId));
+
+                return true;
             } catch (IOException ex) {
                 LOG.warn(String.format("Could not delete event %s in calendar '%s'", eventId, calendarId), ex);
-                mailService.sendCalendarDeleteErrorNotification(calendarId, eventId, ex.getMessage());
             }
         }
+
+        return false;
+    }
+
+
+    @Override
+    public List<Optional<String>> addAll(List<Absence> absences, CalendarSettings calendarSettings) {
+
+        List<Optional<String>> eventIds = new ArrayList<>(Collections.nCopies(absences.size(), Optional.empty()));
+
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
+
+        if (client == null) {
+            return eventIds;
+        }
+
+        String calendarId = googleCalendarSettings.getCalendarId();
+
+        try {
+            executeInBatches(client, absences.size(), (batch, index) -> {
+                Absence absence = absences.get(index);
+
+                Event eventToCommit = new Event();
+                fillEvent(absence, eventToCommit);
+
+                client.events().insert(calendarId, eventToCommit).queue(batch, new JsonBatchCallback<Event>() {
+
+                    @Override
+                    public void onSuccess(Event eventInCalendar, HttpHeaders responseHeaders) {
+
+                        LOG.info(String.format("Event %s for '%s' added to calendar '%s'.", eventInCalendar.getId(),
+                                absence.getPerson().getNiceName(), eventInCalendar.getSummary()));
+                        eventIds.set(index, Optional.of(eventInCalendar.getId()));
+                    }
+
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+
+                        LOG.warn(String.format("An error occurred while trying to add appointment to calendar %s: %s",
+                                calendarId, error.getMessage()));
+                    }
+                });
+            });
+        } catch (IOException ex) {
+            LOG.warn(String.format("An error occurred while trying to add appointments to calendar %s", calendarId), ex);
+        }
+
+        return eventIds;
+    }
+
+
+    @Override
+    public Set<String> updateAll(Map<String, Absence> absencesByEventId, CalendarSettings calendarSettings) {
+
+        Set<String> failedEventIds = new HashSet<>(absencesByEventId.keySet());
+
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
+
+        if (client == null) {
+            return failedEventIds;
+        }
+
+        String calendarId = googleCalendarSettings.getCalendarId();
+        List<String> eventIds = new ArrayList<>(absencesByEventId.keySet());
+
+        try {
+            executeInBatches(client, eventIds.size(), (batch, index) -> {
+                String eventId = eventIds.get(index);
+                Absence absence = absencesByEventId.get(eventId);
+
+                Event event = new Event();
+                fillEvent(absence, event);
+
+                client.events().patch(calendarId, eventId, event).queue(batch, new JsonBatchCallback<Event>() {
+
+                    @Override
+                    public void onSuccess(Event eventInCalendar, HttpHeaders responseHeaders) {
+
+                        LOG.info(String.format("Event %s has been updated in calendar '%s'.", eventId, calendarId));
+                        failedEventIds.remove(eventId);
+                    }
+
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+
+                        LOG.warn(String.format("Could not update event %s in calendar '%s': %s", eventId, calendarId,
+                                error.getMessage()));
+                    }
+                });
+            });
+        } catch (IOException ex) {
+            LOG.warn(String.format("Could not update events in calendar '%s'.", calendarId), ex);
+        }
+
+        return failedEventIds;
+    }
+
+
+    @Override
+    public Set<String> deleteAll(Collection<String> eventIds, CalendarSettings calendarSettings) {
+
+        Set<String> failedEventIds = new HashSet<>(eventIds);
+
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
+
+        if (client == null) {
+            return failedEventIds;
+        }
+
+        String calendarId = googleCalendarSettings.getCalendarId();
+        List<String> eventIdList = new ArrayList<>(failedEventIds);
+
+        try {
+            executeInBatches(client, eventIdList.size(), (batch, index) -> {
+                String eventId = eventIdList.get(index);
+
+                client.events().delete(calendarId, eventId).queue(batch, new JsonBatchCallback<Void>() {
+
+                    @Override
+                    public void onSuccess(Void content, HttpHeaders responseHeaders) {
+
+                        LOG.info(String.format("Event %s has been deleted in calendar '%s'.", eventId, calendarId));
+                        failedEventIds.remove(eventId);
+                    }
+
+
+                    @Override
+                    public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+
+                        LOG.warn(String.format("Could not delete event %s in calendar '%s': %s", eventId, calendarId,
+                                error.getMessage()));
+                    }
+                });
+            });
+        } catch (IOException ex) {
+            LOG.warn(String.format("Could not delete events in calendar '%s'", calendarId), ex);
+        }
+
+        return failedEventIds;
+    }
+
+
+    @Override
+    public Optional<Set<String>> getEventIds(DateMidnight from, DateMidnight to, CalendarSettings calendarSettings) {
+
+        return listEventIds(from, to, calendarSettings, false);
+    }
+
+
+    @Override
+    public Optional<Set<String>> getCreatedEventIds(DateMidnight from, DateMidnight to,
+        CalendarSettings calendarSettings) {
+
+        return listEventIds(from, to, calendarSettings, true);
+    }
+
+
+    private Optional<Set<String>> listEventIds(DateMidnight from, DateMidnight to, CalendarSettings calendarSettings,
+        boolean createdOnly) {
+
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
+
+        if (client == null) {
+            return Optional.empty();
+        }
+
+        String calendarId = googleCalendarSettings.getCalendarId();
+
+        try {
+            Set<String> eventIds = new HashSet<>();
+            String pageToken = null;
+
+            do {
+                // only the ids are needed, so the rest of the events is not transferred
+                Calendar.Events.List request = client.events()
+                        .list(calendarId)
+                        .setTimeMin(new DateTime(from.toDate()))
+                        .setTimeMax(new DateTime(to.toDate()))
+                        .setMaxResults(MAX_EVENTS_PER_PAGE)
+                        .setFields("items(id),nextPageToken")
+                        .setPageToken(pageToken);
+
+                if (createdOnly) {
+                    request.setPrivateExtendedProperty(Collections.singletonList(
+                            CREATED_BY_PROPERTY + "=" + CREATED_BY_VALUE));
+                }
+
+                Events events = request.execute();
+
+                if (events.getItems() != null) {
+                    events.getItems().forEach(event -> eventIds.add(event.getId()));
+                }
+
+                pageToken = events.getNextPageToken();
+            } while (pageToken != null);
+
+            return Optional.of(eventIds);
+        } catch (IOException ex) {
+            LOG.warn(String.format("Could not get events of calendar '%s'", calendarId), ex);
+        }
+
+        return Optional.empty();
+    }
+
+
+    /**
+     * Queues the given number of requests and sends them in batch requests of at most {@value #MAX_BATCH_SIZE}
+     * requests each.
+     */
+    private static void executeInBatches(Calendar client, int size, BatchQueuer queuer) throws IOException {
+
+        BatchRequest batch = client.batch();
+
+        for (int index = 0; index < size; index++) {
+            queuer.queue(batch, index);
+
+            if (batch.size() == MAX_BATCH_SIZE) {
+                batch.execute();
+            }
+        }
+
+        if (batch.size() > 0) {
+            batch.execute();
+        }
+    }
+
+
+    @Override
+    public String getCalendarName(CalendarSettings calendarSettings) {
+
+        return calendarSettings.getGoogleCalendarSettings().getCalendarId();
     }
 
 
     @Override
     public void checkCalendarSyncSettings(CalendarSettings calendarSettings) {
 
-        googleCalendarClient = getOrCreateGoogleCalendarClient();
+        GoogleCalendarSettings googleCalendarSettings = calendarSettings.getGoogleCalendarSettings();
+        Calendar client = getOrCreateGoogleCalendarClient(googleCalendarSettings);
 
-        if (googleCalendarClient != null) {
-            String calendarId =
-                    settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getCalendarId();
+        if (client != null) {
+            String calendarId = googleCalendarSettings.getCalendarId();
             try {
-                HttpResponse httpResponse = googleCalendarClient.calendarList().get(calendarId).executeUsingHead();
+                HttpResponse httpResponse = client.calendarList().get(calendarId).executeUsingHead();
                 if (httpResponse.getStatusCode() == SC_OK) {
                     LOG.info("Calendar sync successfully activated!");
                 } else {
@@ -205,15 +478,11 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
         }
     }
 
-    private Credential createCredentialWithRefreshToken(
+    private static Credential createCredentialWithRefreshToken(
             HttpTransport transport,
             JsonFactory jsonFactory,
-            TokenResponse tokenResponse) {
-
-        String clientId =
-                settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getClientId();
-        String clientSecret =
-                settingsService.getSettings().getCalendarSettings().getGoogleCalendarSettings().getClientSecret();
+            TokenResponse tokenResponse,
+            GoogleCalendarSettings googleCalendarSettings) {
 
         return new Credential.Builder(BearerToken.authorizationHeaderAccessMethod()).setTransport(
                 transport)
@@ -221,8 +490,8 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
                 .setTokenServerUrl(
                         new GenericUrl(GOOGLEAPIS_OAUTH2_V4_TOKEN))
                 .setClientAuthentication(new BasicAuthentication(
-                        clientId,
-                        clientSecret))
+                        googleCalendarSettings.getClientId(),
+                        googleCalendarSettings.getClientSecret()))
                 .build()
                 .setFromTokenResponse(tokenResponse);
     }
@@ -231,6 +500,10 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
 
         event.setSummary(absence.getEventSubject());
 
+        // an update replaces the whole event, so the mark is set again on every update
+        event.setExtendedProperties(new Event.ExtendedProperties().setPrivate(
+                Collections.singletonMap(CREATED_BY_PROPERTY, CREATED_BY_VALUE)));
+
         EventAttendee eventAttendee = new EventAttendee();
         eventAttendee.setEmail(absence.getPerson().getEmail());
         eventAttendee.setDisplayName(absence.getPerson().getNiceName());
@@ -262,4 +535,36 @@ public class GoogleCalendarSyncProvider implements CalendarProvider {
         event.setEnd(endEventDateTime);
     }
 
+
+    @FunctionalInterface
+    private interface BatchQueuer {
+
+        void queue(BatchRequest batch, int index) throws IOException;
+    }
+
+    /**
+     * An authorized calendar client together with the settings it has been built for.
+     */
+    private static final class GoogleCalendarClient {
+
+        private final String clientId;
+        private final String clientSecret;
+        private final String refreshToken;
+        private final Calendar calendar;
+
+        GoogleCalendarClient(GoogleCalendarSettings googleCalendarSettings, Calendar calendar) {
+
+            this.clientId = googleCalendarSettings.getClientId();
+            this.clientSecret = googleCalendarSettings.getClientSecret();
+            this.refreshToken = googleCalendarSettings.getRefreshToken();
+            this.calendar = calendar;
+        }
+
+        boolean isConfiguredBy(GoogleCalendarSettings googleCalendarSettings) {
+
+            return Objects.equals(clientId, googleCalendarSettings.getClientId())
+                && Objects.equals(clientSecret, googleCalendarSettings.getClientSecret())
+                && Objects.equals(refreshToken, googleCalendarSettings.getRefreshToken());
+        }
+    }
 }
@@ -23,14 +23,24 @@ public class NoopCalendarSyncProvider implements CalendarProvider {
     }
 
     @Override
-    public void update(Absence absence, String eventId, CalendarSettings calendarSettings) {
+    public boolean update(Absence absence, String eventId, CalendarSettings calendarSettings) {
 
         LOG.info(String.format("No calendar provider configured to update event: %s, eventId %s", absence, eventId));
+
+        return true;
     }
 
     @Override
-    public void delete(String eventId, CalendarSettings calendarSettings) {
+    public boolean delete(String eventId, CalendarSettings calendarSettings) {
         LOG.info(String.format("No calendar provider configured to delete event '%s'", eventId));
+
+        return true;
+    }
+
+    @Override
+    public String getCalendarName(CalendarSettings calendarSettings) {
+
+        return "";
     }
 
     @Override
@@ -0,0 +1,254 @@
+package org.synyx.urlaubsverwaltung.core.workingtime;
+
+import de.jollyday.Holiday;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.settings.FederalState;
+import org.synyx.urlaubsverwaltung.core.settings.WorkingTimeSettings;
+
+import java.math.BigDecimal;
+
+import java.util.Set;
+
+
+/**
+ * Immutable calendar of the public holidays of one federal state in one year.
+ *
+ * <p>The days of the year are stored as bitmaps: one bitmap for the public holidays and one bitmap per week day
+ * containing the days that are no public holidays. So the number of work days within a period can be calculated by
+ * counting bits instead of checking every single day.</p>
+ *
+ * <p>Christmas Eve and New Year's Eve are public holidays with a configurable working duration, see
+ * {@link WorkingTimeSettings}. The calendar remembers the working durations it was built with, so it can be
+ * recognized as outdated if the settings change.</p>
+ */
+public final class PublicHolidaysCalendar {
+
+    private static final int BITS_PER_WORD = 64;
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final int year;
+    private final FederalState federalState;
+    private final DayLength workingDurationForChristmasEve;
+    private final DayLength workingDurationForNewYearsEve;
+
+    private final long[] publicHolidays;
+    private final long[][] workDaysByWeekDay;
+
+    private final int christmasEve;
+    private final int newYearsEve;
+
+    PublicHolidaysCalendar(int year, FederalState federalState, Set<Holiday> holidays,
+        WorkingTimeSettings workingTimeSettings) {
+
+        this.year = year;
+        this.federalState = federalState;
+        this.workingDurationForChristmasEve = workingTimeSettings.getWorkingDurationForChristmasEve();
+        this.workingDurationForNewYearsEve = workingTimeSettings.getWorkingDurationForNewYearsEve();
+
+        DateMidnight firstDayOfYear = new DateMidnight(year, DateTimeConstants.JANUARY, 1);
+        int numberOfDays = firstDayOfYear.dayOfYear().getMaximumValue();
+        int numberOfWords = (numberOfDays + BITS_PER_WORD - 1) / BITS_PER_WORD;
+
+        this.publicHolidays = new long[numberOfWords];
+        this.workDaysByWeekDay = new long[DAYS_PER_WEEK][numberOfWords];
+
+        for (Holiday holiday : holidays) {
+            if (holiday.getDate().getYear() == year) {
+                setBit(publicHolidays, holiday.getDate().getDayOfYear() - 1);
+            }
+        }
+
+        int firstWeekDay = firstDayOfYear.getDayOfWeek();
+
+        for (int day = 0; day < numberOfDays; day++) {
+            if (!isBitSet(publicHolidays, day)) {
+                int weekDay = (firstWeekDay - 1 + day) % DAYS_PER_WEEK;
+                setBit(workDaysByWeekDay[weekDay], day);
+            }
+        }
+
+        this.christmasEve = new DateMidnight(year, DateTimeConstants.DECEMBER, 24).getDayOfYear() - 1;
+        this.newYearsEve = new DateMidnight(year, DateTimeConstants.DECEMBER, 31).getDayOfYear() - 1;
+    }
+
+    public int getYear() {
+
+        return year;
+    }
+
+
+    public FederalState getFederalState() {
+
+        return federalState;
+    }
+
+
+    /**
+     * Checks if the calendar has been built with the given working time settings.
+     *
+     * @param  workingTimeSettings  to be checked
+     *
+     * @return  {@code true} if the working durations for Christmas Eve and New Year's Eve are the same as in the
+     *          given settings, else {@code false}
+     */
+    boolean isBuiltWith(WorkingTimeSettings workingTimeSettings) {
+
+        return workingDurationForChristmasEve == workingTimeSettings.getWorkingDurationForChristmasEve()
+            && workingDurationForNewYearsEve == workingTimeSettings.getWorkingDurationForNewYearsEve();
+    }
+
+
+    /**
+     * Checks if the given date is a public holiday.
+     *
+     * @param  date  to be checked, must be within the year of this calendar
+     *
+     * @return  {@code true} if the given date is a public holiday, else {@code false}
+     */
+    public boolean isPublicHoliday(DateMidnight date) {
+
+        return isBitSet(publicHolidays, dayIndexOf(date));
+    }
+
+
+    /**
+     * Returns the working duration for a date: may be full day (1.0) for a non public holiday or zero (0.0) for a
+     * public holiday. The working duration for Christmas Eve and New Year's Eve are configured in the settings.
+     *
+     * @param  date  to get working duration for, must be within the year of this calendar
+     *
+     * @return  working duration of the given date
+     */
+    public BigDecimal getWorkingDurationOfDate(DateMidnight date) {
+
+        int day = dayIndexOf(date);
+
+        if (!isBitSet(publicHolidays, day)) {
+            return DayLength.FULL.getDuration();
+        }
+
+        return getWorkingDurationOfPublicHoliday(day);
+    }
+
+
+    /**
+     * Sums up the working durations of the days within the given period considering the given working time.
+     *
+     * @param  startDate  of the period, must be within the year of this calendar
+     * @param  endDate  of the period, must be within the year of this calendar
+     * @param  workingTime  that defines the working duration of each week day
+     *
+     * @return  the working duration within the given period
+     */
+    public BigDecimal getWorkingDuration(DateMidnight startDate, DateMidnight endDate, WorkingTime workingTime) {
+
+        int from = dayIndexOf(startDate);
+        int to = dayIndexOf(endDate) + 1;
+
+        BigDecimal workingDuration = BigDecimal.ZERO;
+
+        if (from >= to) {
+            return workingDuration;
+        }
+
+        for (int weekDay = 0; weekDay < DAYS_PER_WEEK; weekDay++) {
+            BigDecimal durationOfWeekDay = workingTime.getDayLengthForWeekDay(weekDay + 1).getDuration();
+
+            if (durationOfWeekDay.signum() != 0) {
+                BigDecimal numberOfWorkDays = BigDecimal.valueOf(countBits(workDaysByWeekDay[weekDay], from, to));
+
+                workingDuration = workingDuration.add(durationOfWeekDay.multiply(numberOfWorkDays));
+            }
+        }
+
+        workingDuration = workingDuration.add(getWorkingDurationOfPublicHoliday(christmasEve, from, to, workingTime));
+        workingDuration = workingDuration.add(getWorkingDurationOfPublicHoliday(newYearsEve, from, to, workingTime));
+
+        return workingDuration;
+    }
+
+
+    private BigDecimal getWorkingDurationOfPublicHoliday(int day, int from, int to, WorkingTime workingTime) {
+
+        if (day < from || day >= to || !isBitSet(publicHolidays, day)) {
+            return BigDecimal.ZERO;
+        }
+
+        int weekDay = new DateMidnight(year, DateTimeConstants.JANUARY, 1).plusDays(day).getDayOfWeek();
+
+        return getWorkingDurationOfPublicHoliday(day).multiply(
+                workingTime.getDayLengthForWeekDay(weekDay).getDuration());
+    }
+
+
+    private BigDecimal getWorkingDurationOfPublicHoliday(int day) {
+
+        if (day == christmasEve) {
+            return workingDurationForChristmasEve.getDuration();
+        }
+
+        if (day == newYearsEve) {
+            return workingDurationForNewYearsEve.getDuration();
+        }
+
+        return DayLength.ZERO.getDuration();
+    }
+
+
+    private int dayIndexOf(DateMidnight date) {
+
+        if (date.getYear() != year) {
+            throw new IllegalArgumentException("Date " + date + " is not within year " + year);
+        }
+
+        return date.getDayOfYear() - 1;
+    }
+
+
+    private static void setBit(long[] words, int index) {
+
+        words[index / BITS_PER_WORD] |= 1L << index;
+    }
+
+
+    private static boolean isBitSet(long[] words, int index) {
+
+        return (words[index / BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+
+    /**
+     * Counts the set bits within the given range.
+     *
+     * @param  words  bitmap
+     * @param  from  index of the first bit, inclusive
+     * @param  to  index of the last bit, exclusive
+     *
+     * @return  number of set bits
+     */
+    private static int countBits(long[] words, int from, int to) {
+
+        int firstWord = from / BITS_PER_WORD;
+        int lastWord = (to - 1) / BITS_PER_WORD;
+
+        // shift distances are taken modulo 64, so these masks select the bits within the first and last word
+        long firstWordMask = -1L << from;
+        long lastWordMask = -1L >>> -to;
+
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstWordMask & lastWordMask);
+        }
+
+        int count = Long.bitCount(words[firstWord] & firstWordMask);
+
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            count += Long.bitCount(words[word]);
+        }
+
+        return count + Long.bitCount(words[lastWord] & lastWordMask);
+    }
+}
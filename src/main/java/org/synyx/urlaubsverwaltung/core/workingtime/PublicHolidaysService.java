@@ -7,20 +7,23 @@ import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.context.event.EventListener;
+
 import org.springframework.stereotype.Component;
 
-import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.settings.FederalState;
 import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsChangedEvent;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.core.settings.WorkingTimeSettings;
-import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
 
 import java.net.URL;
 
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -37,6 +40,7 @@ public class PublicHolidaysService {
 
     private final HolidayManager manager;
     private final SettingsService settingsService;
+    private final ConcurrentMap<CalendarKey, PublicHolidaysCalendar> calendars = new ConcurrentHashMap<>();
 
     @Autowired
     public PublicHolidaysService(SettingsService settingsService) {
@@ -59,7 +63,7 @@ public class PublicHolidaysService {
      */
     boolean isPublicHoliday(DateMidnight date, FederalState federalState) {
 
-        return manager.isHoliday(date.toLocalDate(), federalState.getCodes());
+        return getCalendar(date.getYear(), federalState).isPublicHoliday(date);
     }
 
 
@@ -75,20 +79,47 @@ public class PublicHolidaysService {
      */
     public BigDecimal getWorkingDurationOfDate(DateMidnight date, FederalState federalState) {
 
+        return getCalendar(date.getYear(), federalState).getWorkingDurationOfDate(date);
+    }
+
+
+    /**
+     * Returns the precomputed public holidays calendar for the given year and federal state. The calendar is built
+     * once and cached; it is rebuilt if the working durations for Christmas Eve and New Year's Eve have been changed in
+     * the settings since it has been built, e.g. by another instance of the application.
+     *
+     * @param  year  to get the calendar for
+     * @param  federalState  the federal state to consider holiday settings for
+     *
+     * @return  public holidays calendar for the given year and federal state
+     */
+    public PublicHolidaysCalendar getCalendar(int year, FederalState federalState) {
+
         Settings settings = settingsService.getSettings();
         WorkingTimeSettings workingTimeSettings = settings.getWorkingTimeSettings();
 
-        if (isPublicHoliday(date, federalState)) {
-            if (DateUtil.isChristmasEve(date)) {
-                return workingTimeSettings.getWorkingDurationForChristmasEve().getDuration();
-            } else if (DateUtil.isNewYearsEve(date)) {
-                return workingTimeSettings.getWorkingDurationForNewYearsEve().getDuration();
-            } else {
-                return DayLength.ZERO.getDuration();
-            }
+        CalendarKey key = new CalendarKey(year, federalState);
+        PublicHolidaysCalendar calendar = calendars.get(key);
+
+        if (calendar == null || !calendar.isBuiltWith(workingTimeSettings)) {
+            calendar = new PublicHolidaysCalendar(year, federalState, getHolidays(year, federalState),
+                    workingTimeSettings);
+            calendars.put(key, calendar);
         }
 
-        return DayLength.FULL.getDuration();
+        return calendar;
+    }
+
+
+    /**
+     * Discards all the cached public holidays calendars, they are rebuilt with the changed settings on demand.
+     *
+     * @param  event  about the changed settings
+     */
+    @EventListener
+    public void onSettingsChanged(SettingsChangedEvent event) {
+
+        calendars.clear();
     }
 
 
@@ -110,4 +141,39 @@ public class PublicHolidaysService {
 
         return holiday -> holiday.getDate().getMonthOfYear() == month;
     }
+
+    private static final class CalendarKey {
+
+        private final int year;
+        private final FederalState federalState;
+
+        CalendarKey(int year, FederalState federalState) {
+
+            this.year = year;
+            this.federalState = federalState;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            CalendarKey that = (CalendarKey) o;
+
+            return year == that.year && federalState == that.federalState;
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return 31 * year + federalState.hashCode();
+        }
+    }
 }
@@ -1,12 +1,14 @@
 package org.synyx.urlaubsverwaltung.core.workingtime;
 
 import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.period.Period;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.settings.FederalState;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
@@ -15,7 +17,13 @@ import org.synyx.urlaubsverwaltung.core.util.DateUtil;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -93,31 +101,77 @@ public class WorkDaysService {
                 person, startDate);
 
         if (!optionalWorkingTime.isPresent()) {
-            throw new NoValidWorkingTimeException("No working time found for User '" + person.getLoginName()
-                + "' in period " + startDate.toString(DateFormat.PATTERN) + " - "
-                + endDate.toString(DateFormat.PATTERN));
+            throw noValidWorkingTime(person, startDate, endDate);
         }
 
         WorkingTime workingTime = optionalWorkingTime.get();
 
-        FederalState federalState = getFederalState(workingTime);
+        return getWorkDays(dayLength, startDate, endDate, workingTime, getFederalState(workingTime));
+    }
 
-        BigDecimal vacationDays = BigDecimal.ZERO;
 
-        DateMidnight day = startDate;
+    /**
+     * Calculates the number of workdays for many absences at once, e.g. for a list of applications for leave. The
+     * working times of all the affected persons are loaded with a single query, so the costs do not grow with the
+     * number of absences.
+     *
+     * @param  absences  to calculate the number of workdays for
+     * @param  personOfAbsence  provides the person of an absence
+     * @param  periodOfAbsence  provides the period of an absence
+     * @param  <T>  type of the absences, e.g. {@link org.synyx.urlaubsverwaltung.core.application.domain.Application}
+     *
+     * @return  number of workdays for each absence, in the same order as the given absences
+     */
+    public <T> List<BigDecimal> getWorkDays(List<T> absences, Function<T, Person> personOfAbsence,
+        Function<T, Period> periodOfAbsence) {
+
+        if (absences.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Person> persons = absences.stream().map(personOfAbsence).distinct().collect(Collectors.toList());
+
+        Map<Person, List<WorkingTime>> workingTimes = workingTimeService.getByPersons(persons);
+
+        List<BigDecimal> workDays = new ArrayList<>(absences.size());
 
-        while (!day.isAfter(endDate)) {
-            // value may be 1 for public holiday, 0 for not public holiday or 0.5 for Christmas Eve or New Year's Eve
-            BigDecimal duration = publicHolidaysService.getWorkingDurationOfDate(day, federalState);
+        FederalState systemDefaultFederalState = getSystemDefaultFederalState();
 
-            int dayOfWeek = day.getDayOfWeek();
-            BigDecimal workingDuration = workingTime.getDayLengthForWeekDay(dayOfWeek).getDuration();
+        for (T absence : absences) {
+            Person person = personOfAbsence.apply(absence);
+            Period period = periodOfAbsence.apply(absence);
 
-            BigDecimal result = duration.multiply(workingDuration);
+            WorkingTime workingTime = getValidWorkingTime(workingTimes.getOrDefault(person,
+                        Collections.emptyList()), period.getStartDate()).orElseThrow(() ->
+                        noValidWorkingTime(person, period.getStartDate(), period.getEndDate()));
 
-            vacationDays = vacationDays.add(result);
+            FederalState federalState = workingTime.getFederalStateOverride().orElse(systemDefaultFederalState);
 
-            day = day.plusDays(1);
+            workDays.add(getWorkDays(period.getDayLength(), period.getStartDate(), period.getEndDate(), workingTime,
+                    federalState));
+        }
+
+        return workDays;
+    }
+
+
+    private BigDecimal getWorkDays(DayLength dayLength, DateMidnight startDate, DateMidnight endDate,
+        WorkingTime workingTime, FederalState federalState) {
+
+        BigDecimal vacationDays = BigDecimal.ZERO;
+
+        DateMidnight from = startDate;
+
+        // the public holidays calendars are precomputed per year, so the period is split at the turn of the year
+        while (!from.isAfter(endDate)) {
+            DateMidnight lastDayOfYear = new DateMidnight(from.getYear(), DateTimeConstants.DECEMBER, 31);
+            DateMidnight to = endDate.isBefore(lastDayOfYear) ? endDate : lastDayOfYear;
+
+            PublicHolidaysCalendar calendar = publicHolidaysService.getCalendar(from.getYear(), federalState);
+
+            vacationDays = vacationDays.add(calendar.getWorkingDuration(from, to, workingTime));
+
+            from = to.plusDays(1);
         }
 
         // vacation days < 1 day --> must not be divided, else an ArithmeticException is thrown
@@ -129,12 +183,52 @@ public class WorkDaysService {
     }
 
 
+    /**
+     * Determines the working time that is valid for the given date, i.e. the one with the latest validity date that
+     * is equal or minor to the given date.
+     *
+     * @param  workingTimes  of a person, ordered by the date they are valid from
+     * @param  date  to get the valid working time for
+     *
+     * @return  the valid working time, empty if there is none
+     */
+    private static Optional<WorkingTime> getValidWorkingTime(List<WorkingTime> workingTimes, DateMidnight date) {
+
+        WorkingTime validWorkingTime = null;
+
+        for (WorkingTime workingTime : workingTimes) {
+            if (workingTime.getValidFrom().isAfter(date)) {
+                break;
+            }
+
+            validWorkingTime = workingTime;
+        }
+
+        return Optional.ofNullable(validWorkingTime);
+    }
+
+
+    private static NoValidWorkingTimeException noValidWorkingTime(Person person, DateMidnight startDate,
+        DateMidnight endDate) {
+
+        return new NoValidWorkingTimeException("No working time found for User '" + person.getLoginName()
+                + "' in period " + startDate.toString(DateFormat.PATTERN) + " - "
+                + endDate.toString(DateFormat.PATTERN));
+    }
+
+
     private FederalState getFederalState(WorkingTime workingTime) {
 
         if (workingTime.getFederalStateOverride().isPresent()) {
             return workingTime.getFederalStateOverride().get();
         }
 
+        return getSystemDefaultFederalState();
+    }
+
+
+    private FederalState getSystemDefaultFederalState() {
+
         return settingsService.getSettings().getWorkingTimeSettings().getFederalState();
     }
 }
@@ -265,4 +265,29 @@ public class WorkingTime extends AbstractPersistable<Integer> {
 
         this.federalStateOverride = federalState;
     }
+
+
+    /**
+     * Creates a copy of this working time that is not attached to any persistence context.
+     *
+     * @return  a copy with the same id and values
+     */
+    WorkingTime copy() {
+
+        WorkingTime copy = new WorkingTime();
+
+        copy.setId(getId());
+        copy.person = person;
+        copy.monday = monday;
+        copy.tuesday = tuesday;
+        copy.wednesday = wednesday;
+        copy.thursday = thursday;
+        copy.friday = friday;
+        copy.saturday = saturday;
+        copy.sunday = sunday;
+        copy.validFrom = validFrom;
+        copy.federalStateOverride = federalStateOverride;
+
+        return copy;
+    }
 }
@@ -0,0 +1,30 @@
+package org.synyx.urlaubsverwaltung.core.workingtime;
+
+import org.springframework.context.ApplicationEvent;
+
+import org.synyx.urlaubsverwaltung.core.person.Person;
+
+
+/**
+ * Published by {@link WorkingTimeService} within the transaction that changed the {@link WorkingTime} of a person, so
+ * that data derived from the working time of the person can be updated.
+ */
+public class WorkingTimeChangedEvent extends ApplicationEvent {
+
+    private final Person person;
+
+    public WorkingTimeChangedEvent(Object source, Person person) {
+
+        super(source);
+
+        this.person = person;
+    }
+
+    /**
+     * @return  the person whose working time has been changed
+     */
+    public Person getPerson() {
+
+        return person;
+    }
+}
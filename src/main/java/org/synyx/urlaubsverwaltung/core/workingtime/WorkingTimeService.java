@@ -6,9 +6,15 @@ import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.context.ApplicationEventPublisher;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.Person;
@@ -16,8 +22,15 @@ import org.synyx.urlaubsverwaltung.core.settings.FederalState;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.core.util.DateFormat;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 
 /**
@@ -31,14 +44,38 @@ public class WorkingTimeService {
 
     private static final Logger LOG = Logger.getLogger(WorkingTimeService.class);
 
+    private static final int MAX_CACHED_TIMELINES = 5000;
+
     private final WorkingTimeDAO workingTimeDAO;
     private final SettingsService settingsService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * The version of the working times, timelines loaded with an older version are loaded again.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The working time timelines of the recently used persons, the least recently used one is evicted if the cache is
+     * full.
+     */
+    private final Map<Person, WorkingTimeTimeline> timelines = Collections.synchronizedMap(
+            new LinkedHashMap<Person, WorkingTimeTimeline>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Person, WorkingTimeTimeline> eldest) {
+
+                    return size() > MAX_CACHED_TIMELINES;
+                }
+            });
 
     @Autowired
-    public WorkingTimeService(WorkingTimeDAO workingTimeDAO, SettingsService settingsService) {
+    public WorkingTimeService(WorkingTimeDAO workingTimeDAO, SettingsService settingsService,
+        ApplicationEventPublisher applicationEventPublisher) {
 
         this.workingTimeDAO = workingTimeDAO;
         this.settingsService = settingsService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public void touch(List<Integer> workingDays, Optional<FederalState> federalState, DateMidnight validFrom,
@@ -68,6 +105,10 @@ public class WorkingTimeService {
         }
 
         workingTimeDAO.save(workingTime);
+
+        invalidateTimeline(person);
+
+        applicationEventPublisher.publishEvent(new WorkingTimeChangedEvent(this, person));
     }
 
 
@@ -77,15 +118,57 @@ public class WorkingTimeService {
     }
 
 
+    /**
+     * Provides the working times of all the given persons. The working times of persons that are not cached yet are
+     * loaded with a single query.
+     *
+     * @param  persons  to get the working times for
+     *
+     * @return  the working times of each person, ordered by the date they are valid from
+     */
+    public Map<Person, List<WorkingTime>> getByPersons(List<Person> persons) {
+
+        Map<Person, List<WorkingTime>> workingTimes = new HashMap<>();
+        List<Person> uncachedPersons = new ArrayList<>();
+
+        long currentVersion = version.get();
+
+        for (Person person : persons) {
+            WorkingTimeTimeline timeline = timelines.get(person);
+
+            if (timeline == null || timeline.getVersion() != currentVersion) {
+                uncachedPersons.add(person);
+            } else {
+                workingTimes.put(person, timeline.getAll());
+            }
+        }
+
+        if (!uncachedPersons.isEmpty()) {
+            Map<Person, List<WorkingTime>> loadedWorkingTimes = workingTimeDAO.findByPersonIn(uncachedPersons)
+                .stream()
+                .collect(Collectors.groupingBy(WorkingTime::getPerson, Collectors.toList()));
+
+            for (Person person : uncachedPersons) {
+                WorkingTimeTimeline timeline = new WorkingTimeTimeline(currentVersion,
+                        loadedWorkingTimes.getOrDefault(person, Collections.emptyList()));
+                timelines.put(person, timeline);
+                workingTimes.put(person, timeline.getAll());
+            }
+        }
+
+        return workingTimes;
+    }
+
+
     public Optional<WorkingTime> getByPersonAndValidityDateEqualsOrMinorDate(Person person, DateMidnight date) {
 
-        return Optional.ofNullable(workingTimeDAO.findByPersonAndValidityDateEqualsOrMinorDate(person, date.toDate()));
+        return getTimeline(person).getValidAt(date);
     }
 
 
     public Optional<WorkingTime> getCurrentOne(Person person) {
 
-        return Optional.ofNullable(workingTimeDAO.findLastOneByPerson(person));
+        return getTimeline(person).getLatest();
     }
 
 
@@ -121,4 +204,50 @@ public class WorkingTimeService {
 
         return settingsService.getSettings().getWorkingTimeSettings().getFederalState();
     }
+
+
+    private WorkingTimeTimeline getTimeline(Person person) {
+
+        long currentVersion = version.get();
+        WorkingTimeTimeline timeline = timelines.get(person);
+
+        if (timeline == null || timeline.getVersion() != currentVersion) {
+            timeline = new WorkingTimeTimeline(currentVersion, workingTimeDAO.findByPerson(person));
+            timelines.put(person, timeline);
+        }
+
+        return timeline;
+    }
+
+
+    /**
+     * Discards the working time timelines kept in memory, to pick up changes made by other instances of the
+     * application.
+     */
+    @Scheduled(cron = "${uv.cron.reloadWorkingTimes}")
+    public void reloadWorkingTimes() {
+
+        version.incrementAndGet();
+    }
+
+
+    /**
+     * Removes the cached timeline of the given person. As a concurrent request could cache the timeline again before
+     * the changes are committed, the timeline is removed again after the transaction is completed.
+     */
+    private void invalidateTimeline(Person person) {
+
+        timelines.remove(person);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                    @Override
+                    public void afterCompletion(int status) {
+
+                        timelines.remove(person);
+                    }
+                });
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package org.synyx.urlaubsverwaltung.core.workingtime;
+
+import org.joda.time.DateMidnight;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+
+/**
+ * Immutable timeline of the working times of a person, ordered by the date they are valid from. Allows to look up the
+ * working time that is valid for a certain date by binary search.
+ *
+ * <p>The timeline keeps copies of the given working times and hands out copies as well, so that it can be shared by
+ * concurrent requests without sharing the entities of their persistence contexts.</p>
+ */
+final class WorkingTimeTimeline {
+
+    private final long version;
+    private final List<WorkingTime> workingTimes;
+    private final long[] validFrom;
+
+    WorkingTimeTimeline(long version, List<WorkingTime> workingTimes) {
+
+        List<WorkingTime> sortedWorkingTimes = workingTimes.stream()
+                .map(WorkingTime::copy)
+                .sorted(Comparator.comparing(WorkingTime::getValidFrom))
+                .collect(Collectors.toList());
+
+        this.version = version;
+
+        this.workingTimes = Collections.unmodifiableList(sortedWorkingTimes);
+        this.validFrom = new long[sortedWorkingTimes.size()];
+
+        for (int i = 0; i < validFrom.length; i++) {
+            validFrom[i] = sortedWorkingTimes.get(i).getValidFrom().getMillis();
+        }
+    }
+
+    /**
+     * @return  the version of the working times the timeline has been loaded with
+     */
+    long getVersion() {
+
+        return version;
+    }
+
+
+    /**
+     * @return  all the working times, ordered by the date they are valid from
+     */
+    List<WorkingTime> getAll() {
+
+        return workingTimes.stream().map(WorkingTime::copy).collect(Collectors.toList());
+    }
+
+
+    /**
+     * Finds the working time that is valid for the given date, i.e. the one with the latest validity date that is
+     * equal or minor to the given date.
+     *
+     * @param  date  to get the valid working time for
+     *
+     * @return  the valid working time, empty if there is none
+     */
+    Optional<WorkingTime> getValidAt(DateMidnight date) {
+
+        long millis = date.getMillis();
+
+        int low = 0;
+        int high = validFrom.length - 1;
+        int match = -1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (validFrom[middle] <= millis) {
+                match = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        if (match < 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(workingTimes.get(match).copy());
+    }
+
+
+    /**
+     * @return  the working time with the latest validity date, empty if there is none
+     */
+    Optional<WorkingTime> getLatest() {
+
+        if (workingTimes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(workingTimes.get(workingTimes.size() - 1).copy());
+    }
+}
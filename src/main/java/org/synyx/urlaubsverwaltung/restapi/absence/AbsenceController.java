@@ -26,6 +26,7 @@ import org.synyx.urlaubsverwaltung.restapi.ResponseWrapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
@@ -52,7 +53,7 @@ public class AbsenceController {
 
     @ApiOperation(
         value = "Get all absences for a certain period and person",
-        notes = "Get all absences for a certain period and person"
+        notes = "Get all absences for a certain period and person, one absence per day"
     )
     @RequestMapping(value = "/absences", method = RequestMethod.GET)
     public ResponseWrapper<DayAbsenceList> personsVacations(
@@ -69,28 +70,97 @@ public class AbsenceController {
         @RequestParam(value = "type", required = false)
         String type) {
 
+        Person person = getPerson(personId);
 
-        Optional<Person> optionalPerson = personService.getPersonByID(personId);
+        DateMidnight startDate = getStartDate(year, Optional.ofNullable(month));
+        DateMidnight endDate = getEndDate(year, Optional.ofNullable(month));
 
-        if (!optionalPerson.isPresent()) {
-            throw new IllegalArgumentException("No person found for ID=" + personId);
+        List<DayAbsence> absences = new ArrayList<>();
+
+        if (isOfType(type, DayAbsence.Type.VACATION)) {
+            for (Application application : getVacations(startDate, endDate, person)) {
+                forEachDay(application.getStartDate(), application.getEndDate(), startDate, endDate,
+                    day ->
+                        absences.add(new DayAbsence(day, application.getDayLength(), DayAbsence.Type.VACATION,
+                                application.getStatus().name(), application.getId())));
+            }
         }
 
-        List<DayAbsence> absences = new ArrayList<>();
-        Person person = optionalPerson.get();
+        if (isOfType(type, DayAbsence.Type.SICK_NOTE)) {
+            for (SickNote sickNote : getSickNotes(startDate, endDate, person)) {
+                forEachDay(sickNote.getStartDate(), sickNote.getEndDate(), startDate, endDate,
+                    day ->
+                        absences.add(new DayAbsence(day, sickNote.getDayLength(), DayAbsence.Type.SICK_NOTE,
+                                "ACTIVE", sickNote.getId())));
+            }
+        }
+
+        return new ResponseWrapper<>(new DayAbsenceList(absences));
+    }
+
+
+    @ApiOperation(
+        value = "Get all absences for a certain period and person as spans",
+        notes = "Get all absences for a certain period and person, one absence per span of consecutive days "
+            + "instead of one absence per day. The spans are cut to the period."
+    )
+    @RequestMapping(value = "/absences", method = RequestMethod.GET, params = "format=spans")
+    public ResponseWrapper<AbsenceSpanList> personsAbsenceSpans(
+        @ApiParam(value = "Year to get the absences for", defaultValue = "2016")
+        @RequestParam("year")
+        String year,
+        @ApiParam(value = "Month of year to get the absences for")
+        @RequestParam(value = "month", required = false)
+        String month,
+        @ApiParam(value = "ID of the person")
+        @RequestParam("person")
+        Integer personId,
+        @ApiParam(value = "Type of absences, vacation or sick notes", allowableValues = "VACATION, SICK_NOTE")
+        @RequestParam(value = "type", required = false)
+        String type) {
+
+        Person person = getPerson(personId);
 
         DateMidnight startDate = getStartDate(year, Optional.ofNullable(month));
         DateMidnight endDate = getEndDate(year, Optional.ofNullable(month));
 
-        if (type == null || DayAbsence.Type.valueOf(type).equals(DayAbsence.Type.VACATION)) {
-            absences.addAll(getVacations(startDate, endDate, person));
+        List<AbsenceSpan> absences = new ArrayList<>();
+
+        if (isOfType(type, DayAbsence.Type.VACATION)) {
+            for (Application application : getVacations(startDate, endDate, person)) {
+                absences.add(new AbsenceSpan(max(application.getStartDate(), startDate),
+                        min(application.getEndDate(), endDate), application.getDayLength(), DayAbsence.Type.VACATION,
+                        application.getStatus().name(), application.getId()));
+            }
         }
 
-        if (type == null || DayAbsence.Type.valueOf(type).equals(DayAbsence.Type.SICK_NOTE)) {
-            absences.addAll(getSickNotes(startDate, endDate, person));
+        if (isOfType(type, DayAbsence.Type.SICK_NOTE)) {
+            for (SickNote sickNote : getSickNotes(startDate, endDate, person)) {
+                absences.add(new AbsenceSpan(max(sickNote.getStartDate(), startDate),
+                        min(sickNote.getEndDate(), endDate), sickNote.getDayLength(), DayAbsence.Type.SICK_NOTE,
+                        "ACTIVE", sickNote.getId()));
+            }
         }
 
-        return new ResponseWrapper<>(new DayAbsenceList(absences));
+        return new ResponseWrapper<>(new AbsenceSpanList(absences));
+    }
+
+
+    private Person getPerson(Integer personId) {
+
+        Optional<Person> optionalPerson = personService.getPersonByID(personId);
+
+        if (!optionalPerson.isPresent()) {
+            throw new IllegalArgumentException("No person found for ID=" + personId);
+        }
+
+        return optionalPerson.get();
+    }
+
+
+    private static boolean isOfType(String type, DayAbsence.Type absenceType) {
+
+        return type == null || DayAbsence.Type.valueOf(type).equals(absenceType);
     }
 
 
@@ -114,64 +184,52 @@ public class AbsenceController {
     }
 
 
-    private List<DayAbsence> getVacations(DateMidnight start, DateMidnight end, Person person) {
-
-        List<DayAbsence> absences = new ArrayList<>();
-
-        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndPerson(start, end,
-                    person)
-                .stream()
-                .filter(application ->
-                            application.hasStatus(ApplicationStatus.WAITING)
-                            || application.hasStatus(ApplicationStatus.TEMPORARY_ALLOWED)
-                            || application.hasStatus(ApplicationStatus.ALLOWED))
-                .collect(Collectors.toList());
-
-        for (Application application : applications) {
-            DateMidnight startDate = application.getStartDate();
-            DateMidnight endDate = application.getEndDate();
+    private List<Application> getVacations(DateMidnight start, DateMidnight end, Person person) {
 
-            DateMidnight day = startDate;
+        return applicationService.getApplicationsForACertainPeriodAndPerson(start, end, person)
+            .stream()
+            .filter(application ->
+                        application.hasStatus(ApplicationStatus.WAITING)
+                        || application.hasStatus(ApplicationStatus.TEMPORARY_ALLOWED)
+                        || application.hasStatus(ApplicationStatus.ALLOWED))
+            .collect(Collectors.toList());
+    }
 
-            while (!day.isAfter(endDate)) {
-                if (!day.isBefore(start) && !day.isAfter(end)) {
-                    absences.add(new DayAbsence(day, application.getDayLength(), DayAbsence.Type.VACATION,
-                            application.getStatus().name(), application.getId()));
-                }
 
-                day = day.plusDays(1);
-            }
-        }
+    private List<SickNote> getSickNotes(DateMidnight start, DateMidnight end, Person person) {
 
-        return absences;
+        return sickNoteService.getByPersonAndPeriod(person, start, end)
+            .stream()
+            .filter(SickNote::isActive)
+            .collect(Collectors.toList());
     }
 
 
-    private List<DayAbsence> getSickNotes(DateMidnight start, DateMidnight end, Person person) {
+    /**
+     * Performs the given action for each day of the absence from the given start date to the given end date that is
+     * within the given period.
+     */
+    private static void forEachDay(DateMidnight startDate, DateMidnight endDate, DateMidnight start,
+        DateMidnight end, Consumer<DateMidnight> action) {
 
-        List<DayAbsence> absences = new ArrayList<>();
+        DateMidnight day = max(startDate, start);
+        DateMidnight lastDay = min(endDate, end);
 
-        List<SickNote> sickNotes = sickNoteService.getByPersonAndPeriod(person, start, end)
-                .stream()
-                .filter(SickNote::isActive)
-                .collect(Collectors.toList());
+        while (!day.isAfter(lastDay)) {
+            action.accept(day);
+            day = day.plusDays(1);
+        }
+    }
 
-        for (SickNote sickNote : sickNotes) {
-            DateMidnight startDate = sickNote.getStartDate();
-            DateMidnight endDate = sickNote.getEndDate();
 
-            DateMidnight day = startDate;
+    private static DateMidnight max(DateMidnight date, DateMidnight otherDate) {
 
-            while (!day.isAfter(endDate)) {
-                if (!day.isBefore(start) && !day.isAfter(end)) {
-                    absences.add(new DayAbsence(day, sickNote.getDayLength(), DayAbsence.Type.SICK_NOTE, "ACTIVE",
-                            sickNote.getId()));
-                }
+        return date.isAfter(otherDate) ? date : otherDate;
+    }
 
-                day = day.plusDays(1);
-            }
-        }
 
-        return absences;
+    private static DateMidnight min(DateMidnight date, DateMidnight otherDate) {
+
+        return date.isBefore(otherDate) ? date : otherDate;
     }
 }
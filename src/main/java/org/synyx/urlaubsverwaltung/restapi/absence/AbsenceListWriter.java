@@ -0,0 +1,62 @@
+package org.synyx.urlaubsverwaltung.restapi.absence;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+
+/**
+ * Writes a list of absences to the response one by one, with the same structure as a list response wrapped by
+ * {@link org.synyx.urlaubsverwaltung.restapi.ResponseWrapper}. So the absences do not need to be kept in memory until
+ * the whole list is known.
+ *
+ * <p>The list is completed by {@link #finish()} only: if writing the absences fails midway, the response stays
+ * incomplete JSON instead of looking like a complete but shorter list.</p>
+ */
+public class AbsenceListWriter {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    public AbsenceListWriter(ObjectMapper objectMapper, HttpServletResponse response, String listName)
+        throws IOException {
+
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+        // the response is flushed whenever the buffer is full, not after each absence
+        this.writer = objectMapper.writerFor(AbsenceResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("response");
+        generator.writeArrayFieldStart(listName);
+    }
+
+    public void write(AbsenceResponse absence) {
+
+        try {
+            writer.writeValue(generator, absence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+
+    public void finish() throws IOException {
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+}
@@ -0,0 +1,69 @@
+package org.synyx.urlaubsverwaltung.restapi.absence;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.restapi.RestApiDateFormat;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Represents an absence for consecutive days, i.e. the {@link DayAbsence}s of all days from {@link #getFrom()} to
+ * {@link #getTo()} in one.
+ */
+public class AbsenceSpan {
+
+    private final String from;
+    private final String to;
+    private final BigDecimal dayLength;
+    private final String type;
+    private final String status;
+    private final String href;
+
+    public AbsenceSpan(DateMidnight from, DateMidnight to, DayLength dayLength, DayAbsence.Type type, String status,
+        Integer id) {
+
+        this.from = from.toString(RestApiDateFormat.DATE_PATTERN);
+        this.to = to.toString(RestApiDateFormat.DATE_PATTERN);
+        this.dayLength = dayLength.getDuration();
+        this.type = type.name();
+        this.status = status;
+        this.href = id == null ? "" : id.toString();
+    }
+
+    public String getFrom() {
+
+        return from;
+    }
+
+
+    public String getTo() {
+
+        return to;
+    }
+
+
+    public BigDecimal getDayLength() {
+
+        return dayLength;
+    }
+
+
+    public String getType() {
+
+        return type;
+    }
+
+
+    public String getStatus() {
+
+        return status;
+    }
+
+
+    public String getHref() {
+
+        return href;
+    }
+}
@@ -0,0 +1,19 @@
+package org.synyx.urlaubsverwaltung.restapi.absence;
+
+import java.util.List;
+
+
+public class AbsenceSpanList {
+
+    private final List<AbsenceSpan> absences;
+
+    public AbsenceSpanList(List<AbsenceSpan> absences) {
+
+        this.absences = absences;
+    }
+
+    public List<AbsenceSpan> getAbsences() {
+
+        return absences;
+    }
+}
@@ -2,8 +2,6 @@ package org.synyx.urlaubsverwaltung.restapi.availability;
 
 import org.joda.time.DateMidnight;
 
-import org.synyx.urlaubsverwaltung.core.person.Person;
-
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
@@ -28,32 +26,35 @@ abstract class AbstractTimedAbsenceProvider {
     /**
      * Convenience function for initial call, so that the caller does not have to create an empty list himself.
      */
-    public TimedAbsenceSpans checkForAbsence(Person person, DateMidnight date) {
+    public TimedAbsenceSpans checkForAbsence(PersonAbsences personAbsences, DateMidnight date) {
 
-        return checkForAbsence(new TimedAbsenceSpans(new ArrayList<>()), person, date);
+        return checkForAbsence(new TimedAbsenceSpans(new ArrayList<>()), personAbsences, date);
     }
 
 
     /**
-     * Checks for absences for the given person on the given day. Recursively calls the next priority provider if the
+     * Checks for absences of the given person on the given day. Recursively calls the next priority provider if the
      * absence spans do not yet sum up to a full day.
      */
-    public TimedAbsenceSpans checkForAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date) {
+    public TimedAbsenceSpans checkForAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date) {
 
-        TimedAbsenceSpans updatedAbsences = addAbsence(knownAbsences, person, date);
+        TimedAbsenceSpans updatedAbsences = addAbsence(knownAbsences, personAbsences, date);
 
         if (isPersonAbsentForWholeDay(updatedAbsences) || isLastPriorityProvider()) {
             return updatedAbsences;
         } else {
-            return nextPriorityAbsenceProvider.checkForAbsence(updatedAbsences, person, date);
+            return nextPriorityAbsenceProvider.checkForAbsence(updatedAbsences, personAbsences, date);
         }
     }
 
 
     /**
-     * Each provider implements his own logic to retrieve absences via this method.
+     * Each provider implements his own logic to retrieve absences via this method. Sick notes and applications for
+     * leave have to be taken from the given {@link PersonAbsences} instead of being queried for the single day.
      */
-    abstract TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date);
+    abstract TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date);
 
 
     /**
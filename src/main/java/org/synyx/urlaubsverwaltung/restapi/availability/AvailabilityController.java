@@ -1,5 +1,8 @@
 package org.synyx.urlaubsverwaltung.restapi.availability;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
 import com.wordnik.swagger.annotations.ApiParam;
@@ -8,16 +11,27 @@ import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.http.MediaType;
+
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.synyx.urlaubsverwaltung.core.department.Department;
+import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
+import org.synyx.urlaubsverwaltung.restapi.RestApiDateFormat;
+
+import java.io.IOException;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
+
 
 /**
  * @author  Marc Kannegiesser - kannegiesser@synyx.de
@@ -29,14 +43,20 @@ import java.util.Optional;
 public class AvailabilityController {
 
     private final PersonService personService;
+    private final DepartmentService departmentService;
 
     private final AvailabilityService availabilityService;
 
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    AvailabilityController(AvailabilityService availabilityService, PersonService personService) {
+    AvailabilityController(AvailabilityService availabilityService, PersonService personService,
+        DepartmentService departmentService, ObjectMapper objectMapper) {
 
         this.availabilityService = availabilityService;
         this.personService = personService;
+        this.departmentService = departmentService;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation(
@@ -65,9 +85,85 @@ public class AvailabilityController {
         DateMidnight startDate = DateMidnight.parse(startDateString);
         DateMidnight endDate = DateMidnight.parse(endDateString);
 
+        validateDateRange(startDate, endDate);
+
+        return availabilityService.getPersonsAvailabilities(startDate, endDate, optionalPerson.get());
+    }
+
+
+    @ApiOperation(
+        value = "Get all availabilities for a certain period and multiple persons",
+        notes = "Get all availabilities for a certain period and either the given persons or all members of the given "
+            + "department. Maximum allowed period per request is one month. The availabilities are written as soon as "
+            + "they are computed, so the response is streamed for large departments."
+    )
+    @RequestMapping(value = "/availabilities/persons", method = RequestMethod.GET)
+    public void multiplePersonsAvailabilities(
+        @ApiParam(value = "start of interval to get availabilities from (inclusive)", defaultValue = "2016-01-01")
+        @RequestParam("from")
+        String startDateString,
+        @ApiParam(value = "end of interval to get availabilities from (inclusive)", defaultValue = "2016-01-31")
+        @RequestParam("to")
+        String endDateString,
+        @ApiParam(value = "IDs of the persons")
+        @RequestParam(value = "persons", required = false)
+        List<Integer> personIds,
+        @ApiParam(value = "ID of the department")
+        @RequestParam(value = "department", required = false)
+        Integer departmentId,
+        HttpServletResponse response) throws IOException {
+
+        DateMidnight startDate = DateMidnight.parse(startDateString);
+        DateMidnight endDate = DateMidnight.parse(endDateString);
+
+        validateDateRange(startDate, endDate);
+
+        List<Person> persons = getPersons(personIds, departmentId);
+
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartArray();
+
+            Iterator<AvailabilityList> availabilities = availabilityService.getPersonsAvailabilities(startDate,
+                        endDate, persons)
+                .iterator();
+
+            while (availabilities.hasNext()) {
+                generator.writeObject(availabilities.next());
+                generator.flush();
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+
+    private List<Person> getPersons(List<Integer> personIds, Integer departmentId) {
+
+        if ((personIds == null) == (departmentId == null)) {
+            throw new IllegalArgumentException("Either persons or department must be given");
+        }
+
+        if (departmentId != null) {
+            Optional<Department> optionalDepartment = departmentService.getDepartmentById(departmentId);
+
+            if (!optionalDepartment.isPresent()) {
+                throw new IllegalArgumentException("No department found for ID = " + departmentId);
+            }
+
+            return optionalDepartment.get().getMembers();
+        }
+
+        return personService.getPersonsByIDs(personIds);
+    }
+
+
+    private void validateDateRange(DateMidnight startDate, DateMidnight endDate) {
+
         if (startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("startdate " + startDateString + " must not be after endDate "
-                + endDateString);
+            throw new IllegalArgumentException("startdate " + startDate.toString(RestApiDateFormat.DATE_PATTERN)
+                + " must not be after endDate " + endDate.toString(RestApiDateFormat.DATE_PATTERN));
         }
 
         boolean requestedDateRangeIsMoreThanOneMonth = startDate.minusDays(1).isBefore(endDate.minusMonths(1));
@@ -75,7 +171,5 @@ public class AvailabilityController {
         if (requestedDateRangeIsMoreThanOneMonth) {
             throw new IllegalArgumentException("Requested date range to large. Maximum allowed range is one month");
         }
-
-        return availabilityService.getPersonsAvailabilities(startDate, endDate, optionalPerson.get());
     }
 }
@@ -1,17 +1,28 @@
 package org.synyx.urlaubsverwaltung.restapi.availability;
 
+import com.google.common.collect.Lists;
+
 import org.joda.time.DateMidnight;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.workingtime.WorkingTimeService;
 
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -22,25 +33,94 @@ import java.util.List;
 @Service
 public class AvailabilityService {
 
+    /**
+     * Number of persons whose absences are loaded together when fetching the availabilities of multiple persons.
+     */
+    private static final int PERSONS_PER_CHUNK = 50;
+
     private final FreeTimeAbsenceProvider freeTimeAbsenceProvider;
+    private final SickNoteService sickNoteService;
+    private final ApplicationService applicationService;
+    private final WorkingTimeService workingTimeService;
 
     @Autowired
-    public AvailabilityService(FreeTimeAbsenceProvider freeTimeAbsenceProvider) {
+    public AvailabilityService(FreeTimeAbsenceProvider freeTimeAbsenceProvider, SickNoteService sickNoteService,
+        ApplicationService applicationService, WorkingTimeService workingTimeService) {
 
         this.freeTimeAbsenceProvider = freeTimeAbsenceProvider;
+        this.sickNoteService = sickNoteService;
+        this.applicationService = applicationService;
+        this.workingTimeService = workingTimeService;
     }
 
     /**
-     * Fetch an {@link AvailabilityList} for the given person on all days in the given period of time.
+     * Fetch an {@link AvailabilityList} for the given person on all days in the given period of time. The sick notes
+     * and applications for leave of the person are loaded once for the whole period, the single days are checked in
+     * memory afterwards.
      */
     public AvailabilityList getPersonsAvailabilities(DateMidnight startDate, DateMidnight endDate, Person person) {
 
+        PersonAbsences personAbsences = new PersonAbsences(person,
+                sickNoteService.getByPersonAndPeriod(person, startDate, endDate),
+                applicationService.getApplicationsForACertainPeriodAndPerson(startDate, endDate, person));
+
+        return getAvailabilities(startDate, endDate, personAbsences);
+    }
+
+
+    /**
+     * Fetch the {@link AvailabilityList}s for the given persons on all days in the given period of time. The persons
+     * are processed in chunks: the working times, sick notes and applications for leave of all the persons of a chunk
+     * are loaded together, and the availabilities of a chunk are only computed once the returned stream reaches it.
+     *
+     * @param  startDate  of the period
+     * @param  endDate  of the period
+     * @param  persons  to fetch the availabilities for
+     *
+     * @return  lazily computed availabilities, in the order of the given persons
+     */
+    public Stream<AvailabilityList> getPersonsAvailabilities(DateMidnight startDate, DateMidnight endDate,
+        List<Person> persons) {
+
+        return Lists.partition(persons, PERSONS_PER_CHUNK)
+            .stream()
+            .flatMap(chunk -> getChunkAvailabilities(startDate, endDate, chunk).stream());
+    }
+
+
+    private List<AvailabilityList> getChunkAvailabilities(DateMidnight startDate, DateMidnight endDate,
+        List<Person> persons) {
+
+        // caches the working times of all the persons with a single query
+        workingTimeService.getByPersons(persons);
+
+        Map<Person, List<SickNote>> sickNotes = sickNoteService.getByPersonsAndPeriod(persons, startDate, endDate)
+            .stream()
+            .collect(Collectors.groupingBy(SickNote::getPerson));
+
+        Map<Person, List<Application>> applications = applicationService.getApplicationsForACertainPeriodAndPersons(
+                    startDate, endDate, persons)
+            .stream()
+            .collect(Collectors.groupingBy(Application::getPerson));
+
+        return persons.stream()
+            .map(person ->
+                    new PersonAbsences(person, sickNotes.getOrDefault(person, Collections.emptyList()),
+                        applications.getOrDefault(person, Collections.emptyList())))
+            .map(personAbsences -> getAvailabilities(startDate, endDate, personAbsences))
+            .collect(Collectors.toList());
+    }
+
+
+    private AvailabilityList getAvailabilities(DateMidnight startDate, DateMidnight endDate,
+        PersonAbsences personAbsences) {
+
         List<DayAvailability> availabilities = new ArrayList<>();
 
         DateMidnight currentDay = startDate;
 
         while (!currentDay.isAfter(endDate)) {
-            TimedAbsenceSpans absences = freeTimeAbsenceProvider.checkForAbsence(person, currentDay);
+            TimedAbsenceSpans absences = freeTimeAbsenceProvider.checkForAbsence(personAbsences, currentDay);
             BigDecimal presenceRatio = absences.calculatePresenceRatio();
 
             availabilities.add(new DayAvailability(presenceRatio, currentDay.toString("yyyy-MM-dd"), absences));
@@ -48,6 +128,6 @@ public class AvailabilityService {
             currentDay = currentDay.plusDays(1);
         }
 
-        return new AvailabilityList(availabilities, person);
+        return new AvailabilityList(availabilities, personAbsences.getPerson());
     }
 }
@@ -34,9 +34,10 @@ class FreeTimeAbsenceProvider extends AbstractTimedAbsenceProvider {
     }
 
     @Override
-    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date) {
+    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date) {
 
-        Optional<TimedAbsence> freeTimeAbsence = checkForFreeTime(date, person);
+        Optional<TimedAbsence> freeTimeAbsence = checkForFreeTime(date, personAbsences.getPerson());
 
         if (freeTimeAbsence.isPresent()) {
             List<TimedAbsence> knownAbsencesList = knownAbsences.getAbsencesList();
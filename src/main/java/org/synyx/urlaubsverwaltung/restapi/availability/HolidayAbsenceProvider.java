@@ -38,9 +38,10 @@ class HolidayAbsenceProvider extends AbstractTimedAbsenceProvider {
     }
 
     @Override
-    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date) {
+    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date) {
 
-        Optional<TimedAbsence> holidayAbsence = checkForHolidays(date, person);
+        Optional<TimedAbsence> holidayAbsence = checkForHolidays(date, personAbsences.getPerson());
 
         if (holidayAbsence.isPresent()) {
             List<TimedAbsence> knownAbsencesList = knownAbsences.getAbsencesList();
@@ -0,0 +1,66 @@
+package org.synyx.urlaubsverwaltung.restapi.availability;
+
+import org.joda.time.DateMidnight;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * Sick notes and applications for leave of a person within a certain period. They are loaded once for the whole
+ * period, so that the absence providers can check each day of the period in memory.
+ */
+class PersonAbsences {
+
+    private final Person person;
+    private final List<SickNote> sickNotes;
+    private final List<Application> applications;
+
+    PersonAbsences(Person person, List<SickNote> sickNotes, List<Application> applications) {
+
+        this.person = person;
+        this.sickNotes = sickNotes;
+        this.applications = applications;
+    }
+
+    Person getPerson() {
+
+        return person;
+    }
+
+
+    /**
+     * @param  date  to get the sick notes for
+     *
+     * @return  the sick notes including the given date, ordered by start date
+     */
+    List<SickNote> getSickNotesAt(DateMidnight date) {
+
+        return sickNotes.stream()
+            .filter(sickNote -> includes(sickNote.getStartDate(), sickNote.getEndDate(), date))
+            .collect(Collectors.toList());
+    }
+
+
+    /**
+     * @param  date  to get the applications for leave for
+     *
+     * @return  the applications for leave including the given date, ordered by start date
+     */
+    List<Application> getApplicationsAt(DateMidnight date) {
+
+        return applications.stream()
+            .filter(application -> includes(application.getStartDate(), application.getEndDate(), date))
+            .collect(Collectors.toList());
+    }
+
+
+    private static boolean includes(DateMidnight startDate, DateMidnight endDate, DateMidnight date) {
+
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+}
@@ -6,9 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.stereotype.Service;
 
-import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
-import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,20 +18,17 @@ import java.util.Optional;
 @Service
 class SickDayAbsenceProvider extends AbstractTimedAbsenceProvider {
 
-    private SickNoteService sickNoteService;
-
     @Autowired
-    SickDayAbsenceProvider(VacationAbsenceProvider nextPriorityProvider, SickNoteService sickNoteService) {
+    SickDayAbsenceProvider(VacationAbsenceProvider nextPriorityProvider) {
 
         super(nextPriorityProvider);
-
-        this.sickNoteService = sickNoteService;
     }
 
     @Override
-    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date) {
+    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date) {
 
-        Optional<TimedAbsence> sickDayAbsence = checkForSickDay(date, person);
+        Optional<TimedAbsence> sickDayAbsence = checkForSickDay(date, personAbsences);
 
         if (sickDayAbsence.isPresent()) {
             List<TimedAbsence> knownAbsencesList = knownAbsences.getAbsencesList();
@@ -53,9 +48,9 @@ class SickDayAbsenceProvider extends AbstractTimedAbsenceProvider {
     }
 
 
-    private Optional<TimedAbsence> checkForSickDay(DateMidnight date, Person person) {
+    private Optional<TimedAbsence> checkForSickDay(DateMidnight date, PersonAbsences personAbsences) {
 
-        List<SickNote> sickNotes = sickNoteService.getByPersonAndPeriod(person, date, date);
+        List<SickNote> sickNotes = personAbsences.getSickNotesAt(date);
 
         if (!sickNotes.isEmpty()) {
             SickNote sickNote = sickNotes.get(0);
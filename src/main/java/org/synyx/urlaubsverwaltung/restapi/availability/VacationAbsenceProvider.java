@@ -2,14 +2,10 @@ package org.synyx.urlaubsverwaltung.restapi.availability;
 
 import org.joda.time.DateMidnight;
 
-import org.springframework.beans.factory.annotation.Autowired;
-
 import org.springframework.stereotype.Service;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
-import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
-import org.synyx.urlaubsverwaltung.core.person.Person;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,20 +18,16 @@ import java.util.stream.Collectors;
 @Service
 class VacationAbsenceProvider extends AbstractTimedAbsenceProvider {
 
-    private ApplicationService applicationService;
-
-    @Autowired
-    VacationAbsenceProvider(ApplicationService applicationService) {
+    VacationAbsenceProvider() {
 
         super(null);
-
-        this.applicationService = applicationService;
     }
 
     @Override
-    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, Person person, DateMidnight date) {
+    TimedAbsenceSpans addAbsence(TimedAbsenceSpans knownAbsences, PersonAbsences personAbsences,
+        DateMidnight date) {
 
-        Optional<TimedAbsence> vacationAbsence = checkForVacation(date, person);
+        Optional<TimedAbsence> vacationAbsence = checkForVacation(date, personAbsences);
 
         if (vacationAbsence.isPresent()) {
             List<TimedAbsence> knownAbsencesList = knownAbsences.getAbsencesList();
@@ -55,10 +47,9 @@ class VacationAbsenceProvider extends AbstractTimedAbsenceProvider {
     }
 
 
-    private Optional<TimedAbsence> checkForVacation(DateMidnight date, Person person) {
+    private Optional<TimedAbsence> checkForVacation(DateMidnight date, PersonAbsences personAbsences) {
 
-        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndPerson(date, date,
-                    person)
+        List<Application> applications = personAbsences.getApplicationsAt(date)
                 .stream()
                 .filter(application ->
                             application.hasStatus(ApplicationStatus.WAITING)
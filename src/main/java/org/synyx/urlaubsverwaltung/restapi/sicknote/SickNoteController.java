@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.sicknote;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
 import com.wordnik.swagger.annotations.ApiParam;
@@ -21,12 +23,18 @@ import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
 import org.synyx.urlaubsverwaltung.restapi.ResponseWrapper;
 import org.synyx.urlaubsverwaltung.restapi.RestApiDateFormat;
+import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceListWriter;
 import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceResponse;
 
+import java.io.IOException;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
+
 
 /**
  * @author  Aljona Murygina - murygina@synyx.de
@@ -38,17 +46,21 @@ public class SickNoteController {
 
     private final SickNoteService sickNoteService;
     private final PersonService personService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    SickNoteController(SickNoteService sickNoteService, PersonService personService) {
+    SickNoteController(SickNoteService sickNoteService, PersonService personService, ObjectMapper objectMapper) {
 
         this.sickNoteService = sickNoteService;
         this.personService = personService;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation(
         value = "Get all sick notes for a certain period", notes = "Get all sick notes for a certain period. "
             + "If a person is specified, only the sick notes of this person are fetched. "
+            + "If a limit is specified, the sick notes are fetched page by page ordered by start date: "
+            + "the next page is fetched by passing the 'next' value of the page as 'after' parameter. "
             + "Information only reachable for users with role office."
     )
     @RequestMapping(value = "/sicknotes", method = RequestMethod.GET)
@@ -61,7 +73,13 @@ public class SickNoteController {
         String to,
         @ApiParam(value = "ID of the person")
         @RequestParam(value = "person", required = false)
-        Integer personId) {
+        Integer personId,
+        @ApiParam(value = "Maximum number of sick notes per page")
+        @RequestParam(value = "limit", required = false)
+        Integer limit,
+        @ApiParam(value = "ID of the last sick note of the previous page")
+        @RequestParam(value = "after", required = false)
+        Integer after) {
 
         DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.DATE_PATTERN);
         DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
@@ -73,6 +91,11 @@ public class SickNoteController {
 
         Optional<Person> optionalPerson = personId == null ? Optional.empty() : personService.getPersonByID(personId);
 
+        if (limit != null) {
+            return new ResponseWrapper<>(getPageOfSickNotes(startDate, endDate, personId, optionalPerson, limit,
+                        after));
+        }
+
         List<SickNote> sickNotes;
 
         if (optionalPerson.isPresent()) {
@@ -88,4 +111,85 @@ public class SickNoteController {
 
         return new ResponseWrapper<>(new SickNoteListResponse(sickNoteResponses));
     }
+
+
+    @ApiOperation(
+        value = "Stream all sick notes for a certain period",
+        notes = "Get all sick notes for a certain period, like without the stream parameter. "
+            + "The sick notes are written one by one as they are read, so large periods can be fetched at once. "
+            + "If a person is specified, only the sick notes of this person are fetched. "
+            + "Information only reachable for users with role office."
+    )
+    @RequestMapping(value = "/sicknotes", method = RequestMethod.GET, params = "stream=true")
+    public void streamSickNotes(
+        @ApiParam(value = "Start date with pattern yyyy-MM-dd", defaultValue = "2016-01-01")
+        @RequestParam(value = "from")
+        String from,
+        @ApiParam(value = "End date with pattern yyyy-MM-dd", defaultValue = "2016-12-31")
+        @RequestParam(value = "to")
+        String to,
+        @ApiParam(value = "ID of the person")
+        @RequestParam(value = "person", required = false)
+        Integer personId,
+        HttpServletResponse response) throws IOException {
+
+        DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.DATE_PATTERN);
+        DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
+        DateMidnight endDate = formatter.parseDateTime(to).toDateMidnight();
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Parameter 'from' must be before or equals to 'to' parameter");
+        }
+
+        Optional<Person> optionalPerson = personId == null ? Optional.empty() : personService.getPersonByID(personId);
+
+        AbsenceListWriter writer = new AbsenceListWriter(objectMapper, response, "sickNotes");
+
+        if (personId == null || optionalPerson.isPresent()) {
+            sickNoteService.forEachActiveByPeriod(optionalPerson, startDate, endDate,
+                sickNote -> writer.write(new AbsenceResponse(sickNote)));
+        }
+
+        writer.finish();
+    }
+
+
+    private SickNoteListResponse getPageOfSickNotes(DateMidnight startDate, DateMidnight endDate, Integer personId,
+        Optional<Person> optionalPerson, int limit, Integer after) {
+
+        if (limit < 1) {
+            throw new IllegalArgumentException("Parameter 'limit' must be greater than 0");
+        }
+
+        if (personId != null && !optionalPerson.isPresent()) {
+            return new SickNoteListResponse(new ArrayList<>());
+        }
+
+        Optional<SickNote> previous = Optional.empty();
+
+        if (after != null) {
+            previous = sickNoteService.getById(after);
+
+            if (!previous.isPresent()) {
+                throw new IllegalArgumentException("No sick note found for ID = " + after);
+            }
+        }
+
+        // one sick note more than the limit is fetched to know if there is a next page
+        List<SickNote> sickNotes = sickNoteService.getActiveByPeriod(optionalPerson, startDate, endDate, previous,
+                limit + 1);
+
+        Integer next = null;
+
+        if (sickNotes.size() > limit) {
+            sickNotes = sickNotes.subList(0, limit);
+            next = sickNotes.get(limit - 1).getId();
+        }
+
+        List<AbsenceResponse> sickNoteResponses = sickNotes.stream()
+                .map(AbsenceResponse::new)
+                .collect(Collectors.toList());
+
+        return new SickNoteListResponse(sickNoteResponses, next);
+    }
 }
@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.sicknote;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceResponse;
 
 import java.util.List;
@@ -11,10 +13,18 @@ import java.util.List;
 class SickNoteListResponse {
 
     private List<AbsenceResponse> sickNotes;
+    private Integer next;
 
     SickNoteListResponse(List<AbsenceResponse> sickNotes) {
 
+        this(sickNotes, null);
+    }
+
+
+    SickNoteListResponse(List<AbsenceResponse> sickNotes, Integer next) {
+
         this.sickNotes = sickNotes;
+        this.next = next;
     }
 
     public List<AbsenceResponse> getSickNotes() {
@@ -27,4 +37,20 @@ class SickNoteListResponse {
 
         this.sickNotes = sickNotes;
     }
+
+
+    /**
+     * @return  the ID to get the next page with, {@code null} if there is no next page
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getNext() {
+
+        return next;
+    }
+
+
+    public void setNext(Integer next) {
+
+        this.next = next;
+    }
 }
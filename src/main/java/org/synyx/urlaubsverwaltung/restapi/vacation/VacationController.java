@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.vacation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.google.common.collect.Lists;
 
 import com.wordnik.swagger.annotations.Api;
@@ -25,12 +27,17 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.restapi.ResponseWrapper;
 import org.synyx.urlaubsverwaltung.restapi.RestApiDateFormat;
+import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceListWriter;
 import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceResponse;
 
+import java.io.IOException;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletResponse;
+
 
 /**
  * @author  Aljona Murygina - murygina@synyx.de
@@ -43,14 +50,16 @@ public class VacationController {
     private final PersonService personService;
     private final ApplicationService applicationService;
     private final DepartmentService departmentService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     VacationController(PersonService personService, ApplicationService applicationService,
-        DepartmentService departmentService) {
+        DepartmentService departmentService, ObjectMapper objectMapper) {
 
         this.personService = personService;
         this.applicationService = applicationService;
         this.departmentService = departmentService;
+        this.objectMapper = objectMapper;
     }
 
     @ApiOperation(
@@ -59,6 +68,8 @@ public class VacationController {
             + "If a person is specified, only the allowed vacations of the person are fetched. "
             + "If a person and the department members flag is specified, "
             + "then all the waiting and allowed vacations of the departments the person is assigned to, are fetched. "
+            + "If a limit is specified, the vacations are fetched page by page ordered by start date: "
+            + "the next page is fetched by passing the 'next' value of the page as 'after' parameter. "
             + "Information only reachable for users with role office."
     )
     @RequestMapping(value = "/vacations", method = RequestMethod.GET)
@@ -74,7 +85,13 @@ public class VacationController {
         String to,
         @ApiParam(value = "ID of the person")
         @RequestParam(value = "person", required = false)
-        Integer personId) {
+        Integer personId,
+        @ApiParam(value = "Maximum number of vacations per page, not supported for department members")
+        @RequestParam(value = "limit", required = false)
+        Integer limit,
+        @ApiParam(value = "ID of the last vacation of the previous page")
+        @RequestParam(value = "after", required = false)
+        Integer after) {
 
         DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.DATE_PATTERN);
         DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
@@ -84,6 +101,11 @@ public class VacationController {
             throw new IllegalArgumentException("Parameter 'from' must be before or equals to 'to' parameter");
         }
 
+        if (limit != null) {
+            return new ResponseWrapper<>(getPageOfVacations(startDate, endDate, personId, departmentMembers, limit,
+                        after));
+        }
+
         List<Application> applications = new ArrayList<>();
 
         if (personId == null && departmentMembers == null) {
@@ -109,4 +131,95 @@ public class VacationController {
 
         return new ResponseWrapper<>(new VacationListResponse(vacationResponses));
     }
+
+
+    @ApiOperation(
+        value = "Stream all allowed vacations for a certain period",
+        notes = "Get all allowed vacations for a certain period, like without the stream parameter. "
+            + "The vacations are written one by one as they are read, so large periods can be fetched at once. "
+            + "If a person is specified, only the allowed vacations of the person are fetched. "
+            + "Department members are not supported. "
+            + "Information only reachable for users with role office."
+    )
+    @RequestMapping(value = "/vacations", method = RequestMethod.GET, params = "stream=true")
+    public void streamVacations(
+        @ApiParam(value = "Get vacations for department members of person, not supported")
+        @RequestParam(value = "departmentMembers", required = false)
+        Boolean departmentMembers,
+        @ApiParam(value = "Start date with pattern yyyy-MM-dd", defaultValue = "2016-01-01")
+        @RequestParam(value = "from")
+        String from,
+        @ApiParam(value = "End date with pattern yyyy-MM-dd", defaultValue = "2016-12-31")
+        @RequestParam(value = "to")
+        String to,
+        @ApiParam(value = "ID of the person")
+        @RequestParam(value = "person", required = false)
+        Integer personId,
+        HttpServletResponse response) throws IOException {
+
+        DateTimeFormatter formatter = DateTimeFormat.forPattern(RestApiDateFormat.DATE_PATTERN);
+        DateMidnight startDate = formatter.parseDateTime(from).toDateMidnight();
+        DateMidnight endDate = formatter.parseDateTime(to).toDateMidnight();
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Parameter 'from' must be before or equals to 'to' parameter");
+        }
+
+        if (Boolean.TRUE.equals(departmentMembers)) {
+            throw new IllegalArgumentException("Parameter 'stream' is not supported for department members");
+        }
+
+        Optional<Person> person = personId == null ? Optional.empty() : personService.getPersonByID(personId);
+
+        AbsenceListWriter writer = new AbsenceListWriter(objectMapper, response, "vacations");
+
+        if (personId == null || person.isPresent()) {
+            applicationService.forEachApplicationForACertainPeriodAndState(startDate, endDate,
+                ApplicationStatus.ALLOWED, person, application -> writer.write(new AbsenceResponse(application)));
+        }
+
+        writer.finish();
+    }
+
+
+    private VacationListResponse getPageOfVacations(DateMidnight startDate, DateMidnight endDate, Integer personId,
+        Boolean departmentMembers, int limit, Integer after) {
+
+        if (limit < 1) {
+            throw new IllegalArgumentException("Parameter 'limit' must be greater than 0");
+        }
+
+        if (Boolean.TRUE.equals(departmentMembers)) {
+            throw new IllegalArgumentException("Parameter 'limit' is not supported for department members");
+        }
+
+        Optional<Person> person = personId == null ? Optional.empty() : personService.getPersonByID(personId);
+
+        if (personId != null && !person.isPresent()) {
+            return new VacationListResponse(new ArrayList<>());
+        }
+
+        Optional<Application> previous = Optional.empty();
+
+        if (after != null) {
+            previous = applicationService.getApplicationById(after);
+
+            if (!previous.isPresent()) {
+                throw new IllegalArgumentException("No vacation found for ID = " + after);
+            }
+        }
+
+        // one vacation more than the limit is fetched to know if there is a next page
+        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndState(startDate,
+                endDate, ApplicationStatus.ALLOWED, person, previous, limit + 1);
+
+        Integer next = null;
+
+        if (applications.size() > limit) {
+            applications = applications.subList(0, limit);
+            next = applications.get(limit - 1).getId();
+        }
+
+        return new VacationListResponse(Lists.transform(applications, AbsenceResponse::new), next);
+    }
 }
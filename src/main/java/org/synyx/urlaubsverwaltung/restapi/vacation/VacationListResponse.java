@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.vacation;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import org.synyx.urlaubsverwaltung.restapi.absence.AbsenceResponse;
 
 import java.util.List;
@@ -11,10 +13,18 @@ import java.util.List;
 class VacationListResponse {
 
     private List<AbsenceResponse> vacations;
+    private Integer next;
 
     VacationListResponse(List<AbsenceResponse> vacations) {
 
+        this(vacations, null);
+    }
+
+
+    VacationListResponse(List<AbsenceResponse> vacations, Integer next) {
+
         this.vacations = vacations;
+        this.next = next;
     }
 
     public List<AbsenceResponse> getVacations() {
@@ -27,4 +37,20 @@ class VacationListResponse {
 
         this.vacations = vacations;
     }
+
+
+    /**
+     * @return  the ID to get the next page with, {@code null} if there is no next page
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getNext() {
+
+        return next;
+    }
+
+
+    public void setNext(Integer next) {
+
+        this.next = next;
+    }
 }
@@ -0,0 +1,81 @@
+package org.synyx.urlaubsverwaltung.security;
+
+import org.joda.time.DateTime;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Reports the progress of the LDAP sync done by {@link LdapUserDataImporter} as {@code ldapSync} in the health
+ * endpoint.
+ *
+ * <p>As long as the users have not been synced since startup, the status is {@code UNKNOWN}: the application serves
+ * requests already, but the persons may not be up to date yet. If the users could not be synced at all, the status
+ * is {@code DOWN}.</p>
+ */
+@Component
+@ConditionalOnExpression(
+    "('${auth}'=='activeDirectory' and '${uv.security.activeDirectory.sync}'=='true') or ('${auth}'=='ldap' and '${uv.security.ldap.sync}'=='true')" // NOSONAR
+)
+public class LdapSyncHealthIndicator extends AbstractHealthIndicator {
+
+    private volatile DateTime lastSync;
+    private volatile Exception lastError;
+
+    private volatile boolean syncing;
+    private volatile int usersToImport;
+    private volatile int importedUsers;
+
+    void syncStarted(int usersToImport) {
+
+        this.usersToImport = usersToImport;
+        this.importedUsers = 0;
+        this.syncing = true;
+    }
+
+
+    void userImported() {
+
+        importedUsers++; // NOSONAR - only the syncing thread writes
+    }
+
+
+    void syncSucceeded(DateTime syncStart) {
+
+        this.lastSync = syncStart;
+        this.lastError = null;
+        this.syncing = false;
+    }
+
+
+    void syncFailed(Exception error) {
+
+        this.lastError = error;
+        this.syncing = false;
+    }
+
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+
+        if (lastSync != null) {
+            builder.up().withDetail("lastSync", lastSync.toString());
+        } else if (lastError != null) {
+            builder.down(lastError);
+        } else {
+            builder.unknown();
+        }
+
+        if (syncing) {
+            builder.withDetail("importedUsers", importedUsers).withDetail("usersToImport", usersToImport);
+        }
+
+        if (lastSync != null && lastError != null) {
+            builder.withDetail("lastError", lastError.getMessage());
+        }
+    }
+}
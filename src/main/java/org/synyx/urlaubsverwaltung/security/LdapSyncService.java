@@ -44,7 +44,7 @@ public class LdapSyncService {
     }
 
     /**
-     * Sync the data of the given {@link Person}.
+     * Sync the data of the given {@link Person}, the person is only saved if its data has changed.
      *
      * @param  person  to update the attributes for
      * @param  firstName  to be updated, is optional
@@ -56,6 +56,16 @@ public class LdapSyncService {
     Person syncPerson(Person person, Optional<String> firstName, Optional<String> lastName,
         Optional<String> mailAddress) {
 
+        boolean changed = hasChanged(firstName, person.getFirstName())
+            || hasChanged(lastName, person.getLastName())
+            || hasChanged(mailAddress, person.getEmail());
+
+        if (!changed) {
+            LOG.debug("Person data is up to date: " + person.toString());
+
+            return person;
+        }
+
         firstName.ifPresent(person::setFirstName);
         lastName.ifPresent(person::setLastName);
         mailAddress.ifPresent(person::setEmail);
@@ -68,6 +78,12 @@ public class LdapSyncService {
     }
 
 
+    private static boolean hasChanged(Optional<String> syncedValue, String currentValue) {
+
+        return syncedValue.isPresent() && !syncedValue.get().equals(currentValue);
+    }
+
+
     /**
      * Creates a {@link Person} with the role {@link Role#USER} resp. with the roles {@link Role#USER} and
      * {@link Role#OFFICE} if this is the first person that is created.
@@ -2,32 +2,45 @@ package org.synyx.urlaubsverwaltung.security;
 
 import org.apache.log4j.Logger;
 
+import org.joda.time.DateTime;
+
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import org.springframework.context.event.EventListener;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 import org.springframework.scheduling.annotation.Scheduled;
 
 import org.springframework.stereotype.Service;
 
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
-import javax.annotation.PostConstruct;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
  * Import person data from configured LDAP or Active Directory.
  *
+ * <p>The users are fetched from the directory outside of a transaction, their persons are imported within a
+ * transaction. The transaction is started by this class itself, as the initial sync is not called through a proxy.</p>
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
-@Transactional
 @ConditionalOnExpression(
     "('${auth}'=='activeDirectory' and '${uv.security.activeDirectory.sync}'=='true') or ('${auth}'=='ldap' and '${uv.security.ldap.sync}'=='true')" // NOSONAR
 )
@@ -35,45 +48,169 @@ public class LdapUserDataImporter {
 
     private static final Logger LOG = Logger.getLogger(LdapSyncService.class);
 
+    private static final int LAST_SYNC_OVERLAP_MINUTES = 60;
+
     private final LdapUserService ldapUserService;
     private final LdapSyncService ldapSyncService;
     private final PersonService personService;
+    private final LdapSyncHealthIndicator ldapSyncHealthIndicator;
+    private final Executor initialSyncExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Start of the last successful sync, {@code null} if the users have not been synced yet.
+     */
+    private volatile DateTime lastSync;
 
     @Autowired
     public LdapUserDataImporter(LdapUserService ldapUserService, LdapSyncService ldapSyncService,
-        PersonService personService) {
+        PersonService personService, LdapSyncHealthIndicator ldapSyncHealthIndicator,
+        PlatformTransactionManager transactionManager) {
+
+        this(ldapUserService, ldapSyncService, personService, ldapSyncHealthIndicator, transactionManager,
+            new SimpleAsyncTaskExecutor("ldap-sync-"));
+    }
+
+
+    LdapUserDataImporter(LdapUserService ldapUserService, LdapSyncService ldapSyncService,
+        PersonService personService, LdapSyncHealthIndicator ldapSyncHealthIndicator,
+        PlatformTransactionManager transactionManager, Executor initialSyncExecutor) {
 
         this.ldapUserService = ldapUserService;
         this.ldapSyncService = ldapSyncService;
         this.personService = personService;
+        this.ldapSyncHealthIndicator = ldapSyncHealthIndicator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.initialSyncExecutor = initialSyncExecutor;
     }
 
-    // Sync LDAP/AD data during startup and on uv.cron.ldapSync
-    @PostConstruct
-    @Scheduled(cron = "${uv.cron.ldapSync}")
+    /**
+     * Starts syncing all users in the background as soon as the application is ready, so that the startup is not
+     * blocked by a slow directory. The progress is reported by {@link LdapSyncHealthIndicator}, persons logging in
+     * before they have been synced are created on login.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInitialSync() {
+
+        initialSyncExecutor.execute(this::sync);
+    }
+
+
+    /**
+     * Syncs all users on {@code uv.cron.ldapFullSync}. Unlike the modification of a user entry, adding a user to a
+     * group does not necessarily change the user entry, so all users are synced from time to time.
+     */
+    @Scheduled(cron = "${uv.cron.ldapFullSync}")
     public void sync() {
 
-        LOG.info("STARTING LDAP SYNC --------------------------------------------------------------------------------");
+        runExclusively(() -> {
+            LOG.info("STARTING LDAP SYNC ------------------------------------------------------------------------");
+
+            DateTime syncStart = DateTime.now();
 
-        List<LdapUser> users = ldapUserService.getLdapUsers();
+            importUsers(ldapUserService.getLdapUsers());
+
+            lastSync = syncStart;
+            ldapSyncHealthIndicator.syncSucceeded(syncStart);
+
+            LOG.info("DONE LDAP SYNC ----------------------------------------------------------------------------");
+        });
+    }
+
+
+    /**
+     * Syncs the users that have been modified since the last sync on {@code uv.cron.ldapSync}. As the clocks of the
+     * directory and the application may differ, the users modified shortly before the last sync are synced again.
+     */
+    @Scheduled(cron = "${uv.cron.ldapSync}")
+    public void syncModifiedUsers() {
+
+        if (lastSync == null) {
+            sync();
+
+            return;
+        }
+
+        runExclusively(() -> {
+            LOG.info("STARTING LDAP SYNC OF MODIFIED USERS ------------------------------------------------------");
+
+            DateTime syncStart = DateTime.now();
+
+            importUsers(ldapUserService.getLdapUsersModifiedSince(lastSync.minusMinutes(LAST_SYNC_OVERLAP_MINUTES)));
+
+            lastSync = syncStart;
+            ldapSyncHealthIndicator.syncSucceeded(syncStart);
+
+            LOG.info("DONE LDAP SYNC OF MODIFIED USERS ----------------------------------------------------------");
+        });
+    }
+
+
+    /**
+     * Runs the given sync unless another sync is still running, e.g. the initial sync when the scheduled sync is due.
+     */
+    private void runExclusively(Runnable sync) {
+
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Skipping LDAP sync, another sync is still running");
+
+            return;
+        }
+
+        try {
+            sync.run();
+        } catch (RuntimeException ex) {
+            LOG.error("LDAP sync failed", ex);
+            ldapSyncHealthIndicator.syncFailed(ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+
+    /**
+     * Creates or updates the persons of the given users within one transaction. The persons are looked up at once, only
+     * persons whose data has changed are saved.
+     */
+    private void importUsers(List<LdapUser> users) {
 
         LOG.info("Found " + users.size() + " user(s)");
 
+        ldapSyncHealthIndicator.syncStarted(users.size());
+
+        transactionTemplate.execute(status -> {
+            importPersons(users);
+
+            return null;
+        });
+    }
+
+
+    private void importPersons(List<LdapUser> users) {
+
+        List<String> logins = users.stream().map(LdapUser::getUsername).collect(Collectors.toList());
+
+        Map<String, Person> personsByLogin = personService.getPersonsByLogins(logins)
+            .stream()
+            .collect(Collectors.toMap(Person::getLoginName, Function.identity()));
+
         for (LdapUser user : users) {
             String username = user.getUsername();
             Optional<String> firstName = user.getFirstName();
             Optional<String> lastName = user.getLastName();
             Optional<String> email = user.getEmail();
 
-            Optional<Person> optionalPerson = personService.getPersonByLogin(username);
+            Person person = personsByLogin.get(username);
 
-            if (optionalPerson.isPresent()) {
-                ldapSyncService.syncPerson(optionalPerson.get(), firstName, lastName, email);
+            if (person != null) {
+                ldapSyncService.syncPerson(person, firstName, lastName, email);
             } else {
-                ldapSyncService.createPerson(username, firstName, lastName, email);
+                personsByLogin.put(username, ldapSyncService.createPerson(username, firstName, lastName, email));
             }
-        }
 
-        LOG.info("DONE LDAP SYNC ------------------------------------------------------------------------------------");
+            ldapSyncHealthIndicator.userImported();
+        }
     }
 }
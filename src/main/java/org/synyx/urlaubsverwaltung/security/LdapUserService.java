@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.security;
 
+import org.joda.time.DateTime;
+
 import java.util.List;
 
 
@@ -16,4 +18,14 @@ public interface LdapUserService {
      * @return  list of LDAP users
      */
     List<LdapUser> getLdapUsers();
+
+
+    /**
+     * Get the LDAP users whose entries have been modified since the given time.
+     *
+     * @param  modifiedSince  time of the last sync
+     *
+     * @return  list of LDAP users modified since the given time
+     */
+    List<LdapUser> getLdapUsersModifiedSince(DateTime modifiedSince);
 }
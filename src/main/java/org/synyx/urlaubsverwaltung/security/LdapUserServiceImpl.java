@@ -1,22 +1,35 @@
 package org.synyx.urlaubsverwaltung.security;
 
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 
+import org.springframework.ldap.control.PagedResultsCookie;
+import org.springframework.ldap.control.PagedResultsDirContextProcessor;
 import org.springframework.ldap.core.LdapTemplate;
+import org.springframework.ldap.core.support.SingleContextSource;
+import org.springframework.ldap.query.ContainerCriteria;
 
 import org.springframework.stereotype.Service;
 
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import javax.naming.directory.SearchControls;
+
 import static org.springframework.ldap.query.LdapQueryBuilder.query;
 
 
 /**
+ * Fetches the users from LDAP or Active Directory using paged searches.
+ *
  * @author  Aljona Murygina - murygina@synyx.de
  */
 @Service
@@ -27,6 +40,12 @@ public class LdapUserServiceImpl implements LdapUserService {
 
     private static final String OBJECT_CLASS_ATTRIBUTE = "objectClass";
     private static final String MEMBER_OF_ATTRIBUTE = "memberOf";
+    private static final String MODIFY_TIMESTAMP_ATTRIBUTE = "modifyTimestamp";
+
+    private static final DateTimeFormatter GENERALIZED_TIME_FORMAT = DateTimeFormat.forPattern("yyyyMMddHHmmss'Z'")
+        .withZoneUTC();
+
+    private static final int PAGE_SIZE = 500;
 
     private final LdapTemplate ldapTemplate;
     private final LdapUserMapper ldapUserMapper;
@@ -47,13 +66,54 @@ public class LdapUserServiceImpl implements LdapUserService {
     @Override
     public List<LdapUser> getLdapUsers() {
 
+        return search(usersQuery());
+    }
+
+
+    @Override
+    public List<LdapUser> getLdapUsersModifiedSince(DateTime modifiedSince) {
+
+        return search(usersQuery().and(MODIFY_TIMESTAMP_ATTRIBUTE)
+                .gte(GENERALIZED_TIME_FORMAT.print(modifiedSince)));
+    }
+
+
+    private ContainerCriteria usersQuery() {
+
+        ContainerCriteria query = query().where(OBJECT_CLASS_ATTRIBUTE).is(objectClass);
+
         if (StringUtils.hasText(memberOf)) {
-            return ldapTemplate.search(query().where(OBJECT_CLASS_ATTRIBUTE)
-                    .is(objectClass)
-                    .and(MEMBER_OF_ATTRIBUTE)
-                    .is(memberOf), ldapUserMapper);
+            return query.and(MEMBER_OF_ATTRIBUTE).is(memberOf);
         }
 
-        return ldapTemplate.search(query().where(OBJECT_CLASS_ATTRIBUTE).is(objectClass), ldapUserMapper);
+        return query;
+    }
+
+
+    /**
+     * Fetches the users page by page, as directories limit the number of entries returned by a single search. The
+     * pages have to be fetched using the same connection.
+     */
+    private List<LdapUser> search(ContainerCriteria query) {
+
+        SearchControls searchControls = new SearchControls();
+        searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+
+        String filter = query.filter().encode();
+
+        return SingleContextSource.doWithSingleContext(ldapTemplate.getContextSource(), operations -> {
+                    PagedResultsDirContextProcessor pagedResults = new PagedResultsDirContextProcessor(PAGE_SIZE);
+                    List<LdapUser> users = new ArrayList<>();
+                    PagedResultsCookie cookie;
+
+                    do {
+                        cookie = pagedResults.getCookie();
+                        users.addAll(operations.search("", filter, searchControls, ldapUserMapper, pagedResults));
+
+                        // a server not supporting paged results answers without cookie, all users are fetched then
+                    } while (pagedResults.hasMore() && pagedResults.getCookie() != cookie);
+
+                    return users;
+                }, false, true, true);
     }
 }
@@ -94,7 +94,7 @@ public class PersonContextMapper implements UserDetailsContextMapper {
         /**
          * NOTE: If the system has no office user yet, grant office permissions to successfully signed in user
          */
-        boolean noOfficeUserYet = personService.getPersonsByRole(Role.OFFICE).isEmpty();
+        boolean noOfficeUserYet = !personService.existsActivePersonWithRole(Role.OFFICE);
 
         // TODO: Think about if this logic could be dangerous?!
         if (noOfficeUserYet) {
@@ -2,13 +2,19 @@ package org.synyx.urlaubsverwaltung.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.context.event.EventListener;
+
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import org.springframework.stereotype.Service;
 
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
 import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonChangedEvent;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.person.Role;
 
@@ -21,6 +27,8 @@ import java.util.Optional;
 @Service
 public class SessionService {
 
+    private static final String SIGNED_IN_USER_ATTRIBUTE = SessionService.class.getName() + ".signedInUser";
+
     private final PersonService personService;
     private final DepartmentService departmentService;
 
@@ -32,7 +40,8 @@ public class SessionService {
     }
 
     /**
-     * This method allows to get the signed in user.
+     * This method allows to get the signed in user. Within a web request, the person is loaded only once and kept as
+     * request attribute, until the person is changed.
      *
      * @return  user that is signed in
      */
@@ -46,16 +55,54 @@ public class SessionService {
 
         String user = authentication.getName();
 
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (requestAttributes != null) {
+            Object cachedPerson = requestAttributes.getAttribute(SIGNED_IN_USER_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+
+            if (cachedPerson instanceof Person && user.equals(((Person) cachedPerson).getLoginName())) {
+                return (Person) cachedPerson;
+            }
+        }
+
         Optional<Person> person = personService.getPersonByLogin(user);
 
         if (!person.isPresent()) {
             throw new IllegalStateException("Can not get the person for the signed in user with username = " + user);
         }
 
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(SIGNED_IN_USER_ATTRIBUTE, person.get(), RequestAttributes.SCOPE_REQUEST);
+        }
+
         return person.get();
     }
 
 
+    /**
+     * Discards the signed in user kept for the current request, if the person has been changed.
+     *
+     * @param  event  of the changed person
+     */
+    @EventListener
+    public void onPersonChanged(PersonChangedEvent event) {
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        if (requestAttributes == null) {
+            return;
+        }
+
+        Object cachedPerson = requestAttributes.getAttribute(SIGNED_IN_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        if (cachedPerson instanceof Person && ((Person) cachedPerson).getId() != null
+                && ((Person) cachedPerson).getId().equals(event.getPerson().getId())) {
+            requestAttributes.removeAttribute(SIGNED_IN_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+
     /**
      * Check if the given signed in user is allowed to access the data of the given person.
      *
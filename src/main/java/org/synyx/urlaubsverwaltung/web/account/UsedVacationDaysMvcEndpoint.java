@@ -0,0 +1,44 @@
+package org.synyx.urlaubsverwaltung.web.account;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+
+import org.springframework.http.MediaType;
+
+import org.springframework.stereotype.Component;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import org.synyx.urlaubsverwaltung.core.cron.UsedVacationDaysUpdaterService;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * Actuator endpoint to rebuild the stored used vacation days of all holidays accounts on demand, e.g. after changing
+ * applications for leave directly in the database: {@code POST /actuator/usedvacationdays}.
+ */
+@Component
+public class UsedVacationDaysMvcEndpoint extends AbstractMvcEndpoint {
+
+    private final UsedVacationDaysUpdaterService usedVacationDaysUpdaterService;
+
+    @Autowired
+    public UsedVacationDaysMvcEndpoint(UsedVacationDaysUpdaterService usedVacationDaysUpdaterService) {
+
+        super("/usedvacationdays", true);
+
+        this.usedVacationDaysUpdaterService = usedVacationDaysUpdaterService;
+    }
+
+    @RequestMapping(method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Integer> rebuild() {
+
+        return Collections.singletonMap("rebuiltAccounts", usedVacationDaysUpdaterService.rebuildUsedVacationDays());
+    }
+}
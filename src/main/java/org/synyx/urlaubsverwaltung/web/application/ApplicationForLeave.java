@@ -8,6 +8,9 @@ import org.synyx.urlaubsverwaltung.core.workingtime.WorkDaysService;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Represents an extended {@link org.synyx.urlaubsverwaltung.core.application.domain.Application} with information about
@@ -21,16 +24,48 @@ public class ApplicationForLeave extends Application {
 
     public ApplicationForLeave(Application application, WorkDaysService calendarService) {
 
+        // calculate the work days
+        this(application,
+            calendarService.getWorkDays(application.getDayLength(), application.getStartDate(),
+                application.getEndDate(), application.getPerson()));
+    }
+
+
+    private ApplicationForLeave(Application application, BigDecimal workDays) {
+
         // copy all the properties from the given application for leave
         BeanUtils.copyProperties(application, this);
 
         // not copied, must be set explicitly
         setId(application.getId());
 
-        // calculate the work days
-        this.workDays = calendarService.getWorkDays(getDayLength(), getStartDate(), getEndDate(), getPerson());
+        this.workDays = workDays;
     }
 
+    /**
+     * Extends the given applications for leave by their number of work days. The work days are calculated in one
+     * pass, so prefer this method over the constructor for lists.
+     *
+     * @param  applications  to be extended
+     * @param  calendarService  to calculate the number of work days
+     *
+     * @return  the extended applications for leave, in the same order as the given ones
+     */
+    public static List<ApplicationForLeave> of(List<Application> applications, WorkDaysService calendarService) {
+
+        List<BigDecimal> workDays = calendarService.getWorkDays(applications, Application::getPerson,
+                Application::getPeriod);
+
+        List<ApplicationForLeave> extended = new ArrayList<>(applications.size());
+
+        for (int i = 0; i < applications.size(); i++) {
+            extended.add(new ApplicationForLeave(applications.get(i), workDays.get(i)));
+        }
+
+        return extended;
+    }
+
+
     public BigDecimal getWorkDays() {
 
         return workDays;
@@ -10,11 +10,11 @@ import org.springframework.ui.Model;
 
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
-import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.Role;
 import org.synyx.urlaubsverwaltung.core.workingtime.WorkDaysService;
@@ -25,7 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 
@@ -38,28 +38,30 @@ import java.util.stream.Collectors;
 @RequestMapping("/web")
 public class ApplicationForLeaveController {
 
+    private static final int PAGE_SIZE = 50;
+
     @Autowired
     private ApplicationService applicationService;
 
     @Autowired
     private WorkDaysService calendarService;
 
-    @Autowired
-    private DepartmentService departmentService;
-
     @Autowired
     private SessionService sessionService;
 
     /**
      * Show waiting applications for leave.
      *
+     * @param  after  ID of the last application for leave of the previous page, if any
+     * @param  model  to be filled
+     *
      * @return  waiting applications for leave page
      */
     @PreAuthorize(SecurityRules.IS_PRIVILEGED_USER)
     @RequestMapping(value = "/application", method = RequestMethod.GET)
-    public String showWaiting(Model model) {
+    public String showWaiting(@RequestParam(value = "after", required = false) Integer after, Model model) {
 
-        List<ApplicationForLeave> applicationsForLeave = getAllRelevantApplicationsForLeave();
+        List<ApplicationForLeave> applicationsForLeave = getAllRelevantApplicationsForLeave(after, model);
 
         model.addAttribute("applications", applicationsForLeave);
 
@@ -67,7 +69,7 @@ public class ApplicationForLeaveController {
     }
 
 
-    private List<ApplicationForLeave> getAllRelevantApplicationsForLeave() {
+    private List<ApplicationForLeave> getAllRelevantApplicationsForLeave(Integer after, Model model) {
 
         Person user = sessionService.getSignedInUser();
 
@@ -83,12 +85,12 @@ public class ApplicationForLeaveController {
 
         if (isHeadOf) {
             // Department head can see only waiting applications for leave of certain department(s)
-            return getApplicationsForLeaveForDepartmentHead(user);
+            return getApplicationsForLeaveForDepartmentHead(user, after, model);
         }
 
         if (isSecondStage) {
             // Department head can see waiting and temporary allowed applications for leave of certain department(s)
-            return getApplicationsForLeaveForSecondStageAuthority(user);
+            return getApplicationsForLeaveForSecondStageAuthority(user, after, model);
         }
 
         return Collections.<ApplicationForLeave>emptyList();
@@ -108,8 +110,8 @@ public class ApplicationForLeaveController {
         applications.addAll(waitingApplications);
         applications.addAll(temporaryAllowedApplications);
 
-        return applications.stream()
-            .map(application -> new ApplicationForLeave(application, calendarService))
+        return ApplicationForLeave.of(applications, calendarService)
+            .stream()
             .sorted(dateComparator())
             .collect(Collectors.toList());
     }
@@ -121,54 +123,50 @@ public class ApplicationForLeaveController {
     }
 
 
-    private List<ApplicationForLeave> getApplicationsForLeaveForDepartmentHead(Person head) {
+    private List<ApplicationForLeave> getApplicationsForLeaveForDepartmentHead(Person head, Integer after,
+        Model model) {
 
-        List<Application> waitingApplications = applicationService.getApplicationsForACertainState(
-                ApplicationStatus.WAITING);
+        List<Application> departmentApplications = applicationService.getApplicationsForDepartmentHead(head,
+                getApplication(after), PAGE_SIZE + 1);
 
-        List<Person> members = departmentService.getManagedMembersOfDepartmentHead(head);
-
-        return waitingApplications.stream()
-            .filter(includeDepartmentApplications(members))
-            .filter(withoutOwnApplications(head))
-            .filter(withoutSecondStageAuthorityApplications())
-            .map(application -> new ApplicationForLeave(application, calendarService))
-            .sorted(dateComparator())
-            .collect(Collectors.toList());
+        return ApplicationForLeave.of(paginate(departmentApplications, model), calendarService);
     }
 
-    private List<ApplicationForLeave> getApplicationsForLeaveForSecondStageAuthority(Person secondStage) {
 
-        List<Application> applications = new ArrayList<>();
+    private List<ApplicationForLeave> getApplicationsForLeaveForSecondStageAuthority(Person secondStage,
+        Integer after, Model model) {
 
-        List<Application> waitingApplications = applicationService.getApplicationsForACertainState(
-                ApplicationStatus.WAITING);
+        List<Application> departmentApplications = applicationService.getApplicationsForSecondStageAuthority(
+                secondStage, getApplication(after), PAGE_SIZE + 1);
 
-        List<Application> temporaryAllowedApplications = applicationService.getApplicationsForACertainState(
-                ApplicationStatus.TEMPORARY_ALLOWED);
+        return ApplicationForLeave.of(paginate(departmentApplications, model), calendarService);
+    }
 
-        applications.addAll(waitingApplications);
-        applications.addAll(temporaryAllowedApplications);
 
-        List<Person> members = departmentService.getMembersForSecondStageAuthority(secondStage);
+    private Optional<Application> getApplication(Integer applicationId) {
 
-        return applications.stream()
-            .filter(includeDepartmentApplications(members))
-            .filter(withoutOwnApplications(secondStage))
-            .map(application -> new ApplicationForLeave(application, calendarService))
-            .sorted(dateComparator())
-            .collect(Collectors.toList());
-    }
+        if (applicationId == null) {
+            return Optional.empty();
+        }
 
-    private Predicate<Application> withoutOwnApplications(Person head) {
-        return application -> !application.getPerson().equals(head);
+        return applicationService.getApplicationById(applicationId);
     }
 
-    private Predicate<Application> withoutSecondStageAuthorityApplications() {
-        return application -> !application.getPerson().getPermissions().contains(Role.SECOND_STAGE_AUTHORITY);
-    }
 
-    private Predicate<Application> includeDepartmentApplications(List<Person> members) {
-        return application -> members.contains(application.getPerson());
+    /**
+     * One application for leave more than {@link #PAGE_SIZE} is fetched to know if there is a next page: it is cut
+     * off and the last application for leave of the page is the start of the next page.
+     */
+    private List<Application> paginate(List<Application> applications, Model model) {
+
+        if (applications.size() <= PAGE_SIZE) {
+            return applications;
+        }
+
+        List<Application> page = applications.subList(0, PAGE_SIZE);
+
+        model.addAttribute("nextPage", page.get(PAGE_SIZE - 1).getId());
+
+        return page;
     }
 }
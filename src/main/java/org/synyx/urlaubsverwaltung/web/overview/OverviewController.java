@@ -127,8 +127,8 @@ public class OverviewController {
 		List<SickNote> sickNotes = sickNoteService.getByPersonAndPeriod(person, DateUtil.getFirstDayOfYear(year),
 				DateUtil.getLastDayOfYear(year));
 
-		List<ExtendedSickNote> extendedSickNotes = FluentIterable.from(sickNotes)
-				.transform(input -> new ExtendedSickNote(input, calendarService)).toSortedList((o1, o2) -> {
+		List<ExtendedSickNote> extendedSickNotes = FluentIterable.from(ExtendedSickNote.of(sickNotes, calendarService))
+				.toSortedList((o1, o2) -> {
 					// show latest sick notes at first
 					return o2.getStartDate().compareTo(o1.getStartDate());
 				});
@@ -148,8 +148,8 @@ public class OverviewController {
 				.filter(input -> !input.hasStatus(ApplicationStatus.REVOKED)).toList();
 
 		if (!applications.isEmpty()) {
-			ImmutableList<ApplicationForLeave> applicationsForLeave = FluentIterable.from(applications)
-					.transform(input -> new ApplicationForLeave(input, calendarService)).toSortedList((o1, o2) -> {
+			ImmutableList<ApplicationForLeave> applicationsForLeave = FluentIterable
+					.from(ApplicationForLeave.of(applications, calendarService)).toSortedList((o1, o2) -> {
 						// show latest applications at first
 						return o2.getStartDate().compareTo(o1.getStartDate());
 					});
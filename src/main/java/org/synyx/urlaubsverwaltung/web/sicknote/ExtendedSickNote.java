@@ -8,6 +8,9 @@ import org.synyx.urlaubsverwaltung.core.workingtime.WorkDaysService;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Represents an extended {@link org.synyx.urlaubsverwaltung.core.sicknote.SickNote} with information about the number
@@ -21,16 +24,47 @@ public class ExtendedSickNote extends SickNote {
 
     public ExtendedSickNote(SickNote sickNote, WorkDaysService calendarService) {
 
+        // calculate the work days
+        this(sickNote,
+            calendarService.getWorkDays(sickNote.getDayLength(), sickNote.getStartDate(), sickNote.getEndDate(),
+                sickNote.getPerson()));
+    }
+
+
+    private ExtendedSickNote(SickNote sickNote, BigDecimal workDays) {
+
         // copy all the properties from the given sick note
         BeanUtils.copyProperties(sickNote, this);
 
         // not copied, must be set explicitly
         setId(sickNote.getId());
 
-        // calculate the work days
-        this.workDays = calendarService.getWorkDays(getDayLength(), getStartDate(), getEndDate(), getPerson());
+        this.workDays = workDays;
     }
 
+    /**
+     * Extends the given sick notes by their number of work days. The work days are calculated in one pass, so prefer
+     * this method over the constructor for lists.
+     *
+     * @param  sickNotes  to be extended
+     * @param  calendarService  to calculate the number of work days
+     *
+     * @return  the extended sick notes, in the same order as the given ones
+     */
+    public static List<ExtendedSickNote> of(List<SickNote> sickNotes, WorkDaysService calendarService) {
+
+        List<BigDecimal> workDays = calendarService.getWorkDays(sickNotes, SickNote::getPerson, SickNote::getPeriod);
+
+        List<ExtendedSickNote> extended = new ArrayList<>(sickNotes.size());
+
+        for (int i = 0; i < sickNotes.size(); i++) {
+            extended.add(new ExtendedSickNote(sickNotes.get(i), workDays.get(i)));
+        }
+
+        return extended;
+    }
+
+
     public BigDecimal getWorkDays() {
 
         return workDays;
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import org.synyx.urlaubsverwaltung.core.period.Period;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
@@ -33,6 +34,7 @@ import org.synyx.urlaubsverwaltung.web.statistics.SickDays;
 import java.math.BigDecimal;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -107,29 +109,35 @@ public class SickDaysOverviewController {
             childSickDays.put(person, new SickDays());
         }
 
-        for (SickNote sickNote : sickNotesOfActivePersons) {
-            Person person = sickNote.getPerson();
-            BigDecimal workDays = calendarService.getWorkDays(sickNote.getDayLength(), sickNote.getStartDate(),
-                    sickNote.getEndDate(), person);
+        List<BigDecimal> workDays = calendarService.getWorkDays(sickNotesOfActivePersons, SickNote::getPerson,
+                SickNote::getPeriod);
 
-            if (sickNote.getSickNoteType().isOfCategory(SickNoteCategory.SICK_NOTE_CHILD)) {
-                childSickDays.get(person).addDays(SickDays.SickDayType.TOTAL, workDays);
+        List<SickNote> sickNotesWithAUB = sickNotesOfActivePersons.stream()
+                .filter(SickNote::isAubPresent)
+                .collect(Collectors.toList());
+
+        List<BigDecimal> workDaysWithAUB = calendarService.getWorkDays(sickNotesWithAUB, SickNote::getPerson,
+                sickNote ->
+                    new Period(sickNote.getAubStartDate(), sickNote.getAubEndDate(), sickNote.getDayLength()));
+
+        Iterator<BigDecimal> workDaysWithAUBIterator = workDaysWithAUB.iterator();
 
-                if (sickNote.isAubPresent()) {
-                    BigDecimal workDaysWithAUB = calendarService.getWorkDays(sickNote.getDayLength(),
-                            sickNote.getAubStartDate(), sickNote.getAubEndDate(), person);
+        for (int i = 0; i < sickNotesOfActivePersons.size(); i++) {
+            SickNote sickNote = sickNotesOfActivePersons.get(i);
+            Person person = sickNote.getPerson();
+
+            SickDays sickDaysOfPerson;
 
-                    childSickDays.get(person).addDays(SickDays.SickDayType.WITH_AUB, workDaysWithAUB);
-                }
+            if (sickNote.getSickNoteType().isOfCategory(SickNoteCategory.SICK_NOTE_CHILD)) {
+                sickDaysOfPerson = childSickDays.get(person);
             } else {
-                sickDays.get(person).addDays(SickDays.SickDayType.TOTAL, workDays);
+                sickDaysOfPerson = sickDays.get(person);
+            }
 
-                if (sickNote.isAubPresent()) {
-                    BigDecimal workDaysWithAUB = calendarService.getWorkDays(sickNote.getDayLength(),
-                            sickNote.getAubStartDate(), sickNote.getAubEndDate(), person);
+            sickDaysOfPerson.addDays(SickDays.SickDayType.TOTAL, workDays.get(i));
 
-                    sickDays.get(person).addDays(SickDays.SickDayType.WITH_AUB, workDaysWithAUB);
-                }
+            if (sickNote.isAubPresent()) {
+                sickDaysOfPerson.addDays(SickDays.SickDayType.WITH_AUB, workDaysWithAUBIterator.next());
             }
         }
 
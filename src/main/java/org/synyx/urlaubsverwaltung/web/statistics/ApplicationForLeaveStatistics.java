@@ -9,6 +9,7 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 import java.math.BigDecimal;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 
@@ -30,11 +31,22 @@ public class ApplicationForLeaveStatistics {
 
     public ApplicationForLeaveStatistics(Person person, VacationTypeService vacationTypeService) {
 
+        this(person, vacationTypeService.getVacationTypes());
+    }
+
+
+    /**
+     * @param  person  to build the statistics for
+     * @param  vacationTypes  the vacation types to sum up the vacation days for, e.g. loaded once for the statistics
+     *                        of several persons
+     */
+    public ApplicationForLeaveStatistics(Person person, List<VacationType> vacationTypes) {
+
         Assert.notNull(person, "Person must be given.");
 
         this.person = person;
 
-        for (VacationType vacationType : vacationTypeService.getVacationTypes()) {
+        for (VacationType vacationType : vacationTypes) {
             waitingVacationDays.put(vacationType, BigDecimal.ZERO);
             allowedVacationDays.put(vacationType, BigDecimal.ZERO);
         }
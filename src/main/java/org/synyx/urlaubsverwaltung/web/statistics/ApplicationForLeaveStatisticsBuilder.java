@@ -13,6 +13,7 @@ import org.synyx.urlaubsverwaltung.core.account.service.AccountService;
 import org.synyx.urlaubsverwaltung.core.account.service.VacationDaysService;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.domain.VacationType;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.application.service.VacationTypeService;
 import org.synyx.urlaubsverwaltung.core.overtime.OvertimeService;
@@ -23,8 +24,12 @@ import org.synyx.urlaubsverwaltung.core.workingtime.WorkDaysService;
 
 import java.math.BigDecimal;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -67,26 +72,78 @@ public class ApplicationForLeaveStatisticsBuilder {
         ApplicationForLeaveStatistics statistics = new ApplicationForLeaveStatistics(person, vacationTypeService);
 
         Optional<Account> account = accountService.getHolidaysAccount(from.getYear(), person);
+        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndPerson(from, to, person);
+        BigDecimal leftOvertime = overtimeService.getLeftOvertimeForPerson(person);
+
+        return fill(statistics, account, applications, leftOvertime, from.getYear());
+    }
+
+
+    /**
+     * Builds the statistics for all the given persons. The holidays accounts, the applications for leave and the left
+     * overtime of all the persons are fetched with a single query each, instead of querying them person by person.
+     *
+     * @param  persons  to build the statistics for
+     * @param  from  start of the period
+     * @param  to  end of the period, must be in the same year as the start
+     *
+     * @return  the statistics of the given persons, in the order of the given persons
+     */
+    public List<ApplicationForLeaveStatistics> buildAll(List<Person> persons, DateMidnight from, DateMidnight to) {
+
+        Assert.notNull(persons, "Persons must be given");
+        Assert.notNull(from, "From must be given");
+        Assert.notNull(to, "To must be given");
+
+        Assert.isTrue(from.getYear() == to.getYear(), "From and to must be in the same year");
+
+        if (persons.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<VacationType> vacationTypes = vacationTypeService.getVacationTypes();
+
+        Map<Person, Account> accounts = accountService.getHolidaysAccounts(from.getYear(), persons)
+                .stream()
+                .collect(Collectors.toMap(Account::getPerson, Function.identity(), (first, second) -> first));
+
+        Map<Person, List<Application>> applications = applicationService.getApplicationsForACertainPeriodAndPersons(
+                    from, to, persons)
+                .stream()
+                .collect(Collectors.groupingBy(Application::getPerson));
+
+        Map<Person, BigDecimal> leftOvertime = overtimeService.getLeftOvertimeForPersons(persons);
+
+        return persons.stream()
+                .map(person ->
+                            fill(new ApplicationForLeaveStatistics(person, vacationTypes),
+                                Optional.ofNullable(accounts.get(person)),
+                                applications.getOrDefault(person, Collections.emptyList()),
+                                leftOvertime.getOrDefault(person, BigDecimal.ZERO), from.getYear()))
+                .collect(Collectors.toList());
+    }
+
+
+    private ApplicationForLeaveStatistics fill(ApplicationForLeaveStatistics statistics, Optional<Account> account,
+        List<Application> applications, BigDecimal leftOvertime, int relevantYear) {
 
         if (account.isPresent()) {
             BigDecimal vacationDaysLeft = vacationDaysService.calculateTotalLeftVacationDays(account.get());
             statistics.setLeftVacationDays(vacationDaysLeft);
         }
 
-        List<Application> applications = applicationService.getApplicationsForACertainPeriodAndPerson(from, to, person);
-
         for (Application application : applications) {
             if (application.hasStatus(ApplicationStatus.WAITING)
                     || application.hasStatus(ApplicationStatus.TEMPORARY_ALLOWED)) {
                 statistics.addWaitingVacationDays(application.getVacationType(),
-                    getVacationDays(application, from.getYear()));
+                    getVacationDays(application, relevantYear));
             } else if (application.hasStatus(ApplicationStatus.ALLOWED)) {
                 statistics.addAllowedVacationDays(application.getVacationType(),
-                    getVacationDays(application, from.getYear()));
+                    getVacationDays(application, relevantYear));
             }
         }
 
-        statistics.setLeftOvertime(overtimeService.getLeftOvertimeForPerson(person));
+        statistics.setLeftOvertime(leftOvertime);
 
         return statistics;
     }
@@ -21,6 +21,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controller to generate applications for leave statistics.
@@ -102,7 +103,7 @@ public class ApplicationForLeaveStatisticsController {
             return "application/app_statistics";
         }
 
-        List<ApplicationForLeaveStatistics> statistics = applicationForLeaveStatisticsService.getStatistics(period);
+        Stream<ApplicationForLeaveStatistics> statistics = applicationForLeaveStatisticsService.streamStatistics(period);
 
         String fileName = applicationForLeaveStatisticsCsvExportService.getFileName(period);
         response.setContentType("text/csv");
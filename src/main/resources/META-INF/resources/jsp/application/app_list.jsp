@@ -185,6 +185,11 @@
                               </c:forEach>
                               </tbody>
                             </table>
+                            <c:if test="${nextPage != null}">
+                              <a class="btn btn-default col-xs-12 col-sm-5 col-md-2 pull-right" href="${URL_PREFIX}/application?after=${nextPage}">
+                                <spring:message code="applications.next"/>
+                              </a>
+                            </c:if>
                           </c:otherwise>
                         </c:choose>
 
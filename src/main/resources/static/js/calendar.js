@@ -139,7 +139,21 @@ $(function() {
                 if(absences.length > 0) {
                     $.each(absences, function(idx, absence) {
                         c[year] = c[year] || [];
-                        c[year].push(absence);
+
+                        // the absences are fetched as spans of consecutive days, cache one absence per day
+                        var day = moment(absence.from);
+                        var lastDay = moment(absence.to);
+
+                        while (!day.isAfter(lastDay)) {
+                            c[year].push({
+                                date: day.format('YYYY-MM-DD'),
+                                dayLength: absence.dayLength,
+                                type: absence.type,
+                                status: absence.status,
+                                href: absence.href
+                            });
+                            day.add(1, 'days');
+                        }
                     });
                 } else {
                     c[year] = [];
@@ -420,7 +434,7 @@ $(function() {
                 if (_CACHE['holiday'][year]) {
                     return deferred.resolve( _CACHE[year] );
                 } else {
-                    return fetch('/absences', {person: personId, year: year, type: 'VACATION'}).done( cacheAbsences('holiday', year) );
+                    return fetch('/absences', {person: personId, year: year, type: 'VACATION', format: 'spans'}).done( cacheAbsences('holiday', year) );
                 }
             },
 
@@ -432,7 +446,7 @@ $(function() {
                 if (_CACHE['sick'][year]) {
                     return deferred.resolve( _CACHE[year] );
                 } else {
-                    return fetch('/absences', {person: personId, year: year, type: 'SICK_NOTE'}).done( cacheAbsences('sick', year) );
+                    return fetch('/absences', {person: personId, year: year, type: 'SICK_NOTE', format: 'spans'}).done( cacheAbsences('sick', year) );
                 }
             }
         };
@@ -0,0 +1,26 @@
+package org.synyx.urlaubsverwaltung;
+
+import org.junit.Test;
+
+import org.junit.runner.RunWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+
+/**
+ * Smoke test ensuring that the application context starts with the development configuration.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("dev")
+public class UrlaubsverwaltungApplicationTest {
+
+    @Test
+    public void ensureApplicationContextLoads() {
+
+        // the context is loaded before the test is run
+    }
+}
@@ -2,7 +2,11 @@ package org.synyx.urlaubsverwaltung.core.account.service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTimeConstants;
@@ -10,6 +14,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.settings.Settings;
@@ -28,6 +33,7 @@ public class AccountInteractionServiceImplTest {
 
     private AccountService accountService;
     private VacationDaysService vacationDaysService;
+    private PlatformTransactionManager transactionManager;
 
     private Person person;
 
@@ -42,8 +48,9 @@ public class AccountInteractionServiceImplTest {
         Mockito.when(settingsService.getSettings()).thenReturn(new Settings());
 
         vacationDaysService = Mockito.mock(VacationDaysService.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
 
-        service = new AccountInteractionServiceImpl(accountService, vacationDaysService);
+        service = new AccountInteractionServiceImpl(accountService, vacationDaysService, transactionManager);
 
         person = TestDataCreator.createPerson("horscht");
     }
@@ -170,4 +177,61 @@ public class AccountInteractionServiceImplTest {
         Mockito.verify(vacationDaysService).calculateTotalLeftVacationDays(referenceAccount);
         Mockito.verify(accountService).getHolidaysAccount(nextYear, person);
     }
+
+    @Test
+    public void ensureUpdatesUsedVacationDaysOfAllYearsOfThePeriod() {
+
+        Account account2014 = Mockito.mock(Account.class);
+        Account account2015 = Mockito.mock(Account.class);
+
+        Mockito.when(accountService.getHolidaysAccount(2014, person)).thenReturn(Optional.of(account2014));
+        Mockito.when(accountService.getHolidaysAccount(2015, person)).thenReturn(Optional.of(account2015));
+
+        service.updateUsedVacationDays(person, new DateMidnight(2014, 12, 29), new DateMidnight(2015, 1, 2));
+
+        Mockito.verify(vacationDaysService).updateUsedVacationDays(account2014);
+        Mockito.verify(vacationDaysService).updateUsedVacationDays(account2015);
+    }
+
+    @Test
+    public void ensureUpdatesUsedVacationDaysOfAllAccountsOfPerson() {
+
+        Account account2014 = Mockito.mock(Account.class);
+        Account account2015 = Mockito.mock(Account.class);
+
+        Mockito.when(accountService.getHolidaysAccounts(person)).thenReturn(Arrays.asList(account2014, account2015));
+
+        service.updateUsedVacationDays(person);
+
+        Mockito.verify(vacationDaysService).updateUsedVacationDays(account2014);
+        Mockito.verify(vacationDaysService).updateUsedVacationDays(account2015);
+    }
+
+    @Test
+    public void ensureRebuildCountsAccountsWithRebuiltUsedVacationDays() {
+
+        Account correctAccount = Mockito.mock(Account.class);
+        Account wrongAccount = Mockito.mock(Account.class);
+
+        Mockito.when(accountService.getAllHolidaysAccounts()).thenReturn(Arrays.asList(correctAccount, wrongAccount));
+        Mockito.when(vacationDaysService.rebuildUsedVacationDays(correctAccount)).thenReturn(false);
+        Mockito.when(vacationDaysService.rebuildUsedVacationDays(wrongAccount)).thenReturn(true);
+
+        Assert.assertEquals("Wrong number of rebuilt accounts", 1, service.rebuildUsedVacationDays());
+    }
+
+    @Test
+    public void ensureRebuildsAccountsInBatchesOfSeparateTransactions() {
+
+        List<Account> accounts = IntStream.range(0, 250)
+                .mapToObj(i -> Mockito.mock(Account.class))
+                .collect(Collectors.toList());
+
+        Mockito.when(accountService.getAllHolidaysAccounts()).thenReturn(accounts);
+        Mockito.when(vacationDaysService.rebuildUsedVacationDays(Mockito.any(Account.class))).thenReturn(true);
+
+        Assert.assertEquals("Wrong number of rebuilt accounts", 250, service.rebuildUsedVacationDays());
+
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+    }
 }
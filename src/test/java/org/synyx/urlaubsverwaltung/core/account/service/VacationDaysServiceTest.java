@@ -7,9 +7,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import org.synyx.urlaubsverwaltung.core.account.dao.AccountDAO;
+import org.synyx.urlaubsverwaltung.core.account.dao.UsedVacationDaysDAO;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
+import org.synyx.urlaubsverwaltung.core.account.domain.UsedVacationDays;
 import org.synyx.urlaubsverwaltung.core.account.domain.VacationDaysLeft;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
@@ -47,12 +52,16 @@ public class VacationDaysServiceTest {
 
     private ApplicationService applicationService;
     private NowService nowService;
+    private UsedVacationDaysDAO usedVacationDaysDAO;
+    private AccountDAO accountDAO;
 
     @Before
     public void setUp() throws IOException {
 
         applicationService = Mockito.mock(ApplicationService.class);
         nowService = Mockito.mock(NowService.class);
+        usedVacationDaysDAO = Mockito.mock(UsedVacationDaysDAO.class);
+        accountDAO = Mockito.mock(AccountDAO.class);
 
         WorkingTimeService workingTimeService = Mockito.mock(WorkingTimeService.class);
 
@@ -72,7 +81,8 @@ public class VacationDaysServiceTest {
         WorkDaysService calendarService = new WorkDaysService(new PublicHolidaysService(settingsService),
                 workingTimeService, settingsService);
 
-        vacationDaysService = new VacationDaysService(calendarService, nowService, applicationService);
+        vacationDaysService = new VacationDaysService(calendarService, nowService, applicationService,
+                usedVacationDaysDAO, accountDAO);
     }
 
 
@@ -325,7 +335,9 @@ public class VacationDaysServiceTest {
         initCustomService("4", "1");
 
         Account account = new Account();
+        account.setPerson(TestDataCreator.createPerson());
         account.setValidFrom(new DateMidnight(2015, 1, 1));
+        account.setValidTo(new DateMidnight(2015, 12, 31));
         account.setAnnualVacationDays(new BigDecimal("30"));
         account.setVacationDays(new BigDecimal("30"));
         account.setRemainingVacationDays(new BigDecimal("7"));
@@ -349,7 +361,9 @@ public class VacationDaysServiceTest {
         initCustomService("4", "3");
 
         Account account = new Account();
+        account.setPerson(TestDataCreator.createPerson());
         account.setValidFrom(new DateMidnight(2015, 1, 1));
+        account.setValidTo(new DateMidnight(2015, 12, 31));
         account.setAnnualVacationDays(new BigDecimal("30"));
         account.setVacationDays(new BigDecimal("30"));
         account.setRemainingVacationDays(new BigDecimal("7"));
@@ -365,10 +379,163 @@ public class VacationDaysServiceTest {
     }
 
 
+    @Test
+    public void ensureUsesStoredUsedVacationDaysIfExistent() {
+
+        Account account = createPersistedAccount();
+
+        Mockito.when(usedVacationDaysDAO.findByAccount(account))
+            .thenReturn(new UsedVacationDays(account, new BigDecimal("4"), new BigDecimal("20")));
+
+        VacationDaysLeft vacationDaysLeft = vacationDaysService.getVacationDaysLeft(account, Optional.empty());
+
+        Assert.assertEquals("Wrong number of vacation days", new BigDecimal("12"), vacationDaysLeft.getVacationDays());
+        Assert.assertEquals("Wrong number of remaining vacation days", BigDecimal.ZERO,
+            vacationDaysLeft.getRemainingVacationDays());
+
+        Mockito.verifyZeroInteractions(applicationService);
+    }
+
+
+    @Test
+    public void ensureCalculatesUsedVacationDaysIfNotStoredYet() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+
+        Mockito.when(usedVacationDaysDAO.findByAccount(account)).thenReturn(null);
+
+        VacationDaysLeft vacationDaysLeft = vacationDaysService.getVacationDaysLeft(account, Optional.empty());
+
+        Assert.assertEquals("Wrong number of vacation days", new BigDecimal("12"), vacationDaysLeft.getVacationDays());
+
+        Mockito.verify(usedVacationDaysDAO, Mockito.never()).save(Mockito.any(UsedVacationDays.class));
+    }
+
+
+    @Test
+    public void ensureUpdateStoresCalculatedUsedVacationDays() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+
+        Mockito.when(usedVacationDaysDAO.findForUpdateByAccount(account)).thenReturn(null);
+
+        vacationDaysService.updateUsedVacationDays(account);
+
+        InOrder inOrder = Mockito.inOrder(accountDAO, usedVacationDaysDAO);
+        inOrder.verify(accountDAO).findForUpdateById(42);
+        inOrder.verify(usedVacationDaysDAO).findForUpdateByAccount(account);
+
+        ArgumentCaptor<UsedVacationDays> usedVacationDaysCaptor = ArgumentCaptor.forClass(UsedVacationDays.class);
+        Mockito.verify(usedVacationDaysDAO).save(usedVacationDaysCaptor.capture());
+
+        UsedVacationDays usedVacationDays = usedVacationDaysCaptor.getValue();
+        Assert.assertEquals("Wrong account", account, usedVacationDays.getAccount());
+        Assert.assertEquals("Wrong days before April", new BigDecimal("4"), usedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals("Wrong days after April", new BigDecimal("20"), usedVacationDays.getDaysAfterApril());
+    }
+
+
+    @Test
+    public void ensureUpdateChangesStoredUsedVacationDays() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+        UsedVacationDays storedUsedVacationDays = new UsedVacationDays(account, BigDecimal.ONE, BigDecimal.ONE);
+
+        Mockito.when(usedVacationDaysDAO.findForUpdateByAccount(account)).thenReturn(storedUsedVacationDays);
+
+        vacationDaysService.updateUsedVacationDays(account);
+
+        Mockito.verify(usedVacationDaysDAO).save(storedUsedVacationDays);
+        Assert.assertEquals("Wrong days before April", new BigDecimal("4"),
+            storedUsedVacationDays.getDaysBeforeApril());
+        Assert.assertEquals("Wrong days after April", new BigDecimal("20"),
+            storedUsedVacationDays.getDaysAfterApril());
+    }
+
+
+    @Test
+    public void ensureRebuildDoesNotChangeCorrectUsedVacationDays() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+
+        Mockito.when(usedVacationDaysDAO.findByAccount(account))
+            .thenReturn(new UsedVacationDays(account, new BigDecimal("4.00"), new BigDecimal("20.00")));
+
+        Assert.assertFalse("Should not be rebuilt", vacationDaysService.rebuildUsedVacationDays(account));
+
+        Mockito.verify(usedVacationDaysDAO, Mockito.never()).save(Mockito.any(UsedVacationDays.class));
+        Mockito.verifyZeroInteractions(accountDAO);
+    }
+
+
+    @Test
+    public void ensureRebuildDoesNotChangeUsedVacationDaysThatHaveBeenUpdatedInTheMeantime() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+
+        Mockito.when(usedVacationDaysDAO.findByAccount(account))
+            .thenReturn(new UsedVacationDays(account, new BigDecimal("4"), BigDecimal.ONE));
+        Mockito.when(usedVacationDaysDAO.findForUpdateByAccount(account))
+            .thenReturn(new UsedVacationDays(account, new BigDecimal("4"), new BigDecimal("20")));
+
+        Assert.assertFalse("Should not be rebuilt", vacationDaysService.rebuildUsedVacationDays(account));
+
+        Mockito.verify(accountDAO).findForUpdateById(42);
+        Mockito.verify(usedVacationDaysDAO, Mockito.never()).save(Mockito.any(UsedVacationDays.class));
+    }
+
+
+    @Test
+    public void ensureRebuildReplacesWrongUsedVacationDays() {
+
+        initCustomService("4", "20");
+
+        Account account = createPersistedAccount();
+        UsedVacationDays storedUsedVacationDays = new UsedVacationDays(account, new BigDecimal("4"), BigDecimal.ONE);
+
+        Mockito.when(usedVacationDaysDAO.findByAccount(account)).thenReturn(storedUsedVacationDays);
+        Mockito.when(usedVacationDaysDAO.findForUpdateByAccount(account)).thenReturn(storedUsedVacationDays);
+
+        Assert.assertTrue("Should be rebuilt", vacationDaysService.rebuildUsedVacationDays(account));
+
+        Mockito.verify(accountDAO).findForUpdateById(42);
+        Mockito.verify(usedVacationDaysDAO).save(storedUsedVacationDays);
+        Assert.assertEquals("Wrong days after April", new BigDecimal("20"),
+            storedUsedVacationDays.getDaysAfterApril());
+    }
+
+
+    private Account createPersistedAccount() {
+
+        Account account = Mockito.spy(new Account());
+        Mockito.when(account.getId()).thenReturn(42);
+
+        account.setPerson(TestDataCreator.createPerson());
+        account.setValidFrom(new DateMidnight(2015, 1, 1));
+        account.setValidTo(new DateMidnight(2015, 12, 31));
+        account.setAnnualVacationDays(new BigDecimal("30"));
+        account.setVacationDays(new BigDecimal("30"));
+        account.setRemainingVacationDays(new BigDecimal("6"));
+        account.setRemainingVacationDaysNotExpiring(new BigDecimal("2"));
+
+        return account;
+    }
+
+
     private void initCustomService(final String daysBeforeApril, final String daysAfterApril) {
 
         vacationDaysService = new VacationDaysService(Mockito.mock(WorkDaysService.class), nowService,
-                applicationService) {
+                applicationService, usedVacationDaysDAO, accountDAO) {
 
             @Override
             protected BigDecimal getUsedDaysBeforeApril(Account account) {
@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import org.synyx.urlaubsverwaltung.core.account.service.AccountInteractionService;
@@ -17,13 +18,9 @@ import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.Role;
-import org.synyx.urlaubsverwaltung.core.settings.Settings;
-import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
-import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingService;
+import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncQueue;
 import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Arrays;
@@ -31,8 +28,6 @@ import java.util.Collections;
 import java.util.Optional;
 
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
-import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 
 
@@ -47,9 +42,7 @@ public class ApplicationInteractionServiceImplTest {
     private ApplicationCommentService commentService;
     private AccountInteractionService accountInteractionService;
     private MailService mailService;
-    private CalendarSyncService calendarSyncService;
-    private AbsenceMappingService absenceMappingService;
-    private SettingsService settingsService;
+    private CalendarSyncQueue calendarSyncQueue;
     private DepartmentService departmentService;
 
     @Before
@@ -59,17 +52,10 @@ public class ApplicationInteractionServiceImplTest {
         commentService = Mockito.mock(ApplicationCommentService.class);
         accountInteractionService = Mockito.mock(AccountInteractionService.class);
         mailService = Mockito.mock(MailService.class);
-        calendarSyncService = Mockito.mock(CalendarSyncService.class);
-        absenceMappingService = Mockito.mock(AbsenceMappingService.class);
-        settingsService = Mockito.mock(SettingsService.class);
+        calendarSyncQueue = Mockito.mock(CalendarSyncQueue.class);
         departmentService = Mockito.mock(DepartmentService.class);
 
-        Mockito.when(calendarSyncService.addAbsence(any(Absence.class))).thenReturn(Optional.of("42"));
-        Mockito.when(absenceMappingService.getAbsenceByIdAndType(anyInt(), eq(AbsenceType.VACATION)))
-            .thenReturn(Optional.of(new AbsenceMapping(1, AbsenceType.VACATION, "42")));
-        Mockito.when(settingsService.getSettings()).thenReturn(new Settings());
-
-        service = new ApplicationInteractionServiceImpl(applicationService, commentService, accountInteractionService, mailService, calendarSyncService, absenceMappingService, settingsService,
+        service = new ApplicationInteractionServiceImpl(applicationService, commentService, accountInteractionService, mailService, calendarSyncQueue,
                 departmentService);
     }
 
@@ -123,8 +109,8 @@ public class ApplicationInteractionServiceImplTest {
 
         service.apply(applicationForLeave, applier, comment);
 
-        Mockito.verify(calendarSyncService).addAbsence(any(Absence.class));
-        Mockito.verify(absenceMappingService).create(anyInt(), eq(AbsenceType.VACATION), anyString());
+        Mockito.verify(calendarSyncQueue)
+            .add(applicationForLeave.getId(), AbsenceType.VACATION, EventType.WAITING_APPLICATION);
     }
 
 
@@ -180,6 +166,24 @@ public class ApplicationInteractionServiceImplTest {
         Mockito.verify(accountInteractionService).updateRemainingVacationDays(2013, person);
     }
 
+
+    @Test
+    public void ensureApplyingForLeaveUpdatesTheUsedVacationDaysBeforeTheRemainingVacationDays() {
+
+        Person person = TestDataCreator.createPerson("muster");
+        Person applier = TestDataCreator.createPerson("applier");
+
+        Application applicationForLeave = getDummyApplication(person);
+
+        service.apply(applicationForLeave, applier, Optional.empty());
+
+        InOrder inOrder = Mockito.inOrder(applicationService, accountInteractionService);
+        inOrder.verify(applicationService).save(applicationForLeave);
+        inOrder.verify(accountInteractionService)
+            .updateUsedVacationDays(person, applicationForLeave.getStartDate(), applicationForLeave.getEndDate());
+        inOrder.verify(accountInteractionService).updateRemainingVacationDays(2013, person);
+    }
+
     // ALLOW APPLICATION FOR LEAVE -------------------------------------------------------------------------------------
 
 
@@ -225,8 +229,8 @@ public class ApplicationInteractionServiceImplTest {
 
     private void assertCalendarSyncIsExecuted() {
 
-        Mockito.verify(calendarSyncService).update(any(Absence.class), anyString());
-        Mockito.verify(absenceMappingService).getAbsenceByIdAndType(anyInt(), eq(AbsenceType.VACATION));
+        Mockito.verify(calendarSyncQueue)
+            .update(any(), eq(AbsenceType.VACATION), eq(EventType.ALLOWED_APPLICATION));
     }
 
 
@@ -296,8 +300,7 @@ public class ApplicationInteractionServiceImplTest {
         Mockito.verifyZeroInteractions(applicationService);
         Mockito.verifyZeroInteractions(commentService);
         Mockito.verifyZeroInteractions(mailService);
-        Mockito.verifyZeroInteractions(calendarSyncService);
-        Mockito.verifyZeroInteractions(absenceMappingService);
+        Mockito.verifyZeroInteractions(calendarSyncQueue);
     }
 
 
@@ -371,8 +374,7 @@ public class ApplicationInteractionServiceImplTest {
 
     private void assertNoCalendarSyncOccurs() {
 
-        Mockito.verifyZeroInteractions(calendarSyncService);
-        Mockito.verifyZeroInteractions(absenceMappingService);
+        Mockito.verifyZeroInteractions(calendarSyncQueue);
     }
 
 
@@ -407,8 +409,7 @@ public class ApplicationInteractionServiceImplTest {
         Mockito.verifyZeroInteractions(applicationService);
         Mockito.verifyZeroInteractions(commentService);
         Mockito.verifyZeroInteractions(mailService);
-        Mockito.verifyZeroInteractions(calendarSyncService);
-        Mockito.verifyZeroInteractions(absenceMappingService);
+        Mockito.verifyZeroInteractions(calendarSyncQueue);
     }
 
 
@@ -661,6 +662,22 @@ public class ApplicationInteractionServiceImplTest {
     }
 
 
+    @Test
+    public void ensureRejectingApplicationForLeaveUpdatesTheUsedVacationDays() {
+
+        Person person = TestDataCreator.createPerson("muster");
+        Person boss = TestDataCreator.createPerson("boss");
+
+        Application applicationForLeave = getDummyApplication(person);
+        applicationForLeave.setStatus(ApplicationStatus.WAITING);
+
+        service.reject(applicationForLeave, boss, Optional.empty());
+
+        Mockito.verify(accountInteractionService)
+            .updateUsedVacationDays(person, applicationForLeave.getStartDate(), applicationForLeave.getEndDate());
+    }
+
+
     @Test
     public void ensureRejectingApplicationForLeaveDeletesCalendarEvent() {
 
@@ -674,8 +691,7 @@ public class ApplicationInteractionServiceImplTest {
 
         service.reject(applicationForLeave, boss, comment);
 
-        Mockito.verify(calendarSyncService).deleteAbsence(anyString());
-        Mockito.verify(absenceMappingService).delete(any(AbsenceMapping.class));
+        Mockito.verify(calendarSyncQueue).delete(applicationForLeave.getId(), AbsenceType.VACATION);
     }
 
 
@@ -734,8 +750,7 @@ public class ApplicationInteractionServiceImplTest {
 
         service.cancel(applicationForLeave, canceller, comment);
 
-        Mockito.verify(calendarSyncService).deleteAbsence(anyString());
-        Mockito.verify(absenceMappingService).delete(any(AbsenceMapping.class));
+        Mockito.verify(calendarSyncQueue).delete(applicationForLeave.getId(), AbsenceType.VACATION);
     }
 
 
@@ -870,6 +885,27 @@ public class ApplicationInteractionServiceImplTest {
     }
 
 
+    @Test
+    public void ensureCancellingApplicationForLeaveUpdatesTheUsedVacationDaysOfThePeriod() {
+
+        Person person = TestDataCreator.createPerson("muster");
+        Person canceller = TestDataCreator.createPerson("canceller");
+        canceller.setPermissions(Arrays.asList(Role.USER, Role.OFFICE));
+
+        Application applicationForLeave = new Application();
+        applicationForLeave.setPerson(person);
+        applicationForLeave.setStatus(ApplicationStatus.ALLOWED);
+        applicationForLeave.setStartDate(new DateMidnight(2014, 12, 24));
+        applicationForLeave.setEndDate(new DateMidnight(2015, 1, 7));
+        applicationForLeave.setDayLength(DayLength.FULL);
+
+        service.cancel(applicationForLeave, canceller, Optional.empty());
+
+        Mockito.verify(accountInteractionService)
+            .updateUsedVacationDays(person, new DateMidnight(2014, 12, 24), new DateMidnight(2015, 1, 7));
+    }
+
+
     // CREATE APPLICATION FOR LEAVE FROM CONVERTED SICK NOTE -----------------------------------------------------------
 
     @Test
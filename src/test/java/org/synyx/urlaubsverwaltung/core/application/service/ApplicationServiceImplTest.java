@@ -4,20 +4,33 @@
  */
 package org.synyx.urlaubsverwaltung.core.application.service;
 
+import org.joda.time.DateMidnight;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import org.springframework.data.domain.PageRequest;
+
 import org.synyx.urlaubsverwaltung.core.application.dao.ApplicationDAO;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.Role;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.math.BigDecimal;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
 
 
 /**
@@ -29,12 +42,17 @@ public class ApplicationServiceImplTest {
 
     private ApplicationService applicationService;
     private ApplicationDAO applicationDAO;
+    private EntityManager entityManager;
 
     @Before
     public void setUp() {
 
         applicationDAO = Mockito.mock(ApplicationDAO.class);
-        applicationService = new ApplicationServiceImpl(applicationDAO);
+        entityManager = Mockito.mock(EntityManager.class);
+
+        ApplicationServiceImpl applicationServiceImpl = new ApplicationServiceImpl(applicationDAO);
+        applicationServiceImpl.entityManager = entityManager;
+        applicationService = applicationServiceImpl;
     }
 
 
@@ -109,4 +127,79 @@ public class ApplicationServiceImplTest {
         Assert.assertNotNull("Should not be null", totalHours);
         Assert.assertEquals("Wrong total overtime reduction", BigDecimal.ONE, totalHours);
     }
+
+
+    // Get applications to be decided on -------------------------------------------------------------------------------
+
+    @Test
+    public void ensureGetsFirstPageOfWaitingApplicationsForDepartmentHead() {
+
+        Person departmentHead = TestDataCreator.createPerson();
+
+        applicationService.getApplicationsForDepartmentHead(departmentHead, Optional.empty(), 50);
+
+        Mockito.verify(applicationDAO)
+            .getApplicationsForDepartmentHead(departmentHead, Collections.singletonList(ApplicationStatus.WAITING),
+                Role.SECOND_STAGE_AUTHORITY, null, null, new PageRequest(0, 50));
+    }
+
+
+    @Test
+    public void ensureGetsPageOfApplicationsForSecondStageAuthorityAfterTheGivenApplication() {
+
+        Person secondStageAuthority = TestDataCreator.createPerson();
+
+        Application after = Mockito.mock(Application.class);
+        Mockito.when(after.getId()).thenReturn(42);
+        Mockito.when(after.getStartDate()).thenReturn(new DateMidnight(2016, 12, 5));
+
+        applicationService.getApplicationsForSecondStageAuthority(secondStageAuthority, Optional.of(after), 50);
+
+        Mockito.verify(applicationDAO)
+            .getApplicationsForSecondStageAuthority(secondStageAuthority,
+                Arrays.asList(ApplicationStatus.WAITING, ApplicationStatus.TEMPORARY_ALLOWED),
+                new DateMidnight(2016, 12, 5).toDate(), 42, new PageRequest(0, 50));
+    }
+
+
+    // Get applications for a certain period page by page or one by one ------------------------------------------------
+
+    @Test
+    public void ensureGetsPageOfApplicationsForACertainPeriodAndStateOfPerson() {
+
+        Person person = TestDataCreator.createPerson();
+
+        applicationService.getApplicationsForACertainPeriodAndState(new DateMidnight(2016, 1, 1),
+            new DateMidnight(2016, 12, 31), ApplicationStatus.ALLOWED, Optional.of(person), Optional.empty(), 100);
+
+        Mockito.verify(applicationDAO)
+            .getApplicationsForACertainTimeAndState(new DateMidnight(2016, 1, 1).toDate(),
+                new DateMidnight(2016, 12, 31).toDate(), ApplicationStatus.ALLOWED, person, null, null,
+                new PageRequest(0, 100));
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ensureDetachesEachApplicationAfterPassingItToTheAction() {
+
+        Application first = new Application();
+        Application second = new Application();
+
+        Stream<Application> applications = Stream.of(first, second);
+        Mockito.when(applicationDAO.streamApplicationsForACertainTimeAndState(new DateMidnight(2016, 1, 1).toDate(),
+                    new DateMidnight(2016, 12, 31).toDate(), ApplicationStatus.ALLOWED, null))
+            .thenReturn(applications);
+
+        Consumer<Application> action = Mockito.mock(Consumer.class);
+
+        applicationService.forEachApplicationForACertainPeriodAndState(new DateMidnight(2016, 1, 1),
+            new DateMidnight(2016, 12, 31), ApplicationStatus.ALLOWED, Optional.empty(), action);
+
+        InOrder inOrder = Mockito.inOrder(action, entityManager);
+        inOrder.verify(action).accept(first);
+        inOrder.verify(entityManager).detach(first);
+        inOrder.verify(action).accept(second);
+        inOrder.verify(entityManager).detach(second);
+    }
 }
@@ -0,0 +1,215 @@
+package org.synyx.urlaubsverwaltung.core.cron;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.account.service.AccountInteractionService;
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.settings.FederalState;
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsChangedEvent;
+import org.synyx.urlaubsverwaltung.core.workingtime.WorkingTimeChangedEvent;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+public class UsedVacationDaysUpdaterServiceTest {
+
+    private AccountInteractionService accountInteractionServiceMock;
+
+    private UsedVacationDaysUpdaterService sut;
+
+    @Before
+    public void setUp() {
+
+        accountInteractionServiceMock = Mockito.mock(AccountInteractionService.class);
+
+        // runs the rebuild in the calling thread
+        sut = new UsedVacationDaysUpdaterService(accountInteractionServiceMock, Runnable::run);
+    }
+
+
+    @Test
+    public void ensureRebuildReturnsNumberOfRebuiltAccounts() {
+
+        Mockito.when(accountInteractionServiceMock.rebuildUsedVacationDays()).thenReturn(3);
+
+        Assert.assertEquals("Wrong number of rebuilt accounts", 3, sut.rebuildUsedVacationDays());
+    }
+
+
+    @Test
+    public void ensureRebuildsUsedVacationDaysIfPreviousSettingsAreUnknown() {
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+
+        Mockito.verify(accountInteractionServiceMock).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureRebuildsUsedVacationDaysIfFederalStateChanged() {
+
+        Settings settings = new Settings();
+        settings.getWorkingTimeSettings().setFederalState(FederalState.BERLIN);
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, settings, new Settings()));
+
+        Mockito.verify(accountInteractionServiceMock).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureRebuildsUsedVacationDaysIfWorkingDurationOnChristmasEveChanged() {
+
+        Settings previousSettings = new Settings();
+        previousSettings.getWorkingTimeSettings().setWorkingDurationForChristmasEve(DayLength.MORNING);
+
+        Settings settings = new Settings();
+        settings.getWorkingTimeSettings().setWorkingDurationForChristmasEve(DayLength.ZERO);
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, settings, previousSettings));
+
+        Mockito.verify(accountInteractionServiceMock).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureDoesNotRebuildUsedVacationDaysIfOtherSettingsChanged() {
+
+        Settings settings = new Settings();
+        settings.getMailSettings().setActive(true);
+        settings.getWorkingTimeSettings().setOvertimeActive(true);
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, settings, new Settings()));
+
+        Mockito.verifyZeroInteractions(accountInteractionServiceMock);
+    }
+
+
+    @Test
+    public void ensureUpdatesUsedVacationDaysOfPersonIfWorkingTimeChanged() {
+
+        Person person = TestDataCreator.createPerson();
+
+        sut.onWorkingTimeChanged(new WorkingTimeChangedEvent(this, person));
+
+        Mockito.verify(accountInteractionServiceMock).updateUsedVacationDays(person);
+        Mockito.verify(accountInteractionServiceMock, Mockito.never()).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureRebuildsOnlyOnceForSettingsChangedBeforeTheRebuildStarted() {
+
+        List<Runnable> rebuilds = new ArrayList<>();
+        sut = new UsedVacationDaysUpdaterService(accountInteractionServiceMock, rebuilds::add);
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+        sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+
+        Assert.assertEquals("Wrong number of scheduled rebuilds", 1, rebuilds.size());
+
+        rebuilds.get(0).run();
+
+        Mockito.verify(accountInteractionServiceMock).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureRebuildsAgainForSettingsChangedDuringTheRebuild() {
+
+        List<Runnable> rebuilds = new ArrayList<>();
+        sut = new UsedVacationDaysUpdaterService(accountInteractionServiceMock, rebuilds::add);
+
+        Mockito.when(accountInteractionServiceMock.rebuildUsedVacationDays()).thenAnswer(invocation -> {
+            sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+
+            return 0;
+        });
+
+        sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+        rebuilds.get(0).run();
+
+        Assert.assertEquals("Wrong number of scheduled rebuilds", 2, rebuilds.size());
+    }
+
+
+    @Test
+    public void ensureSkipsNightlyCheckWhileRebuildIsRunning() throws InterruptedException {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        sut = new UsedVacationDaysUpdaterService(accountInteractionServiceMock, executor);
+
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+
+        Mockito.when(accountInteractionServiceMock.rebuildUsedVacationDays()).thenAnswer(invocation -> {
+            rebuildStarted.countDown();
+            finishRebuild.await();
+
+            return 1;
+        });
+
+        try {
+            sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+            Assert.assertTrue("Rebuild should have started", rebuildStarted.await(5, TimeUnit.SECONDS));
+
+            Assert.assertEquals("Should skip the nightly check", 0, sut.rebuildUsedVacationDays());
+
+            finishRebuild.countDown();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        Mockito.verify(accountInteractionServiceMock).rebuildUsedVacationDays();
+    }
+
+
+    @Test
+    public void ensureRebuildForChangedSettingsWaitsForRunningNightlyCheck() throws InterruptedException {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        sut = new UsedVacationDaysUpdaterService(accountInteractionServiceMock, executor);
+
+        CountDownLatch checkStarted = new CountDownLatch(1);
+        CountDownLatch finishCheck = new CountDownLatch(1);
+
+        Mockito.when(accountInteractionServiceMock.rebuildUsedVacationDays()).thenAnswer(invocation -> {
+            if (checkStarted.getCount() > 0) {
+                checkStarted.countDown();
+                finishCheck.await();
+            }
+
+            return 1;
+        });
+
+        Thread nightlyCheck = new Thread(sut::rebuildUsedVacationDays);
+        nightlyCheck.start();
+
+        try {
+            Assert.assertTrue("Check should have started", checkStarted.await(5, TimeUnit.SECONDS));
+
+            sut.onSettingsChanged(new SettingsChangedEvent(this, new Settings(), null));
+
+            finishCheck.countDown();
+            nightlyCheck.join(5000);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        Mockito.verify(accountInteractionServiceMock, Mockito.times(2)).rebuildUsedVacationDays();
+    }
+}
@@ -197,18 +197,19 @@ public class DepartmentServiceImplTest {
 
 
     @Test
-    public void ensureReturnsTrueIfIsDepartmentHeadOfTheGivenPerson() {
+    public void ensureReturnsTrueIfIsDepartmentHeadOfTheGivenPerson() throws IllegalAccessException {
 
-        Person departmentHead = Mockito.mock(Person.class);
-        Mockito.when(departmentHead.hasRole(Role.DEPARTMENT_HEAD)).thenReturn(true);
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
 
-        Person admin1 = TestDataCreator.createPerson("admin1");
-        Person admin2 = TestDataCreator.createPerson("admin2");
+        Person admin1 = TestDataCreator.createPerson(2, "admin1");
+        Person admin2 = TestDataCreator.createPerson(3, "admin2");
 
         Department admins = TestDataCreator.createDepartment("admins");
         admins.setMembers(Arrays.asList(admin1, admin2, departmentHead));
+        admins.setDepartmentHeads(Collections.singletonList(departmentHead));
 
-        Mockito.when(departmentDAO.getManagedDepartments(departmentHead)).thenReturn(Collections.singletonList(admins));
+        Mockito.when(departmentDAO.findAll()).thenReturn(Collections.singletonList(admins));
 
         boolean isDepartmentHead = sut.isDepartmentHeadOfPerson(departmentHead, admin1);
 
@@ -217,20 +218,24 @@ public class DepartmentServiceImplTest {
 
 
     @Test
-    public void ensureReturnsFalseIfIsNotDepartmentHeadOfTheGivenPerson() {
+    public void ensureReturnsFalseIfIsNotDepartmentHeadOfTheGivenPerson() throws IllegalAccessException {
 
-        Person departmentHead = Mockito.mock(Person.class);
-        Mockito.when(departmentHead.hasRole(Role.DEPARTMENT_HEAD)).thenReturn(true);
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
 
-        Person admin1 = TestDataCreator.createPerson("admin1");
-        Person admin2 = TestDataCreator.createPerson("admin2");
+        Person admin1 = TestDataCreator.createPerson(2, "admin1");
+        Person admin2 = TestDataCreator.createPerson(3, "admin2");
 
         Department admins = TestDataCreator.createDepartment("admins");
         admins.setMembers(Arrays.asList(admin1, admin2, departmentHead));
+        admins.setDepartmentHeads(Collections.singletonList(departmentHead));
 
-        Person marketing1 = TestDataCreator.createPerson("marketing1");
+        Person marketing1 = TestDataCreator.createPerson(4, "marketing1");
+
+        Department marketing = TestDataCreator.createDepartment("marketing");
+        marketing.setMembers(Collections.singletonList(marketing1));
 
-        Mockito.when(departmentDAO.getManagedDepartments(departmentHead)).thenReturn(Collections.singletonList(admins));
+        Mockito.when(departmentDAO.findAll()).thenReturn(Arrays.asList(admins, marketing));
 
         boolean isDepartmentHead = sut.isDepartmentHeadOfPerson(departmentHead, marketing1);
 
@@ -239,19 +244,19 @@ public class DepartmentServiceImplTest {
 
 
     @Test
-    public void ensureReturnsFalseIfIsInTheSameDepartmentButHasNotDepartmentHeadRole() {
+    public void ensureReturnsFalseIfIsInTheSameDepartmentButHasNotDepartmentHeadRole() throws IllegalAccessException {
 
-        Person noDepartmentHead = Mockito.mock(Person.class);
-        Mockito.when(noDepartmentHead.hasRole(Role.DEPARTMENT_HEAD)).thenReturn(false);
+        Person noDepartmentHead = TestDataCreator.createPerson(1, "noDepartmentHead");
+        noDepartmentHead.setPermissions(Collections.singletonList(Role.USER));
 
-        Person admin1 = TestDataCreator.createPerson("admin1");
-        Person admin2 = TestDataCreator.createPerson("admin2");
+        Person admin1 = TestDataCreator.createPerson(2, "admin1");
+        Person admin2 = TestDataCreator.createPerson(3, "admin2");
 
         Department admins = TestDataCreator.createDepartment("admins");
         admins.setMembers(Arrays.asList(admin1, admin2, noDepartmentHead));
+        admins.setDepartmentHeads(Collections.singletonList(noDepartmentHead));
 
-        Mockito.when(departmentDAO.getManagedDepartments(noDepartmentHead))
-            .thenReturn(Collections.singletonList(admins));
+        Mockito.when(departmentDAO.findAll()).thenReturn(Collections.singletonList(admins));
 
         boolean isDepartmentHead = sut.isDepartmentHeadOfPerson(noDepartmentHead, admin1);
 
@@ -259,6 +264,123 @@ public class DepartmentServiceImplTest {
     }
 
 
+    @Test
+    public void ensureReturnsTrueIfIsSecondStageAuthorityOfTheGivenPerson() throws IllegalAccessException {
+
+        Person secondStageAuthority = TestDataCreator.createPerson(1, "secondStageAuthority");
+        secondStageAuthority.setPermissions(Arrays.asList(Role.USER, Role.SECOND_STAGE_AUTHORITY));
+
+        Person admin1 = TestDataCreator.createPerson(2, "admin1");
+        Person marketing1 = TestDataCreator.createPerson(3, "marketing1");
+
+        Department admins = TestDataCreator.createDepartment("admins");
+        admins.setMembers(Collections.singletonList(admin1));
+        admins.setSecondStageAuthorities(Collections.singletonList(secondStageAuthority));
+
+        Department marketing = TestDataCreator.createDepartment("marketing");
+        marketing.setMembers(Collections.singletonList(marketing1));
+
+        Mockito.when(departmentDAO.findAll()).thenReturn(Arrays.asList(admins, marketing));
+
+        Assert.assertTrue("Should be the second stage authority of the given person",
+            sut.isSecondStageAuthorityOfPerson(secondStageAuthority, admin1));
+        Assert.assertFalse("Should not be the second stage authority of the given person",
+            sut.isSecondStageAuthorityOfPerson(secondStageAuthority, marketing1));
+    }
+
+
+    @Test
+    public void ensureLoadsDepartmentsOnlyOnceForResponsibilityChecks() throws IllegalAccessException {
+
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
+
+        Person admin = TestDataCreator.createPerson(2, "admin");
+
+        Department admins = TestDataCreator.createDepartment("admins");
+        admins.setMembers(Collections.singletonList(admin));
+        admins.setDepartmentHeads(Collections.singletonList(departmentHead));
+
+        Mockito.when(departmentDAO.findAll()).thenReturn(Collections.singletonList(admins));
+
+        sut.isDepartmentHeadOfPerson(departmentHead, admin);
+        sut.isDepartmentHeadOfPerson(departmentHead, departmentHead);
+        sut.isSecondStageAuthorityOfPerson(departmentHead, admin);
+
+        Mockito.verify(departmentDAO, Mockito.times(1)).findAll();
+        Mockito.verify(departmentDAO, Mockito.never()).getManagedDepartments(Mockito.any(Person.class));
+    }
+
+
+    @Test
+    public void ensureRebuildsMembershipAfterDepartmentHasBeenUpdated() throws IllegalAccessException {
+
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
+
+        Person admin = TestDataCreator.createPerson(2, "admin");
+
+        Department admins = TestDataCreator.createDepartment("admins");
+        admins.setDepartmentHeads(Collections.singletonList(departmentHead));
+
+        Mockito.when(departmentDAO.findAll()).thenReturn(Collections.singletonList(admins));
+
+        Assert.assertFalse("Should not be the department head yet",
+            sut.isDepartmentHeadOfPerson(departmentHead, admin));
+
+        admins.setMembers(Collections.singletonList(admin));
+        sut.update(admins);
+
+        Assert.assertTrue("Should be the department head now", sut.isDepartmentHeadOfPerson(departmentHead, admin));
+    }
+
+
+    @Test
+    public void ensureRebuildsMembershipThatHasBeenBuiltWhileDepartmentWasUpdated() throws IllegalAccessException {
+
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
+
+        Person admin = TestDataCreator.createPerson(2, "admin");
+
+        Department admins = TestDataCreator.createDepartment("admins");
+        admins.setDepartmentHeads(Collections.singletonList(departmentHead));
+
+        Department updatedAdmins = TestDataCreator.createDepartment("admins");
+        updatedAdmins.setDepartmentHeads(Collections.singletonList(departmentHead));
+        updatedAdmins.setMembers(Collections.singletonList(admin));
+
+        // the update is committed after the departments have been read for the membership
+        Mockito.when(departmentDAO.findAll()).then(invocation -> {
+                sut.update(updatedAdmins);
+
+                return Collections.singletonList(admins);
+            }).thenReturn(Collections.singletonList(updatedAdmins));
+
+        Assert.assertFalse("Should not be the department head yet",
+            sut.isDepartmentHeadOfPerson(departmentHead, admin));
+        Assert.assertTrue("Should be the department head now", sut.isDepartmentHeadOfPerson(departmentHead, admin));
+    }
+
+
+    @Test
+    public void ensureRebuildsMembershipAfterReload() throws IllegalAccessException {
+
+        Person departmentHead = TestDataCreator.createPerson(1, "departmentHead");
+        departmentHead.setPermissions(Arrays.asList(Role.USER, Role.DEPARTMENT_HEAD));
+
+        Person admin = TestDataCreator.createPerson(2, "admin");
+
+        Mockito.when(departmentDAO.findAll()).thenReturn(Collections.emptyList());
+
+        sut.isDepartmentHeadOfPerson(departmentHead, admin);
+        sut.reloadDepartments();
+        sut.isDepartmentHeadOfPerson(departmentHead, admin);
+
+        Mockito.verify(departmentDAO, Mockito.times(2)).findAll();
+    }
+
+
     @Test
     public void ensureReturnsEmptyListOfDepartmentApplicationsIfPersonIsNotAssignedToAnyDepartment() {
 
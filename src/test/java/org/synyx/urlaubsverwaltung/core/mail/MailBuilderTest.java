@@ -0,0 +1,75 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.exception.ResourceNotFoundException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+
+
+/**
+ * Unit test for {@link MailBuilder}.
+ */
+public class MailBuilderTest {
+
+    private VelocityEngine velocityEngine;
+
+    @Before
+    public void setUp() {
+
+        Properties velocityProperties = new Properties();
+        velocityProperties.put("resource.loader", "class");
+        velocityProperties.put("class.resource.loader.class",
+            "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
+
+        velocityEngine = Mockito.spy(new VelocityEngine(velocityProperties));
+    }
+
+
+    @Test
+    public void ensureAllTemplatesAreParsedOnCreation() {
+
+        new MailBuilder(velocityEngine);
+
+        Mockito.verify(velocityEngine)
+            .getTemplate("/org/synyx/urlaubsverwaltung/core/mail/updated_settings.vm", "UTF-8");
+        Mockito.verify(velocityEngine).getTemplate("/org/synyx/urlaubsverwaltung/core/mail/remind.vm", "UTF-8");
+    }
+
+
+    @Test
+    public void ensureRendersTemplateWithoutParsingItAgain() {
+
+        MailBuilder mailBuilder = new MailBuilder(velocityEngine);
+
+        Settings settings = new Settings();
+        settings.getMailSettings().setHost("smtp.firma.test");
+
+        Map<String, Object> model = Collections.singletonMap("settings", settings);
+
+        String text = mailBuilder.buildMailBody("updated_settings", model);
+        String otherText = mailBuilder.buildMailBody("updated_settings", model);
+
+        Assert.assertTrue("Host should be rendered", text.contains("Host: smtp.firma.test"));
+        Assert.assertEquals("Wrong text", text, otherText);
+
+        Mockito.verify(velocityEngine)
+            .getTemplate("/org/synyx/urlaubsverwaltung/core/mail/updated_settings.vm", "UTF-8");
+    }
+
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void ensureThrowsIfTemplateDoesNotExist() {
+
+        new MailBuilder(velocityEngine).buildMailBody("unknown", Collections.emptyMap());
+    }
+}
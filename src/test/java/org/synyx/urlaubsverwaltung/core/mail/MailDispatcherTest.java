@@ -0,0 +1,221 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import org.synyx.urlaubsverwaltung.core.settings.MailSettings;
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+
+public class MailDispatcherTest {
+
+    private MailDispatcher mailDispatcher;
+
+    private OutboxMailDAO outboxMailDAO;
+    private MailSender mailSender;
+    private Settings settings;
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+
+        outboxMailDAO = Mockito.mock(OutboxMailDAO.class);
+        mailSender = Mockito.mock(MailSender.class);
+
+        SettingsService settingsService = Mockito.mock(SettingsService.class);
+        settings = new Settings();
+        Mockito.when(settingsService.getSettings()).thenReturn(settings);
+
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+        mailDispatcher = new MailDispatcher(outboxMailDAO, mailSender, settingsService, transactionManager);
+    }
+
+
+    @Test
+    public void ensureSendsAndRemovesDueMails() {
+
+        OutboxMail mail = createOutboxMail(1, Arrays.asList("max@firma.test", "marlene@firma.test"), "subject");
+        OutboxMail otherMail = createOutboxMail(2, Collections.singletonList("max@firma.test"), "other");
+
+        mockDueMails(mail, otherMail);
+
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.<OutboxMail>emptyList());
+
+        Assert.assertEquals("Wrong number of sent mails", 2, mailDispatcher.sendMails());
+
+        Mockito.verify(mailSender).sendEmails(settings.getMailSettings(), Arrays.asList(mail, otherMail));
+        Mockito.verify(outboxMailDAO).delete(mail);
+        Mockito.verify(outboxMailDAO).delete(otherMail);
+    }
+
+
+    @Test
+    public void ensureKeepsMailThatCouldNotBeSentForRetry() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+        OutboxMail otherMail = createOutboxMail(2, Collections.singletonList("marlene@firma.test"), "other");
+
+        mockDueMails(mail, otherMail);
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.singletonList(mail));
+
+        Assert.assertEquals("Wrong number of sent mails", 1, mailDispatcher.sendMails());
+
+        Assert.assertEquals("Wrong number of failed attempts", 1, mail.getFailedAttempts());
+        Assert.assertTrue("Retry should be delayed", mail.getNextAttempt().isAfterNow());
+        Mockito.verify(outboxMailDAO).save(mail);
+        Mockito.verify(outboxMailDAO, Mockito.never()).delete(mail);
+        Mockito.verify(outboxMailDAO).delete(otherMail);
+    }
+
+
+    @Test
+    public void ensureClaimsDueMailsSoThatTheyAreNotSentTwice() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+
+        mockDueMails(mail);
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenAnswer(invocation -> {
+                Assert.assertTrue("Should be claimed", mail.getNextAttempt().isAfter(DateTime.now().plusMinutes(5)));
+
+                return Collections.<OutboxMail>emptyList();
+            });
+
+        mailDispatcher.sendMails();
+
+        Mockito.verify(outboxMailDAO).save(Collections.singletonList(mail));
+        Mockito.verify(outboxMailDAO).delete(mail);
+    }
+
+
+    @Test
+    public void ensureSendsMailsOutsideOfTransaction() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+
+        mockDueMails(mail);
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.<OutboxMail>emptyList());
+
+        mailDispatcher.sendMails();
+
+        InOrder inOrder = Mockito.inOrder(transactionManager, outboxMailDAO, mailSender);
+        inOrder.verify(transactionManager).getTransaction(Mockito.any(TransactionDefinition.class));
+        inOrder.verify(outboxMailDAO).findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Mockito.any(Date.class));
+        inOrder.verify(transactionManager).commit(Mockito.any(TransactionStatus.class));
+        inOrder.verify(mailSender).sendEmails(settings.getMailSettings(), Collections.singletonList(mail));
+        inOrder.verify(transactionManager).getTransaction(Mockito.any(TransactionDefinition.class));
+        inOrder.verify(outboxMailDAO).delete(mail);
+        inOrder.verify(transactionManager).commit(Mockito.any(TransactionStatus.class));
+    }
+
+
+    @Test
+    public void ensureIgnoresMailRemovedFromOutboxWhileItWasSent() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+
+        Mockito.when(outboxMailDAO.findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Mockito.any(Date.class)))
+            .thenReturn(Collections.singletonList(mail));
+        Mockito.when(outboxMailDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Collections.<OutboxMail>emptyList());
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.singletonList(mail));
+
+        mailDispatcher.sendMails();
+
+        Mockito.verify(outboxMailDAO, Mockito.never()).save(mail);
+        Mockito.verify(outboxMailDAO, Mockito.never()).delete(mail);
+    }
+
+
+    @Test
+    public void ensureDoublesDelayWithEveryFailedAttempt() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+
+        mockDueMails(mail);
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.singletonList(mail));
+
+        mailDispatcher.sendMails();
+        mailDispatcher.sendMails();
+        mailDispatcher.sendMails();
+
+        Assert.assertEquals("Wrong number of failed attempts", 3, mail.getFailedAttempts());
+        Assert.assertTrue("Wrong next attempt", mail.getNextAttempt().isAfter(DateTime.now().plusSeconds(100)));
+        Assert.assertTrue("Wrong next attempt", mail.getNextAttempt().isBefore(DateTime.now().plusSeconds(130)));
+    }
+
+
+    @Test
+    public void ensureGivesUpSendingMailAfterMaximumNumberOfAttempts() {
+
+        OutboxMail mail = createOutboxMail(1, Collections.singletonList("max@firma.test"), "subject");
+
+        for (int attempt = 1; attempt < MailDispatcher.MAX_ATTEMPTS; attempt++) {
+            mail.failed(DateTime.now());
+        }
+
+        mockDueMails(mail);
+        Mockito.when(mailSender.sendEmails(Mockito.any(MailSettings.class), Mockito.anyListOf(OutboxMail.class)))
+            .thenReturn(Collections.singletonList(mail));
+
+        mailDispatcher.sendMails();
+
+        Assert.assertNull("Should not be retried", mail.getNextAttempt());
+        Mockito.verify(outboxMailDAO).save(mail);
+        Mockito.verify(outboxMailDAO, Mockito.never()).delete(mail);
+    }
+
+
+    @Test
+    public void ensureDoesNothingIfNoMailsAreDue() {
+
+        Mockito.when(outboxMailDAO.findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Mockito.any(Date.class)))
+            .thenReturn(Collections.<OutboxMail>emptyList());
+
+        Assert.assertEquals("Wrong number of sent mails", 0, mailDispatcher.sendMails());
+
+        Mockito.verifyZeroInteractions(mailSender);
+    }
+
+
+    private void mockDueMails(OutboxMail... mails) {
+
+        Mockito.when(outboxMailDAO.findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Mockito.any(Date.class)))
+            .thenReturn(Arrays.asList(mails));
+        Mockito.when(outboxMailDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Arrays.asList(mails));
+    }
+
+
+    private static OutboxMail createOutboxMail(Integer id, List<String> recipients, String subject) {
+
+        OutboxMail outboxMail = new OutboxMail(recipients, subject, "text");
+        ReflectionTestUtils.setField(outboxMail, "id", id);
+
+        return outboxMail;
+    }
+}
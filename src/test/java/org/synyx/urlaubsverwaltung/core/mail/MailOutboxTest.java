@@ -0,0 +1,64 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+
+public class MailOutboxTest {
+
+    private MailOutbox mailOutbox;
+
+    private OutboxMailDAO outboxMailDAO;
+
+    @Before
+    public void setUp() {
+
+        outboxMailDAO = Mockito.mock(OutboxMailDAO.class);
+
+        mailOutbox = new MailOutbox(outboxMailDAO);
+    }
+
+
+    @Test
+    public void ensureStoresMailThatIsDueImmediately() {
+
+        ArgumentCaptor<OutboxMail> outboxMailCaptor = ArgumentCaptor.forClass(OutboxMail.class);
+
+        mailOutbox.add(Arrays.asList("max@firma.test", "marlene@firma.test"), "subject", "text");
+
+        Mockito.verify(outboxMailDAO).save(outboxMailCaptor.capture());
+
+        OutboxMail outboxMail = outboxMailCaptor.getValue();
+        Assert.assertEquals("Wrong recipients", Arrays.asList("max@firma.test", "marlene@firma.test"),
+            outboxMail.getRecipients());
+        Assert.assertEquals("Wrong subject", "subject", outboxMail.getSubject());
+        Assert.assertEquals("Wrong text", "text", outboxMail.getText());
+        Assert.assertEquals("Wrong number of failed attempts", 0, outboxMail.getFailedAttempts());
+        Assert.assertFalse("Should be due", outboxMail.getNextAttempt().isAfterNow());
+    }
+
+
+    @Test
+    public void ensureStoresNoMailIfRecipientsListIsNull() {
+
+        mailOutbox.add(null, "subject", "text");
+
+        Mockito.verifyZeroInteractions(outboxMailDAO);
+    }
+
+
+    @Test
+    public void ensureStoresNoMailIfRecipientsListIsEmpty() {
+
+        mailOutbox.add(Collections.emptyList(), "subject", "text");
+
+        Mockito.verifyZeroInteractions(outboxMailDAO);
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
@@ -16,6 +18,8 @@ import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
 
 
 /**
@@ -34,7 +38,7 @@ public class MailSenderTest {
         javaMailSender = Mockito.mock(JavaMailSenderImpl.class);
 
         SettingsService settingsService = Mockito.mock(SettingsService.class);
-        mailSender = new MailSender(javaMailSender);
+        mailSender = new MailSender(() -> javaMailSender);
 
         settings = new Settings();
         settings.getMailSettings().setActive(true);
@@ -80,7 +84,7 @@ public class MailSenderTest {
 
         mailSender.sendEmail(mailSettings, Arrays.asList("max@firma.test", "marlene@firma.test"), subject, body);
 
-        Mockito.verify(javaMailSender).send(mailMessageArgumentCaptor.capture());
+        Mockito.verify(javaMailSender).send(new SimpleMailMessage[] { mailMessageArgumentCaptor.capture() });
 
         SimpleMailMessage mailMessage = mailMessageArgumentCaptor.getValue();
 
@@ -111,4 +115,122 @@ public class MailSenderTest {
 
         Mockito.verifyZeroInteractions(javaMailSender);
     }
+
+
+    @Test(expected = MailSendException.class)
+    public void ensureThrowsIfMailCouldNotBeSent() {
+
+        Mockito.doThrow(new MailSendException("SMTP relay not reachable"))
+            .when(javaMailSender)
+            .send(Mockito.<SimpleMailMessage[]>anyVararg());
+
+        mailSender.sendEmail(settings.getMailSettings(), Collections.singletonList("foo@bar.de"), "subject", "text");
+    }
+
+
+    @Test
+    public void ensureMailSenderIsConfiguredOnlyOnceForTheSameSettings() {
+
+        MailSettings mailSettings = settings.getMailSettings();
+
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+
+        Mockito.verify(javaMailSender).setHost(mailSettings.getHost());
+    }
+
+
+    @Test
+    public void ensureNewMailSenderIsUsedIfSettingsChanged() {
+
+        JavaMailSenderImpl otherJavaMailSender = Mockito.mock(JavaMailSenderImpl.class);
+        mailSender = new MailSender(new LinkedList<>(Arrays.asList(javaMailSender, otherJavaMailSender))::remove);
+
+        MailSettings mailSettings = settings.getMailSettings();
+
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+
+        mailSettings.setHost("mail.firma.test");
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+
+        Mockito.verify(javaMailSender, Mockito.never()).setHost("mail.firma.test");
+        Mockito.verify(otherJavaMailSender).setHost("mail.firma.test");
+        Mockito.verify(otherJavaMailSender).send(Mockito.<SimpleMailMessage[]>anyVararg());
+    }
+
+
+    @Test
+    public void ensureConnectionsOfPreviousMailSenderAreClosedIfSettingsChanged() {
+
+        PooledJavaMailSender pooledMailSender = Mockito.mock(PooledJavaMailSender.class);
+        mailSender = new MailSender(new LinkedList<>(Arrays.asList(pooledMailSender, javaMailSender))::remove);
+
+        MailSettings mailSettings = settings.getMailSettings();
+
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+
+        Mockito.verify(pooledMailSender, Mockito.never()).close();
+
+        mailSettings.setHost("mail.firma.test");
+        mailSender.sendEmail(mailSettings, Collections.singletonList("foo@bar.de"), "subject", "text");
+
+        Mockito.verify(pooledMailSender).close();
+    }
+
+
+    @Test
+    public void ensureSendsMultipleMailsAtOnce() {
+
+        OutboxMail mail = new OutboxMail(Collections.singletonList("max@firma.test"), "subject", "text");
+        OutboxMail otherMail = new OutboxMail(Collections.singletonList("marlene@firma.test"), "other", "text");
+
+        List<OutboxMail> failedMails = mailSender.sendEmails(settings.getMailSettings(),
+                Arrays.asList(mail, otherMail));
+
+        Assert.assertTrue("There should be no failed mails", failedMails.isEmpty());
+
+        ArgumentCaptor<SimpleMailMessage> mailMessageArgumentCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        Mockito.verify(javaMailSender)
+            .send(new SimpleMailMessage[] { mailMessageArgumentCaptor.capture(), mailMessageArgumentCaptor.capture() });
+
+        List<SimpleMailMessage> mailMessages = mailMessageArgumentCaptor.getAllValues();
+        Assert.assertEquals("Wrong number of mails", 2, mailMessages.size());
+        Assert.assertEquals("Wrong subject", "subject", mailMessages.get(0).getSubject());
+        Assert.assertEquals("Wrong subject", "other", mailMessages.get(1).getSubject());
+    }
+
+
+    @Test
+    public void ensureReturnsOnlyTheMailsThatCouldNotBeSent() {
+
+        OutboxMail mail = new OutboxMail(Collections.singletonList("max@firma.test"), "subject", "text");
+        OutboxMail otherMail = new OutboxMail(Collections.singletonList("marlene@firma.test"), "other", "text");
+
+        Mockito.doAnswer(invocation -> {
+                SimpleMailMessage failedMessage = (SimpleMailMessage) invocation.getArguments()[1];
+                throw new MailSendException(Collections.singletonMap(failedMessage, new Exception("Rejected")));
+            }).when(javaMailSender).send(Mockito.<SimpleMailMessage[]>anyVararg());
+
+        List<OutboxMail> failedMails = mailSender.sendEmails(settings.getMailSettings(),
+                Arrays.asList(mail, otherMail));
+
+        Assert.assertEquals("Wrong failed mails", Collections.singletonList(otherMail), failedMails);
+    }
+
+
+    @Test
+    public void ensureReturnsAllMailsIfConnectionFailed() {
+
+        OutboxMail mail = new OutboxMail(Collections.singletonList("max@firma.test"), "subject", "text");
+        OutboxMail otherMail = new OutboxMail(Collections.singletonList("marlene@firma.test"), "other", "text");
+
+        Mockito.doThrow(new MailAuthenticationException("Wrong password"))
+            .when(javaMailSender)
+            .send(Mockito.<SimpleMailMessage[]>anyVararg());
+
+        List<OutboxMail> failedMails = mailSender.sendEmails(settings.getMailSettings(),
+                Arrays.asList(mail, otherMail));
+
+        Assert.assertEquals("Wrong failed mails", Arrays.asList(mail, otherMail), failedMails);
+    }
 }
@@ -16,7 +16,6 @@ import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.MailNotification;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
-import org.synyx.urlaubsverwaltung.core.settings.MailSettings;
 import org.synyx.urlaubsverwaltung.core.settings.Settings;
 import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
@@ -43,7 +42,7 @@ public class MailServiceImplTest {
 
     private MessageSource messageSource;
     private MailBuilder mailBuilder;
-    private MailSender mailSender;
+    private MailOutbox mailOutbox;
     private PersonService personService;
     private DepartmentService departmentService;
 
@@ -55,7 +54,7 @@ public class MailServiceImplTest {
 
         messageSource = Mockito.mock(MessageSource.class);
         mailBuilder = Mockito.mock(MailBuilder.class);
-        mailSender = Mockito.mock(MailSender.class);
+        mailOutbox = Mockito.mock(MailOutbox.class);
         personService = Mockito.mock(PersonService.class);
         departmentService = Mockito.mock(DepartmentService.class);
 
@@ -64,7 +63,7 @@ public class MailServiceImplTest {
         // TODO: Would be better to mock this service directly
         RecipientService recipientService = new RecipientService(personService, departmentService);
 
-        mailService = new MailServiceImpl(messageSource, mailBuilder, mailSender, recipientService, departmentService,
+        mailService = new MailServiceImpl(messageSource, mailBuilder, mailOutbox, recipientService, departmentService,
                 settingsService);
 
         Person person = TestDataCreator.createPerson();
@@ -103,9 +102,7 @@ public class MailServiceImplTest {
 
         mailService.sendCancellationRequest(application, null);
 
-        Mockito.verify(mailSender)
-            .sendEmail(eq(settings.getMailSettings()), recipientsArgumentCaptor.capture(), Mockito.anyString(),
-                Mockito.anyString());
+        Mockito.verify(mailOutbox).add(recipientsArgumentCaptor.capture(), Mockito.anyString(), Mockito.anyString());
 
         List value = recipientsArgumentCaptor.getValue();
         Assert.assertEquals("Wrong number of recipients", 2, value.size());
@@ -130,7 +127,7 @@ public class MailServiceImplTest {
 
         mailService.sendNewApplicationNotification(application, null);
 
-        verify(mailSender).sendEmail(any(MailSettings.class), any(List.class), eq("Neuer Urlaubsantrag für "+ application.getPerson().getNiceName()), anyString());
+        verify(mailOutbox).add(any(List.class), eq("Neuer Urlaubsantrag für "+ application.getPerson().getNiceName()), anyString());
     }
 
     @Test
@@ -10,7 +10,8 @@ import org.junit.Test;
 import org.jvnet.mock_javamail.Mailbox;
 import org.mockito.Mockito;
 import org.springframework.context.support.StaticMessageSource;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.synyx.urlaubsverwaltung.core.account.domain.Account;
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
 import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationComment;
@@ -94,8 +95,7 @@ public class MailServiceIntegrationTest {
         VelocityEngine velocityEngine = new VelocityEngine(velocityProperties);
         MailBuilder mailBuilder = new MailBuilder(velocityEngine);
 
-        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
-        MailSender mailSender = new MailSender(javaMailSender);
+        MailSender mailSender = new MailSender(PooledJavaMailSender::new);
 
         personService = Mockito.mock(PersonService.class);
         departmentService = Mockito.mock(DepartmentService.class);
@@ -104,8 +104,32 @@ public class MailServiceIntegrationTest {
 
         SettingsService settingsService = Mockito.mock(SettingsService.class);
 
-        mailService = new MailServiceImpl(MESSAGE_SOURCE, mailBuilder, mailSender, recipientService, departmentService,
-                settingsService);
+        // the outbox is kept in memory and the mails are dispatched as soon as they are added to the outbox
+        List<OutboxMail> outboxMails = new ArrayList<>();
+        OutboxMailDAO outboxMailDAO = Mockito.mock(OutboxMailDAO.class);
+        MailDispatcher mailDispatcher = new MailDispatcher(outboxMailDAO, mailSender, settingsService,
+                Mockito.mock(PlatformTransactionManager.class));
+
+        Mockito.when(outboxMailDAO.findTop50ByNextAttemptLessThanEqualOrderByIdAsc(Mockito.any(Date.class)))
+            .thenAnswer(invocation -> new ArrayList<>(outboxMails));
+        Mockito.when(outboxMailDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenAnswer(invocation -> new ArrayList<>(outboxMails));
+        Mockito.doAnswer(invocation -> outboxMails.remove(invocation.getArgumentAt(0, OutboxMail.class)))
+            .when(outboxMailDAO).delete(Mockito.any(OutboxMail.class));
+        Mockito.when(outboxMailDAO.save(Mockito.any(OutboxMail.class))).thenAnswer(invocation -> {
+            OutboxMail outboxMail = invocation.getArgumentAt(0, OutboxMail.class);
+
+            if (!outboxMails.contains(outboxMail)) {
+                ReflectionTestUtils.setField(outboxMail, "id", outboxMails.size() + 1);
+                outboxMails.add(outboxMail);
+                mailDispatcher.sendMails();
+            }
+
+            return outboxMail;
+        });
+
+        mailService = new MailServiceImpl(MESSAGE_SOURCE, mailBuilder, new MailOutbox(outboxMailDAO),
+                recipientService, departmentService, settingsService);
 
         person = TestDataCreator.createPerson("user", "Lieschen", "Müller", "lieschen@firma.test");
 
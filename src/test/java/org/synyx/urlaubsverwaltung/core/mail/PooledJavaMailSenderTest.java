@@ -0,0 +1,125 @@
+package org.synyx.urlaubsverwaltung.core.mail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+
+
+public class PooledJavaMailSenderTest {
+
+    private PooledJavaMailSender mailSender;
+
+    private Transport transport;
+    private Transport otherTransport;
+
+    @Before
+    public void setUp() {
+
+        transport = Mockito.mock(Transport.class);
+        otherTransport = Mockito.mock(Transport.class);
+
+        Mockito.when(transport.isConnected()).thenReturn(true);
+        Mockito.when(otherTransport.isConnected()).thenReturn(true);
+
+        Queue<Transport> transports = new LinkedList<>(Arrays.asList(transport, otherTransport));
+
+        mailSender = new PooledJavaMailSender() {
+
+            @Override
+            protected Transport getTransport(Session session) {
+
+                return transports.remove();
+            }
+        };
+        mailSender.setHost("mail.firma.test");
+        mailSender.setPort(25);
+    }
+
+
+    @Test
+    public void ensureReusesConnectionForSubsequentSends() throws MessagingException {
+
+        mailSender.send(createMessage("max@firma.test"));
+        mailSender.send(createMessage("marlene@firma.test"));
+
+        Mockito.verify(transport).connect("mail.firma.test", 25, null, null);
+        Mockito.verify(transport, Mockito.times(2))
+            .sendMessage(Mockito.any(Message.class), Mockito.any(Address[].class));
+        Mockito.verify(transport, Mockito.never()).close();
+        Mockito.verifyZeroInteractions(otherTransport);
+    }
+
+
+    @Test
+    public void ensureSendsMultipleMailsOverOneConnection() throws MessagingException {
+
+        mailSender.send(createMessage("max@firma.test"), createMessage("marlene@firma.test"));
+
+        Mockito.verify(transport).connect("mail.firma.test", 25, null, null);
+        Mockito.verify(transport, Mockito.times(2))
+            .sendMessage(Mockito.any(Message.class), Mockito.any(Address[].class));
+        Mockito.verifyZeroInteractions(otherTransport);
+    }
+
+
+    @Test
+    public void ensureReplacesConnectionThatHasBeenClosedByTheMailServer() throws MessagingException {
+
+        mailSender.send(createMessage("max@firma.test"));
+
+        Mockito.when(transport.isConnected()).thenReturn(false);
+
+        mailSender.send(createMessage("marlene@firma.test"));
+
+        Mockito.verify(transport).close();
+        Mockito.verify(otherTransport).connect("mail.firma.test", 25, null, null);
+        Mockito.verify(otherTransport).sendMessage(Mockito.any(Message.class), Mockito.any(Address[].class));
+    }
+
+
+    @Test
+    public void ensureClosesIdleConnectionsWhenClosed() throws MessagingException {
+
+        mailSender.send(createMessage("max@firma.test"));
+
+        mailSender.close();
+
+        Mockito.verify(transport).close();
+    }
+
+
+    @Test
+    public void ensureClosesConnectionInsteadOfReturningItToClosedPool() throws MessagingException {
+
+        mailSender.close();
+
+        mailSender.send(createMessage("max@firma.test"));
+
+        Mockito.verify(transport).sendMessage(Mockito.any(Message.class), Mockito.any(Address[].class));
+        Mockito.verify(transport).close();
+    }
+
+
+    private static SimpleMailMessage createMessage(String recipient) {
+
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setTo(recipient);
+        mailMessage.setSubject("subject");
+        mailMessage.setText("text");
+
+        return mailMessage;
+    }
+}
@@ -3,9 +3,12 @@ package org.synyx.urlaubsverwaltung.core.person;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -20,13 +23,15 @@ public class PersonServiceImplTest {
     private PersonService sut;
 
     private PersonDAO personDAO;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Before
     public void setUp() {
 
         personDAO = Mockito.mock(PersonDAO.class);
+        applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
 
-        sut = new PersonServiceImpl(personDAO);
+        sut = new PersonServiceImpl(personDAO, applicationEventPublisher);
     }
 
 
@@ -126,6 +131,18 @@ public class PersonServiceImplTest {
     }
 
 
+    @Test
+    public void ensurePublishesEventOnSave() {
+
+        Person personToSave = TestDataCreator.createPerson();
+        sut.save(personToSave);
+
+        ArgumentCaptor<PersonChangedEvent> eventCaptor = ArgumentCaptor.forClass(PersonChangedEvent.class);
+        Mockito.verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        Assert.assertEquals("Wrong person", personToSave, eventCaptor.getValue().getPerson());
+    }
+
+
     @Test
     public void ensureGetPersonByIDCallsCorrectDaoMethod() {
 
@@ -146,10 +163,28 @@ public class PersonServiceImplTest {
 
 
     @Test
-    public void ensureGetActivePersonsReturnsOnlyPersonsThatHaveNotInactiveRole() {
+    public void ensureGetPersonsByLoginsQueriesAtMostThousandLoginsAtOnce() {
+
+        List<String> logins = new ArrayList<>();
+
+        for (int i = 0; i < 2500; i++) {
+            logins.add("login" + i);
+        }
+
+        Person person = TestDataCreator.createPerson("login0");
+        Mockito.when(personDAO.findByLoginNameIn(logins.subList(0, 1000))).thenReturn(Collections.singletonList(person));
+
+        List<Person> persons = sut.getPersonsByLogins(logins);
+
+        Assert.assertEquals("Wrong persons", Collections.singletonList(person), persons);
+        Mockito.verify(personDAO).findByLoginNameIn(logins.subList(0, 1000));
+        Mockito.verify(personDAO).findByLoginNameIn(logins.subList(1000, 2000));
+        Mockito.verify(personDAO).findByLoginNameIn(logins.subList(2000, 2500));
+    }
 
-        Person inactive = TestDataCreator.createPerson("inactive");
-        inactive.setPermissions(Collections.singletonList(Role.INACTIVE));
+
+    @Test
+    public void ensureGetActivePersonsReturnsOnlyPersonsThatHaveNotInactiveRole() {
 
         Person user = TestDataCreator.createPerson("user");
         user.setPermissions(Collections.singletonList(Role.USER));
@@ -160,12 +195,12 @@ public class PersonServiceImplTest {
         Person office = TestDataCreator.createPerson("office");
         office.setPermissions(Arrays.asList(Role.USER, Role.BOSS, Role.OFFICE));
 
-        List<Person> allPersons = Arrays.asList(inactive, user, boss, office);
-
-        Mockito.when(personDAO.findAll()).thenReturn(allPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(Arrays.asList(user, boss, office));
 
         List<Person> activePersons = sut.getActivePersons();
 
+        Mockito.verify(personDAO).findWithoutRole(Role.INACTIVE);
+
         Assert.assertEquals("Wrong number of persons", 3, activePersons.size());
 
         Assert.assertTrue("Missing person", activePersons.contains(user));
@@ -180,24 +215,42 @@ public class PersonServiceImplTest {
         Person inactive = TestDataCreator.createPerson("inactive");
         inactive.setPermissions(Collections.singletonList(Role.INACTIVE));
 
-        Person user = TestDataCreator.createPerson("user");
-        user.setPermissions(Collections.singletonList(Role.USER));
+        Mockito.when(personDAO.findWithRole(Role.INACTIVE)).thenReturn(Collections.singletonList(inactive));
 
-        Person boss = TestDataCreator.createPerson("boss");
-        boss.setPermissions(Arrays.asList(Role.USER, Role.BOSS));
+        List<Person> inactivePersons = sut.getInactivePersons();
+
+        Mockito.verify(personDAO).findWithRole(Role.INACTIVE);
+
+        Assert.assertEquals("Wrong number of persons", 1, inactivePersons.size());
+
+        Assert.assertTrue("Missing person", inactivePersons.contains(inactive));
+    }
+
+
+    @Test
+    public void ensureExistsActivePersonWithRoleQueriesTheDatabase() {
 
         Person office = TestDataCreator.createPerson("office");
-        office.setPermissions(Arrays.asList(Role.USER, Role.BOSS, Role.OFFICE));
+        office.setPermissions(Arrays.asList(Role.USER, Role.OFFICE));
 
-        List<Person> allPersons = Arrays.asList(inactive, user, boss, office);
+        Mockito.when(personDAO.findWithRole(Role.OFFICE)).thenReturn(Collections.singletonList(office));
 
-        Mockito.when(personDAO.findAll()).thenReturn(allPersons);
+        Assert.assertTrue("Should exist", sut.existsActivePersonWithRole(Role.OFFICE));
 
-        List<Person> inactivePersons = sut.getInactivePersons();
+        Mockito.verify(personDAO).findWithRole(Role.OFFICE);
+        Mockito.verify(personDAO, Mockito.never()).findWithoutRole(Mockito.any(Role.class));
+    }
 
-        Assert.assertEquals("Wrong number of persons", 1, inactivePersons.size());
 
-        Assert.assertTrue("Missing person", inactivePersons.contains(inactive));
+    @Test
+    public void ensureExistsActivePersonWithRoleIgnoresInactivePersons() {
+
+        Person inactive = TestDataCreator.createPerson("inactive");
+        inactive.setPermissions(Arrays.asList(Role.INACTIVE, Role.OFFICE));
+
+        Mockito.when(personDAO.findWithRole(Role.OFFICE)).thenReturn(Collections.singletonList(inactive));
+
+        Assert.assertFalse("Should not exist", sut.existsActivePersonWithRole(Role.OFFICE));
     }
 
 
@@ -215,7 +268,7 @@ public class PersonServiceImplTest {
 
         List<Person> allPersons = Arrays.asList(user, boss, office);
 
-        Mockito.when(personDAO.findAll()).thenReturn(allPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(allPersons);
 
         List<Person> filteredList = sut.getPersonsByRole(Role.BOSS);
 
@@ -244,7 +297,7 @@ public class PersonServiceImplTest {
 
         List<Person> allPersons = Arrays.asList(user, boss, office);
 
-        Mockito.when(personDAO.findAll()).thenReturn(allPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(allPersons);
 
         List<Person> filteredList = sut.getPersonsWithNotificationType(MailNotification.NOTIFICATION_BOSS);
 
@@ -264,7 +317,7 @@ public class PersonServiceImplTest {
 
         List<Person> unsortedPersons = Arrays.asList(shane, carl, rick);
 
-        Mockito.when(personDAO.findAll()).thenReturn(unsortedPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(unsortedPersons);
 
         List<Person> sortedList = sut.getActivePersons();
 
@@ -285,7 +338,7 @@ public class PersonServiceImplTest {
         List<Person> unsortedPersons = Arrays.asList(shane, carl, rick);
         unsortedPersons.forEach(person -> person.setPermissions(Collections.singletonList(Role.INACTIVE)));
 
-        Mockito.when(personDAO.findAll()).thenReturn(unsortedPersons);
+        Mockito.when(personDAO.findWithRole(Role.INACTIVE)).thenReturn(unsortedPersons);
 
         List<Person> sortedList = sut.getInactivePersons();
 
@@ -306,7 +359,7 @@ public class PersonServiceImplTest {
         List<Person> unsortedPersons = Arrays.asList(shane, carl, rick);
         unsortedPersons.forEach(person -> person.setPermissions(Collections.singletonList(Role.USER)));
 
-        Mockito.when(personDAO.findAll()).thenReturn(unsortedPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(unsortedPersons);
 
         List<Person> sortedList = sut.getPersonsByRole(Role.USER);
 
@@ -328,7 +381,7 @@ public class PersonServiceImplTest {
         unsortedPersons.forEach(person ->
                 person.setNotifications(Collections.singletonList(MailNotification.NOTIFICATION_USER)));
 
-        Mockito.when(personDAO.findAll()).thenReturn(unsortedPersons);
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(unsortedPersons);
 
         List<Person> sortedList = sut.getPersonsWithNotificationType(MailNotification.NOTIFICATION_USER);
 
@@ -337,4 +390,39 @@ public class PersonServiceImplTest {
         Assert.assertEquals("Wrong second person", rick, sortedList.get(1));
         Assert.assertEquals("Wrong third person", shane, sortedList.get(2));
     }
+
+
+    @Test
+    public void ensureKeepsActivePersonsUntilAPersonIsSaved() {
+
+        Person user = TestDataCreator.createPerson("user");
+        user.setPermissions(Collections.singletonList(Role.USER));
+        user.setNotifications(Collections.singletonList(MailNotification.NOTIFICATION_USER));
+
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(Collections.singletonList(user));
+
+        sut.getActivePersons();
+        sut.getPersonsByRole(Role.USER);
+        sut.getPersonsWithNotificationType(MailNotification.NOTIFICATION_USER);
+
+        Mockito.verify(personDAO, Mockito.times(1)).findWithoutRole(Role.INACTIVE);
+
+        sut.save(user);
+        sut.getActivePersons();
+
+        Mockito.verify(personDAO, Mockito.times(2)).findWithoutRole(Role.INACTIVE);
+    }
+
+
+    @Test
+    public void ensureReloadsActivePersonsPeriodically() {
+
+        Mockito.when(personDAO.findWithoutRole(Role.INACTIVE)).thenReturn(Collections.emptyList());
+
+        sut.getActivePersons();
+        ((PersonServiceImpl) sut).reloadPersons();
+        sut.getActivePersons();
+
+        Mockito.verify(personDAO, Mockito.times(2)).findWithoutRole(Role.INACTIVE);
+    }
 }
@@ -0,0 +1,171 @@
+package org.synyx.urlaubsverwaltung.core.settings;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+
+/**
+ * Unit test for {@link SettingsServiceImpl}.
+ */
+public class SettingsServiceImplTest {
+
+    private SettingsServiceImpl settingsService;
+
+    private SettingsDAO settingsDAO;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Before
+    public void setUp() {
+
+        settingsDAO = Mockito.mock(SettingsDAO.class);
+        applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+        settingsService = new SettingsServiceImpl(settingsDAO, applicationEventPublisher);
+    }
+
+
+    @Test
+    public void ensureSettingsAreLoadedOnlyOnce() {
+
+        Settings settings = settings(FederalState.BAYERN);
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings);
+
+        Assert.assertTrue("Wrong settings", settings.hasSameValuesAs(settingsService.getSettings()));
+        Assert.assertTrue("Wrong settings", settings.hasSameValuesAs(settingsService.getSettings()));
+
+        Mockito.verify(settingsDAO).findOne(1);
+    }
+
+
+    @Test
+    public void ensureChangingProvidedSettingsDoesNotChangeKeptSettings() {
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings(FederalState.BAYERN));
+
+        Settings settings = settingsService.getSettings();
+        settings.getWorkingTimeSettings().setFederalState(FederalState.BERLIN);
+        settings.getCalendarSettings().getGoogleCalendarSettings().setRefreshToken("token");
+
+        Settings keptSettings = settingsService.getSettings();
+
+        Assert.assertNotSame("Should be a copy", settings, keptSettings);
+        Assert.assertEquals("Wrong federal state", FederalState.BAYERN,
+            keptSettings.getWorkingTimeSettings().getFederalState());
+        Assert.assertNull("Should not have a refresh token",
+            keptSettings.getCalendarSettings().getGoogleCalendarSettings().getRefreshToken());
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void ensureThrowsIfNoSettingsInDatabase() {
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(null);
+
+        settingsService.getSettings();
+    }
+
+
+    @Test
+    public void ensureSavingReplacesSettingsAndPublishesEvent() {
+
+        Settings settings = settings(FederalState.BAYERN);
+        Settings savedSettings = settings(FederalState.BERLIN);
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings);
+        Mockito.when(settingsDAO.save(settings)).thenReturn(savedSettings);
+
+        settingsService.getSettings();
+        settingsService.save(settings);
+
+        Assert.assertTrue("Wrong settings", savedSettings.hasSameValuesAs(settingsService.getSettings()));
+
+        ArgumentCaptor<SettingsChangedEvent> eventCaptor = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+        Mockito.verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        Assert.assertTrue("Wrong settings in event", savedSettings.hasSameValuesAs(eventCaptor.getValue().getSettings()));
+        Assert.assertTrue("Wrong previous settings in event",
+            settings.hasSameValuesAs(eventCaptor.getValue().getPreviousSettings()));
+
+        Mockito.verify(settingsDAO).findOne(1);
+    }
+
+
+    @Test
+    public void ensureSavingSettingsThatWereNotLoadedYetPublishesEventWithoutPreviousSettings() {
+
+        Settings settings = settings(FederalState.BAYERN);
+
+        Mockito.when(settingsDAO.save(settings)).thenReturn(settings);
+
+        settingsService.save(settings);
+
+        ArgumentCaptor<SettingsChangedEvent> eventCaptor = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+        Mockito.verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        Assert.assertNull("Should not have previous settings", eventCaptor.getValue().getPreviousSettings());
+    }
+
+
+    @Test
+    public void ensureReloadingReplacesChangedSettingsAndPublishesEvent() {
+
+        Settings settings = settings(FederalState.BAYERN);
+        Settings reloadedSettings = settings(FederalState.BERLIN);
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings, reloadedSettings);
+
+        settingsService.getSettings();
+        settingsService.reloadSettings();
+
+        Assert.assertTrue("Wrong settings", reloadedSettings.hasSameValuesAs(settingsService.getSettings()));
+
+        ArgumentCaptor<SettingsChangedEvent> eventCaptor = ArgumentCaptor.forClass(SettingsChangedEvent.class);
+        Mockito.verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        Assert.assertTrue("Wrong settings in event",
+            reloadedSettings.hasSameValuesAs(eventCaptor.getValue().getSettings()));
+        Assert.assertTrue("Wrong previous settings in event",
+            settings.hasSameValuesAs(eventCaptor.getValue().getPreviousSettings()));
+    }
+
+
+    @Test
+    public void ensureReloadingUnchangedSettingsDoesNotPublishEvent() {
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings(FederalState.BAYERN), settings(FederalState.BAYERN));
+
+        settingsService.getSettings();
+        settingsService.reloadSettings();
+
+        Mockito.verifyZeroInteractions(applicationEventPublisher);
+    }
+
+
+    @Test
+    public void ensureReloadingSettingsThatWereNotLoadedYetDoesNotPublishEvent() {
+
+        Settings settings = settings(FederalState.BAYERN);
+
+        Mockito.when(settingsDAO.findOne(1)).thenReturn(settings);
+
+        settingsService.reloadSettings();
+
+        Assert.assertTrue("Wrong settings", settings.hasSameValuesAs(settingsService.getSettings()));
+        Mockito.verifyZeroInteractions(applicationEventPublisher);
+        Mockito.verify(settingsDAO).findOne(1);
+    }
+
+
+    private static Settings settings(FederalState federalState) {
+
+        Settings settings = new Settings();
+        settings.setId(1);
+        settings.getWorkingTimeSettings().setFederalState(federalState);
+
+        return settings;
+    }
+}
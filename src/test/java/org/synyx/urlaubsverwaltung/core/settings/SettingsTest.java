@@ -21,4 +21,44 @@ public class SettingsTest {
         Assert.assertNotNull("Should not be null", settings.getMailSettings());
         Assert.assertNotNull("Should not be null", settings.getCalendarSettings());
     }
+
+
+    @Test
+    public void ensureCopyHasSameValues() {
+
+        Settings settings = new Settings();
+        settings.setId(1);
+        settings.getAbsenceSettings().setMaximumAnnualVacationDays(30);
+        settings.getAbsenceSettings().setRemindForWaitingApplications(true);
+        settings.getWorkingTimeSettings().setFederalState(FederalState.BERLIN);
+        settings.getWorkingTimeSettings().setOvertimeActive(true);
+        settings.getMailSettings().setHost("mail.example.org");
+        settings.getCalendarSettings().setWorkDayBeginHour(9);
+        settings.getCalendarSettings().getExchangeCalendarSettings().setPassword("secret");
+        settings.getCalendarSettings().getGoogleCalendarSettings().setRefreshToken("token");
+
+        Settings copy = settings.copy();
+
+        Assert.assertEquals("Wrong id", settings.getId(), copy.getId());
+        Assert.assertTrue("Should have the same values", settings.hasSameValuesAs(copy));
+        Assert.assertEquals("Wrong password", "secret",
+            copy.getCalendarSettings().getExchangeCalendarSettings().getPassword());
+    }
+
+
+    @Test
+    public void ensureChangingCopyDoesNotChangeSettings() {
+
+        Settings settings = new Settings();
+
+        Settings copy = settings.copy();
+        copy.getWorkingTimeSettings().setFederalState(FederalState.BERLIN);
+        copy.getCalendarSettings().getGoogleCalendarSettings().setRefreshToken("token");
+
+        Assert.assertFalse("Should not have the same values", settings.hasSameValuesAs(copy));
+        Assert.assertNotEquals("Wrong federal state", FederalState.BERLIN,
+            settings.getWorkingTimeSettings().getFederalState());
+        Assert.assertNull("Should not have a refresh token",
+            settings.getCalendarSettings().getGoogleCalendarSettings().getRefreshToken());
+    }
 }
@@ -13,21 +13,13 @@ import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
 import org.synyx.urlaubsverwaltung.core.application.service.ApplicationInteractionService;
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.Person;
-import org.synyx.urlaubsverwaltung.core.settings.Settings;
-import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
-import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncService;
-import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
-import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingService;
+import org.synyx.urlaubsverwaltung.core.sync.CalendarSyncQueue;
 import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Optional;
 
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyInt;
-import static org.mockito.Matchers.eq;
-
 
 /**
  * Unit test for {@link org.synyx.urlaubsverwaltung.core.sicknote.SickNoteInteractionServiceImpl}.
@@ -41,9 +33,7 @@ public class SickNoteInteractionServiceImplTest {
     private SickNoteService sickNoteService;
     private SickNoteCommentService commentService;
     private ApplicationInteractionService applicationInteractionService;
-    private CalendarSyncService calendarSyncService;
-    private AbsenceMappingService absenceMappingService;
-    private SettingsService settingsService;
+    private CalendarSyncQueue calendarSyncQueue;
 
     private SickNote sickNote;
     private Person person;
@@ -54,17 +44,10 @@ public class SickNoteInteractionServiceImplTest {
         sickNoteService = Mockito.mock(SickNoteService.class);
         commentService = Mockito.mock(SickNoteCommentService.class);
         applicationInteractionService = Mockito.mock(ApplicationInteractionService.class);
-        calendarSyncService = Mockito.mock(CalendarSyncService.class);
-        absenceMappingService = Mockito.mock(AbsenceMappingService.class);
-        settingsService = Mockito.mock(SettingsService.class);
-
-        Mockito.when(calendarSyncService.addAbsence(any(Absence.class))).thenReturn(Optional.of("42"));
-        Mockito.when(absenceMappingService.getAbsenceByIdAndType(anyInt(), eq(AbsenceType.SICKNOTE)))
-            .thenReturn(Optional.of(new AbsenceMapping(1, AbsenceType.VACATION, "42")));
-        Mockito.when(settingsService.getSettings()).thenReturn(new Settings());
+        calendarSyncQueue = Mockito.mock(CalendarSyncQueue.class);
 
         sickNoteInteractionService = new SickNoteInteractionServiceImpl(sickNoteService, commentService,
-                applicationInteractionService, calendarSyncService, absenceMappingService, settingsService);
+                applicationInteractionService, calendarSyncQueue);
 
         sickNote = new SickNote();
         sickNote.setId(42);
@@ -98,9 +81,7 @@ public class SickNoteInteractionServiceImplTest {
 
         sickNoteInteractionService.create(sickNote, person);
 
-        Mockito.verify(calendarSyncService).addAbsence(Mockito.any(Absence.class));
-        Mockito.verify(absenceMappingService)
-            .create(Mockito.eq(sickNote.getId()), eq(AbsenceType.SICKNOTE), Mockito.anyString());
+        Mockito.verify(calendarSyncQueue).add(sickNote.getId(), AbsenceType.SICKNOTE, EventType.SICKNOTE);
     }
 
 
@@ -124,8 +105,7 @@ public class SickNoteInteractionServiceImplTest {
 
         sickNoteInteractionService.update(sickNote, person);
 
-        Mockito.verify(calendarSyncService).update(Mockito.any(Absence.class), Mockito.anyString());
-        Mockito.verify(absenceMappingService).getAbsenceByIdAndType(anyInt(), Mockito.eq(AbsenceType.SICKNOTE));
+        Mockito.verify(calendarSyncQueue).update(sickNote.getId(), AbsenceType.SICKNOTE, EventType.SICKNOTE);
     }
 
 
@@ -149,9 +129,7 @@ public class SickNoteInteractionServiceImplTest {
 
         sickNoteInteractionService.cancel(sickNote, person);
 
-        Mockito.verify(absenceMappingService).getAbsenceByIdAndType(Mockito.anyInt(), Mockito.eq(AbsenceType.SICKNOTE));
-        Mockito.verify(calendarSyncService).deleteAbsence(Mockito.anyString());
-        Mockito.verify(absenceMappingService).delete(Mockito.any(AbsenceMapping.class));
+        Mockito.verify(calendarSyncQueue).delete(sickNote.getId(), AbsenceType.SICKNOTE);
     }
 
 
@@ -193,16 +171,8 @@ public class SickNoteInteractionServiceImplTest {
         applicationForLeave.setDayLength(DayLength.FULL);
         applicationForLeave.setPerson(TestDataCreator.createPerson());
 
-        AbsenceMapping absenceMapping = new AbsenceMapping();
-        Mockito.when(absenceMappingService.getAbsenceByIdAndType(Mockito.anyInt(), Mockito.eq(AbsenceType.SICKNOTE)))
-            .thenReturn(Optional.of(absenceMapping));
-
         sickNoteInteractionService.convert(sickNote, applicationForLeave, person);
 
-        Mockito.verify(absenceMappingService).getAbsenceByIdAndType(Mockito.anyInt(), Mockito.eq(AbsenceType.SICKNOTE));
-        Mockito.verify(calendarSyncService).update(Mockito.any(Absence.class), Mockito.anyString());
-        Mockito.verify(absenceMappingService).delete(Mockito.eq(absenceMapping));
-        Mockito.verify(absenceMappingService)
-            .create(Mockito.anyInt(), Mockito.eq(AbsenceType.VACATION), Mockito.anyString());
+        Mockito.verify(calendarSyncQueue).convert(sickNote.getId(), applicationForLeave.getId());
     }
 }
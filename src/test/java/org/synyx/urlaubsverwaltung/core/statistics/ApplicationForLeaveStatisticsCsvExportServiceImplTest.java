@@ -9,6 +9,7 @@ import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.web.FilterPeriod;
 import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatistics;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -44,7 +45,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImplTest {
     }
 
     @Test
-    public void writeStatisticsForOnePersonFor2018() {
+    public void writeStatisticsForOnePersonFor2018() throws IOException {
         FilterPeriod period = new FilterPeriod(
                 java.util.Optional.ofNullable("01.01.2018"),
                 java.util.Optional.ofNullable("31.12.2018"));
@@ -75,7 +76,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImplTest {
 
         mockMessageSource("applications.statistics.total");
 
-        sut.writeStatistics(period, statistics, csvWriter);
+        sut.writeStatistics(period, statistics.stream(), csvWriter);
 
         verify(csvWriter, times(1))
                 .writeNext(new String[]{"{absence.period}: 01.01.2018 - 31.12.2018"});
@@ -88,7 +89,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImplTest {
     }
 
     @Test
-    public void writeStatisticsForTwoPersonsFor2019() {
+    public void writeStatisticsForTwoPersonsFor2019() throws IOException {
         FilterPeriod period = new FilterPeriod(
                 java.util.Optional.ofNullable("01.01.2019"),
                 java.util.Optional.ofNullable("31.12.2019"));
@@ -124,7 +125,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImplTest {
 
         mockMessageSource("applications.statistics.total");
 
-        sut.writeStatistics(period, statistics, csvWriter);
+        sut.writeStatistics(period, statistics.stream(), csvWriter);
 
         verify(csvWriter, times(1))
                 .writeNext(new String[]{"{absence.period}: 01.01.2019 - 31.12.2019"});
@@ -136,6 +137,7 @@ public class ApplicationForLeaveStatisticsCsvExportServiceImplTest {
                 .writeNext(new String[]{"personOneFirstName", "personOneLastName", "{applications.statistics.total}", "0", "0", "0", "0"});
         verify(csvWriter, times(1))
                 .writeNext(new String[]{"personTwoFirstName", "personTwoLastName", "{applications.statistics.total}", "0", "0", "0", "0"});
+        verify(csvWriter, times(2)).flush();
     }
 
     private void mockMessageSource(String key) {
@@ -2,6 +2,9 @@ package org.synyx.urlaubsverwaltung.core.statistics;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -13,10 +16,20 @@ import org.synyx.urlaubsverwaltung.web.statistics.ApplicationForLeaveStatisticsB
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class ApplicationForLeaveStatisticsServiceImplTest {
@@ -25,6 +38,7 @@ public class ApplicationForLeaveStatisticsServiceImplTest {
     private PersonService personService;
     private DepartmentService departmentService;
     private ApplicationForLeaveStatisticsBuilder applicationForLeaveStatisticsBuilder;
+    private PlatformTransactionManager transactionManager;
     private ApplicationForLeaveStatisticsServiceImpl sut;
 
     @Before
@@ -34,6 +48,7 @@ public class ApplicationForLeaveStatisticsServiceImplTest {
         personService = mock(PersonService.class);
         departmentService = mock(DepartmentService.class);
         applicationForLeaveStatisticsBuilder = mock(ApplicationForLeaveStatisticsBuilder.class);
+        transactionManager = mock(PlatformTransactionManager.class);
 
         sut = new ApplicationForLeaveStatisticsServiceImpl();
         // made fields package private to enable testing
@@ -49,6 +64,8 @@ public class ApplicationForLeaveStatisticsServiceImplTest {
         sut.personService = personService;
         sut.departmentService = departmentService;
         sut.applicationForLeaveStatisticsBuilder = applicationForLeaveStatisticsBuilder;
+        sut.statisticsExecutor = Runnable::run;
+        sut.transactionManager = transactionManager;
     }
 
     @Test
@@ -63,8 +80,8 @@ public class ApplicationForLeaveStatisticsServiceImplTest {
         Person departmentMember = new Person();
         when(departmentService.getManagedMembersOfDepartmentHead(person)).thenReturn(Collections.singletonList(departmentMember));
 
-        when(applicationForLeaveStatisticsBuilder.build(person, filterPeriod.getStartDate(), filterPeriod.getEndDate()))
-                .thenReturn(mock(ApplicationForLeaveStatistics.class));
+        when(applicationForLeaveStatisticsBuilder.buildAll(Collections.singletonList(departmentMember), filterPeriod.getStartDate(), filterPeriod.getEndDate()))
+                .thenReturn(Collections.singletonList(mock(ApplicationForLeaveStatistics.class)));
 
         List<ApplicationForLeaveStatistics> statistics = sut.getStatistics(filterPeriod);
 
@@ -83,12 +100,133 @@ public class ApplicationForLeaveStatisticsServiceImplTest {
         Person anyPerson = new Person();
         when(personService.getActivePersons()).thenReturn(Collections.singletonList(anyPerson));
 
-        when(applicationForLeaveStatisticsBuilder.build(person, filterPeriod.getStartDate(), filterPeriod.getEndDate()))
-                .thenReturn(mock(ApplicationForLeaveStatistics.class));
+        when(applicationForLeaveStatisticsBuilder.buildAll(Collections.singletonList(anyPerson), filterPeriod.getStartDate(), filterPeriod.getEndDate()))
+                .thenReturn(Collections.singletonList(mock(ApplicationForLeaveStatistics.class)));
 
         List<ApplicationForLeaveStatistics> statistics = sut.getStatistics(filterPeriod);
 
         assertThat(statistics.size(), is(1));
     }
 
+    @Test
+    public void streamStatisticsComputesStatisticsOnlyWhenConsumed() throws Exception {
+
+        FilterPeriod filterPeriod = new FilterPeriod(java.util.Optional.ofNullable("01.01.2018"), java.util.Optional.ofNullable("31.12.2018"));
+
+        Person person = new Person();
+        person.setPermissions(Collections.singletonList(Role.BOSS));
+        when(sessionService.getSignedInUser()).thenReturn(person);
+
+        Person anyPerson = new Person();
+        when(personService.getActivePersons()).thenReturn(Collections.singletonList(anyPerson));
+        mockBuilderForEachPerson(filterPeriod);
+
+        Stream<ApplicationForLeaveStatistics> statistics = sut.streamStatistics(filterPeriod);
+
+        verifyZeroInteractions(applicationForLeaveStatisticsBuilder);
+
+        assertThat(statistics.count(), is(1L));
+        verify(applicationForLeaveStatisticsBuilder).buildAll(Collections.singletonList(anyPerson), filterPeriod.getStartDate(), filterPeriod.getEndDate());
+    }
+
+    @Test
+    public void streamStatisticsUsesReadOnlyTransactionPerChunk() throws Exception {
+
+        FilterPeriod filterPeriod = new FilterPeriod(java.util.Optional.ofNullable("01.01.2018"), java.util.Optional.ofNullable("31.12.2018"));
+
+        Person person = new Person();
+        person.setPermissions(Collections.singletonList(Role.BOSS));
+        when(sessionService.getSignedInUser()).thenReturn(person);
+
+        List<Person> persons = IntStream.range(0, 150).mapToObj(i -> new Person()).collect(Collectors.toList());
+        when(personService.getActivePersons()).thenReturn(persons);
+        mockBuilderForEachPerson(filterPeriod);
+
+        List<ApplicationForLeaveStatistics> statistics = sut.streamStatistics(filterPeriod).collect(Collectors.toList());
+
+        assertThat(statistics.size(), is(150));
+
+        ArgumentCaptor<TransactionDefinition> transactionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(transactionCaptor.capture());
+        assertThat(transactionCaptor.getValue().isReadOnly(), is(true));
+        verify(applicationForLeaveStatisticsBuilder).buildAll(persons.subList(0, 100), filterPeriod.getStartDate(), filterPeriod.getEndDate());
+        verify(applicationForLeaveStatisticsBuilder).buildAll(persons.subList(100, 150), filterPeriod.getStartDate(), filterPeriod.getEndDate());
+    }
+
+    @Test
+    public void getStatisticsKeepsOrderOfPersonsWhenComputedInParallel() throws Exception {
+
+        FilterPeriod filterPeriod = new FilterPeriod(java.util.Optional.ofNullable("01.01.2018"), java.util.Optional.ofNullable("31.12.2018"));
+
+        Person person = new Person();
+        person.setPermissions(Collections.singletonList(Role.BOSS));
+        when(sessionService.getSignedInUser()).thenReturn(person);
+
+        List<Person> persons = IntStream.range(0, 100).mapToObj(i -> new Person()).collect(Collectors.toList());
+        when(personService.getActivePersons()).thenReturn(persons);
+
+        mockBuilderForEachPerson(filterPeriod);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        sut.statisticsExecutor = executor;
+
+        try {
+            List<ApplicationForLeaveStatistics> statistics = sut.getStatistics(filterPeriod);
+
+            assertThat(statistics.stream().map(ApplicationForLeaveStatistics::getPerson).collect(Collectors.toList()), is(persons));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void getStatisticsUsesReadOnlyTransactionPerTask() throws Exception {
+
+        FilterPeriod filterPeriod = new FilterPeriod(java.util.Optional.ofNullable("01.01.2018"), java.util.Optional.ofNullable("31.12.2018"));
+
+        Person person = new Person();
+        person.setPermissions(Collections.singletonList(Role.BOSS));
+        when(sessionService.getSignedInUser()).thenReturn(person);
+
+        List<Person> persons = IntStream.range(0, 60).mapToObj(i -> new Person()).collect(Collectors.toList());
+        when(personService.getActivePersons()).thenReturn(persons);
+
+        sut.getStatistics(filterPeriod);
+
+        ArgumentCaptor<TransactionDefinition> transactionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(transactionCaptor.capture());
+        assertThat(transactionCaptor.getValue().isReadOnly(), is(true));
+    }
+
+    @Test
+    public void getStatisticsBuildsStatisticsOfMultiplePersonsTogether() throws Exception {
+
+        FilterPeriod filterPeriod = new FilterPeriod(java.util.Optional.ofNullable("01.01.2018"), java.util.Optional.ofNullable("31.12.2018"));
+
+        Person person = new Person();
+        person.setPermissions(Collections.singletonList(Role.BOSS));
+        when(sessionService.getSignedInUser()).thenReturn(person);
+
+        List<Person> persons = IntStream.range(0, 60).mapToObj(i -> new Person()).collect(Collectors.toList());
+        when(personService.getActivePersons()).thenReturn(persons);
+        mockBuilderForEachPerson(filterPeriod);
+
+        sut.getStatistics(filterPeriod);
+
+        verify(applicationForLeaveStatisticsBuilder).buildAll(persons.subList(0, 50), filterPeriod.getStartDate(), filterPeriod.getEndDate());
+        verify(applicationForLeaveStatisticsBuilder).buildAll(persons.subList(50, 60), filterPeriod.getStartDate(), filterPeriod.getEndDate());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockBuilderForEachPerson(FilterPeriod filterPeriod) {
+
+        when(applicationForLeaveStatisticsBuilder.buildAll(anyListOf(Person.class), eq(filterPeriod.getStartDate()), eq(filterPeriod.getEndDate())))
+                .thenAnswer(invocation -> ((List<Person>) invocation.getArguments()[0]).stream()
+                        .map(anyPerson -> {
+                            ApplicationForLeaveStatistics statistics = mock(ApplicationForLeaveStatistics.class);
+                            when(statistics.getPerson()).thenReturn(anyPerson);
+                            return statistics;
+                        })
+                        .collect(Collectors.toList()));
+    }
 }
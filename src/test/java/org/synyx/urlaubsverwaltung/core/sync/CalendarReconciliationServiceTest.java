@@ -0,0 +1,355 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.domain.ApplicationStatus;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteStatus;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.core.sync.providers.CalendarProvider;
+import org.synyx.urlaubsverwaltung.core.sync.providers.noop.NoopCalendarSyncProvider;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+
+
+/**
+ * Unit test for {@link CalendarReconciliationService}.
+ */
+public class CalendarReconciliationServiceTest {
+
+    private static final DateMidnight FROM = new DateMidnight(2016, 12, 1);
+    private static final DateMidnight TO = new DateMidnight(2016, 12, 31);
+
+    private CalendarReconciliationService calendarReconciliationService;
+
+    private AbsenceMappingDAO absenceMappingDAO;
+    private ApplicationService applicationService;
+    private SickNoteService sickNoteService;
+    private CalendarSyncService calendarSyncService;
+    private CalendarService calendarService;
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+
+        absenceMappingDAO = Mockito.mock(AbsenceMappingDAO.class);
+        applicationService = Mockito.mock(ApplicationService.class);
+        sickNoteService = Mockito.mock(SickNoteService.class);
+        calendarSyncService = Mockito.mock(CalendarSyncService.class);
+        calendarService = Mockito.mock(CalendarService.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+        Mockito.when(calendarService.getCalendarProvider()).thenReturn(Mockito.mock(CalendarProvider.class));
+        Mockito.when(calendarSyncService.getEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(Collections.singleton("event")));
+        Mockito.when(calendarSyncService.getCreatedEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(Collections.singleton("event")));
+
+        calendarReconciliationService = new CalendarReconciliationService(absenceMappingDAO, applicationService,
+                sickNoteService, calendarSyncService, calendarService, transactionManager);
+    }
+
+
+    @Test
+    public void ensureSchedulesAddingOfAbsenceWithoutEvent() {
+
+        returnApplication(ApplicationStatus.ALLOWED);
+
+        Assert.assertEquals("Wrong number of scheduled changes", 1,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        ArgumentCaptor<AbsenceMapping> mappingCaptor = ArgumentCaptor.forClass(AbsenceMapping.class);
+        Mockito.verify(absenceMappingDAO).save(mappingCaptor.capture());
+
+        AbsenceMapping absenceMapping = mappingCaptor.getValue();
+        Assert.assertEquals("Wrong absence", Integer.valueOf(42), absenceMapping.getAbsenceId());
+        Assert.assertEquals("Wrong absence type", AbsenceType.VACATION, absenceMapping.getAbsenceType());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.ADD, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, absenceMapping.getEventType());
+    }
+
+
+    @Test
+    public void ensureSchedulesDeletionOfEventOfCancelledApplication() {
+
+        returnApplication(ApplicationStatus.CANCELLED);
+        AbsenceMapping absenceMapping = returnSyncedMapping(42, AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
+
+        Assert.assertEquals("Wrong number of scheduled changes", 1,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertEquals("Wrong action", CalendarSyncAction.DELETE, absenceMapping.getSyncAction());
+    }
+
+
+    @Test
+    public void ensureSchedulesUpdateOfEventWithOutdatedType() {
+
+        returnApplication(ApplicationStatus.ALLOWED);
+        AbsenceMapping absenceMapping = returnSyncedMapping(42, AbsenceType.VACATION, EventType.WAITING_APPLICATION);
+
+        Assert.assertEquals("Wrong number of scheduled changes", 1,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, absenceMapping.getEventType());
+    }
+
+
+    @Test
+    public void ensureSchedulesAddingOfEventMissingInCalendar() {
+
+        SickNote sickNote = TestDataCreator.createSickNote(TestDataCreator.createPerson());
+        sickNote.setId(23);
+        Mockito.when(sickNoteService.getByPeriod(FROM, TO)).thenReturn(Collections.singletonList(sickNote));
+
+        AbsenceMapping absenceMapping = returnSyncedMapping(23, AbsenceType.SICKNOTE, EventType.SICKNOTE);
+        Mockito.when(calendarSyncService.getEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(Collections.singleton("otherEvent")));
+
+        Assert.assertEquals("Wrong number of scheduled changes", 1,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Assert.assertEquals("Wrong action", CalendarSyncAction.ADD, absenceMapping.getSyncAction());
+    }
+
+
+    @Test
+    public void ensureRemovesMappingOfInactiveSickNoteWithoutEventInCalendar() {
+
+        SickNote sickNote = TestDataCreator.createSickNote(TestDataCreator.createPerson());
+        sickNote.setId(23);
+        sickNote.setStatus(SickNoteStatus.CANCELLED);
+        Mockito.when(sickNoteService.getByPeriod(FROM, TO)).thenReturn(Collections.singletonList(sickNote));
+
+        AbsenceMapping absenceMapping = returnSyncedMapping(23, AbsenceType.SICKNOTE, EventType.SICKNOTE);
+        Mockito.when(calendarSyncService.getEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(new HashSet<>()));
+
+        Assert.assertEquals("Wrong number of scheduled changes", 0,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Mockito.verify(absenceMappingDAO).delete(absenceMapping);
+    }
+
+
+    @Test
+    public void ensureTrustsMappingsIfCalendarProviderDoesNotKnowItsEvents() {
+
+        returnApplication(ApplicationStatus.ALLOWED);
+        returnSyncedMapping(42, AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
+
+        Mockito.when(calendarSyncService.getEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.empty());
+
+        Assert.assertEquals("Wrong number of scheduled changes", 0,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Mockito.verify(absenceMappingDAO, Mockito.never()).save(Mockito.any(AbsenceMapping.class));
+    }
+
+
+    @Test
+    public void ensureLeavesPendingChangesToTheDispatcher() {
+
+        returnApplication(ApplicationStatus.CANCELLED);
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, null);
+        absenceMapping.scheduleSync(CalendarSyncAction.ADD, EventType.WAITING_APPLICATION);
+        returnMapping(absenceMapping);
+
+        Assert.assertEquals("Wrong number of scheduled changes", 0,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Mockito.verify(absenceMappingDAO, Mockito.never()).save(Mockito.any(AbsenceMapping.class));
+        Mockito.verify(absenceMappingDAO, Mockito.never()).delete(Mockito.any(AbsenceMapping.class));
+    }
+
+
+    @Test
+    public void ensureReschedulesChangeTheDispatcherGaveUpOn() {
+
+        returnApplication(ApplicationStatus.ALLOWED);
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, "event");
+        absenceMapping.scheduleSync(CalendarSyncAction.UPDATE, EventType.ALLOWED_APPLICATION);
+        absenceMapping.syncFailed(null);
+        returnMapping(absenceMapping);
+
+        Assert.assertEquals("Wrong number of scheduled changes", 1,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, absenceMapping.getSyncAction());
+        Assert.assertNotNull("Should be due", absenceMapping.getNextSyncAttempt());
+        Assert.assertFalse("Should be due now", absenceMapping.getNextSyncAttempt().isAfter(DateTime.now()));
+    }
+
+
+    @Test
+    public void ensureReconcilesEachMonthWithinItsOwnTransaction() {
+
+        calendarReconciliationService.reconcile(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 3, 15));
+
+        Mockito.verify(transactionManager, Mockito.times(3)).getTransaction(Mockito.any(TransactionDefinition.class));
+
+        Mockito.verify(applicationService)
+            .getApplicationsForACertainPeriod(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 1, 31));
+        Mockito.verify(applicationService)
+            .getApplicationsForACertainPeriod(new DateMidnight(2016, 2, 1), new DateMidnight(2016, 2, 29));
+        Mockito.verify(applicationService)
+            .getApplicationsForACertainPeriod(new DateMidnight(2016, 3, 1), new DateMidnight(2016, 3, 15));
+    }
+
+
+    @Test
+    public void ensureDeletesUnmappedEventsCreatedByTheApplication() {
+
+        Mockito.when(calendarSyncService.getCreatedEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(new HashSet<>(Arrays.asList("event", "unmapped"))));
+        Mockito.when(absenceMappingDAO.findByEventIdIn(Mockito.anyCollectionOf(String.class)))
+            .thenReturn(Collections.singletonList(new AbsenceMapping(42, AbsenceType.VACATION, "event")));
+
+        calendarReconciliationService.reconcile(FROM, TO);
+
+        Mockito.verify(calendarSyncService).deleteAbsences(Collections.singleton("unmapped"));
+    }
+
+
+    @Test
+    public void ensureDoesNotDeleteEventsNotCreatedByTheApplication() {
+
+        Mockito.when(calendarSyncService.getEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(new HashSet<>(Arrays.asList("event", "meeting"))));
+        Mockito.when(calendarSyncService.getCreatedEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.of(Collections.emptySet()));
+
+        calendarReconciliationService.reconcile(FROM, TO);
+
+        Mockito.verify(calendarSyncService, Mockito.never()).deleteAbsences(Mockito.anyCollectionOf(String.class));
+    }
+
+
+    @Test
+    public void ensureDeletesUnmappedEventsOutsideOfTransaction() {
+
+        calendarReconciliationService.reconcile(FROM, TO);
+
+        InOrder inOrder = Mockito.inOrder(calendarSyncService, transactionManager);
+        inOrder.verify(calendarSyncService).getEventIds(FROM.minusDays(1), TO.plusDays(2));
+        inOrder.verify(calendarSyncService).getCreatedEventIds(FROM.minusDays(1), TO.plusDays(2));
+        inOrder.verify(transactionManager).getTransaction(Mockito.any(TransactionDefinition.class));
+        inOrder.verify(transactionManager).commit(Mockito.any(TransactionStatus.class));
+        inOrder.verify(calendarSyncService).deleteAbsences(Collections.singleton("event"));
+    }
+
+
+    @Test
+    public void ensureDeletesUnmappedEventFoundInOverlappingWindowsOnlyOnce() {
+
+        calendarReconciliationService.reconcile(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 2, 29));
+
+        Mockito.verify(calendarSyncService).deleteAbsences(Collections.singleton("event"));
+    }
+
+
+    @Test
+    public void ensureDoesNotDeleteUnmappedEventsWhileAbsencesAreBeingSynced() {
+
+        Mockito.when(absenceMappingDAO.countByClaimedUntilGreaterThanEqual(Mockito.any(Date.class))).thenReturn(1L);
+
+        calendarReconciliationService.reconcile(FROM, TO);
+
+        Mockito.verify(calendarSyncService, Mockito.never()).deleteAbsences(Mockito.anyCollectionOf(String.class));
+    }
+
+
+    @Test
+    public void ensureDoesNotDeleteEventsIfCalendarProviderDoesNotKnowItsEvents() {
+
+        Mockito.when(calendarSyncService.getCreatedEventIds(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class)))
+            .thenReturn(Optional.empty());
+
+        calendarReconciliationService.reconcile(FROM, TO);
+
+        Mockito.verify(calendarSyncService, Mockito.never()).deleteAbsences(Mockito.anyCollectionOf(String.class));
+        Mockito.verify(absenceMappingDAO, Mockito.never()).findByEventIdIn(Mockito.anyCollectionOf(String.class));
+    }
+
+
+    @Test
+    public void ensureDoesNothingWithoutCalendarProvider() {
+
+        Mockito.when(calendarService.getCalendarProvider()).thenReturn(new NoopCalendarSyncProvider());
+
+        Assert.assertEquals("Wrong number of scheduled changes", 0,
+            calendarReconciliationService.reconcile(FROM, TO));
+
+        Mockito.verifyZeroInteractions(applicationService, sickNoteService, calendarSyncService, absenceMappingDAO);
+    }
+
+
+    private void returnApplication(ApplicationStatus status) {
+
+        Application application = Mockito.mock(Application.class);
+        Mockito.when(application.getId()).thenReturn(42);
+        Mockito.when(application.getStatus()).thenReturn(status);
+
+        Mockito.when(applicationService.getApplicationsForACertainPeriod(FROM, TO))
+            .thenReturn(Arrays.asList(application));
+    }
+
+
+    private AbsenceMapping returnSyncedMapping(Integer absenceId, AbsenceType absenceType, EventType eventType) {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(absenceId, absenceType, null);
+        absenceMapping.scheduleSync(CalendarSyncAction.ADD, eventType);
+        absenceMapping.synced("event");
+
+        returnMapping(absenceMapping);
+
+        return absenceMapping;
+    }
+
+
+    private void returnMapping(AbsenceMapping absenceMapping) {
+
+        Mockito.when(absenceMappingDAO.findByAbsenceTypeAndAbsenceIdIn(Mockito.eq(absenceMapping.getAbsenceType()),
+                    Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Collections.singletonList(absenceMapping));
+    }
+}
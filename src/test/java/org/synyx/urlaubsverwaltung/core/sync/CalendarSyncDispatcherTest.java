@@ -0,0 +1,434 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import org.springframework.data.domain.Pageable;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import org.synyx.urlaubsverwaltung.core.application.domain.Application;
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
+import org.synyx.urlaubsverwaltung.core.mail.MailService;
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Unit test for {@link CalendarSyncDispatcher}.
+ */
+public class CalendarSyncDispatcherTest {
+
+    private CalendarSyncDispatcher calendarSyncDispatcher;
+
+    private AbsenceMappingDAO absenceMappingDAO;
+    private CalendarSyncService calendarSyncService;
+    private ApplicationService applicationService;
+    private SickNoteService sickNoteService;
+    private MailService mailService;
+    private PlatformTransactionManager transactionManager;
+
+    private Application application;
+
+    @Before
+    public void setUp() {
+
+        absenceMappingDAO = Mockito.mock(AbsenceMappingDAO.class);
+        calendarSyncService = Mockito.mock(CalendarSyncService.class);
+        applicationService = Mockito.mock(ApplicationService.class);
+        sickNoteService = Mockito.mock(SickNoteService.class);
+
+        SettingsService settingsService = Mockito.mock(SettingsService.class);
+        Mockito.when(settingsService.getSettings()).thenReturn(new Settings());
+
+        mailService = Mockito.mock(MailService.class);
+        transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+        Mockito.when(calendarSyncService.getCalendarName()).thenReturn("calendar");
+
+        calendarSyncDispatcher = new CalendarSyncDispatcher(absenceMappingDAO, calendarSyncService,
+                applicationService, sickNoteService, settingsService, mailService, transactionManager);
+
+        Person person = TestDataCreator.createPerson();
+        application = TestDataCreator.createApplication(person, new DateMidnight(2016, 12, 1),
+                new DateMidnight(2016, 12, 2), DayLength.FULL);
+
+        Mockito.when(applicationService.getApplicationById(42)).thenReturn(Optional.of(application));
+    }
+
+
+    @Test
+    public void ensureAddsAbsenceAndStoresEventId() {
+
+        AbsenceMapping absenceMapping = dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.of("event")));
+
+        Assert.assertEquals("Wrong number of synced changes", 1, calendarSyncDispatcher.syncCalendar());
+
+        ArgumentCaptor<List> absencesCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(calendarSyncService).addAbsences(absencesCaptor.capture());
+        Assert.assertEquals("Wrong number of absences", 1, absencesCaptor.getValue().size());
+
+        Absence absence = (Absence) absencesCaptor.getValue().get(0);
+        Assert.assertEquals("Wrong person", application.getPerson(), absence.getPerson());
+        Assert.assertEquals("Wrong event type", EventType.WAITING_APPLICATION, absence.getEventType());
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertEquals("Wrong event id", "event", absenceMapping.getEventId());
+        Assert.assertNull("Should be synced", absenceMapping.getSyncAction());
+        Assert.assertNull("Should not be due anymore", absenceMapping.getNextSyncAttempt());
+    }
+
+
+    @Test
+    public void ensureUpdatesEventOfSickNote() {
+
+        SickNote sickNote = TestDataCreator.createSickNote(TestDataCreator.createPerson());
+        Mockito.when(sickNoteService.getById(23)).thenReturn(Optional.of(sickNote));
+
+        AbsenceMapping absenceMapping = mapping(1, 23, AbsenceType.SICKNOTE, "event");
+        absenceMapping.scheduleSync(CalendarSyncAction.UPDATE, EventType.SICKNOTE);
+        returnDueMappings(absenceMapping);
+
+        Mockito.when(calendarSyncService.updateAbsences(Mockito.anyMapOf(String.class, Absence.class)))
+            .thenReturn(Collections.emptySet());
+
+        Assert.assertEquals("Wrong number of synced changes", 1, calendarSyncDispatcher.syncCalendar());
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertNull("Should be synced", absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event id", "event", absenceMapping.getEventId());
+    }
+
+
+    @Test
+    public void ensureDeletesEventAndMapping() {
+
+        AbsenceMapping absenceMapping = dueMapping("event", CalendarSyncAction.DELETE);
+
+        Mockito.when(calendarSyncService.deleteAbsences(Collections.singletonList("event")))
+            .thenReturn(Collections.emptySet());
+
+        Assert.assertEquals("Wrong number of synced changes", 1, calendarSyncDispatcher.syncCalendar());
+
+        Mockito.verify(absenceMappingDAO).delete(absenceMapping);
+    }
+
+
+    @Test
+    public void ensureKeepsChangeThatCouldNotBeSyncedForRetry() {
+
+        AbsenceMapping absenceMapping = dueMapping("event", CalendarSyncAction.UPDATE);
+
+        Mockito.when(calendarSyncService.updateAbsences(Mockito.anyMapOf(String.class, Absence.class)))
+            .thenReturn(Collections.singleton("event"));
+
+        Assert.assertEquals("Wrong number of synced changes", 0, calendarSyncDispatcher.syncCalendar());
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong number of failed attempts", 1, absenceMapping.getFailedSyncAttempts());
+        Assert.assertTrue("Retry should be delayed", absenceMapping.getNextSyncAttempt().isAfterNow());
+    }
+
+
+    @Test
+    public void ensureTreatsExceptionAsFailedAttempt() {
+
+        AbsenceMapping absenceMapping = dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenThrow(new IllegalStateException("Calendar not reachable"));
+
+        Assert.assertEquals("Wrong number of synced changes", 0, calendarSyncDispatcher.syncCalendar());
+
+        Assert.assertEquals("Wrong number of failed attempts", 1, absenceMapping.getFailedSyncAttempts());
+        Assert.assertNull("Event id should not be set", absenceMapping.getEventId());
+    }
+
+
+    @Test
+    public void ensureGivesUpSyncingAfterMaximumNumberOfAttempts() {
+
+        AbsenceMapping absenceMapping = dueMapping("event", CalendarSyncAction.DELETE);
+
+        for (int attempt = 1; attempt < CalendarSyncDispatcher.MAX_ATTEMPTS; attempt++) {
+            absenceMapping.syncFailed(DateTime.now());
+        }
+
+        Mockito.when(calendarSyncService.deleteAbsences(Collections.singletonList("event")))
+            .thenReturn(Collections.singleton("event"));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Assert.assertNull("Should not be retried", absenceMapping.getNextSyncAttempt());
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Mockito.verify(absenceMappingDAO, Mockito.never()).delete(absenceMapping);
+        Mockito.verify(mailService)
+            .sendCalendarDeleteErrorNotification(Mockito.eq("calendar"), Mockito.eq("event"), Mockito.anyString());
+    }
+
+
+    @Test
+    public void ensureNotifiesOnlyWhenGivingUp() {
+
+        AbsenceMapping absenceMapping = dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.empty()));
+
+        for (int attempt = 1; attempt < CalendarSyncDispatcher.MAX_ATTEMPTS; attempt++) {
+            calendarSyncDispatcher.syncCalendar();
+        }
+
+        Mockito.verifyZeroInteractions(mailService);
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Assert.assertNull("Should not be retried", absenceMapping.getNextSyncAttempt());
+        Mockito.verify(mailService)
+            .sendCalendarSyncErrorNotification(Mockito.eq("calendar"), Mockito.any(Absence.class),
+                Mockito.anyString());
+    }
+
+
+    @Test
+    public void ensureRemovesMappingToBeAddedIfAbsenceDoesNotExistAnymore() {
+
+        Mockito.when(applicationService.getApplicationById(42)).thenReturn(Optional.empty());
+
+        AbsenceMapping absenceMapping = dueMapping(null, CalendarSyncAction.ADD);
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Mockito.verify(absenceMappingDAO).delete(absenceMapping);
+        Mockito.verifyZeroInteractions(calendarSyncService);
+    }
+
+
+    @Test
+    public void ensureSyncsChangesOfTheSameActionAtOnce() {
+
+        Mockito.when(applicationService.getApplicationById(43)).thenReturn(Optional.empty());
+
+        AbsenceMapping firstDeletion = mapping(1, 41, AbsenceType.VACATION, "first");
+        firstDeletion.scheduleSync(CalendarSyncAction.DELETE, EventType.WAITING_APPLICATION);
+
+        AbsenceMapping secondDeletion = mapping(2, 40, AbsenceType.VACATION, "second");
+        secondDeletion.scheduleSync(CalendarSyncAction.DELETE, EventType.WAITING_APPLICATION);
+
+        AbsenceMapping updateOfRemovedAbsence = mapping(3, 43, AbsenceType.VACATION, "removed");
+        updateOfRemovedAbsence.scheduleSync(CalendarSyncAction.UPDATE, EventType.WAITING_APPLICATION);
+
+        returnDueMappings(firstDeletion, updateOfRemovedAbsence, secondDeletion);
+        Mockito.when(calendarSyncService.deleteAbsences(Mockito.anyCollectionOf(String.class)))
+            .thenReturn(Collections.singleton("second"));
+
+        Assert.assertEquals("Wrong number of synced changes", 2, calendarSyncDispatcher.syncCalendar());
+
+        Mockito.verify(calendarSyncService).deleteAbsences(Arrays.asList("first", "removed", "second"));
+        Mockito.verify(calendarSyncService, Mockito.never())
+            .updateAbsences(Mockito.anyMapOf(String.class, Absence.class));
+
+        Mockito.verify(absenceMappingDAO).delete(firstDeletion);
+        Mockito.verify(absenceMappingDAO).delete(updateOfRemovedAbsence);
+        Mockito.verify(absenceMappingDAO).save(secondDeletion);
+        Assert.assertEquals("Wrong number of failed attempts", 1, secondDeletion.getFailedSyncAttempts());
+    }
+
+
+    @Test
+    public void ensureCallsCalendarProviderOutsideOfTransactions() {
+
+        dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.of("event")));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        InOrder inOrder = Mockito.inOrder(transactionManager, absenceMappingDAO, calendarSyncService);
+        inOrder.verify(absenceMappingDAO).findDueMappings(Mockito.any(Date.class), Mockito.any(Pageable.class));
+        inOrder.verify(absenceMappingDAO).saveAndFlush(Mockito.any(AbsenceMapping.class));
+        inOrder.verify(transactionManager).commit(Mockito.any(TransactionStatus.class));
+        inOrder.verify(calendarSyncService).addAbsences(Mockito.anyListOf(Absence.class));
+        inOrder.verify(transactionManager).getTransaction(Mockito.any(TransactionDefinition.class));
+        inOrder.verify(absenceMappingDAO).findByIdIn(Mockito.anyCollectionOf(Integer.class));
+        inOrder.verify(transactionManager).commit(Mockito.any(TransactionStatus.class));
+    }
+
+
+    @Test
+    public void ensureClaimsChangesWhileTheyAreSynced() {
+
+        AbsenceMapping absenceMapping = dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class))).thenAnswer(invocation -> {
+            Assert.assertTrue("Should be claimed", absenceMapping.isClaimed());
+
+            return Collections.singletonList(Optional.of("event"));
+        });
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Assert.assertFalse("Should not be claimed anymore", absenceMapping.isClaimed());
+    }
+
+
+    @Test
+    public void ensureKeepsAddedEventIfAbsenceHasBeenUpdatedDuringSync() {
+
+        dueMapping(null, CalendarSyncAction.ADD);
+
+        // the absence has been allowed while its event was added
+        AbsenceMapping changedMapping = changedMapping(null, CalendarSyncAction.ADD, EventType.ALLOWED_APPLICATION);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.of("event")));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Mockito.verify(absenceMappingDAO).save(changedMapping);
+        Assert.assertEquals("Wrong event id", "event", changedMapping.getEventId());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, changedMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, changedMapping.getEventType());
+        Assert.assertNotNull("Should be due", changedMapping.getNextSyncAttempt());
+    }
+
+
+    @Test
+    public void ensureDeletesAddedEventIfAbsenceHasBeenCancelledDuringSync() {
+
+        dueMapping(null, CalendarSyncAction.ADD);
+
+        // the absence has been cancelled while its event was added
+        AbsenceMapping changedMapping = changedMapping(null, CalendarSyncAction.DELETE, null);
+
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.of("event")));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Mockito.verify(absenceMappingDAO).save(changedMapping);
+        Mockito.verify(absenceMappingDAO, Mockito.never()).delete(changedMapping);
+        Assert.assertEquals("Wrong event id", "event", changedMapping.getEventId());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.DELETE, changedMapping.getSyncAction());
+    }
+
+
+    @Test
+    public void ensureFailedSyncDoesNotDelayNewerChange() {
+
+        dueMapping("event", CalendarSyncAction.UPDATE);
+
+        AbsenceMapping changedMapping = changedMapping("event", CalendarSyncAction.UPDATE,
+                EventType.ALLOWED_APPLICATION);
+
+        Mockito.when(calendarSyncService.updateAbsences(Mockito.anyMapOf(String.class, Absence.class)))
+            .thenReturn(Collections.singleton("event"));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        Mockito.verify(absenceMappingDAO).save(changedMapping);
+        Assert.assertEquals("Wrong number of failed attempts", 0, changedMapping.getFailedSyncAttempts());
+        Assert.assertFalse("Should not be claimed anymore", changedMapping.isClaimed());
+        Assert.assertFalse("Should be due", changedMapping.getNextSyncAttempt().isAfterNow());
+    }
+
+
+    @Test
+    public void ensureSchedulesDeletionOfAddedEventIfMappingHasBeenRemovedDuringSync() {
+
+        dueMapping(null, CalendarSyncAction.ADD);
+
+        Mockito.when(absenceMappingDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Collections.emptyList());
+        Mockito.when(calendarSyncService.addAbsences(Mockito.anyListOf(Absence.class)))
+            .thenReturn(Collections.singletonList(Optional.of("event")));
+
+        calendarSyncDispatcher.syncCalendar();
+
+        ArgumentCaptor<AbsenceMapping> mappingCaptor = ArgumentCaptor.forClass(AbsenceMapping.class);
+        Mockito.verify(absenceMappingDAO).save(mappingCaptor.capture());
+
+        Assert.assertEquals("Wrong event id", "event", mappingCaptor.getValue().getEventId());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.DELETE, mappingCaptor.getValue().getSyncAction());
+    }
+
+
+    private AbsenceMapping dueMapping(String eventId, CalendarSyncAction action) {
+
+        AbsenceMapping absenceMapping = mapping(1, 42, AbsenceType.VACATION, eventId);
+        absenceMapping.scheduleSync(action, EventType.WAITING_APPLICATION);
+
+        returnDueMappings(absenceMapping);
+
+        return absenceMapping;
+    }
+
+
+    /**
+     * Returns the given state of the due mapping when the result of the sync is stored, as if the absence had been
+     * changed during the sync.
+     */
+    private AbsenceMapping changedMapping(String eventId, CalendarSyncAction action, EventType eventType) {
+
+        AbsenceMapping absenceMapping = mapping(1, 42, AbsenceType.VACATION, eventId);
+        absenceMapping.scheduleSync(action, eventType);
+        ReflectionTestUtils.setField(absenceMapping, "version", 2);
+
+        Mockito.when(absenceMappingDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Collections.singletonList(absenceMapping));
+
+        return absenceMapping;
+    }
+
+
+    private static AbsenceMapping mapping(Integer id, Integer absenceId, AbsenceType absenceType, String eventId) {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(absenceId, absenceType, eventId);
+        ReflectionTestUtils.setField(absenceMapping, "id", id);
+
+        return absenceMapping;
+    }
+
+
+    private void returnDueMappings(AbsenceMapping... absenceMappings) {
+
+        Mockito.when(absenceMappingDAO.findDueMappings(Mockito.any(Date.class), Mockito.any(Pageable.class)))
+            .thenReturn(Arrays.asList(absenceMappings));
+        Mockito.when(absenceMappingDAO.findByIdIn(Mockito.anyCollectionOf(Integer.class)))
+            .thenReturn(Arrays.asList(absenceMappings));
+    }
+}
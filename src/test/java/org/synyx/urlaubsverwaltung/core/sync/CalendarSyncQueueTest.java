@@ -0,0 +1,191 @@
+package org.synyx.urlaubsverwaltung.core.sync;
+
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMapping;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceMappingDAO;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceType;
+import org.synyx.urlaubsverwaltung.core.sync.absence.CalendarSyncAction;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.core.sync.providers.exchange.ExchangeCalendarProvider;
+import org.synyx.urlaubsverwaltung.core.sync.providers.noop.NoopCalendarSyncProvider;
+
+
+/**
+ * Unit test for {@link CalendarSyncQueue}.
+ */
+public class CalendarSyncQueueTest {
+
+    private CalendarSyncQueue calendarSyncQueue;
+
+    private AbsenceMappingDAO absenceMappingDAO;
+    private CalendarService calendarService;
+
+    @Before
+    public void setUp() {
+
+        absenceMappingDAO = Mockito.mock(AbsenceMappingDAO.class);
+        calendarService = Mockito.mock(CalendarService.class);
+
+        Mockito.when(calendarService.getCalendarProvider()).thenReturn(Mockito.mock(ExchangeCalendarProvider.class));
+
+        calendarSyncQueue = new CalendarSyncQueue(absenceMappingDAO, calendarService);
+    }
+
+
+    @Test
+    public void ensureAddingAbsenceCreatesMappingThatIsDueToBeAdded() {
+
+        calendarSyncQueue.add(42, AbsenceType.VACATION, EventType.WAITING_APPLICATION);
+
+        AbsenceMapping absenceMapping = getSavedMapping();
+
+        Assert.assertEquals("Wrong absence id", Integer.valueOf(42), absenceMapping.getAbsenceId());
+        Assert.assertEquals("Wrong absence type", AbsenceType.VACATION, absenceMapping.getAbsenceType());
+        Assert.assertNull("Event id should not be set", absenceMapping.getEventId());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.ADD, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.WAITING_APPLICATION, absenceMapping.getEventType());
+        Assert.assertNotNull("Should be due", absenceMapping.getNextSyncAttempt());
+    }
+
+
+    @Test
+    public void ensureAddingAbsenceDoesNothingIfNoCalendarProviderIsConfigured() {
+
+        Mockito.when(calendarService.getCalendarProvider()).thenReturn(new NoopCalendarSyncProvider());
+
+        calendarSyncQueue.add(42, AbsenceType.VACATION, EventType.WAITING_APPLICATION);
+
+        Mockito.verifyZeroInteractions(absenceMappingDAO);
+    }
+
+
+    @Test
+    public void ensureUpdatingAbsenceReplacesPendingChange() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, "event");
+        absenceMapping.scheduleSync(CalendarSyncAction.UPDATE, EventType.WAITING_APPLICATION);
+        absenceMapping.syncFailed(null);
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.VACATION))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.update(42, AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, absenceMapping.getEventType());
+        Assert.assertEquals("Failed attempts should be reset", 0, absenceMapping.getFailedSyncAttempts());
+        Assert.assertNotNull("Should be due", absenceMapping.getNextSyncAttempt());
+    }
+
+
+    @Test
+    public void ensureUpdatingAbsenceThatIsNotYetAddedKeepsAddingIt() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, null);
+        absenceMapping.scheduleSync(CalendarSyncAction.ADD, EventType.WAITING_APPLICATION);
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.VACATION))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.update(42, AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
+
+        Assert.assertEquals("Wrong action", CalendarSyncAction.ADD, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, absenceMapping.getEventType());
+    }
+
+
+    @Test
+    public void ensureUpdatingAbsenceWithoutMappingDoesNothing() {
+
+        calendarSyncQueue.update(42, AbsenceType.VACATION, EventType.ALLOWED_APPLICATION);
+
+        Mockito.verify(absenceMappingDAO, Mockito.never()).save(Mockito.any(AbsenceMapping.class));
+    }
+
+
+    @Test
+    public void ensureConvertingSickNoteMovesMappingToApplication() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.SICKNOTE, "event");
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.SICKNOTE))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.convert(42, 23);
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Assert.assertEquals("Wrong absence id", Integer.valueOf(23), absenceMapping.getAbsenceId());
+        Assert.assertEquals("Wrong absence type", AbsenceType.VACATION, absenceMapping.getAbsenceType());
+        Assert.assertEquals("Wrong event id", "event", absenceMapping.getEventId());
+        Assert.assertEquals("Wrong action", CalendarSyncAction.UPDATE, absenceMapping.getSyncAction());
+        Assert.assertEquals("Wrong event type", EventType.ALLOWED_APPLICATION, absenceMapping.getEventType());
+    }
+
+
+    @Test
+    public void ensureDeletingAbsenceSchedulesDeletionOfEvent() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, "event");
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.VACATION))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.delete(42, AbsenceType.VACATION);
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Mockito.verify(absenceMappingDAO, Mockito.never()).delete(absenceMapping);
+        Assert.assertEquals("Wrong action", CalendarSyncAction.DELETE, absenceMapping.getSyncAction());
+    }
+
+
+    @Test
+    public void ensureDeletingAbsenceThatIsNotYetAddedRemovesMapping() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, null);
+        absenceMapping.scheduleSync(CalendarSyncAction.ADD, EventType.WAITING_APPLICATION);
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.VACATION))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.delete(42, AbsenceType.VACATION);
+
+        Mockito.verify(absenceMappingDAO).delete(absenceMapping);
+        Mockito.verify(absenceMappingDAO, Mockito.never()).save(absenceMapping);
+    }
+
+
+    @Test
+    public void ensureDeletingAbsenceThatIsBeingAddedSchedulesDeletionOfEvent() {
+
+        AbsenceMapping absenceMapping = new AbsenceMapping(42, AbsenceType.VACATION, null);
+        absenceMapping.scheduleSync(CalendarSyncAction.ADD, EventType.WAITING_APPLICATION);
+        absenceMapping.claim(DateTime.now().plusMinutes(10));
+
+        Mockito.when(absenceMappingDAO.findForUpdateByAbsenceIdAndAbsenceType(42, AbsenceType.VACATION))
+            .thenReturn(absenceMapping);
+
+        calendarSyncQueue.delete(42, AbsenceType.VACATION);
+
+        Mockito.verify(absenceMappingDAO).save(absenceMapping);
+        Mockito.verify(absenceMappingDAO, Mockito.never()).delete(absenceMapping);
+        Assert.assertEquals("Wrong action", CalendarSyncAction.DELETE, absenceMapping.getSyncAction());
+    }
+
+
+    private AbsenceMapping getSavedMapping() {
+
+        ArgumentCaptor<AbsenceMapping> captor = ArgumentCaptor.forClass(AbsenceMapping.class);
+        Mockito.verify(absenceMappingDAO).save(captor.capture());
+
+        return captor.getValue();
+    }
+}
@@ -1,21 +1,83 @@
 package org.synyx.urlaubsverwaltung.core.sync.providers.exchange;
 
+import microsoft.exchange.webservices.data.autodiscover.IAutodiscoverRedirectionUrl;
+import microsoft.exchange.webservices.data.core.ExchangeService;
+import microsoft.exchange.webservices.data.core.enumeration.misc.ExchangeVersion;
+import microsoft.exchange.webservices.data.core.enumeration.property.WellKnownFolderName;
+import microsoft.exchange.webservices.data.core.enumeration.service.DeleteMode;
+import microsoft.exchange.webservices.data.core.enumeration.service.MessageDisposition;
+import microsoft.exchange.webservices.data.core.enumeration.service.SendCancellationsMode;
+import microsoft.exchange.webservices.data.core.enumeration.service.SendInvitationsMode;
+import microsoft.exchange.webservices.data.core.enumeration.service.calendar.AffectedTaskOccurrence;
+import microsoft.exchange.webservices.data.core.service.folder.CalendarFolder;
+import microsoft.exchange.webservices.data.core.service.item.Item;
+import microsoft.exchange.webservices.data.core.service.schema.ItemSchema;
+import microsoft.exchange.webservices.data.property.complex.FolderId;
+import microsoft.exchange.webservices.data.property.complex.ItemId;
+import microsoft.exchange.webservices.data.search.FindFoldersResults;
+import microsoft.exchange.webservices.data.search.FolderView;
+
+import org.joda.time.DateMidnight;
+
+import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
+
 import org.mockito.Mockito;
-import org.synyx.urlaubsverwaltung.core.mail.MailService;
+
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.period.Period;
 import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
 import org.synyx.urlaubsverwaltung.core.settings.ExchangeCalendarSettings;
+import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
+import org.synyx.urlaubsverwaltung.core.sync.absence.AbsenceTimeConfiguration;
+import org.synyx.urlaubsverwaltung.core.sync.absence.EventType;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.util.Optional;
+import java.util.function.Supplier;
 
-import static org.junit.Assert.*;
 import static org.mockito.Mockito.when;
 
+
 public class ExchangeCalendarProviderTest {
 
+    private ExchangeCalendarProvider cut;
+
+    private Supplier<ExchangeService> exchangeServiceFactory;
+    private ExchangeService exchangeService;
+
+    private CalendarSettings calendarSettings;
+    private Absence absence;
+
+    @Before
+    public void setUp() throws Exception {
+
+        exchangeService = mockExchangeService();
+
+        @SuppressWarnings("unchecked")
+        Supplier<ExchangeService> factory = Mockito.mock(Supplier.class);
+        exchangeServiceFactory = factory;
+        when(exchangeServiceFactory.get()).thenReturn(exchangeService);
+
+        cut = new ExchangeCalendarProvider(exchangeServiceFactory);
+
+        calendarSettings = new CalendarSettings();
+
+        ExchangeCalendarSettings exchangeCalendarSettings = calendarSettings.getExchangeCalendarSettings();
+        exchangeCalendarSettings.setEmail("office@firma.test");
+        exchangeCalendarSettings.setPassword("secret");
+        exchangeCalendarSettings.setCalendar("Urlaub");
+
+        absence = new Absence(TestDataCreator.createPerson(),
+                new Period(new DateMidnight(2016, 12, 1), new DateMidnight(2016, 12, 2), DayLength.FULL),
+                EventType.ALLOWED_APPLICATION, new AbsenceTimeConfiguration(calendarSettings));
+    }
+
+
     @Test
     public void checkCalendarSyncSettingsNoExceptionForEmptyEmail() {
-        MailService mailService = Mockito.mock(MailService.class);
-
-        ExchangeCalendarProvider cut = new ExchangeCalendarProvider(mailService);
+        ExchangeCalendarProvider cut = new ExchangeCalendarProvider();
 
         CalendarSettings calendarSettings = Mockito.mock(CalendarSettings.class);
         ExchangeCalendarSettings exchangeCalSettings = Mockito.mock(ExchangeCalendarSettings.class);
@@ -25,4 +87,123 @@ public class ExchangeCalendarProviderTest {
 
         cut.checkCalendarSyncSettings(calendarSettings); // no Exception is test enough
     }
-}
\ No newline at end of file
+
+
+    @Test
+    public void ensureAddsAppointmentToCalendar() throws Exception {
+
+        Optional<String> eventId = cut.add(absence, calendarSettings);
+
+        Assert.assertEquals("Wrong event id", Optional.of("event"), eventId);
+
+        Mockito.verify(exchangeService)
+            .createItem(Mockito.any(Item.class), Mockito.any(FolderId.class), Mockito.any(MessageDisposition.class),
+                Mockito.eq(SendInvitationsMode.SendToNone));
+    }
+
+
+    @Test
+    public void ensureConnectsAndLooksUpCalendarOnlyOnceForTheSameSettings() throws Exception {
+
+        cut.add(absence, calendarSettings);
+        cut.add(absence, calendarSettings);
+        cut.delete("event", calendarSettings);
+
+        Mockito.verify(exchangeServiceFactory).get();
+        Mockito.verify(exchangeService)
+            .autodiscoverUrl(Mockito.eq("office@firma.test"), Mockito.any(IAutodiscoverRedirectionUrl.class));
+        Mockito.verify(exchangeService)
+            .findFolders(Mockito.eq(WellKnownFolderName.Calendar), Mockito.any(FolderView.class));
+        Mockito.verify(exchangeService, Mockito.times(2))
+            .createItem(Mockito.any(Item.class), Mockito.any(FolderId.class), Mockito.any(MessageDisposition.class),
+                Mockito.any(SendInvitationsMode.class));
+    }
+
+
+    @Test
+    public void ensureConnectsAgainIfSettingsChanged() throws Exception {
+
+        cut.add(absence, calendarSettings);
+
+        calendarSettings.getExchangeCalendarSettings().setPassword("changed");
+
+        cut.add(absence, calendarSettings);
+
+        Mockito.verify(exchangeServiceFactory, Mockito.times(2)).get();
+        Mockito.verify(exchangeService, Mockito.times(2))
+            .autodiscoverUrl(Mockito.eq("office@firma.test"), Mockito.any(IAutodiscoverRedirectionUrl.class));
+    }
+
+
+    @Test
+    public void ensureConnectsAgainAfterFailedRequest() throws Exception {
+
+        Mockito.doThrow(new Exception("Unauthorized"))
+            .when(exchangeService)
+            .deleteItem(Mockito.any(ItemId.class), Mockito.any(DeleteMode.class),
+                Mockito.any(SendCancellationsMode.class), Mockito.any(AffectedTaskOccurrence.class));
+
+        Assert.assertFalse("Should not be deleted", cut.delete("event", calendarSettings));
+
+        cut.add(absence, calendarSettings);
+
+        Mockito.verify(exchangeServiceFactory, Mockito.times(2)).get();
+    }
+
+
+    @Test
+    public void ensureConnectsAgainIfConnectingFailed() throws Exception {
+
+        Mockito.doThrow(new Exception("Autodiscover failed"))
+            .when(exchangeService)
+            .autodiscoverUrl(Mockito.anyString(), Mockito.any(IAutodiscoverRedirectionUrl.class));
+
+        cut.delete("event", calendarSettings);
+        cut.delete("event", calendarSettings);
+
+        Mockito.verify(exchangeServiceFactory, Mockito.times(2)).get();
+    }
+
+
+    @Test
+    public void ensureDeletesAppointmentWithoutBindingIt() throws Exception {
+
+        Assert.assertTrue("Should be deleted", cut.delete("event", calendarSettings));
+
+        Mockito.verify(exchangeService)
+            .deleteItem(Mockito.any(ItemId.class), Mockito.eq(DeleteMode.HardDelete),
+                Mockito.eq(SendCancellationsMode.SendToNone), Mockito.any(AffectedTaskOccurrence.class));
+        Mockito.verify(exchangeService, Mockito.never()).bindToItem(Mockito.any(ItemId.class), Mockito.any());
+    }
+
+
+    private static ExchangeService mockExchangeService() throws Exception {
+
+        ExchangeService exchangeService = Mockito.mock(ExchangeService.class);
+        when(exchangeService.getRequestedServerVersion()).thenReturn(ExchangeVersion.Exchange2010_SP2);
+
+        CalendarFolder calendarFolder = Mockito.mock(CalendarFolder.class);
+        when(calendarFolder.getDisplayName()).thenReturn("Urlaub");
+        when(calendarFolder.getId()).thenReturn(new FolderId(WellKnownFolderName.Calendar));
+
+        FindFoldersResults findFoldersResults = new FindFoldersResults();
+        findFoldersResults.getFolders().add(calendarFolder);
+        when(exchangeService.findFolders(Mockito.any(WellKnownFolderName.class), Mockito.any(FolderView.class)))
+            .thenReturn(findFoldersResults);
+
+        // the exchange server assigns the id when the appointment is created
+        Mockito.doAnswer(invocation -> {
+                    invocation.getArgumentAt(0, Item.class)
+                        .getPropertyBag()
+                        .getProperties()
+                        .put(ItemSchema.Id, new ItemId("event"));
+
+                    return null;
+                })
+            .when(exchangeService)
+            .createItem(Mockito.any(Item.class), Mockito.any(FolderId.class), Mockito.any(MessageDisposition.class),
+                Mockito.any(SendInvitationsMode.class));
+
+        return exchangeService;
+    }
+}
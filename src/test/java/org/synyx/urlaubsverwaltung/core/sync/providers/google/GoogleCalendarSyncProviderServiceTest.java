@@ -16,7 +16,6 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
-import org.synyx.urlaubsverwaltung.core.mail.MailService;
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.period.Period;
 import org.synyx.urlaubsverwaltung.core.person.Person;
@@ -34,7 +33,6 @@ import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.synyx.urlaubsverwaltung.core.sync.providers.google.GoogleCalendarSyncProvider.APPLICATION_NAME;
 import static org.synyx.urlaubsverwaltung.core.sync.providers.google.GoogleCalendarSyncProvider.GOOGLEAPIS_OAUTH2_V4_TOKEN;
@@ -47,7 +45,6 @@ public class GoogleCalendarSyncProviderServiceTest {
     private static String REFRESH_TOKEN;
 
     private SettingsService settingsService;
-    private MailService mailService;
     private GoogleCalendarSyncProvider googleCalendarSyncProvider;
 
     @BeforeClass
@@ -72,8 +69,7 @@ public class GoogleCalendarSyncProviderServiceTest {
     @Before
     public void setUp() throws Exception {
         settingsService = prepareSettingsServiceMock();
-        mailService = mock(MailService.class);
-        googleCalendarSyncProvider = new GoogleCalendarSyncProvider(mailService, settingsService);
+        googleCalendarSyncProvider = new GoogleCalendarSyncProvider();
     }
 
     private static Credential createCredentialWithRefreshToken(
@@ -116,7 +112,7 @@ public class GoogleCalendarSyncProviderServiceTest {
 
     @Test
     public void init() {
-        googleCalendarSyncProvider = new GoogleCalendarSyncProvider(mailService, settingsService);
+        googleCalendarSyncProvider = new GoogleCalendarSyncProvider();
     }
 
     @Test
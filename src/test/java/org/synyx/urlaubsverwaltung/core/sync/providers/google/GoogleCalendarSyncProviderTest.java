@@ -0,0 +1,234 @@
+package org.synyx.urlaubsverwaltung.core.sync.providers.google;
+
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.services.calendar.Calendar;
+
+import org.joda.time.DateMidnight;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.settings.CalendarSettings;
+import org.synyx.urlaubsverwaltung.core.settings.GoogleCalendarSettings;
+import org.synyx.urlaubsverwaltung.core.sync.absence.Absence;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * Unit test for {@link GoogleCalendarSyncProvider}.
+ */
+public class GoogleCalendarSyncProviderTest {
+
+    private static final String BOUNDARY = "batch_boundary";
+
+    private GoogleCalendarSyncProvider googleCalendarSyncProvider;
+
+    private Function<GoogleCalendarSettings, Calendar> clientFactory;
+    private CalendarSettings calendarSettings;
+
+    private AtomicInteger httpRequests;
+    private List<String> requests;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+
+        clientFactory = Mockito.mock(Function.class);
+
+        httpRequests = new AtomicInteger();
+        requests = new ArrayList<>();
+
+        Calendar client = new Calendar.Builder(new BatchTransport(), JacksonFactory.getDefaultInstance(), null)
+            .setApplicationName(GoogleCalendarSyncProvider.APPLICATION_NAME).build();
+        Mockito.when(clientFactory.apply(Mockito.any(GoogleCalendarSettings.class))).thenReturn(client);
+
+        googleCalendarSyncProvider = new GoogleCalendarSyncProvider(clientFactory);
+
+        calendarSettings = new CalendarSettings();
+        calendarSettings.getGoogleCalendarSettings().setCalendarId("calendar");
+        calendarSettings.getGoogleCalendarSettings().setClientId("client");
+        calendarSettings.getGoogleCalendarSettings().setClientSecret("secret");
+        calendarSettings.getGoogleCalendarSettings().setRefreshToken("token");
+    }
+
+
+    @Test
+    public void ensureBuildsClientOnlyOnceForTheSameSettings() {
+
+        Assert.assertTrue("Should be deleted", googleCalendarSyncProvider.delete("first", calendarSettings));
+        Assert.assertTrue("Should be deleted", googleCalendarSyncProvider.delete("second", calendarSettings));
+
+        Mockito.verify(clientFactory).apply(calendarSettings.getGoogleCalendarSettings());
+    }
+
+
+    @Test
+    public void ensureBuildsNewClientIfSettingsChanged() {
+
+        googleCalendarSyncProvider.delete("first", calendarSettings);
+
+        calendarSettings.getGoogleCalendarSettings().setRefreshToken("otherToken");
+
+        googleCalendarSyncProvider.delete("second", calendarSettings);
+
+        Mockito.verify(clientFactory, Mockito.times(2)).apply(calendarSettings.getGoogleCalendarSettings());
+    }
+
+
+    @Test
+    public void ensureDeletesEventsWithOneRequestPerFiftyEvents() {
+
+        List<String> eventIds = new ArrayList<>();
+
+        for (int i = 0; i < 120; i++) {
+            eventIds.add("event" + i);
+        }
+
+        Set<String> failedEventIds = googleCalendarSyncProvider.deleteAll(eventIds, calendarSettings);
+
+        Assert.assertTrue("No event should have failed", failedEventIds.isEmpty());
+        Assert.assertEquals("Wrong number of http requests", 3, httpRequests.get());
+    }
+
+
+    @Test
+    public void ensureReturnsEventsThatCouldNotBeDeleted() {
+
+        Set<String> failedEventIds = googleCalendarSyncProvider.deleteAll(Arrays.asList("event", "missing"),
+                calendarSettings);
+
+        Assert.assertEquals("Wrong failed events", Collections.singleton("missing"), failedEventIds);
+        Assert.assertEquals("Wrong number of http requests", 1, httpRequests.get());
+    }
+
+
+    @Test
+    public void ensureGetsEventIdsOfAllPages() {
+
+        Optional<Set<String>> eventIds = googleCalendarSyncProvider.getEventIds(new DateMidnight(2016, 12, 1),
+                new DateMidnight(2016, 12, 31), calendarSettings);
+
+        Assert.assertEquals("Wrong event ids", Optional.of(new HashSet<>(Arrays.asList("first", "second"))),
+            eventIds);
+        Assert.assertEquals("Wrong number of http requests", 2, httpRequests.get());
+        Assert.assertFalse("Should list all events", requests.get(0).contains("privateExtendedProperty"));
+    }
+
+
+    @Test
+    public void ensureGetsOnlyEventsCreatedByTheApplication() {
+
+        Optional<Set<String>> eventIds = googleCalendarSyncProvider.getCreatedEventIds(new DateMidnight(2016, 12, 1),
+                new DateMidnight(2016, 12, 31), calendarSettings);
+
+        Assert.assertEquals("Wrong event ids", Optional.of(new HashSet<>(Arrays.asList("first", "second"))),
+            eventIds);
+        Assert.assertTrue("Should filter events created by the application",
+            requests.get(0).contains("privateExtendedProperty=createdBy%3Durlaubsverwaltung"));
+        Assert.assertTrue("Should filter events created by the application on every page",
+            requests.get(1).contains("privateExtendedProperty=createdBy%3Durlaubsverwaltung"));
+    }
+
+
+    @Test
+    public void ensureMarksAddedEventAsCreatedByTheApplication() {
+
+        Absence absence = Mockito.mock(Absence.class);
+        Mockito.when(absence.getPerson()).thenReturn(TestDataCreator.createPerson());
+        Mockito.when(absence.getStartDate()).thenReturn(new DateMidnight(2016, 12, 1).toDate());
+        Mockito.when(absence.getEndDate()).thenReturn(new DateMidnight(2016, 12, 2).toDate());
+        Mockito.when(absence.isAllDay()).thenReturn(true);
+
+        Assert.assertEquals("Wrong event id", Optional.of("added"),
+            googleCalendarSyncProvider.add(absence, calendarSettings));
+
+        Assert.assertTrue("Should mark the event",
+            requests.get(0).contains("\"private\":{\"createdBy\":\"urlaubsverwaltung\"}"));
+    }
+
+    /**
+     * Answers requests listing the events in two pages, single delete requests and batch requests of delete requests,
+     * deleting events with the id {@code missing} fails.
+     */
+    private class BatchTransport extends MockHttpTransport {
+
+        @Override
+        public LowLevelHttpRequest buildRequest(String method, String url) {
+
+            return new MockLowLevelHttpRequest(url) {
+
+                @Override
+                public LowLevelHttpResponse execute() throws IOException {
+
+                    httpRequests.incrementAndGet();
+                    requests.add(getUrl() + " " + getContentAsString());
+
+                    if (method.equals("POST") && !getUrl().contains("/batch")) {
+                        return new MockLowLevelHttpResponse().setContentType("application/json")
+                            .setContent("{\"id\":\"added\"}");
+                    }
+
+                    if (method.equals("GET")) {
+                        String page = getUrl().contains("pageToken=next") ? "{\"items\":[{\"id\":\"second\"}]}"
+                                                                           : "{\"items\":[{\"id\":\"first\"}],"
+                            + "\"nextPageToken\":\"next\"}";
+
+                        return new MockLowLevelHttpResponse().setContentType("application/json").setContent(page);
+                    }
+
+                    if (!getUrl().contains("/batch")) {
+                        return new MockLowLevelHttpResponse().setStatusCode(204);
+                    }
+
+                    StringBuilder content = new StringBuilder();
+                    int part = 0;
+
+                    for (String line : getContentAsString().split("\r\n")) {
+                        if (line.startsWith("DELETE ")) {
+                            part++;
+                            content.append("--").append(BOUNDARY).append("\r\n")
+                                .append("Content-Type: application/http\r\n")
+                                .append("Content-ID: <response-").append(part).append(">\r\n\r\n");
+
+                            if (line.contains("/events/missing")) {
+                                String error = "{\"error\":{\"code\":404,\"message\":\"Not Found\"}}";
+                                content.append("HTTP/1.1 404 Not Found\r\n")
+                                    .append("Content-Type: application/json\r\n")
+                                    .append("Content-Length: ").append(error.length()).append("\r\n\r\n")
+                                    .append(error).append("\r\n");
+                            } else {
+                                content.append("HTTP/1.1 204 No Content\r\n")
+                                    .append("Content-Length: 0\r\n\r\n\r\n");
+                            }
+                        }
+                    }
+
+                    content.append("--").append(BOUNDARY).append("--\r\n");
+
+                    return new MockLowLevelHttpResponse().setContentType("multipart/mixed; boundary=" + BOUNDARY)
+                        .setContent(content.toString());
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.synyx.urlaubsverwaltung.core.workingtime;
+
+import de.jollyday.HolidayManager;
+
+import org.joda.time.DateMidnight;
+import org.joda.time.DateTimeConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+import org.synyx.urlaubsverwaltung.core.period.DayLength;
+import org.synyx.urlaubsverwaltung.core.settings.FederalState;
+import org.synyx.urlaubsverwaltung.core.settings.Settings;
+import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
+import org.synyx.urlaubsverwaltung.test.TestDataCreator;
+
+import java.math.BigDecimal;
+
+import java.util.Arrays;
+
+
+/**
+ * Unit test for {@link PublicHolidaysCalendar}.
+ */
+public class PublicHolidaysCalendarTest {
+
+    private PublicHolidaysService publicHolidaysService;
+    private HolidayManager holidayManager;
+    private Settings settings;
+
+    @Before
+    public void setUp() {
+
+        settings = new Settings();
+
+        SettingsService settingsService = Mockito.mock(SettingsService.class);
+        Mockito.when(settingsService.getSettings()).thenReturn(settings);
+
+        publicHolidaysService = new PublicHolidaysService(settingsService);
+        holidayManager = HolidayManager.getInstance(Thread.currentThread().getContextClassLoader()
+                    .getResource("Holidays_de.xml"));
+    }
+
+
+    @Test
+    public void ensurePublicHolidaysAreTheSameAsProvidedByJollyday() {
+
+        for (FederalState federalState : FederalState.values()) {
+            for (int year = 2015; year <= 2020; year++) {
+                PublicHolidaysCalendar calendar = publicHolidaysService.getCalendar(year, federalState);
+
+                DateMidnight day = new DateMidnight(year, DateTimeConstants.JANUARY, 1);
+
+                while (day.getYear() == year) {
+                    Assert.assertEquals("Wrong public holiday information for " + day + " in " + federalState,
+                        holidayManager.isHoliday(day.toLocalDate(), federalState.getCodes()),
+                        calendar.isPublicHoliday(day));
+
+                    day = day.plusDays(1);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureWorkingDurationIsTheSameAsTheSumOfTheSingleDays() {
+
+        WorkingTime workingTime = TestDataCreator.createWorkingTime();
+        workingTime.setDayLengthForWeekDay(DateTimeConstants.FRIDAY, DayLength.MORNING);
+
+        PublicHolidaysCalendar calendar = publicHolidaysService.getCalendar(2016, FederalState.BAYERN);
+
+        DateMidnight firstDayOfYear = new DateMidnight(2016, DateTimeConstants.JANUARY, 1);
+        DateMidnight lastDayOfYear = new DateMidnight(2016, DateTimeConstants.DECEMBER, 31);
+
+        for (DateMidnight startDate : Arrays.asList(firstDayOfYear, new DateMidnight(2016, 3, 25),
+                    new DateMidnight(2016, 12, 23))) {
+            for (DateMidnight endDate : Arrays.asList(startDate, new DateMidnight(2016, 3, 28),
+                        new DateMidnight(2016, 12, 24), lastDayOfYear)) {
+                BigDecimal expected = BigDecimal.ZERO;
+
+                for (DateMidnight day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+                    BigDecimal duration = calendar.getWorkingDurationOfDate(day);
+                    expected = expected.add(duration.multiply(
+                                workingTime.getDayLengthForWeekDay(day.getDayOfWeek()).getDuration()));
+                }
+
+                BigDecimal workingDuration = calendar.getWorkingDuration(startDate, endDate, workingTime);
+
+                Assert.assertEquals("Wrong working duration for " + startDate + " - " + endDate, 0,
+                    expected.compareTo(workingDuration));
+            }
+        }
+    }
+
+
+    @Test
+    public void ensureWorkingDurationOfChristmasEveIsTakenFromSettings() {
+
+        DateMidnight christmasEve = new DateMidnight(2015, DateTimeConstants.DECEMBER, 24);
+
+        BigDecimal workingDuration = publicHolidaysService.getCalendar(2015, FederalState.BADEN_WUERTTEMBERG)
+                .getWorkingDurationOfDate(christmasEve);
+
+        Assert.assertEquals("Wrong working duration", DayLength.MORNING.getDuration(), workingDuration);
+    }
+
+
+    @Test
+    public void ensureCalendarIsRebuiltIfSettingsChanged() {
+
+        DateMidnight newYearsEve = new DateMidnight(2015, DateTimeConstants.DECEMBER, 31);
+
+        PublicHolidaysCalendar calendar = publicHolidaysService.getCalendar(2015, FederalState.BADEN_WUERTTEMBERG);
+
+        Assert.assertSame("Calendar should be cached", calendar,
+            publicHolidaysService.getCalendar(2015, FederalState.BADEN_WUERTTEMBERG));
+
+        settings.getWorkingTimeSettings().setWorkingDurationForNewYearsEve(DayLength.ZERO);
+
+        PublicHolidaysCalendar rebuiltCalendar = publicHolidaysService.getCalendar(2015,
+                FederalState.BADEN_WUERTTEMBERG);
+
+        Assert.assertNotSame("Calendar should be rebuilt", calendar, rebuiltCalendar);
+        Assert.assertEquals("Wrong working duration", DayLength.ZERO.getDuration(),
+            rebuiltCalendar.getWorkingDurationOfDate(newYearsEve));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureThrowsIfDateIsNotWithinYearOfCalendar() {
+
+        publicHolidaysService.getCalendar(2015, FederalState.BADEN_WUERTTEMBERG)
+            .isPublicHoliday(new DateMidnight(2016, DateTimeConstants.JANUARY, 1));
+    }
+}
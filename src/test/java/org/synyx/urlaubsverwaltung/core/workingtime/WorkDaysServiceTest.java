@@ -1,6 +1,8 @@
 
 package org.synyx.urlaubsverwaltung.core.workingtime;
 
+import com.google.common.collect.ImmutableMap;
+
 import org.joda.time.DateMidnight;
 import org.joda.time.DateTimeConstants;
 
@@ -23,6 +25,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -327,4 +330,59 @@ public class WorkDaysServiceTest {
 
         assertEquals(new BigDecimal("0.0"), workDays);
     }
+
+
+    @Test
+    public void ensureCalculatesWorkDaysForManyAbsencesWithASingleWorkingTimeQuery() {
+
+        Person otherPerson = TestDataCreator.createPerson("other");
+
+        WorkingTime otherWorkingTime = TestDataCreator.createWorkingTime();
+        otherWorkingTime.setPerson(otherPerson);
+        otherWorkingTime.setValidFrom(new DateMidnight(2016, DateTimeConstants.JANUARY, 1));
+        otherWorkingTime.setFederalStateOverride(FederalState.BAYERN_AUGSBURG);
+
+        workingTime.setPerson(person);
+        workingTime.setValidFrom(new DateMidnight(2016, DateTimeConstants.JANUARY, 1));
+
+        Mockito.when(workingTimeService.getByPersons(Mockito.anyListOf(Person.class)))
+            .thenReturn(ImmutableMap.of(person, Collections.singletonList(workingTime), otherPerson,
+                    Collections.singletonList(otherWorkingTime)));
+
+        Application assumptionDay = TestDataCreator.createApplication(person,
+                new DateMidnight(2016, DateTimeConstants.AUGUST, 15), new DateMidnight(2016, DateTimeConstants.AUGUST,
+                    15), DayLength.FULL);
+        Application assumptionDayInAugsburg = TestDataCreator.createApplication(otherPerson,
+                new DateMidnight(2016, DateTimeConstants.AUGUST, 15), new DateMidnight(2016, DateTimeConstants.AUGUST,
+                    15), DayLength.FULL);
+        Application christmas = TestDataCreator.createApplication(person,
+                new DateMidnight(2016, DateTimeConstants.DECEMBER, 19), new DateMidnight(2017,
+                    DateTimeConstants.JANUARY, 6), DayLength.FULL);
+
+        List<BigDecimal> workDays = instance.getWorkDays(Arrays.asList(assumptionDay, assumptionDayInAugsburg,
+                    christmas), Application::getPerson, Application::getPeriod);
+
+        assertEquals(Arrays.asList(new BigDecimal("1.0"), new BigDecimal("0.0"), new BigDecimal("13.0")), workDays);
+
+        Mockito.verify(workingTimeService).getByPersons(Arrays.asList(person, otherPerson));
+        Mockito.verify(workingTimeService, Mockito.never())
+            .getByPersonAndValidityDateEqualsOrMinorDate(Mockito.any(Person.class), Mockito.any(DateMidnight.class));
+    }
+
+
+    @Test(expected = NoValidWorkingTimeException.class)
+    public void ensureCalculatingWorkDaysForManyAbsencesThrowsIfNoWorkingTimeIsValid() {
+
+        workingTime.setPerson(person);
+        workingTime.setValidFrom(new DateMidnight(2016, DateTimeConstants.JANUARY, 1));
+
+        Mockito.when(workingTimeService.getByPersons(Mockito.anyListOf(Person.class)))
+            .thenReturn(ImmutableMap.of(person, Collections.singletonList(workingTime)));
+
+        Application application = TestDataCreator.createApplication(person,
+                new DateMidnight(2015, DateTimeConstants.DECEMBER, 1), new DateMidnight(2015,
+                    DateTimeConstants.DECEMBER, 4), DayLength.FULL);
+
+        instance.getWorkDays(Collections.singletonList(application), Application::getPerson, Application::getPeriod);
+    }
 }
@@ -9,6 +9,10 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import org.springframework.context.ApplicationEventPublisher;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.settings.FederalState;
 import org.synyx.urlaubsverwaltung.core.settings.Settings;
@@ -16,7 +20,10 @@ import org.synyx.urlaubsverwaltung.core.settings.SettingsService;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -29,14 +36,17 @@ public class WorkingTimeServiceTest {
 
     private WorkingTimeDAO workingTimeDAOMock;
     private SettingsService settingsServiceMock;
+    private ApplicationEventPublisher applicationEventPublisherMock;
 
     @Before
     public void setUp() {
 
         workingTimeDAOMock = Mockito.mock(WorkingTimeDAO.class);
         settingsServiceMock = Mockito.mock(SettingsService.class);
+        applicationEventPublisherMock = Mockito.mock(ApplicationEventPublisher.class);
 
-        workingTimeService = new WorkingTimeService(workingTimeDAOMock, settingsServiceMock);
+        workingTimeService = new WorkingTimeService(workingTimeDAOMock, settingsServiceMock,
+                applicationEventPublisherMock);
     }
 
 
@@ -50,17 +60,17 @@ public class WorkingTimeServiceTest {
 
         Person person = TestDataCreator.createPerson();
         WorkingTime workingTime = new WorkingTime();
+        workingTime.setValidFrom(now.minusDays(1));
         workingTime.setFederalStateOverride(FederalState.BAYERN);
 
         Mockito.when(settingsServiceMock.getSettings()).thenReturn(settings);
-        Mockito.when(workingTimeDAOMock.findByPersonAndValidityDateEqualsOrMinorDate(Mockito.any(Person.class),
-                    Mockito.any(Date.class)))
-            .thenReturn(workingTime);
+        Mockito.when(workingTimeDAOMock.findByPerson(Mockito.any(Person.class)))
+            .thenReturn(Collections.singletonList(workingTime));
 
         FederalState federalState = workingTimeService.getFederalStateForPerson(person, now);
 
         Mockito.verifyZeroInteractions(settingsServiceMock);
-        Mockito.verify(workingTimeDAOMock).findByPersonAndValidityDateEqualsOrMinorDate(person, now.toDate());
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
 
         Assert.assertNotNull("Missing federal state", federalState);
         Assert.assertEquals("Wrong federal state", FederalState.BAYERN, federalState);
@@ -77,17 +87,17 @@ public class WorkingTimeServiceTest {
 
         Person person = TestDataCreator.createPerson();
         WorkingTime workingTime = new WorkingTime();
+        workingTime.setValidFrom(now.minusDays(1));
         workingTime.setFederalStateOverride(null);
 
         Mockito.when(settingsServiceMock.getSettings()).thenReturn(settings);
-        Mockito.when(workingTimeDAOMock.findByPersonAndValidityDateEqualsOrMinorDate(Mockito.any(Person.class),
-                    Mockito.any(Date.class)))
-            .thenReturn(workingTime);
+        Mockito.when(workingTimeDAOMock.findByPerson(Mockito.any(Person.class)))
+            .thenReturn(Collections.singletonList(workingTime));
 
         FederalState federalState = workingTimeService.getFederalStateForPerson(person, now);
 
         Mockito.verify(settingsServiceMock).getSettings();
-        Mockito.verify(workingTimeDAOMock).findByPersonAndValidityDateEqualsOrMinorDate(person, now.toDate());
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
 
         Assert.assertNotNull("Missing federal state", federalState);
         Assert.assertEquals("Wrong federal state", FederalState.BADEN_WUERTTEMBERG, federalState);
@@ -104,14 +114,16 @@ public class WorkingTimeServiceTest {
         settings.getWorkingTimeSettings().setFederalState(FederalState.BADEN_WUERTTEMBERG);
 
         Mockito.when(settingsServiceMock.getSettings()).thenReturn(settings);
-        Mockito.when(workingTimeDAOMock.findByPersonAndValidityDateEqualsOrMinorDate(Mockito.any(Person.class),
-                    Mockito.any(Date.class)))
-            .thenReturn(null);
+        WorkingTime futureWorkingTime = new WorkingTime();
+        futureWorkingTime.setValidFrom(now.plusDays(1));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(Mockito.any(Person.class)))
+            .thenReturn(Collections.singletonList(futureWorkingTime));
 
         FederalState federalState = workingTimeService.getFederalStateForPerson(person, now);
 
         Mockito.verify(settingsServiceMock).getSettings();
-        Mockito.verify(workingTimeDAOMock).findByPersonAndValidityDateEqualsOrMinorDate(person, now.toDate());
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
 
         Assert.assertNotNull("Missing federal state", federalState);
         Assert.assertEquals("Wrong federal state", FederalState.BADEN_WUERTTEMBERG, federalState);
@@ -137,6 +149,19 @@ public class WorkingTimeServiceTest {
     }
 
 
+    @Test
+    public void ensurePublishesEventAboutChangedWorkingTime() {
+
+        Person person = TestDataCreator.createPerson();
+
+        workingTimeService.touch(Arrays.asList(1, 2), Optional.empty(), DateMidnight.now(), person);
+
+        ArgumentCaptor<WorkingTimeChangedEvent> eventCaptor = ArgumentCaptor.forClass(WorkingTimeChangedEvent.class);
+        Mockito.verify(applicationEventPublisherMock).publishEvent(eventCaptor.capture());
+        Assert.assertEquals("Wrong person in event", person, eventCaptor.getValue().getPerson());
+    }
+
+
     @Test
     public void ensureRemovesFederalStateOverrideIfNull() {
 
@@ -158,4 +183,143 @@ public class WorkingTimeServiceTest {
 
         Assert.assertFalse("Federal state should be missing", workingTime.getFederalStateOverride().isPresent());
     }
+
+
+    @Test
+    public void ensureReturnsWorkingTimeWithLatestValidityDateEqualsOrMinorTheGivenDate() {
+
+        Person person = TestDataCreator.createPerson();
+
+        WorkingTime first = createWorkingTime(person, new DateMidnight(2014, 1, 1));
+        WorkingTime second = createWorkingTime(person, new DateMidnight(2015, 6, 1));
+        WorkingTime third = createWorkingTime(person, new DateMidnight(2016, 3, 15));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(person)).thenReturn(Arrays.asList(first, second, third));
+
+        Assert.assertFalse("Should not find a working time",
+            workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, new DateMidnight(2013, 12, 31))
+            .isPresent());
+        Assert.assertEquals("Wrong working time", first,
+            workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, new DateMidnight(2015, 5, 31))
+            .get());
+        Assert.assertEquals("Wrong working time", second,
+            workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, new DateMidnight(2015, 6, 1))
+            .get());
+        Assert.assertEquals("Wrong working time", third,
+            workingTimeService.getByPersonAndValidityDateEqualsOrMinorDate(person, new DateMidnight(2020, 1, 1))
+            .get());
+        Assert.assertEquals("Wrong current working time", third, workingTimeService.getCurrentOne(person).get());
+
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
+    }
+
+
+    @Test
+    public void ensureTouchInvalidatesCachedWorkingTimesOfPerson() {
+
+        Person person = TestDataCreator.createPerson();
+
+        WorkingTime workingTime = createWorkingTime(person, new DateMidnight(2014, 1, 1));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(person)).thenReturn(Collections.singletonList(workingTime));
+
+        workingTimeService.getCurrentOne(person);
+        workingTimeService.getCurrentOne(person);
+
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
+
+        workingTimeService.touch(Arrays.asList(1, 2), Optional.empty(), new DateMidnight(2016, 1, 1), person);
+        workingTimeService.getCurrentOne(person);
+
+        Mockito.verify(workingTimeDAOMock, Mockito.times(2)).findByPerson(person);
+    }
+
+
+    @Test
+    public void ensureLoadsWorkingTimesOfUncachedPersonsWithASingleQuery() {
+
+        Person cachedPerson = TestDataCreator.createPerson("cached");
+        Person person = TestDataCreator.createPerson("person");
+        Person personWithoutWorkingTime = TestDataCreator.createPerson("without");
+
+        WorkingTime cachedWorkingTime = createWorkingTime(cachedPerson, new DateMidnight(2014, 1, 1));
+        WorkingTime workingTime = createWorkingTime(person, new DateMidnight(2015, 1, 1));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(cachedPerson))
+            .thenReturn(Collections.singletonList(cachedWorkingTime));
+        Mockito.when(workingTimeDAOMock.findByPersonIn(Arrays.asList(person, personWithoutWorkingTime)))
+            .thenReturn(Collections.singletonList(workingTime));
+
+        workingTimeService.getCurrentOne(cachedPerson);
+
+        Map<Person, List<WorkingTime>> workingTimes = workingTimeService.getByPersons(Arrays.asList(cachedPerson,
+                    person, personWithoutWorkingTime));
+
+        Assert.assertEquals("Wrong working times", Collections.singletonList(cachedWorkingTime),
+            workingTimes.get(cachedPerson));
+        Assert.assertEquals("Wrong working times", Collections.singletonList(workingTime), workingTimes.get(person));
+        Assert.assertTrue("Should not have working times", workingTimes.get(personWithoutWorkingTime).isEmpty());
+
+        Mockito.verify(workingTimeDAOMock).findByPersonIn(Arrays.asList(person, personWithoutWorkingTime));
+
+        workingTimeService.getByPersons(Arrays.asList(cachedPerson, person, personWithoutWorkingTime));
+
+        Mockito.verify(workingTimeDAOMock).findByPersonIn(Mockito.anyListOf(Person.class));
+    }
+
+
+    @Test
+    public void ensureReloadsCachedWorkingTimesAfterReload() {
+
+        Person person = TestDataCreator.createPerson();
+
+        WorkingTime workingTime = createWorkingTime(person, new DateMidnight(2014, 1, 1));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(person)).thenReturn(Collections.singletonList(workingTime));
+        Mockito.when(workingTimeDAOMock.findByPersonIn(Collections.singletonList(person)))
+            .thenReturn(Collections.singletonList(workingTime));
+
+        workingTimeService.getCurrentOne(person);
+        workingTimeService.getByPersons(Collections.singletonList(person));
+
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
+        Mockito.verify(workingTimeDAOMock, Mockito.never()).findByPersonIn(Mockito.anyListOf(Person.class));
+
+        workingTimeService.reloadWorkingTimes();
+
+        workingTimeService.getByPersons(Collections.singletonList(person));
+        workingTimeService.getCurrentOne(person);
+
+        Mockito.verify(workingTimeDAOMock).findByPersonIn(Collections.singletonList(person));
+        Mockito.verify(workingTimeDAOMock).findByPerson(person);
+    }
+
+
+    @Test
+    public void ensureDoesNotShareCachedWorkingTimes() {
+
+        Person person = TestDataCreator.createPerson();
+
+        WorkingTime workingTime = createWorkingTime(person, new DateMidnight(2014, 1, 1));
+
+        Mockito.when(workingTimeDAOMock.findByPerson(person)).thenReturn(Collections.singletonList(workingTime));
+
+        WorkingTime currentWorkingTime = workingTimeService.getCurrentOne(person).get();
+        currentWorkingTime.setFederalStateOverride(FederalState.BAYERN);
+
+        Assert.assertNotSame("Should not hand out the loaded entity", workingTime, currentWorkingTime);
+        Assert.assertFalse("Should not change cached working time",
+            workingTimeService.getCurrentOne(person).get().getFederalStateOverride().isPresent());
+    }
+
+
+    private static WorkingTime createWorkingTime(Person person, DateMidnight validFrom) {
+
+        WorkingTime workingTime = TestDataCreator.createWorkingTime();
+        ReflectionTestUtils.setField(workingTime, "id", validFrom.getYear() * 1000 + validFrom.getDayOfYear());
+        workingTime.setPerson(person);
+        workingTime.setValidFrom(validFrom);
+
+        return workingTime;
+    }
 }
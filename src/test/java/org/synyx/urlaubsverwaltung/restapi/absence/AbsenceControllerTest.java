@@ -177,6 +177,75 @@ public class AbsenceControllerTest {
     }
 
 
+    @Test
+    public void ensureReturnsOneSpanPerAbsence() throws Exception {
+
+        Person person = TestDataCreator.createPerson("muster");
+
+        SickNote sickNote = TestDataCreator.createSickNote(person, new DateMidnight(2016, 5, 19),
+                new DateMidnight(2016, 5, 20), DayLength.FULL);
+        sickNote.setId(1);
+
+        Application vacation = TestDataCreator.createApplication(person, new DateMidnight(2016, 4, 4),
+                new DateMidnight(2016, 4, 15), DayLength.FULL);
+
+        Mockito.when(personServiceMock.getPersonByID(Mockito.anyInt())).thenReturn(Optional.of(person));
+
+        Mockito.when(sickNoteServiceMock.getByPersonAndPeriod(Mockito.any(Person.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class)))
+            .thenReturn(Collections.singletonList(sickNote));
+
+        Mockito.when(applicationServiceMock.getApplicationsForACertainPeriodAndPerson(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(Person.class)))
+            .thenReturn(Collections.singletonList(vacation));
+
+        mockMvc.perform(get("/api/absences").param("year", "2016").param("person", "23").param("format", "spans"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json;charset=UTF-8"))
+            .andExpect(jsonPath("$.response.absences", hasSize(2)))
+            .andExpect(jsonPath("$.response.absences[0].from", is("2016-04-04")))
+            .andExpect(jsonPath("$.response.absences[0].to", is("2016-04-15")))
+            .andExpect(jsonPath("$.response.absences[0].type", is("VACATION")))
+            .andExpect(jsonPath("$.response.absences[1].from", is("2016-05-19")))
+            .andExpect(jsonPath("$.response.absences[1].to", is("2016-05-20")))
+            .andExpect(jsonPath("$.response.absences[1].type", is("SICK_NOTE")))
+            .andExpect(jsonPath("$.response.absences[1].status", is("ACTIVE")))
+            .andExpect(jsonPath("$.response.absences[1].href", is("1")));
+    }
+
+
+    @Test
+    public void ensureSpansAreCutToTheRequestedMonth() throws Exception {
+
+        Person person = TestDataCreator.createPerson("muster");
+
+        Application vacation = TestDataCreator.createApplication(person, new DateMidnight(2016, 5, 30),
+                new DateMidnight(2016, 6, 1), DayLength.FULL);
+
+        SickNote sickNote = TestDataCreator.createSickNote(person, new DateMidnight(2016, 6, 30),
+                new DateMidnight(2016, 7, 6), DayLength.FULL);
+
+        Mockito.when(personServiceMock.getPersonByID(Mockito.anyInt())).thenReturn(Optional.of(person));
+
+        Mockito.when(sickNoteServiceMock.getByPersonAndPeriod(Mockito.any(Person.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class)))
+            .thenReturn(Collections.singletonList(sickNote));
+
+        Mockito.when(applicationServiceMock.getApplicationsForACertainPeriodAndPerson(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(Person.class)))
+            .thenReturn(Collections.singletonList(vacation));
+
+        mockMvc.perform(get("/api/absences").param("year", "2016").param("month", "6").param("person", "23")
+                    .param("format", "spans"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.absences", hasSize(2)))
+            .andExpect(jsonPath("$.response.absences[0].from", is("2016-06-01")))
+            .andExpect(jsonPath("$.response.absences[0].to", is("2016-06-01")))
+            .andExpect(jsonPath("$.response.absences[1].from", is("2016-06-30")))
+            .andExpect(jsonPath("$.response.absences[1].to", is("2016-06-30")));
+    }
+
+
     @Test
     public void ensureBadRequestForMissingYearParameter() throws Exception {
 
@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.availability;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.joda.time.DateMidnight;
 
 import org.junit.Before;
@@ -10,14 +12,23 @@ import org.mockito.Mockito;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import org.synyx.urlaubsverwaltung.core.department.Department;
+import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.restapi.ApiExceptionHandlerControllerAdvice;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -29,6 +40,7 @@ public class AvailabilityControllerTest {
     private MockMvc mockMvc;
 
     private PersonService personServiceMock;
+    private DepartmentService departmentServiceMock;
     private AvailabilityService availabilityServiceMock;
     private Person testPerson;
     private String loginName;
@@ -40,10 +52,17 @@ public class AvailabilityControllerTest {
 
         preparePersonServiceMock();
 
+        departmentServiceMock = Mockito.mock(DepartmentService.class);
         availabilityServiceMock = Mockito.mock(AvailabilityService.class);
 
+        Mockito.when(availabilityServiceMock.getPersonsAvailabilities(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class), Mockito.anyListOf(Person.class)))
+            .thenAnswer(invocation -> Stream.of(new AvailabilityList(Collections.emptyList(), testPerson)));
+
         mockMvc = MockMvcBuilders.standaloneSetup(new AvailabilityController(availabilityServiceMock,
-                        personServiceMock)).setControllerAdvice(new ApiExceptionHandlerControllerAdvice()).build();
+                        personServiceMock, departmentServiceMock, new ObjectMapper()))
+            .setControllerAdvice(new ApiExceptionHandlerControllerAdvice())
+            .build();
     }
 
 
@@ -135,4 +154,72 @@ public class AvailabilityControllerTest {
                 .param("person", loginName))
             .andExpect(status().isBadRequest());
     }
+
+
+    @Test
+    public void ensureFetchesAvailabilitiesForGivenPersonIDs() throws Exception {
+
+        Mockito.when(personServiceMock.getPersonsByIDs(Arrays.asList(1, 2)))
+            .thenReturn(Collections.singletonList(testPerson));
+
+        mockMvc.perform(get("/api/availabilities/persons").param("from", "2016-01-01")
+                .param("to", "2016-01-31")
+                .param("persons", "1", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].personLoginName", is("testPerson")));
+
+        Mockito.verify(availabilityServiceMock)
+            .getPersonsAvailabilities(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 1, 31),
+                Collections.singletonList(testPerson));
+    }
+
+
+    @Test
+    public void ensureFetchesAvailabilitiesForMembersOfGivenDepartment() throws Exception {
+
+        Department department = TestDataCreator.createDepartment();
+        department.setMembers(Collections.singletonList(testPerson));
+
+        Mockito.when(departmentServiceMock.getDepartmentById(42)).thenReturn(Optional.of(department));
+
+        mockMvc.perform(get("/api/availabilities/persons").param("from", "2016-01-01")
+                .param("to", "2016-01-31")
+                .param("department", "42"))
+            .andExpect(status().isOk());
+
+        Mockito.verify(availabilityServiceMock)
+            .getPersonsAvailabilities(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 1, 31),
+                Collections.singletonList(testPerson));
+    }
+
+
+    @Test
+    public void ensureBadRequestForUnknownDepartment() throws Exception {
+
+        Mockito.when(departmentServiceMock.getDepartmentById(42)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/availabilities/persons").param("from", "2016-01-01")
+                .param("to", "2016-01-31")
+                .param("department", "42"))
+            .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    public void ensureBadRequestIfNeitherPersonsNorDepartmentGiven() throws Exception {
+
+        mockMvc.perform(get("/api/availabilities/persons").param("from", "2016-01-01").param("to", "2016-01-31"))
+            .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    public void ensureMultiplePersonsRequestsAreOnlyAllowedForADateRangeOfMaxOneMonth() throws Exception {
+
+        mockMvc.perform(get("/api/availabilities/persons").param("from", "2016-01-01")
+                .param("to", "2016-02-01")
+                .param("persons", "1"))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -8,12 +8,18 @@ import org.junit.Test;
 
 import org.mockito.Mockito;
 
+import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.workingtime.WorkingTimeService;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.math.BigDecimal;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 /**
@@ -26,6 +32,9 @@ public class AvailabilityServiceTest {
     private AvailabilityService availabilityService;
 
     private FreeTimeAbsenceProvider freeTimeAbsenceProvider;
+    private SickNoteService sickNoteService;
+    private ApplicationService applicationService;
+    private WorkingTimeService workingTimeService;
 
     private Person testPerson;
     private DateMidnight testDateRangeStart;
@@ -36,14 +45,18 @@ public class AvailabilityServiceTest {
     public void setUp() {
 
         freeTimeAbsenceProvider = Mockito.mock(FreeTimeAbsenceProvider.class);
+        sickNoteService = Mockito.mock(SickNoteService.class);
+        applicationService = Mockito.mock(ApplicationService.class);
+        workingTimeService = Mockito.mock(WorkingTimeService.class);
         timedAbsenceSpansMock = Mockito.mock(TimedAbsenceSpans.class);
 
         Mockito.when(freeTimeAbsenceProvider.checkForAbsence(
-                Mockito.any(Person.class),
+                Mockito.any(PersonAbsences.class),
                 Mockito.any(DateMidnight.class)))
             .thenReturn(timedAbsenceSpansMock);
 
-        availabilityService = new AvailabilityService(freeTimeAbsenceProvider);
+        availabilityService = new AvailabilityService(freeTimeAbsenceProvider, sickNoteService,
+                applicationService, workingTimeService);
 
         testPerson = TestDataCreator.createPerson();
         testDateRangeStart = new DateMidnight(2016, 1, 1);
@@ -57,7 +70,19 @@ public class AvailabilityServiceTest {
         availabilityService.getPersonsAvailabilities(testDateRangeStart, testDateRangeEnd, testPerson);
 
         Mockito.verify(freeTimeAbsenceProvider, Mockito.times(DAYS_IN_TEST_DATE_RANGE))
-            .checkForAbsence(Mockito.eq(testPerson), Mockito.any(DateMidnight.class));
+            .checkForAbsence(Mockito.any(PersonAbsences.class), Mockito.any(DateMidnight.class));
+    }
+
+
+    @Test
+    public void ensureLoadsAbsencesOnlyOnceForTheWholeDateRange() {
+
+        availabilityService.getPersonsAvailabilities(testDateRangeStart, testDateRangeEnd, testPerson);
+
+        Mockito.verify(sickNoteService).getByPersonAndPeriod(testPerson, testDateRangeStart, testDateRangeEnd);
+        Mockito.verify(applicationService)
+            .getApplicationsForACertainPeriodAndPerson(testDateRangeStart, testDateRangeEnd, testPerson);
+        Mockito.verifyNoMoreInteractions(sickNoteService, applicationService);
     }
 
 
@@ -84,4 +109,39 @@ public class AvailabilityServiceTest {
         Assert.assertEquals("Wrong availability ratio set on return object", expectedAvailabilityRatio,
             availabilityOnDayToTest.getAvailabilityRatio());
     }
+
+
+    @Test
+    public void ensureLoadsAbsencesOfMultiplePersonsTogether() {
+
+        Person otherPerson = TestDataCreator.createPerson("other");
+        List<Person> persons = Arrays.asList(testPerson, otherPerson);
+
+        List<AvailabilityList> availabilities = availabilityService.getPersonsAvailabilities(testDateRangeStart,
+                    testDateRangeEnd, persons)
+            .collect(Collectors.toList());
+
+        Assert.assertEquals("Wrong number of availabilities", 2, availabilities.size());
+        Assert.assertEquals("Wrong person", testPerson.getLoginName(), availabilities.get(0).getPersonLoginName());
+        Assert.assertEquals("Wrong person", otherPerson.getLoginName(), availabilities.get(1).getPersonLoginName());
+        Assert.assertEquals("Wrong number of days", DAYS_IN_TEST_DATE_RANGE,
+            availabilities.get(0).getAvailabilities().size());
+
+        Mockito.verify(workingTimeService).getByPersons(persons);
+        Mockito.verify(sickNoteService).getByPersonsAndPeriod(persons, testDateRangeStart, testDateRangeEnd);
+        Mockito.verify(applicationService)
+            .getApplicationsForACertainPeriodAndPersons(testDateRangeStart, testDateRangeEnd, persons);
+        Mockito.verifyNoMoreInteractions(sickNoteService, applicationService);
+    }
+
+
+    @Test
+    public void ensureMultiplePersonsAvailabilitiesAreComputedLazily() {
+
+        availabilityService.getPersonsAvailabilities(testDateRangeStart, testDateRangeEnd,
+            Collections.singletonList(testPerson));
+
+        Mockito.verifyZeroInteractions(workingTimeService, sickNoteService, applicationService,
+            freeTimeAbsenceProvider);
+    }
 }
@@ -18,6 +18,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +34,7 @@ public class FreeTimeAbsenceProviderTest {
     private WorkingTimeService workingTimeService;
     private TimedAbsenceSpans emptyTimedAbsenceSpans;
     private Person testPerson;
+    private PersonAbsences personAbsences;
     private WorkingTime testWorkingTime;
 
     @Before
@@ -43,6 +45,7 @@ public class FreeTimeAbsenceProviderTest {
 
         emptyTimedAbsenceSpans = new TimedAbsenceSpans(new ArrayList<>());
         testPerson = TestDataCreator.createPerson();
+        personAbsences = new PersonAbsences(testPerson, Collections.emptyList(), Collections.emptyList());
 
         freeTimeAbsenceProvider = new FreeTimeAbsenceProvider(holidayAbsenceProvider, workingTimeService);
     }
@@ -67,7 +70,7 @@ public class FreeTimeAbsenceProviderTest {
         DateMidnight firstSundayIn2016 = new DateMidnight(2016, 1, 3);
 
         TimedAbsenceSpans updatedTimedAbsenceSpans = freeTimeAbsenceProvider.addAbsence(emptyTimedAbsenceSpans,
-                testPerson, firstSundayIn2016);
+                personAbsences, firstSundayIn2016);
 
         List<TimedAbsence> absencesList = updatedTimedAbsenceSpans.getAbsencesList();
 
@@ -84,7 +87,7 @@ public class FreeTimeAbsenceProviderTest {
 
         DateMidnight firstSundayIn2016 = new DateMidnight(2016, 1, 3);
 
-        freeTimeAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, firstSundayIn2016);
+        freeTimeAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, firstSundayIn2016);
 
         Mockito.verifyNoMoreInteractions(holidayAbsenceProvider);
     }
@@ -95,9 +98,9 @@ public class FreeTimeAbsenceProviderTest {
 
         DateMidnight standardWorkingDay = new DateMidnight(2016, 1, 4);
 
-        freeTimeAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+        freeTimeAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
 
         Mockito.verify(holidayAbsenceProvider, Mockito.times(1))
-            .checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+            .checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
     }
 }
@@ -18,6 +18,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -34,6 +35,7 @@ public class HolidayAbsenceProviderTest {
 
     private TimedAbsenceSpans emptyTimedAbsenceSpans;
     private Person testPerson;
+    private PersonAbsences personAbsences;
     private DateMidnight newYearsDay;
     private DateMidnight standardWorkingDay;
 
@@ -42,6 +44,7 @@ public class HolidayAbsenceProviderTest {
 
         emptyTimedAbsenceSpans = new TimedAbsenceSpans(new ArrayList<>());
         testPerson = TestDataCreator.createPerson();
+        personAbsences = new PersonAbsences(testPerson, Collections.emptyList(), Collections.emptyList());
         newYearsDay = new DateMidnight(2016, 1, 1);
         standardWorkingDay = new DateMidnight(2016, 1, 4);
 
@@ -80,7 +83,7 @@ public class HolidayAbsenceProviderTest {
     public void ensurePersonIsNotAvailableOnHoliDays() {
 
         TimedAbsenceSpans updatedTimedAbsenceSpans = holidayAbsenceProvider.addAbsence(emptyTimedAbsenceSpans,
-                testPerson, newYearsDay);
+                personAbsences, newYearsDay);
 
         List<TimedAbsence> absencesList = updatedTimedAbsenceSpans.getAbsencesList();
 
@@ -95,7 +98,7 @@ public class HolidayAbsenceProviderTest {
     @Test
     public void ensureDoesNotCallNextProviderIfAlreadyAbsentForWholeDay() {
 
-        holidayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, newYearsDay);
+        holidayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, newYearsDay);
 
         Mockito.verifyNoMoreInteractions(sickDayAbsenceProvider);
     }
@@ -104,9 +107,9 @@ public class HolidayAbsenceProviderTest {
     @Test
     public void ensureCallsSickDayAbsenceProviderIfNotAbsentForHoliday() {
 
-        holidayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+        holidayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
 
         Mockito.verify(sickDayAbsenceProvider, Mockito.times(1))
-            .checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+            .checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
     }
 }
@@ -11,7 +11,7 @@ import org.mockito.Mockito;
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.sicknote.SickNote;
-import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteService;
+import org.synyx.urlaubsverwaltung.core.sicknote.SickNoteStatus;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.math.BigDecimal;
@@ -28,11 +28,11 @@ public class SickDayAbsenceProviderTest {
 
     private SickDayAbsenceProvider sickDayAbsenceProvider;
 
-    private SickNoteService sickNoteService;
     private VacationAbsenceProvider vacationAbsenceProvider;
 
     private TimedAbsenceSpans emptyTimedAbsenceSpans;
     private Person testPerson;
+    private PersonAbsences personAbsences;
     private SickNote sickNote;
     private DateMidnight sickDay;
     private DateMidnight standardWorkingDay;
@@ -42,26 +42,15 @@ public class SickDayAbsenceProviderTest {
 
         emptyTimedAbsenceSpans = new TimedAbsenceSpans(new ArrayList<>());
         testPerson = TestDataCreator.createPerson();
-        sickNote = TestDataCreator.createSickNote(testPerson, sickDay, sickDay, DayLength.FULL);
         sickDay = new DateMidnight(2016, 1, 4);
         standardWorkingDay = new DateMidnight(2016, 1, 5);
+        sickNote = TestDataCreator.createSickNote(testPerson, sickDay, sickDay, DayLength.FULL);
+        personAbsences = new PersonAbsences(testPerson, Collections.singletonList(sickNote),
+                Collections.emptyList());
 
-        setupSickNoteServiceMock();
         vacationAbsenceProvider = Mockito.mock(VacationAbsenceProvider.class);
 
-        sickDayAbsenceProvider = new SickDayAbsenceProvider(vacationAbsenceProvider, sickNoteService);
-    }
-
-
-    private void setupSickNoteServiceMock() {
-
-        sickNoteService = Mockito.mock(SickNoteService.class);
-
-        Mockito.when(sickNoteService.getByPersonAndPeriod(testPerson, sickDay, sickDay))
-            .thenReturn(Collections.singletonList(sickNote));
-
-        Mockito.when(sickNoteService.getByPersonAndPeriod(testPerson, standardWorkingDay, standardWorkingDay))
-            .thenReturn(Collections.emptyList());
+        sickDayAbsenceProvider = new SickDayAbsenceProvider(vacationAbsenceProvider);
     }
 
 
@@ -69,7 +58,7 @@ public class SickDayAbsenceProviderTest {
     public void ensurePersonIsNotAvailableOnSickDay() {
 
         TimedAbsenceSpans updatedTimedAbsenceSpans = sickDayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans,
-                testPerson, sickDay);
+                personAbsences, sickDay);
 
         List<TimedAbsence> absencesList = updatedTimedAbsenceSpans.getAbsencesList();
 
@@ -84,7 +73,7 @@ public class SickDayAbsenceProviderTest {
     @Test
     public void ensureDoesNotCallNextProviderIfAlreadyAbsentForWholeDay() {
 
-        sickDayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, sickDay);
+        sickDayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, sickDay);
 
         Mockito.verifyNoMoreInteractions(vacationAbsenceProvider);
     }
@@ -93,9 +82,21 @@ public class SickDayAbsenceProviderTest {
     @Test
     public void ensureCallsVacationAbsenceProviderIfNotAbsentForSickDay() {
 
-        sickDayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+        sickDayAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
 
         Mockito.verify(vacationAbsenceProvider, Mockito.times(1))
-            .checkForAbsence(emptyTimedAbsenceSpans, testPerson, standardWorkingDay);
+            .checkForAbsence(emptyTimedAbsenceSpans, personAbsences, standardWorkingDay);
+    }
+
+
+    @Test
+    public void ensurePersonIsAvailableIfSickNoteIsNotActive() {
+
+        sickNote.setStatus(SickNoteStatus.CANCELLED);
+
+        TimedAbsenceSpans updatedTimedAbsenceSpans = sickDayAbsenceProvider.addAbsence(emptyTimedAbsenceSpans,
+                personAbsences, sickDay);
+
+        Assert.assertTrue("absence found", updatedTimedAbsenceSpans.getAbsencesList().isEmpty());
     }
 }
@@ -6,10 +6,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
-import org.mockito.Mockito;
-
 import org.synyx.urlaubsverwaltung.core.application.domain.Application;
-import org.synyx.urlaubsverwaltung.core.application.service.ApplicationService;
 import org.synyx.urlaubsverwaltung.core.period.DayLength;
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
@@ -28,8 +25,6 @@ public class VacationAbsenceProviderTest {
 
     private VacationAbsenceProvider vacationAbsenceProvider;
 
-    private ApplicationService applicationService;
-
     private TimedAbsenceSpans emptyTimedAbsenceSpans;
     private Person testPerson;
     private DateMidnight vacationDay;
@@ -38,25 +33,23 @@ public class VacationAbsenceProviderTest {
     @Before
     public void setUp() {
 
-        applicationService = Mockito.mock(ApplicationService.class);
-
         emptyTimedAbsenceSpans = new TimedAbsenceSpans(new ArrayList<>());
         testPerson = TestDataCreator.createPerson();
-        application = TestDataCreator.createApplication(testPerson, vacationDay, vacationDay, DayLength.FULL);
         vacationDay = new DateMidnight(2016, 1, 4);
+        application = TestDataCreator.createApplication(testPerson, vacationDay, vacationDay, DayLength.FULL);
 
-        vacationAbsenceProvider = new VacationAbsenceProvider(applicationService);
+        vacationAbsenceProvider = new VacationAbsenceProvider();
     }
 
 
     @Test
     public void ensurePersonIsNotAvailableOnSickDay() {
 
-        Mockito.when(applicationService.getApplicationsForACertainPeriodAndPerson(vacationDay, vacationDay, testPerson))
-            .thenReturn(Collections.singletonList(application));
+        PersonAbsences personAbsences = new PersonAbsences(testPerson, Collections.emptyList(),
+                Collections.singletonList(application));
 
         TimedAbsenceSpans updatedTimedAbsenceSpans = vacationAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans,
-                testPerson, vacationDay);
+                personAbsences, vacationDay);
 
         List<TimedAbsence> absencesList = updatedTimedAbsenceSpans.getAbsencesList();
 
@@ -73,12 +66,11 @@ public class VacationAbsenceProviderTest {
 
         DateMidnight standardWorkingDay = new DateMidnight(2016, 1, 5);
 
-        Mockito.when(applicationService.getApplicationsForACertainPeriodAndPerson(standardWorkingDay,
-                    standardWorkingDay, testPerson))
-            .thenReturn(Collections.emptyList());
+        PersonAbsences personAbsences = new PersonAbsences(testPerson, Collections.emptyList(),
+                Collections.singletonList(application));
 
         TimedAbsenceSpans updatedTimedAbsenceSpans = vacationAbsenceProvider.checkForAbsence(emptyTimedAbsenceSpans,
-                testPerson, vacationDay);
+                personAbsences, standardWorkingDay);
 
         Assert.assertEquals("absence spans changed", emptyTimedAbsenceSpans, updatedTimedAbsenceSpans);
     }
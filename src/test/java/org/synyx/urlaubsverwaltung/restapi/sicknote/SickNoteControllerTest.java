@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.sicknote;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.joda.time.DateMidnight;
 
 import org.junit.Before;
@@ -20,6 +22,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -46,7 +49,8 @@ public class SickNoteControllerTest {
         sickNoteServiceMock = Mockito.mock(SickNoteService.class);
         personServiceMock = Mockito.mock(PersonService.class);
 
-        mockMvc = MockMvcBuilders.standaloneSetup(new SickNoteController(sickNoteServiceMock, personServiceMock))
+        mockMvc = MockMvcBuilders.standaloneSetup(new SickNoteController(sickNoteServiceMock, personServiceMock,
+                        new ObjectMapper()))
             .setControllerAdvice(new ApiExceptionHandlerControllerAdvice())
                 .build();
     }
@@ -159,4 +163,72 @@ public class SickNoteControllerTest {
         mockMvc.perform(get("/api/sicknotes").param("from", "2016-01-01").param("to", "foo").param("person", "23"))
             .andExpect(status().isBadRequest());
     }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ensureReturnsPageOfActiveSickNotesWithNextIfLimitProvided() throws Exception {
+
+        SickNote sickNote1 = TestDataCreator.createSickNote(TestDataCreator.createPerson("foo"),
+                new DateMidnight(2016, 5, 19), new DateMidnight(2016, 5, 20), DayLength.FULL);
+        sickNote1.setId(42);
+        SickNote sickNote2 = TestDataCreator.createSickNote(TestDataCreator.createPerson("bar"));
+
+        Mockito.when(sickNoteServiceMock.getActiveByPeriod(Mockito.any(Optional.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class), Mockito.any(Optional.class),
+                    Mockito.anyInt()))
+            .thenReturn(Arrays.asList(sickNote1, sickNote2));
+
+        mockMvc.perform(get("/api/sicknotes").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.sickNotes", hasSize(1)))
+            .andExpect(jsonPath("$.response.sickNotes[0].person.ldapName", is("foo")))
+            .andExpect(jsonPath("$.response.next", is(42)));
+
+        Mockito.verify(sickNoteServiceMock)
+            .getActiveByPeriod(Optional.empty(), new DateMidnight(2016, 1, 1), new DateMidnight(2016, 12, 31),
+                Optional.empty(), 2);
+    }
+
+
+    @Test
+    public void ensureBadRequestIfThereIsNoSickNoteForGivenCursor() throws Exception {
+
+        Mockito.when(sickNoteServiceMock.getById(Mockito.anyInt())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/sicknotes").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("limit", "10")
+                .param("after", "42"))
+            .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ensureStreamsActiveSickNotesOfPerson() throws Exception {
+
+        Person person = TestDataCreator.createPerson("foo");
+        Mockito.when(personServiceMock.getPersonByID(23)).thenReturn(Optional.of(person));
+
+        SickNote sickNote = TestDataCreator.createSickNote(person, new DateMidnight(2016, 5, 19),
+                new DateMidnight(2016, 5, 20), DayLength.FULL);
+
+        Mockito.doAnswer(invocation -> {
+                ((Consumer<SickNote>) invocation.getArguments()[3]).accept(sickNote);
+
+                return null;
+            }).when(sickNoteServiceMock)
+            .forEachActiveByPeriod(Mockito.eq(Optional.of(person)), Mockito.eq(new DateMidnight(2016, 1, 1)),
+                Mockito.eq(new DateMidnight(2016, 12, 31)), Mockito.any(Consumer.class));
+
+        mockMvc.perform(get("/api/sicknotes").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("person", "23")
+                .param("stream", "true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json;charset=UTF-8"))
+            .andExpect(jsonPath("$.response.sickNotes", hasSize(1)))
+            .andExpect(jsonPath("$.response.sickNotes[0].from", is("2016-05-19")))
+            .andExpect(jsonPath("$.response.sickNotes[0].person.ldapName", is("foo")));
+    }
 }
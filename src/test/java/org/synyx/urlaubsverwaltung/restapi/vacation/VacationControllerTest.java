@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.restapi.vacation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import org.joda.time.DateMidnight;
 
 import org.junit.Before;
@@ -23,6 +25,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -50,7 +53,7 @@ public class VacationControllerTest {
         departmentServiceMock = Mockito.mock(DepartmentService.class);
 
         mockMvc = MockMvcBuilders.standaloneSetup(new VacationController(personServiceMock, applicationServiceMock,
-                        departmentServiceMock)).setControllerAdvice(new ApiExceptionHandlerControllerAdvice()).build();
+                        departmentServiceMock, new ObjectMapper())).setControllerAdvice(new ApiExceptionHandlerControllerAdvice()).build();
     }
 
 
@@ -166,4 +169,98 @@ public class VacationControllerTest {
         mockMvc.perform(get("/api/vacations").param("from", "2016-01-01").param("to", "foo").param("person", "23"))
             .andExpect(status().isBadRequest());
     }
+
+
+    @Test
+    public void ensureReturnsPageOfAllowedVacationsWithNextIfLimitProvided() throws Exception {
+
+        Application vacation1 = TestDataCreator.createApplication(TestDataCreator.createPerson("foo"),
+                new DateMidnight(2016, 4, 5), new DateMidnight(2016, 4, 10), DayLength.FULL);
+        Application vacation2 = Mockito.spy(TestDataCreator.createApplication(TestDataCreator.createPerson("bar"),
+                    new DateMidnight(2016, 5, 19), new DateMidnight(2016, 5, 20), DayLength.FULL));
+        Mockito.when(vacation2.getId()).thenReturn(42);
+        Application vacation3 = TestDataCreator.createApplication(TestDataCreator.createPerson("baz"),
+                new DateMidnight(2016, 6, 1), new DateMidnight(2016, 6, 2), DayLength.FULL);
+
+        Mockito.when(applicationServiceMock.getApplicationsForACertainPeriodAndState(Mockito.any(DateMidnight.class),
+                    Mockito.any(DateMidnight.class), Mockito.any(ApplicationStatus.class), Mockito.any(Optional.class), Mockito.any(Optional.class),
+                    Mockito.anyInt()))
+            .thenReturn(Arrays.asList(vacation1, vacation2, vacation3));
+
+        mockMvc.perform(get("/api/vacations").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.vacations", hasSize(2)))
+            .andExpect(jsonPath("$.response.vacations[1].person.ldapName", is("bar")))
+            .andExpect(jsonPath("$.response.next", is(42)));
+
+        Mockito.verify(applicationServiceMock)
+            .getApplicationsForACertainPeriodAndState(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 12, 31),
+                ApplicationStatus.ALLOWED, Optional.empty(), Optional.empty(), 3);
+    }
+
+
+    @Test
+    public void ensureReturnsPageOfAllowedVacationsAfterTheGivenVacation() throws Exception {
+
+        Application previous = TestDataCreator.createApplication(TestDataCreator.createPerson(),
+                new DateMidnight(2016, 4, 5), new DateMidnight(2016, 4, 10), DayLength.FULL);
+        Mockito.when(applicationServiceMock.getApplicationById(42)).thenReturn(Optional.of(previous));
+
+        mockMvc.perform(get("/api/vacations").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("limit", "2")
+                .param("after", "42"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response.vacations", hasSize(0)))
+            .andExpect(jsonPath("$.response.next").doesNotExist());
+
+        Mockito.verify(applicationServiceMock)
+            .getApplicationsForACertainPeriodAndState(new DateMidnight(2016, 1, 1), new DateMidnight(2016, 12, 31),
+                ApplicationStatus.ALLOWED, Optional.empty(), Optional.of(previous), 3);
+    }
+
+
+    @Test
+    public void ensureBadRequestForLimitWithDepartmentMembers() throws Exception {
+
+        mockMvc.perform(get("/api/vacations").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("person", "23")
+                .param("departmentMembers", "true")
+                .param("limit", "2"))
+            .andExpect(status().isBadRequest());
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void ensureStreamsAllowedVacations() throws Exception {
+
+        Application vacation1 = TestDataCreator.createApplication(TestDataCreator.createPerson("foo"),
+                new DateMidnight(2016, 5, 19), new DateMidnight(2016, 5, 20), DayLength.FULL);
+        Application vacation2 = TestDataCreator.createApplication(TestDataCreator.createPerson("bar"),
+                new DateMidnight(2016, 6, 1), new DateMidnight(2016, 6, 2), DayLength.FULL);
+
+        Mockito.doAnswer(invocation -> {
+                Consumer<Application> action = (Consumer<Application>) invocation.getArguments()[4];
+                action.accept(vacation1);
+                action.accept(vacation2);
+
+                return null;
+            }).when(applicationServiceMock)
+            .forEachApplicationForACertainPeriodAndState(Mockito.eq(new DateMidnight(2016, 1, 1)),
+                Mockito.eq(new DateMidnight(2016, 12, 31)), Mockito.eq(ApplicationStatus.ALLOWED), Mockito.eq(Optional.empty()),
+                Mockito.any(Consumer.class));
+
+        mockMvc.perform(get("/api/vacations").param("from", "2016-01-01").param("to", "2016-12-31")
+                .param("stream", "true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/json;charset=UTF-8"))
+            .andExpect(jsonPath("$.response.vacations", hasSize(2)))
+            .andExpect(jsonPath("$.response.vacations[0].from", is("2016-05-19")))
+            .andExpect(jsonPath("$.response.vacations[1].person.ldapName", is("bar")));
+
+        Mockito.verify(applicationServiceMock, Mockito.never())
+            .getApplicationsForACertainPeriodAndState(Mockito.any(DateMidnight.class), Mockito.any(DateMidnight.class),
+                Mockito.any(ApplicationStatus.class));
+    }
 }
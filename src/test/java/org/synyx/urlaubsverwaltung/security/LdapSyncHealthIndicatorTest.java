@@ -0,0 +1,78 @@
+package org.synyx.urlaubsverwaltung.security;
+
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+
+/**
+ * Unit test for {@link LdapSyncHealthIndicator}.
+ */
+public class LdapSyncHealthIndicatorTest {
+
+    private LdapSyncHealthIndicator ldapSyncHealthIndicator;
+
+    @Before
+    public void setUp() {
+
+        ldapSyncHealthIndicator = new LdapSyncHealthIndicator();
+    }
+
+
+    @Test
+    public void ensureReportsProgressOfInitialSync() {
+
+        ldapSyncHealthIndicator.syncStarted(3);
+        ldapSyncHealthIndicator.userImported();
+
+        Health health = ldapSyncHealthIndicator.health();
+
+        Assert.assertEquals("Wrong status", Status.UNKNOWN, health.getStatus());
+        Assert.assertEquals("Wrong number of imported users", 1, health.getDetails().get("importedUsers"));
+        Assert.assertEquals("Wrong number of users to import", 3, health.getDetails().get("usersToImport"));
+    }
+
+
+    @Test
+    public void ensureIsUpAfterSuccessfulSync() {
+
+        DateTime syncStart = DateTime.now();
+
+        ldapSyncHealthIndicator.syncStarted(1);
+        ldapSyncHealthIndicator.userImported();
+        ldapSyncHealthIndicator.syncSucceeded(syncStart);
+
+        Health health = ldapSyncHealthIndicator.health();
+
+        Assert.assertEquals("Wrong status", Status.UP, health.getStatus());
+        Assert.assertEquals("Wrong last sync", syncStart.toString(), health.getDetails().get("lastSync"));
+        Assert.assertFalse("Should not report progress", health.getDetails().containsKey("importedUsers"));
+    }
+
+
+    @Test
+    public void ensureIsDownIfUsersCouldNotBeSyncedAtAll() {
+
+        ldapSyncHealthIndicator.syncFailed(new IllegalStateException("Directory not reachable"));
+
+        Assert.assertEquals("Wrong status", Status.DOWN, ldapSyncHealthIndicator.health().getStatus());
+    }
+
+
+    @Test
+    public void ensureStaysUpIfLaterSyncFailed() {
+
+        ldapSyncHealthIndicator.syncSucceeded(DateTime.now());
+        ldapSyncHealthIndicator.syncFailed(new IllegalStateException("Directory not reachable"));
+
+        Health health = ldapSyncHealthIndicator.health();
+
+        Assert.assertEquals("Wrong status", Status.UP, health.getStatus());
+        Assert.assertEquals("Wrong error", "Directory not reachable", health.getDetails().get("lastError"));
+    }
+}
@@ -108,7 +108,7 @@ public class LdapSyncServiceTest {
 
         Person syncedPerson = ldapSyncService.syncPerson(person, Optional.empty(), Optional.empty(), Optional.empty());
 
-        Mockito.verify(personService).save(Mockito.eq(person));
+        Mockito.verify(personService, Mockito.never()).save(Mockito.any(Person.class));
 
         Assert.assertEquals("Wrong login name", "muster", syncedPerson.getLoginName());
         Assert.assertEquals("Wrong first name", "Marlene", syncedPerson.getFirstName());
@@ -117,6 +117,18 @@ public class LdapSyncServiceTest {
     }
 
 
+    @Test
+    public void ensureUnchangedPersonIsNotSaved() {
+
+        Person person = TestDataCreator.createPerson("muster", "Marlene", "Muster", "marlene@firma.test");
+
+        ldapSyncService.syncPerson(person, Optional.of("Marlene"), Optional.of("Muster"),
+            Optional.of("marlene@firma.test"));
+
+        Mockito.verify(personService, Mockito.never()).save(Mockito.any(Person.class));
+    }
+
+
     @Test
     public void ensureCanAppointPersonAsOfficeUser() {
 
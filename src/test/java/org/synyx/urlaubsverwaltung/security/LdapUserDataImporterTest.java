@@ -1,9 +1,19 @@
 package org.synyx.urlaubsverwaltung.security;
 
+import org.joda.time.DateTime;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
 import org.synyx.urlaubsverwaltung.core.person.Person;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
@@ -11,6 +21,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -23,6 +34,9 @@ public class LdapUserDataImporterTest {
     private LdapUserService ldapUserServiceMock;
     private LdapSyncService ldapSyncServiceMock;
     private PersonService personServiceMock;
+    private LdapSyncHealthIndicator ldapSyncHealthIndicatorMock;
+    private Executor initialSyncExecutorMock;
+    private PlatformTransactionManager transactionManagerMock;
 
     @Before
     public void setUp() {
@@ -30,8 +44,12 @@ public class LdapUserDataImporterTest {
         ldapUserServiceMock = Mockito.mock(LdapUserService.class);
         ldapSyncServiceMock = Mockito.mock(LdapSyncService.class);
         personServiceMock = Mockito.mock(PersonService.class);
+        ldapSyncHealthIndicatorMock = Mockito.mock(LdapSyncHealthIndicator.class);
+        initialSyncExecutorMock = Mockito.mock(Executor.class);
+        transactionManagerMock = Mockito.mock(PlatformTransactionManager.class);
 
-        ldapUserDataImporter = new LdapUserDataImporter(ldapUserServiceMock, ldapSyncServiceMock, personServiceMock);
+        ldapUserDataImporter = new LdapUserDataImporter(ldapUserServiceMock, ldapSyncServiceMock, personServiceMock,
+                ldapSyncHealthIndicatorMock, transactionManagerMock, initialSyncExecutorMock);
     }
 
 
@@ -47,14 +65,13 @@ public class LdapUserDataImporterTest {
     @Test
     public void ensureCreatesPersonIfLdapUserNotYetExists() {
 
-        Mockito.when(personServiceMock.getPersonByLogin(Mockito.anyString())).thenReturn(Optional.empty());
         Mockito.when(ldapUserServiceMock.getLdapUsers())
             .thenReturn(Collections.singletonList(
                     new LdapUser("muster", Optional.empty(), Optional.empty(), Optional.empty())));
 
         ldapUserDataImporter.sync();
 
-        Mockito.verify(personServiceMock, Mockito.times(1)).getPersonByLogin("muster");
+        Mockito.verify(personServiceMock).getPersonsByLogins(Collections.singletonList("muster"));
         Mockito.verify(ldapSyncServiceMock)
             .createPerson("muster", Optional.empty(), Optional.empty(), Optional.empty());
     }
@@ -65,7 +82,8 @@ public class LdapUserDataImporterTest {
 
         Person person = TestDataCreator.createPerson();
 
-        Mockito.when(personServiceMock.getPersonByLogin(Mockito.anyString())).thenReturn(Optional.of(person));
+        Mockito.when(personServiceMock.getPersonsByLogins(Mockito.anyCollectionOf(String.class)))
+            .thenReturn(Collections.singletonList(person));
         Mockito.when(ldapUserServiceMock.getLdapUsers())
             .thenReturn(Collections.singletonList(
                     new LdapUser(person.getLoginName(), Optional.of("Vorname"), Optional.of("Nachname"),
@@ -73,8 +91,118 @@ public class LdapUserDataImporterTest {
 
         ldapUserDataImporter.sync();
 
-        Mockito.verify(personServiceMock, Mockito.times(1)).getPersonByLogin(person.getLoginName());
+        Mockito.verify(personServiceMock).getPersonsByLogins(Collections.singletonList(person.getLoginName()));
+        Mockito.verify(personServiceMock, Mockito.never()).getPersonByLogin(Mockito.anyString());
         Mockito.verify(ldapSyncServiceMock)
             .syncPerson(person, Optional.of("Vorname"), Optional.of("Nachname"), Optional.of("Email"));
     }
+
+
+    @Test
+    public void ensureSyncsAllUsersIfNotSyncedYet() {
+
+        ldapUserDataImporter.syncModifiedUsers();
+
+        Mockito.verify(ldapUserServiceMock).getLdapUsers();
+        Mockito.verify(ldapUserServiceMock, Mockito.never()).getLdapUsersModifiedSince(Mockito.any(DateTime.class));
+    }
+
+
+    @Test
+    public void ensureSyncsOnlyUsersModifiedSinceLastSync() {
+
+        DateTime beforeSync = DateTime.now();
+
+        ldapUserDataImporter.sync();
+        ldapUserDataImporter.syncModifiedUsers();
+
+        ArgumentCaptor<DateTime> modifiedSinceCaptor = ArgumentCaptor.forClass(DateTime.class);
+        Mockito.verify(ldapUserServiceMock).getLdapUsersModifiedSince(modifiedSinceCaptor.capture());
+        Mockito.verify(ldapUserServiceMock, Mockito.times(1)).getLdapUsers();
+
+        Assert.assertTrue("Should overlap with last sync", modifiedSinceCaptor.getValue().isBefore(beforeSync));
+        Assert.assertTrue("Should not sync all users again",
+            modifiedSinceCaptor.getValue().isAfter(beforeSync.minusDays(1)));
+    }
+
+
+    @Test
+    public void ensureInitialSyncDoesNotBlockStartup() {
+
+        ldapUserDataImporter.startInitialSync();
+
+        ArgumentCaptor<Runnable> syncCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(initialSyncExecutorMock).execute(syncCaptor.capture());
+        Mockito.verifyZeroInteractions(ldapUserServiceMock);
+
+        syncCaptor.getValue().run();
+
+        Mockito.verify(ldapUserServiceMock).getLdapUsers();
+    }
+
+
+    @Test
+    public void ensureImportsUsersWithinTransactionAfterFetchingThem() {
+
+        Mockito.when(ldapUserServiceMock.getLdapUsers())
+            .thenReturn(Collections.singletonList(
+                    new LdapUser("muster", Optional.empty(), Optional.empty(), Optional.empty())));
+
+        ldapUserDataImporter.startInitialSync();
+
+        ArgumentCaptor<Runnable> syncCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(initialSyncExecutorMock).execute(syncCaptor.capture());
+        syncCaptor.getValue().run();
+
+        InOrder inOrder = Mockito.inOrder(ldapUserServiceMock, transactionManagerMock, ldapSyncServiceMock);
+        inOrder.verify(ldapUserServiceMock).getLdapUsers();
+        inOrder.verify(transactionManagerMock).getTransaction(Mockito.any(TransactionDefinition.class));
+        inOrder.verify(ldapSyncServiceMock)
+            .createPerson("muster", Optional.empty(), Optional.empty(), Optional.empty());
+        inOrder.verify(transactionManagerMock).commit(Mockito.any(TransactionStatus.class));
+    }
+
+
+    @Test
+    public void ensureReportsProgressOfSync() {
+
+        Mockito.when(ldapUserServiceMock.getLdapUsers())
+            .thenReturn(Collections.singletonList(
+                    new LdapUser("muster", Optional.empty(), Optional.empty(), Optional.empty())));
+
+        ldapUserDataImporter.sync();
+
+        Mockito.verify(ldapSyncHealthIndicatorMock).syncStarted(1);
+        Mockito.verify(ldapSyncHealthIndicatorMock).userImported();
+        Mockito.verify(ldapSyncHealthIndicatorMock).syncSucceeded(Mockito.any(DateTime.class));
+    }
+
+
+    @Test
+    public void ensureReportsFailedSync() {
+
+        IllegalStateException error = new IllegalStateException("Directory not reachable");
+        Mockito.when(ldapUserServiceMock.getLdapUsers()).thenThrow(error);
+
+        ldapUserDataImporter.sync();
+
+        Mockito.verify(ldapSyncHealthIndicatorMock).syncFailed(error);
+        Mockito.verify(ldapSyncHealthIndicatorMock, Mockito.never()).syncSucceeded(Mockito.any(DateTime.class));
+    }
+
+
+    @Test
+    public void ensureSkipsSyncIfAnotherSyncIsStillRunning() {
+
+        Mockito.when(ldapUserServiceMock.getLdapUsers()).then((InvocationOnMock invocation) -> {
+            ldapUserDataImporter.syncModifiedUsers();
+
+            return Collections.emptyList();
+        });
+
+        ldapUserDataImporter.sync();
+
+        Mockito.verify(ldapUserServiceMock, Mockito.times(1)).getLdapUsers();
+        Mockito.verify(ldapUserServiceMock, Mockito.never()).getLdapUsersModifiedSince(Mockito.any(DateTime.class));
+    }
 }
@@ -1,12 +1,35 @@
 package org.synyx.urlaubsverwaltung.security;
 
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.stubbing.OngoingStubbing;
 
+import org.springframework.ldap.core.ContextSource;
 import org.springframework.ldap.core.LdapTemplate;
 
+import java.io.IOException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsResponseControl;
+
 
 /**
  * @author  Aljona Murygina - murygina@synyx.de
@@ -14,24 +37,113 @@ import org.springframework.ldap.core.LdapTemplate;
 public class LdapUserServiceImplTest {
 
     private LdapTemplate ldapTemplate;
+    private LdapContext ldapContext;
 
     private LdapUserService ldapUserService;
     private LdapUserMapper ldapUserMapper;
 
     @Before
-    public void setUp() {
+    public void setUp() throws NamingException {
+
+        ldapContext = Mockito.mock(LdapContext.class);
+
+        ContextSource contextSource = Mockito.mock(ContextSource.class);
+        Mockito.when(contextSource.getReadWriteContext()).thenReturn(ldapContext);
 
         ldapTemplate = Mockito.mock(LdapTemplate.class);
+        Mockito.when(ldapTemplate.getContextSource()).thenReturn(contextSource);
+
         ldapUserMapper = Mockito.mock(LdapUserMapper.class);
-        ldapUserService = new LdapUserServiceImpl(ldapTemplate, ldapUserMapper, "objectClassFilter", "memberOfFilter");
+        ldapUserService = new LdapUserServiceImpl(ldapTemplate, ldapUserMapper, "person", "memberOfFilter");
+    }
+
+
+    @Test
+    public void ensureFetchesUsersPageByPage() throws NamingException, IOException {
+
+        LdapUser firstUser = new LdapUser("first", Optional.empty(), Optional.empty(), Optional.empty());
+        LdapUser secondUser = new LdapUser("second", Optional.empty(), Optional.empty(), Optional.empty());
+
+        Attributes firstAttributes = new BasicAttributes("uid", "first");
+        Attributes secondAttributes = new BasicAttributes("uid", "second");
+        Mockito.when(ldapUserMapper.mapFromAttributes(firstAttributes)).thenReturn(firstUser);
+        Mockito.when(ldapUserMapper.mapFromAttributes(secondAttributes)).thenReturn(secondUser);
+
+        NamingEnumeration<SearchResult> firstPage = page(firstAttributes);
+        NamingEnumeration<SearchResult> secondPage = page(secondAttributes);
+        Mockito.when(ldapContext.search(Mockito.anyString(), Mockito.anyString(), Mockito.any(SearchControls.class)))
+            .thenReturn(firstPage, secondPage);
+
+        // the cookie of the first page points to the second page, the empty cookie of the second page ends the search
+        Mockito.when(ldapContext.getResponseControls())
+            .thenReturn(pagedResultsResponse(new byte[] { 0x61 }), pagedResultsResponse(new byte[0]));
+
+        List<LdapUser> users = ldapUserService.getLdapUsers();
+
+        Assert.assertEquals("Wrong users", Arrays.asList(firstUser, secondUser), users);
+        Mockito.verify(ldapContext, Mockito.times(2))
+            .search(Mockito.anyString(), Mockito.eq("(&(objectClass=person)(memberOf=memberOfFilter))"),
+                Mockito.any(SearchControls.class));
     }
 
 
     @Test
-    public void ensureUsesLdapTemplateToFetchUsers() {
+    public void ensureFetchesOnlyUsersModifiedSinceTheGivenTime() throws NamingException {
+
+        NamingEnumeration<SearchResult> emptyPage = page();
+        Mockito.when(ldapContext.search(Mockito.anyString(), Mockito.anyString(), Mockito.any(SearchControls.class)))
+            .thenReturn(emptyPage);
+
+        ldapUserService.getLdapUsersModifiedSince(new DateTime(2016, 12, 1, 8, 30, DateTimeZone.UTC));
+
+        ArgumentCaptor<String> filterCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(ldapContext)
+            .search(Mockito.anyString(), filterCaptor.capture(), Mockito.any(SearchControls.class));
+
+        Assert.assertEquals("Wrong filter",
+            "(&(objectClass=person)(memberOf=memberOfFilter)(modifyTimestamp>=20161201083000Z))",
+            filterCaptor.getValue());
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private static NamingEnumeration<SearchResult> page(Attributes... entries) throws NamingException {
+
+        NamingEnumeration<SearchResult> page = Mockito.mock(NamingEnumeration.class);
+
+        OngoingStubbing<Boolean> hasMore = Mockito.when(page.hasMore());
+
+        for (int i = 0; i < entries.length; i++) {
+            hasMore = hasMore.thenReturn(true);
+        }
+
+        hasMore.thenReturn(false);
+
+        if (entries.length > 0) {
+            OngoingStubbing<SearchResult> next = Mockito.when(page.next());
+
+            for (Attributes attributes : entries) {
+                next = next.thenReturn(new SearchResult("cn=user", null, attributes));
+            }
+        }
+
+        return page;
+    }
+
+
+    private static Control[] pagedResultsResponse(byte[] cookie) throws IOException {
 
-        ldapUserService.getLdapUsers();
+        // BER encoded sequence of the estimated result size 0 and the cookie
+        byte[] value = new byte[7 + cookie.length];
+        value[0] = 0x30;
+        value[1] = (byte) (5 + cookie.length);
+        value[2] = 0x02;
+        value[3] = 0x01;
+        value[4] = 0x00;
+        value[5] = 0x04;
+        value[6] = (byte) cookie.length;
+        System.arraycopy(cookie, 0, value, 7, cookie.length);
 
-        Mockito.verify(ldapTemplate).search(Mockito.any(), Mockito.eq(ldapUserMapper));
+        return new Control[] { new PagedResultsResponseControl(PagedResultsResponseControl.OID, false, value) };
     }
 }
@@ -239,14 +239,38 @@ public class PersonContextMapperTest {
                     Optional.<String>empty()));
 
         Mockito.when(personService.getPersonByLogin(Mockito.anyString())).thenReturn(Optional.of(person));
-        Mockito.when(personService.getPersonsByRole(Role.OFFICE)).thenReturn(Collections.emptyList());
+        Mockito.when(personService.existsActivePersonWithRole(Role.OFFICE)).thenReturn(false);
         Mockito.when(ldapSyncService.syncPerson(Mockito.any(Person.class), Matchers.<Optional<String>>any(),
                     Matchers.<Optional<String>>any(), Matchers.<Optional<String>>any()))
             .thenReturn(person);
 
         personContextMapper.mapUserFromContext(context, "username", null);
 
-        Mockito.verify(personService).getPersonsByRole(Role.OFFICE);
+        Mockito.verify(personService).existsActivePersonWithRole(Role.OFFICE);
         Mockito.verify(ldapSyncService).appointPersonAsOfficeUser(person);
     }
+
+
+    @Test
+    public void ensureDoesNotAddOfficeRoleToSignedInUserIfUserWithOfficeRoleExists() throws NamingException,
+        UnsupportedMemberAffiliationException {
+
+        Person person = TestDataCreator.createPerson("username");
+        person.setPermissions(Collections.singletonList(Role.USER));
+
+        Mockito.when(ldapUserMapper.mapFromContext(Mockito.eq(context)))
+            .thenReturn(new LdapUser("username", Optional.<String>empty(), Optional.<String>empty(),
+                    Optional.<String>empty()));
+
+        Mockito.when(personService.getPersonByLogin(Mockito.anyString())).thenReturn(Optional.of(person));
+        Mockito.when(personService.existsActivePersonWithRole(Role.OFFICE)).thenReturn(true);
+        Mockito.when(ldapSyncService.syncPerson(Mockito.any(Person.class), Matchers.<Optional<String>>any(),
+                    Matchers.<Optional<String>>any(), Matchers.<Optional<String>>any()))
+            .thenReturn(person);
+
+        personContextMapper.mapUserFromContext(context, "username", null);
+
+        Mockito.verify(personService, Mockito.never()).getPersonsByRole(Mockito.any(Role.class));
+        Mockito.verify(ldapSyncService, Mockito.never()).appointPersonAsOfficeUser(Mockito.any(Person.class));
+    }
 }
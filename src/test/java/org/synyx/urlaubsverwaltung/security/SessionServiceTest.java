@@ -1,5 +1,6 @@
 package org.synyx.urlaubsverwaltung.security;
 
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -10,8 +11,14 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
 import org.synyx.urlaubsverwaltung.core.department.DepartmentService;
 import org.synyx.urlaubsverwaltung.core.person.Person;
+import org.synyx.urlaubsverwaltung.core.person.PersonChangedEvent;
 import org.synyx.urlaubsverwaltung.core.person.PersonService;
 import org.synyx.urlaubsverwaltung.core.person.Role;
 import org.synyx.urlaubsverwaltung.test.TestDataCreator;
@@ -57,6 +64,13 @@ public class SessionServiceTest {
     }
 
 
+    @After
+    public void tearDown() {
+
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+
     // Get signed in user ----------------------------------------------------------------------------------------------
 
     @Test(expected = IllegalStateException.class)
@@ -88,6 +102,58 @@ public class SessionServiceTest {
         sessionService.getSignedInUser();
     }
 
+
+    @Test
+    public void ensureLoadsSignedInUserOnlyOncePerRequest() throws IllegalAccessException {
+
+        Person person = TestDataCreator.createPerson(42, USER_NAME);
+        Mockito.when(personService.getPersonByLogin(USER_NAME)).thenReturn(Optional.of(person));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Assert.assertEquals("Wrong person", person, sessionService.getSignedInUser());
+        Assert.assertEquals("Wrong person", person, sessionService.getSignedInUser());
+
+        Mockito.verify(personService, Mockito.times(1)).getPersonByLogin(USER_NAME);
+    }
+
+
+    @Test
+    public void ensureLoadsSignedInUserForEachRequest() throws IllegalAccessException {
+
+        Person person = TestDataCreator.createPerson(42, USER_NAME);
+        Mockito.when(personService.getPersonByLogin(USER_NAME)).thenReturn(Optional.of(person));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        sessionService.getSignedInUser();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        sessionService.getSignedInUser();
+
+        Mockito.verify(personService, Mockito.times(2)).getPersonByLogin(USER_NAME);
+    }
+
+
+    @Test
+    public void ensureReloadsSignedInUserIfPersonHasBeenChanged() throws IllegalAccessException {
+
+        Person person = TestDataCreator.createPerson(42, USER_NAME);
+        Mockito.when(personService.getPersonByLogin(USER_NAME)).thenReturn(Optional.of(person));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        sessionService.getSignedInUser();
+        sessionService.onPersonChanged(new PersonChangedEvent(personService, TestDataCreator.createPerson(23, "other")));
+        sessionService.getSignedInUser();
+
+        Mockito.verify(personService, Mockito.times(1)).getPersonByLogin(USER_NAME);
+
+        sessionService.onPersonChanged(new PersonChangedEvent(personService, person));
+        sessionService.getSignedInUser();
+
+        Mockito.verify(personService, Mockito.times(2)).getPersonByLogin(USER_NAME);
+    }
+
     // Access person data ----------------------------------------------------------------------------------------------
 
     @Test
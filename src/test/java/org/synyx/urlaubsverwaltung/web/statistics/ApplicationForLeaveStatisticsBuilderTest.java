@@ -1,5 +1,7 @@
 package org.synyx.urlaubsverwaltung.web.statistics;
 
+import com.google.common.collect.ImmutableMap;
+
 import org.joda.time.DateMidnight;
 
 import org.junit.Assert;
@@ -25,6 +27,7 @@ import org.synyx.urlaubsverwaltung.test.TestDataCreator;
 import java.math.BigDecimal;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -268,4 +271,60 @@ public class ApplicationForLeaveStatisticsBuilderTest {
         Mockito.verify(overtimeService).getLeftOvertimeForPerson(person);
         Mockito.verify(vacationDaysService).calculateTotalLeftVacationDays(account);
     }
+
+
+    @Test
+    public void ensureBuildsStatisticsOfMultiplePersonsWithOneQueryEach() {
+
+        DateMidnight from = new DateMidnight(2015, 1, 1);
+        DateMidnight to = new DateMidnight(2015, 12, 31);
+
+        Person person = TestDataCreator.createPerson("muster");
+        Person otherPerson = TestDataCreator.createPerson("other");
+        List<Person> persons = Arrays.asList(person, otherPerson);
+
+        Account account = Mockito.mock(Account.class);
+        Mockito.when(account.getPerson()).thenReturn(otherPerson);
+
+        Application application = new Application();
+        application.setVacationType(vacationTypes.get(0));
+        application.setStartDate(new DateMidnight(2015, 3, 2));
+        application.setEndDate(new DateMidnight(2015, 3, 2));
+        application.setStatus(ApplicationStatus.ALLOWED);
+        application.setPerson(person);
+        application.setDayLength(DayLength.FULL);
+
+        Mockito.when(accountService.getHolidaysAccounts(2015, persons))
+            .thenReturn(Collections.singletonList(account));
+        Mockito.when(applicationService.getApplicationsForACertainPeriodAndPersons(from, to, persons))
+            .thenReturn(Collections.singletonList(application));
+        Mockito.when(overtimeService.getLeftOvertimeForPersons(persons))
+            .thenReturn(ImmutableMap.of(person, new BigDecimal("6.5"), otherPerson, BigDecimal.ZERO));
+        Mockito.when(vacationDaysService.calculateTotalLeftVacationDays(account)).thenReturn(new BigDecimal("8.5"));
+        Mockito.when(calendarService.getWorkDays(DayLength.FULL, application.getStartDate(), application.getEndDate(),
+                    person))
+            .thenReturn(BigDecimal.ONE);
+
+        List<ApplicationForLeaveStatistics> statistics = builder.buildAll(persons, from, to);
+
+        Assert.assertEquals("Wrong number of statistics", 2, statistics.size());
+
+        ApplicationForLeaveStatistics statisticsOfPerson = statistics.get(0);
+        Assert.assertEquals("Wrong person", person, statisticsOfPerson.getPerson());
+        Assert.assertEquals("Wrong left overtime", new BigDecimal("6.5"), statisticsOfPerson.getLeftOvertime());
+        Assert.assertEquals("Wrong left vacation days", BigDecimal.ZERO, statisticsOfPerson.getLeftVacationDays());
+        Assert.assertEquals("Wrong allowed vacation days", BigDecimal.ONE,
+            statisticsOfPerson.getTotalAllowedVacationDays());
+
+        ApplicationForLeaveStatistics statisticsOfOtherPerson = statistics.get(1);
+        Assert.assertEquals("Wrong person", otherPerson, statisticsOfOtherPerson.getPerson());
+        Assert.assertEquals("Wrong left vacation days", new BigDecimal("8.5"),
+            statisticsOfOtherPerson.getLeftVacationDays());
+        Assert.assertEquals("Wrong allowed vacation days", BigDecimal.ZERO,
+            statisticsOfOtherPerson.getTotalAllowedVacationDays());
+
+        Mockito.verify(vacationTypeService).getVacationTypes();
+        Mockito.verify(accountService, Mockito.never()).getHolidaysAccount(Mockito.anyInt(), Mockito.any(Person.class));
+        Mockito.verify(overtimeService, Mockito.never()).getLeftOvertimeForPerson(Mockito.any(Person.class));
+    }
 }
@@ -42,7 +42,29 @@ public class ApplicationForLeaveStatisticsTest {
     @Test(expected = IllegalArgumentException.class)
     public void ensureThrowsIfInitializedWithNull() {
 
-        new ApplicationForLeaveStatistics(null, null);
+        new ApplicationForLeaveStatistics(null, vacationTypeService);
+    }
+
+
+    @Test
+    public void ensureHasZeroVacationDaysForEachOfTheGivenVacationTypes() {
+
+        ApplicationForLeaveStatistics statistics = new ApplicationForLeaveStatistics(Mockito.mock(Person.class),
+                vacationTypes);
+
+        Assert.assertEquals("Wrong number of elements", vacationTypes.size(),
+            statistics.getWaitingVacationDays().size());
+        Assert.assertEquals("Wrong number of elements", vacationTypes.size(),
+            statistics.getAllowedVacationDays().size());
+
+        for (VacationType type : vacationTypes) {
+            Assert.assertEquals("Waiting vacation days should be zero", BigDecimal.ZERO,
+                statistics.getWaitingVacationDays().get(type));
+            Assert.assertEquals("Allowed vacation days should be zero", BigDecimal.ZERO,
+                statistics.getAllowedVacationDays().get(type));
+        }
+
+        Mockito.verifyZeroInteractions(vacationTypeService);
     }
 
 